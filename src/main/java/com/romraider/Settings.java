@@ -30,6 +30,7 @@ import java.awt.Font;
 import java.awt.Point;
 import java.io.File;
 import java.io.Serializable;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Vector;
@@ -37,7 +38,9 @@ import java.util.Vector;
 import com.romraider.io.connection.ConnectionProperties;
 import com.romraider.logger.ecu.definition.EcuDefinition;
 import com.romraider.logger.ecu.definition.Module;
+import com.romraider.logger.ecu.ui.handler.file.FileLogger.SyncPolicy;
 import com.romraider.logger.external.phidget.interfacekit.io.IntfKitSensor;
+import com.romraider.util.RingBuffer.OverflowPolicy;
 
 public class Settings implements Serializable {
 
@@ -115,6 +118,13 @@ public class Settings implements Serializable {
         ABSOLUTE
     }
 
+    /** When table cells are decoded from a newly opened image. */
+    public enum TablePopulation {
+        SERIAL,     // all tables while the image loads
+        PARALLEL,   // all tables while the image loads, on a thread pool
+        LAZY        // each table the first time it is viewed, compared or exported
+    }
+
     public static final int MOVI20_MIN_VALUE = 0xfff80000;
     public static final int MOVI20_MAX_VALUE = 0x0007ffff;
     public static final int MOVI20S_MIN_VALUE = 0xf8000000;
@@ -184,6 +194,7 @@ public class Settings implements Serializable {
     private boolean debug;
     private int userLevel = 1;
     private boolean saveDebugTables = true;
+    private TablePopulation tablePopulation = TablePopulation.LAZY;
     private boolean displayHighTables = true;
     private boolean valueLimitWarning = true;
 
@@ -216,6 +227,14 @@ public class Settings implements Serializable {
     private String fileLoggingControllerSwitchId = "S20"; // defogger switch by default
     private boolean fileLoggingControllerSwitchActive = false;
     private boolean fileLoggingAbsoluteTimestamp;
+    private boolean fileLoggingBinary;
+    private int fileLoggingQueueSize = 4096;
+    private int fileLoggingCommitRows = 500;
+    private int fileLoggingCommitInterval = 1000;
+    private SyncPolicy fileLoggingSyncPolicy = SyncPolicy.CLOSE;
+    private int fileLoggingRotateSize;
+    private int fileLoggingRotateMinutes;
+    private boolean fileLoggingCompress = true;
     private String logfileNameText;
     private boolean logExternalsOnly;
     private boolean autoConnectOnStartup = true;
@@ -234,8 +253,16 @@ public class Settings implements Serializable {
     private static String loggerTargetModule = "ecu";
     private static Module loggerDestinationTarget;
     private boolean fastPoll = true;
+    private boolean loggerParallelProbe = false;
+    private Map<String, String> loggerEcuTransports = new LinkedHashMap<String, String>();
+    private String loggerLastEcuId;
     private double loggerDividerLocation = 400;
     private String loggerDebuggingLevel = "info";
+    private int loggerUpdateQueueSize = 256;
+    private OverflowPolicy loggerUpdateOverflowPolicy = OverflowPolicy.BLOCK;
+    private int loggerDisplayRefreshRate = 30;
+    private boolean loggerAutoSampleRate = false;
+    private boolean loggerMetricsFile = false;
     private static String j2534Device = "";
     private static String transportProtocol = ISO9141;
 
@@ -283,10 +310,12 @@ public class Settings implements Serializable {
 	private Boolean searchElm327 = false;
 
     public Settings() {
-        //center window by default
-        Dimension screenSize = java.awt.Toolkit.getDefaultToolkit().getScreenSize();
-        windowLocation.move(((int) (screenSize.getWidth() - windowSize.getWidth()) / 2),
-                ((int) (screenSize.getHeight() - windowSize.getHeight()) / 2));
+        //center window by default, there is no screen when headless
+        if (!java.awt.GraphicsEnvironment.isHeadless()) {
+            Dimension screenSize = java.awt.Toolkit.getDefaultToolkit().getScreenSize();
+            windowLocation.move(((int) (screenSize.getWidth() - windowSize.getWidth()) / 2),
+                    ((int) (screenSize.getHeight() - windowSize.getHeight()) / 2));
+        }
     }
 
     public Dimension getWindowSize() {
@@ -529,6 +558,18 @@ public class Settings implements Serializable {
         this.saveDebugTables = saveDebugTables;
     }
 
+    public TablePopulation getTablePopulation() {
+        return tablePopulation;
+    }
+
+    public void setTablePopulation(String population) {
+        try {
+            this.tablePopulation = TablePopulation.valueOf(population.toUpperCase());
+        } catch (Exception e) {
+            this.tablePopulation = TablePopulation.LAZY;
+        }
+    }
+
     public boolean isDisplayHighTables() {
         return displayHighTables;
     }
@@ -666,6 +707,90 @@ public class Settings implements Serializable {
         this.fileLoggingAbsoluteTimestamp = fileLoggingAbsoluteTimestamp;
     }
 
+    public boolean isFileLoggingBinary() {
+        return fileLoggingBinary;
+    }
+
+    public void setFileLoggingBinary(boolean fileLoggingBinary) {
+        this.fileLoggingBinary = fileLoggingBinary;
+    }
+
+    public int getFileLoggingQueueSize() {
+        return fileLoggingQueueSize;
+    }
+
+    public void setFileLoggingQueueSize(int size) {
+        if (size > 0) this.fileLoggingQueueSize = size;
+    }
+
+    public int getFileLoggingCommitRows() {
+        return fileLoggingCommitRows;
+    }
+
+    public void setFileLoggingCommitRows(int rows) {
+        if (rows > 0) this.fileLoggingCommitRows = rows;
+    }
+
+    public int getFileLoggingCommitInterval() {
+        return fileLoggingCommitInterval;
+    }
+
+    public void setFileLoggingCommitInterval(int interval) {
+        if (interval > 0) this.fileLoggingCommitInterval = interval;
+    }
+
+    public SyncPolicy getFileLoggingSyncPolicy() {
+        return fileLoggingSyncPolicy;
+    }
+
+    public void setFileLoggingSyncPolicy(String policy) {
+        try {
+            this.fileLoggingSyncPolicy = SyncPolicy.valueOf(policy.toUpperCase());
+        } catch (Exception e) {
+            this.fileLoggingSyncPolicy = SyncPolicy.CLOSE;
+        }
+    }
+
+    public boolean isFileLoggingDurable() {
+        return fileLoggingSyncPolicy == SyncPolicy.COMMIT;
+    }
+
+    public void setFileLoggingDurable(boolean durable) {
+        this.fileLoggingSyncPolicy = durable ? SyncPolicy.COMMIT : SyncPolicy.CLOSE;
+    }
+
+    /**
+     * @return the log segment size in MB at which a new segment is started,
+     * 0 if not rotating on size
+     */
+    public int getFileLoggingRotateSize() {
+        return fileLoggingRotateSize;
+    }
+
+    public void setFileLoggingRotateSize(int size) {
+        if (size >= 0) this.fileLoggingRotateSize = size;
+    }
+
+    /**
+     * @return the log segment length in minutes at which a new segment is
+     * started, 0 if not rotating on time
+     */
+    public int getFileLoggingRotateMinutes() {
+        return fileLoggingRotateMinutes;
+    }
+
+    public void setFileLoggingRotateMinutes(int minutes) {
+        if (minutes >= 0) this.fileLoggingRotateMinutes = minutes;
+    }
+
+    public boolean isFileLoggingCompress() {
+        return fileLoggingCompress;
+    }
+
+    public void setFileLoggingCompress(boolean compress) {
+        this.fileLoggingCompress = compress;
+    }
+
     public ConnectionProperties getLoggerConnectionProperties() {
         return loggerConnectionProperties;
     }
@@ -746,6 +871,59 @@ public class Settings implements Serializable {
         return fastPoll;
     }
 
+    public int getLoggerUpdateQueueSize() {
+        return loggerUpdateQueueSize;
+    }
+
+    public void setLoggerUpdateQueueSize(int size) {
+        if (size > 0) this.loggerUpdateQueueSize = size;
+    }
+
+    public OverflowPolicy getLoggerUpdateOverflowPolicy() {
+        return loggerUpdateOverflowPolicy;
+    }
+
+    public void setLoggerUpdateOverflowPolicy(String policy) {
+        try {
+            this.loggerUpdateOverflowPolicy =
+                    OverflowPolicy.valueOf(policy.toUpperCase());
+        } catch (Exception e) {
+            this.loggerUpdateOverflowPolicy = OverflowPolicy.BLOCK;
+        }
+    }
+
+    public int getLoggerDisplayRefreshRate() {
+        return loggerDisplayRefreshRate;
+    }
+
+    public void setLoggerDisplayRefreshRate(int rate) {
+        if (rate > 0) this.loggerDisplayRefreshRate = rate;
+    }
+
+    /**
+     * @return true if parameters without a target rate are polled less
+     * often while their value is steady
+     */
+    public boolean isLoggerAutoSampleRate() {
+        return loggerAutoSampleRate;
+    }
+
+    public void setLoggerAutoSampleRate(boolean auto) {
+        this.loggerAutoSampleRate = auto;
+    }
+
+    /**
+     * @return true if the logger timings and counters are written to
+     * rr_metrics.log while logging
+     */
+    public boolean isLoggerMetricsFile() {
+        return loggerMetricsFile;
+    }
+
+    public void setLoggerMetricsFile(boolean metricsFile) {
+        this.loggerMetricsFile = metricsFile;
+    }
+
     public void setLogfileNameText(String text) {
         this.logfileNameText = text;
     }
@@ -770,6 +948,37 @@ public class Settings implements Serializable {
         return j2534Device;
     }
 
+    public void setLoggerParallelProbe(boolean parallel) {
+        this.loggerParallelProbe = parallel;
+    }
+
+    public boolean isLoggerParallelProbe() {
+        return loggerParallelProbe;
+    }
+
+    /**
+     * @return the transport each ECU ID last answered on, a J2534 library
+     * or an empty string for serial
+     */
+    public Map<String, String> getLoggerEcuTransports() {
+        return loggerEcuTransports;
+    }
+
+    public void setLoggerEcuTransport(String ecuId, String library) {
+        loggerEcuTransports.put(ecuId, library);
+    }
+
+    /**
+     * @return the ECU ID of the last vehicle connected to, or null
+     */
+    public String getLoggerLastEcuId() {
+        return loggerLastEcuId;
+    }
+
+    public void setLoggerLastEcuId(String ecuId) {
+        this.loggerLastEcuId = ecuId;
+    }
+
     public void setTransportProtocol(String transport) {
         Settings.transportProtocol = transport;
     }
@@ -48,6 +48,7 @@ import com.romraider.maps.Rom;
 import com.romraider.swing.DefinitionFilter;
 import com.romraider.util.SettingsManager;
 import com.romraider.xml.DOMRomUnmarshaller;
+import com.romraider.xml.DefinitionIndex;
 import com.romraider.xml.ConversionLayer.ConversionLayer;
 import com.romraider.xml.ConversionLayer.ConversionLayerFactory;
 
@@ -215,8 +216,9 @@ public class OpenImageWorker extends SwingWorker<Void, Void> {
         setProgress(10);
 
         boolean found = false;
+        DefinitionIndex index = DefinitionIndex.load();
 
-        // parse ecu definition files until result found
+        // match the romids in the index, only the matching file is parsed
         for (int i = 0; i < settings.getEcuDefinitionFiles().size(); i++) {
         	File f = settings.getEcuDefinitionFiles().get(i);
 
@@ -232,12 +234,22 @@ public class OpenImageWorker extends SwingWorker<Void, Void> {
                 continue;
             }
 
+            int romIndex = index.findMatch(f, input);
+            if (romIndex == DefinitionIndex.NO_MATCH) {
+                continue;
+            }
+
             Node romNode = null;
             Document doc = null;
 
             try {
             	doc = createDocument(f);
-				romNode = new DOMRomUnmarshaller().checkDefinitionMatch(doc.getDocumentElement(), input);
+            	if (romIndex == DefinitionIndex.UNINDEXED) {
+            		romNode = new DOMRomUnmarshaller().checkDefinitionMatch(doc.getDocumentElement(), input);
+            	}
+            	else {
+            		romNode = new DOMRomUnmarshaller().checkDefinitionMatch(doc.getDocumentElement(), romIndex, input);
+            	}
             }
             catch(Exception e) {
             	showExceptionPopup(e, f);
@@ -249,6 +261,7 @@ public class OpenImageWorker extends SwingWorker<Void, Void> {
             	break;
             }
          }
+        index.save();
 
         if(!found) {
         	showNoDefinitionFoundPopup(input);
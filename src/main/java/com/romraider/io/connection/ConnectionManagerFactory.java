@@ -20,7 +20,6 @@
 package com.romraider.io.connection;
 
 import static com.romraider.util.ParamChecker.isNullOrEmpty;
-import static com.romraider.util.proxy.Proxifier.proxy;
 import static org.apache.log4j.Logger.getLogger;
 
 import org.apache.log4j.Logger;
@@ -30,11 +29,9 @@ import com.romraider.io.elm327.ElmConnectionManager;
 import com.romraider.io.j2534.api.J2534TransportFactory;
 import com.romraider.io.serial.connection.SerialConnectionManager;
 import com.romraider.util.SettingsManager;
-import com.romraider.util.proxy.TimerWrapper;
 
 public final class ConnectionManagerFactory {
     private static final Logger LOGGER = getLogger(ConnectionManagerFactory.class);
-    private static final boolean ENABLE_TIMER = false;
 
     private ConnectionManagerFactory() {
     }
@@ -43,11 +40,28 @@ public final class ConnectionManagerFactory {
             final String portName,
             final ConnectionProperties connectionProperties) {
 
+        return getManager(portName, connectionProperties,
+                SettingsManager.getSettings().getJ2534Device());
+    }
+
+    /**
+     * Create a manager for an explicit transport rather than the one
+     * selected in the settings, so several can be opened at once.
+     * @param portName - the serial port, used when library is empty
+     * @param connectionProperties - the connection properties
+     * @param library - the J2534 library, or empty for a serial connection
+     * @return the ConnectionManager
+     */
+    public static ConnectionManager getManager(
+            final String portName,
+            final ConnectionProperties connectionProperties,
+            final String library) {
+
         final Settings settings = SettingsManager.getSettings();
         ConnectionManager manager = null;
 
         // Try a serial connection
-        if (isNullOrEmpty(settings.getJ2534Device())) {
+        if (isNullOrEmpty(library)) {
 
             if(SettingsManager.getSettings().getElm327Enabled()) {
                 LOGGER.info("Trying to connect to ELM327...");
@@ -63,9 +77,10 @@ public final class ConnectionManagerFactory {
             manager = J2534TransportFactory.getManager(
                     settings.getTransportProtocol().toUpperCase(),
                     connectionProperties,
-                    settings.getJ2534Device());
+                    library);
         }
-        if (ENABLE_TIMER) return proxy(manager, TimerWrapper.class);
-        return manager;
+        // the ELM327 logger connection needs the manager itself
+        if (manager instanceof ElmConnectionManager) return manager;
+        return new TimedConnectionManager(manager);
     }
 }
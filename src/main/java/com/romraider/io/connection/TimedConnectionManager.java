@@ -0,0 +1,72 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.io.connection;
+
+import static java.lang.System.nanoTime;
+
+import com.romraider.logger.ecu.comms.manager.PollingState;
+import com.romraider.util.metrics.Metrics;
+
+/**
+ * Records the time of each request and response exchange with the
+ * Module in {@link Metrics#BUS_ROUND_TRIP}.
+ */
+final class TimedConnectionManager implements ConnectionManager {
+    private final ConnectionManager delegate;
+
+    TimedConnectionManager(ConnectionManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void open(byte[] start, byte[] stop) {
+        delegate.open(start, stop);
+    }
+
+    @Override
+    public void send(byte[] request, byte[] response, PollingState pollState) {
+        final long start = nanoTime();
+        try {
+            delegate.send(request, response, pollState);
+        } finally {
+            Metrics.BUS_ROUND_TRIP.record(nanoTime() - start);
+        }
+    }
+
+    @Override
+    public byte[] send(byte[] bytes) {
+        final long start = nanoTime();
+        try {
+            return delegate.send(bytes);
+        } finally {
+            Metrics.BUS_ROUND_TRIP.record(nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void clearLine() {
+        delegate.clearLine();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -35,6 +35,7 @@ import com.romraider.io.j2534.api.J2534Impl.Flag;
 import com.romraider.io.j2534.api.J2534Impl.Protocol;
 import com.romraider.io.j2534.api.J2534Impl.TxFlags;
 import com.romraider.logger.ecu.comms.manager.PollingState;
+import com.romraider.util.metrics.Metrics;
 
 public final class J2534ConnectionISO14230 implements ConnectionManager {
     private static final Logger LOGGER = getLogger(J2534ConnectionISO14230.class);
@@ -106,6 +107,7 @@ public final class J2534ConnectionISO14230 implements ConnectionManager {
             else{
                 LOGGER.error(String.format(
                         "J2534/ISO14230 Bad Data response: %s", asHex(response)));
+                Metrics.LAST_RESPONSE.increment();
                 arraycopy(lastResponse, 0, response, 0, response.length);
                 pollState.setNewQuery(true);
             }
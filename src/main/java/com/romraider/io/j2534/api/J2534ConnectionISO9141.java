@@ -34,6 +34,7 @@ import com.romraider.io.j2534.api.J2534Impl.Flag;
 import com.romraider.io.j2534.api.J2534Impl.Protocol;
 import com.romraider.io.j2534.api.J2534Impl.TxFlags;
 import com.romraider.logger.ecu.comms.manager.PollingState;
+import com.romraider.util.metrics.Metrics;
 
 public final class J2534ConnectionISO9141 implements ConnectionManager {
     private static final Logger LOGGER = getLogger(J2534ConnectionISO9141.class);
@@ -86,6 +87,7 @@ public final class J2534ConnectionISO9141 implements ConnectionManager {
             }
             else{
                 LOGGER.error("J2534/ISO9141 Bad Data response: " + asHex(response));
+                Metrics.LAST_RESPONSE.increment();
                 arraycopy(lastResponse, 0, response, 0, response.length);
                 pollState.setNewQuery(true);
             }
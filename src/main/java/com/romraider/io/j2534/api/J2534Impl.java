@@ -37,6 +37,7 @@ import com.romraider.io.j2534.api.J2534_v0404.SCONFIG;
 import com.romraider.io.j2534.api.J2534_v0404.SCONFIG.ByReference;
 import com.romraider.io.j2534.api.J2534_v0404.SCONFIG_LIST;
 import com.romraider.util.HexUtil;
+import com.romraider.util.metrics.Metrics;
 import com.sun.jna.Native;
 import com.sun.jna.NativeLong;
 import com.sun.jna.ptr.NativeLongByReference;
@@ -48,7 +49,7 @@ public final class J2534Impl implements J2534 {
     private static final Logger LOGGER = Logger.getLogger(J2534Impl.class);
     private final NativeLong protocolID;
     private boolean loopback;
-    private static J2534_v0404 lib;
+    private final J2534_v0404 lib;
 
 
     /**
@@ -930,6 +931,7 @@ public final class J2534Impl implements J2534 {
         int len = 0;
         do {
             if (currentTimeMillis() >= end) {
+                Metrics.TIMEOUTS.increment();
                 String errString = String.format(
                     "readMsg error: timeout expired waiting for %d more bytes",
                     response.length - index);
@@ -1005,6 +1007,7 @@ public final class J2534Impl implements J2534 {
         long end = currentTimeMillis() + timeout;
         do {
             if (currentTimeMillis() >= end) {
+                Metrics.TIMEOUTS.increment();
                 String errString = String.format(
                     "readMsg error: timeout expired waiting for %d more message(s)",
                     numMsg);
@@ -1316,7 +1319,7 @@ public final class J2534Impl implements J2534 {
      * @exception    J2534Exception on various non-zero return status
      * @see         J2534_v0404
      */
-    private static void handleError(String operation, int status) {
+    private void handleError(String operation, int status) {
         ByteBuffer error = ByteBuffer.allocate(255);
         lib.PassThruGetLastError(error);
         String errString = String.format("%s error [%d:%s], %s",
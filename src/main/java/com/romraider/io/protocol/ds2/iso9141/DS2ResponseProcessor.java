@@ -30,6 +30,7 @@ import static com.romraider.util.ParamChecker.checkNotNullOrEmpty;
 
 import com.romraider.logger.ecu.comms.manager.PollingState;
 import com.romraider.logger.ecu.exception.InvalidResponseException;
+import com.romraider.util.metrics.Metrics;
 
 public final class DS2ResponseProcessor {
 
@@ -59,7 +60,9 @@ public final class DS2ResponseProcessor {
         assertEquals(module.getAddress()[0], response[i++], "Invalid " + module.getName() + " id");
         assertEquals(asByte(response.length), response[i++], "Invalid response packet length");
         assertEquals(VALID_RESPONSE, response[i], "Request not supported");
-        assertEquals(calculateChecksum(response), response[response.length - 1], "Invalid checksum");
+        final byte checksum = calculateChecksum(response);
+        if (checksum != response[response.length - 1]) Metrics.BAD_CHECKSUMS.increment();
+        assertEquals(checksum, response[response.length - 1], "Invalid checksum");
     }
 
     public static byte[] extractResponseData(byte[] response) {
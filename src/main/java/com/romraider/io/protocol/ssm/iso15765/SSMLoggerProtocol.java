@@ -24,6 +24,7 @@ import static com.romraider.io.protocol.ssm.iso15765.SSMProtocol.DATA_SIZE;
 import static com.romraider.io.protocol.ssm.iso15765.SSMProtocol.RESPONSE_NON_DATA_BYTES;
 import static com.romraider.io.protocol.ssm.iso15765.SSMResponseProcessor.extractResponseData;
 import static com.romraider.io.protocol.ssm.iso15765.SSMResponseProcessor.filterRequestFromResponse;
+import static com.romraider.io.protocol.ssm.iso15765.SSMResponseProcessor.validateResponse;
 import static com.romraider.util.ParamChecker.checkNotNull;
 import static com.romraider.util.ParamChecker.checkNotNullOrEmpty;
 import static java.lang.System.arraycopy;
@@ -35,7 +36,10 @@ import java.util.Map;
 
 import com.romraider.io.protocol.Protocol;
 import com.romraider.logger.ecu.comms.io.protocol.LoggerProtocol;
+import com.romraider.logger.ecu.comms.io.protocol.ReadAddressPlan;
+import com.romraider.logger.ecu.comms.io.protocol.ReadAddressPlanCache;
 import com.romraider.logger.ecu.comms.manager.PollingState;
+import com.romraider.logger.ecu.comms.manager.PollingStateImpl;
 import com.romraider.logger.ecu.comms.query.EcuInit;
 import com.romraider.logger.ecu.comms.query.EcuInitCallback;
 import com.romraider.logger.ecu.comms.query.EcuQuery;
@@ -43,6 +47,10 @@ import com.romraider.logger.ecu.definition.Module;
 
 public final class SSMLoggerProtocol implements LoggerProtocol {
     private final Protocol protocol = new SSMProtocol();
+    private final PollingState requestState = new PollingStateImpl();
+    // one plan per query set in use, the last one used is plan
+    private final ReadAddressPlanCache plans = new ReadAddressPlanCache(16, ADDRESS_SIZE, DATA_SIZE);
+    private ReadAddressPlan plan;
 
     public byte[] constructEcuInitRequest(Module module) {
         return protocol.constructEcuInitRequest(module);
@@ -53,19 +61,22 @@ public final class SSMLoggerProtocol implements LoggerProtocol {
     }
 
     public byte[] constructReadAddressRequest(Module module, Collection<EcuQuery> queries) {
-        Collection<EcuQuery> filteredQueries = filterDuplicates(queries);
-        return protocol.constructReadAddressRequest(module, convertToByteAddresses(filteredQueries));
+        final ReadAddressPlan plan = getPlan(queries);
+        final boolean fastPoll = requestState.isFastPoll();
+        byte[] request = plan.getRequest(module, fastPoll);
+        if (request == null) {
+            request = protocol.constructReadAddressRequest(module, plan.getAddresses());
+            plan.setRequest(module, fastPoll, request);
+        }
+        SSMProtocol.module = module;
+        return request;
     }
 
     public byte[] constructReadAddressResponse(Collection<EcuQuery> queries, PollingState pollState) {
         checkNotNullOrEmpty(queries, "queries");
         // CAN_ID 0xE8 value1 value2 ... valueN
-        Collection<EcuQuery> filteredQueries = filterDuplicates(queries);
-        int numAddresses = 0;
-        for (EcuQuery ecuQuery : filteredQueries) {
-            numAddresses += (ecuQuery.getBytes().length / ADDRESS_SIZE);
-        }
-        return new byte[(numAddresses * DATA_SIZE + RESPONSE_NON_DATA_BYTES)];
+        final ReadAddressPlan plan = getPlan(queries);
+        return plan.getResponse(0, (plan.getAddressCount() * DATA_SIZE + RESPONSE_NON_DATA_BYTES));
     }
 
     public byte[] preprocessResponse(byte[] request, byte[] response, PollingState pollState) {
@@ -89,6 +100,12 @@ public final class SSMLoggerProtocol implements LoggerProtocol {
     public void processReadAddressResponses(Collection<EcuQuery> queries, byte[] response, PollingState pollState) {
         checkNotNullOrEmpty(queries, "queries");
         checkNotNullOrEmpty(response, "response");
+        final ReadAddressPlan plan = getPlan(queries);
+        if (response.length == plan.getDataLength() + RESPONSE_NON_DATA_BYTES) {
+            validateResponse(response);
+            plan.setResponses(response, RESPONSE_NON_DATA_BYTES);
+            return;
+        }
         byte[] responseData = extractResponseData(response);
         Collection<EcuQuery> filteredQueries = filterDuplicates(queries);
         Map<String, byte[]> addressResults = new HashMap<String, byte[]>();
@@ -120,6 +137,13 @@ public final class SSMLoggerProtocol implements LoggerProtocol {
         protocol.checkValidWriteResponse(data, response);
     }
 
+    private ReadAddressPlan getPlan(Collection<EcuQuery> queries) {
+        if (plan == null || !plan.matches(queries)) {
+            plan = plans.get(queries);
+        }
+        return plan;
+    }
+
     private Collection<EcuQuery> filterDuplicates(Collection<EcuQuery> queries) {
         Collection<EcuQuery> filteredQueries = new ArrayList<EcuQuery>();
         for (EcuQuery query : queries) {
@@ -130,20 +154,4 @@ public final class SSMLoggerProtocol implements LoggerProtocol {
         return filteredQueries;
     }
 
-    private byte[][] convertToByteAddresses(Collection<EcuQuery> queries) {
-        int byteCount = 0;
-        for (EcuQuery query : queries) {
-            byteCount += query.getAddresses().length;
-        }
-        byte[][] addresses = new byte[byteCount][ADDRESS_SIZE];
-        int i = 0;
-        for (EcuQuery query : queries) {
-            byte[] bytes = query.getBytes();
-            for (int j = 0; j < bytes.length / ADDRESS_SIZE; j++) {
-                arraycopy(bytes, j * ADDRESS_SIZE, addresses[i++], 0, ADDRESS_SIZE);
-            }
-        }
-        return addresses;
-    }
-
 }
@@ -35,6 +35,8 @@ import com.romraider.logger.ecu.comms.manager.PollingState;
 import com.romraider.logger.ecu.exception.InvalidResponseException;
 
 public final class SSMResponseProcessor {
+    private static final byte[] RESPONSE_CODES = {ECU_INIT_RESPONSE, READ_ADDRESS_RESPONSE,
+            READ_MEMORY_RESPONSE, WRITE_ADDRESS_RESPONSE, WRITE_MEMORY_RESPONSE};
 
     private SSMResponseProcessor() {
         throw new UnsupportedOperationException();
@@ -52,7 +54,7 @@ public final class SSMResponseProcessor {
         if (response[4] == ECU_NRC) {
             assertNrc(ECU_NRC, response[4], response[5], response[6],"Request type not supported");
         }
-        assertOneOf(new byte[]{ECU_INIT_RESPONSE, READ_ADDRESS_RESPONSE, READ_MEMORY_RESPONSE, WRITE_ADDRESS_RESPONSE, WRITE_MEMORY_RESPONSE}, response[4], "Invalid response code");
+        assertOneOf(RESPONSE_CODES, response[4], "Invalid response code");
     }
 
     public static byte[] extractResponseData(byte[] response) {
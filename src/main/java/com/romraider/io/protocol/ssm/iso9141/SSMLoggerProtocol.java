@@ -25,25 +25,41 @@ import static com.romraider.io.protocol.ssm.iso9141.SSMProtocol.REQUEST_NON_DATA
 import static com.romraider.io.protocol.ssm.iso9141.SSMProtocol.RESPONSE_NON_DATA_BYTES;
 import static com.romraider.io.protocol.ssm.iso9141.SSMResponseProcessor.extractResponseData;
 import static com.romraider.io.protocol.ssm.iso9141.SSMResponseProcessor.filterRequestFromResponse;
+import static com.romraider.io.protocol.ssm.iso9141.SSMResponseProcessor.validateResponse;
+import static com.romraider.util.ByteUtil.asByte;
 import static com.romraider.util.ParamChecker.checkNotNull;
 import static com.romraider.util.ParamChecker.checkNotNullOrEmpty;
 import static java.lang.System.arraycopy;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.romraider.io.connection.ConnectionProperties;
 import com.romraider.io.protocol.Protocol;
-import com.romraider.logger.ecu.comms.io.protocol.LoggerProtocol;
+import com.romraider.io.protocol.ssm.iso9141.SSMReadOptimizer.Segment;
+import com.romraider.logger.ecu.comms.io.protocol.LoggerProtocolBlockRead;
+import com.romraider.logger.ecu.comms.io.protocol.ReadAddressPlan;
+import com.romraider.logger.ecu.comms.io.protocol.ReadAddressPlanCache;
 import com.romraider.logger.ecu.comms.manager.PollingState;
+import com.romraider.logger.ecu.comms.manager.PollingStateImpl;
 import com.romraider.logger.ecu.comms.query.EcuInit;
 import com.romraider.logger.ecu.comms.query.EcuInitCallback;
 import com.romraider.logger.ecu.comms.query.EcuQuery;
 import com.romraider.logger.ecu.definition.Module;
+import com.romraider.util.SettingsManager;
 
-public final class SSMLoggerProtocol implements LoggerProtocol {
+public final class SSMLoggerProtocol implements LoggerProtocolBlockRead {
     private final Protocol protocol = new SSMProtocol();
+    private final PollingState requestState = new PollingStateImpl();
+    // one plan per query set in use, the last one used is plan
+    private final ReadAddressPlanCache plans = new ReadAddressPlanCache(16, ADDRESS_SIZE, DATA_SIZE);
+    private ReadAddressPlan plan;
+    // block read requests of the plan being read
+    private Segment[] segments;
+    private ReadAddressPlan segmentPlan;
 
     public byte[] constructEcuInitRequest(Module module) {
         return protocol.constructEcuInitRequest(module);
@@ -54,30 +70,49 @@ public final class SSMLoggerProtocol implements LoggerProtocol {
     }
 
     public byte[] constructReadAddressRequest(Module module, Collection<EcuQuery> queries) {
-        Collection<EcuQuery> filteredQueries = filterDuplicates(queries);
-        return protocol.constructReadAddressRequest(module, convertToByteAddresses(filteredQueries));
+        final ReadAddressPlan plan = getPlan(queries);
+        final boolean fastPoll = requestState.isFastPoll();
+        byte[] request = plan.getRequest(module, fastPoll);
+        if (request == null) {
+            request = protocol.constructReadAddressRequest(module, plan.getAddresses());
+            plan.setRequest(module, fastPoll, request);
+        }
+        SSMProtocol.module = module;
+        return request;
     }
 
     public byte[] constructReadAddressResponse(Collection<EcuQuery> queries, PollingState pollState) {
         checkNotNullOrEmpty(queries, "queries");
         checkNotNull(pollState, "pollState");
         // 0x80 0xF0 0x10 data_length 0xE8 value1 value2 ... valueN checksum
-        Collection<EcuQuery> filteredQueries = filterDuplicates(queries);
-        int numAddresses = 0;
-        for (EcuQuery ecuQuery : filteredQueries) {
-            numAddresses += (ecuQuery.getBytes().length / ADDRESS_SIZE);
-        }
+        final ReadAddressPlan plan = getPlan(queries);
+        final int numAddresses = plan.getAddressCount();
         switch (pollState.getCurrentState()) {
             case STATE_0:
-            return new byte[(numAddresses * DATA_SIZE + RESPONSE_NON_DATA_BYTES) + (numAddresses * ADDRESS_SIZE + REQUEST_NON_DATA_BYTES)];
+            return plan.getResponse(0, (numAddresses * DATA_SIZE + RESPONSE_NON_DATA_BYTES) + (numAddresses * ADDRESS_SIZE + REQUEST_NON_DATA_BYTES));
             case STATE_1:
-            return new byte[(numAddresses * DATA_SIZE + RESPONSE_NON_DATA_BYTES)];
+            return plan.getResponse(1, (numAddresses * DATA_SIZE + RESPONSE_NON_DATA_BYTES));
         default:
             throw new UnsupportedOperationException("Poll mode not supported:" + pollState.getCurrentState());
         }
     }
 
     public byte[] preprocessResponse(byte[] request, byte[] response, PollingState pollState) {
+        if (segments != null) {
+            for (Segment segment : segments) {
+                if (response == segment.response) {
+                    arraycopy(response, request.length, segment.processed, 0, segment.processed.length);
+                    return segment.processed;
+                }
+            }
+        }
+        if (plan != null && plan.isResponse(response) && request.length <= response.length) {
+            // same as filterRequestFromResponse but into the plan's buffer
+            final int start = pollState.getCurrentState() == PollingState.State.STATE_0 ? request.length : 0;
+            final byte[] processed = plan.getProcessed(response.length - start);
+            arraycopy(response, start, processed, 0, processed.length);
+            return processed;
+        }
         return filterRequestFromResponse(request, response, pollState);
     }
 
@@ -98,6 +133,12 @@ public final class SSMLoggerProtocol implements LoggerProtocol {
     public void processReadAddressResponses(Collection<EcuQuery> queries, byte[] response, PollingState pollState) {
         checkNotNullOrEmpty(queries, "queries");
         checkNotNullOrEmpty(response, "response");
+        final ReadAddressPlan plan = getPlan(queries);
+        if (response.length == plan.getDataLength() + RESPONSE_NON_DATA_BYTES) {
+            validateResponse(response);
+            plan.setResponses(response, RESPONSE_NON_DATA_BYTES - 1);
+            return;
+        }
         byte[] responseData = extractResponseData(response);
         Collection<EcuQuery> filteredQueries = filterDuplicates(queries);
         Map<String, byte[]> addressResults = new HashMap<String, byte[]>();
@@ -113,6 +154,65 @@ public final class SSMLoggerProtocol implements LoggerProtocol {
         }
     }
 
+    public int planReads(Module module, Collection<EcuQuery> queries, PollingState pollState) {
+        checkNotNull(module, "module");
+        checkNotNullOrEmpty(queries, "queries");
+        checkNotNull(pollState, "pollState");
+        // fast poll has the ECU stream one address list read continuously
+        if (pollState.isFastPoll()) return 1;
+        final ReadAddressPlan plan = getPlan(queries);
+        final int baudRate = getBaudRate();
+        BlockReads reads = (BlockReads) plan.getAttachment();
+        if (reads == null || reads.module != module || reads.baudRate != baudRate) {
+            final Segment[] segments = SSMReadOptimizer.optimize(plan.getAddressValues(), baudRate);
+            final byte[][] addresses = plan.getAddresses();
+            for (Segment segment : segments) {
+                int dataLength;
+                if (segment.isBlock()) {
+                    segment.request = protocol.constructReadMemoryRequest(module, new byte[]{
+                            asByte(segment.start >> 16), asByte(segment.start >> 8), asByte(segment.start)},
+                            segment.length);
+                    dataLength = segment.length * DATA_SIZE;
+                } else {
+                    final byte[][] list = new byte[segment.indices.length][];
+                    for (int i = 0; i < list.length; i++) {
+                        list[i] = addresses[segment.indices[i]];
+                    }
+                    segment.request = protocol.constructReadAddressRequest(module, list);
+                    dataLength = list.length * DATA_SIZE;
+                }
+                segment.processed = new byte[dataLength + RESPONSE_NON_DATA_BYTES];
+                segment.response = new byte[segment.request.length + segment.processed.length];
+            }
+            reads = new BlockReads(segments, module, baudRate);
+            plan.setAttachment(reads);
+        }
+        segments = reads.segments;
+        segmentPlan = plan;
+        SSMProtocol.module = module;
+        return segments.length;
+    }
+
+    public byte[] constructReadRequest(int index) {
+        return segments[index].request;
+    }
+
+    public byte[] constructReadResponse(int index) {
+        final byte[] response = segments[index].response;
+        Arrays.fill(response, (byte) 0);
+        return response;
+    }
+
+    public void processReadResponse(Collection<EcuQuery> queries, int index, byte[] response) {
+        checkNotNullOrEmpty(response, "response");
+        final Segment segment = segments[index];
+        validateResponse(response);
+        segmentPlan.copyData(segment.indices, segment.positions, response, RESPONSE_NON_DATA_BYTES - 1);
+        if (index == segments.length - 1) {
+            segmentPlan.publish();
+        }
+    }
+
     public Protocol getProtocol() {
         return protocol;
     }
@@ -129,6 +229,35 @@ public final class SSMLoggerProtocol implements LoggerProtocol {
         protocol.checkValidWriteResponse(data, response);
     }
 
+    // the block read requests planned for one ReadAddressPlan
+    private static final class BlockReads {
+        private final Segment[] segments;
+        private final Module module;
+        private final int baudRate;
+
+        private BlockReads(Segment[] segments, Module module, int baudRate) {
+            this.segments = segments;
+            this.module = module;
+            this.baudRate = baudRate;
+        }
+    }
+
+    private int getBaudRate() {
+        final ConnectionProperties properties =
+                SettingsManager.getSettings().getLoggerConnectionProperties();
+        if (properties != null && properties.getBaudRate() > 0) {
+            return properties.getBaudRate();
+        }
+        return protocol.getDefaultConnectionProperties().getBaudRate();
+    }
+
+    private ReadAddressPlan getPlan(Collection<EcuQuery> queries) {
+        if (plan == null || !plan.matches(queries)) {
+            plan = plans.get(queries);
+        }
+        return plan;
+    }
+
     private Collection<EcuQuery> filterDuplicates(Collection<EcuQuery> queries) {
         Collection<EcuQuery> filteredQueries = new ArrayList<EcuQuery>();
         for (EcuQuery query : queries) {
@@ -138,20 +267,4 @@ public final class SSMLoggerProtocol implements LoggerProtocol {
         }
         return filteredQueries;
     }
-
-    private byte[][] convertToByteAddresses(Collection<EcuQuery> queries) {
-        int byteCount = 0;
-        for (EcuQuery query : queries) {
-            byteCount += query.getAddresses().length;
-        }
-        byte[][] addresses = new byte[byteCount][ADDRESS_SIZE];
-        int i = 0;
-        for (EcuQuery query : queries) {
-            byte[] bytes = query.getBytes();
-            for (int j = 0; j < bytes.length / ADDRESS_SIZE; j++) {
-                arraycopy(bytes, j * ADDRESS_SIZE, addresses[i++], 0, ADDRESS_SIZE);
-            }
-        }
-        return addresses;
-    }
 }
@@ -0,0 +1,195 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.io.protocol.ssm.iso9141;
+
+import static com.romraider.io.protocol.ssm.iso9141.SSMProtocol.ADDRESS_SIZE;
+import static com.romraider.io.protocol.ssm.iso9141.SSMProtocol.DATA_SIZE;
+import static com.romraider.io.protocol.ssm.iso9141.SSMProtocol.REQUEST_NON_DATA_BYTES;
+import static com.romraider.io.protocol.ssm.iso9141.SSMProtocol.RESPONSE_NON_DATA_BYTES;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Splits an address list read (0xA8) into memory block reads (0xA0) for
+ * runs of neighbouring RAM addresses, when the shorter frames outweigh
+ * the cost of the extra round trips at the current baud rate.
+ */
+final class SSMReadOptimizer {
+    // the parameter addresses below this are not memory
+    static final int RAM_START = 0xFF0000;
+    static final int MAX_BLOCK = 128;
+    // largest run of unused bytes worth reading inside a block
+    static final int MAX_GAP = 4;
+    // ECU response and inter-message delay of one request, in ms
+    static final double ROUND_TRIP_TIME = 20.0;
+    // header, tool, ecu, length, command, padding, address, count, checksum
+    static final int BLOCK_REQUEST_BYTES = 8 + ADDRESS_SIZE;
+
+    /**
+     * One request of the optimized read.
+     */
+    static final class Segment {
+        /** first address of a block read, or -1 for an address list */
+        final int start;
+        /** bytes read by a block read */
+        final int length;
+        /** address indices read by this request */
+        final int[] indices;
+        /** position of each address's data in the response data */
+        final int[] positions;
+        byte[] request;
+        byte[] response;
+        byte[] processed;
+
+        private Segment(int start, int length, int[] indices, int[] positions) {
+            this.start = start;
+            this.length = length;
+            this.indices = indices;
+            this.positions = positions;
+        }
+
+        boolean isBlock() {
+            return start >= 0;
+        }
+    }
+
+    private SSMReadOptimizer() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param baudRate - serial baud rate
+     * @return the line time of one byte in ms, with start and stop bits
+     */
+    static double byteTime(int baudRate) {
+        return 10000.0 / baudRate;
+    }
+
+    static double listCost(int addresses, double byteTime) {
+        if (addresses == 0) return 0.0;
+        return ROUND_TRIP_TIME + byteTime * (REQUEST_NON_DATA_BYTES + RESPONSE_NON_DATA_BYTES
+                + addresses * (ADDRESS_SIZE + DATA_SIZE));
+    }
+
+    static double blockCost(int length, double byteTime) {
+        return ROUND_TRIP_TIME + byteTime * (BLOCK_REQUEST_BYTES + RESPONSE_NON_DATA_BYTES
+                + length * DATA_SIZE);
+    }
+
+    /**
+     * Plan the requests for a read.
+     * @param addresses - address values, duplicates allowed
+     * @param baudRate - serial baud rate
+     * @return the requests, a single address list if nothing is gained
+     */
+    static Segment[] optimize(final int[] addresses, int baudRate) {
+        final double byteTime = byteTime(baudRate);
+        final int n = addresses.length;
+
+        // candidate blocks: runs of RAM addresses in address order
+        final Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return addresses[a] < addresses[b] ? -1 : addresses[a] == addresses[b] ? 0 : 1;
+            }
+        });
+        final List<int[]> runs = new ArrayList<int[]>();
+        int first = 0;
+        for (int i = 1; i <= n; i++) {
+            if (i == n
+                    || addresses[order[first]] < RAM_START
+                    || addresses[order[i]] - addresses[order[i - 1]] > MAX_GAP + 1
+                    || addresses[order[i]] - addresses[order[first]] >= MAX_BLOCK) {
+                if (addresses[order[first]] >= RAM_START && i - first > 1) {
+                    final int[] run = new int[i - first];
+                    for (int j = 0; j < run.length; j++) {
+                        run[j] = order[first + j];
+                    }
+                    runs.add(run);
+                }
+                first = i;
+            }
+        }
+
+        // take the runs which lower the total time, best first
+        final boolean[] blocked = new boolean[runs.size()];
+        int listed = n;
+        double total = listCost(n, byteTime);
+        while (true) {
+            int best = -1;
+            double bestTotal = total;
+            for (int r = 0; r < runs.size(); r++) {
+                if (blocked[r]) continue;
+                final int[] run = runs.get(r);
+                final double t = total
+                        - listCost(listed, byteTime)
+                        + listCost(listed - run.length, byteTime)
+                        + blockCost(span(addresses, run), byteTime);
+                if (t < bestTotal) {
+                    best = r;
+                    bestTotal = t;
+                }
+            }
+            if (best < 0) break;
+            blocked[best] = true;
+            listed -= runs.get(best).length;
+            total = bestTotal;
+        }
+
+        final List<Segment> segments = new ArrayList<Segment>();
+        final boolean[] inBlock = new boolean[n];
+        for (int r = 0; r < runs.size(); r++) {
+            if (!blocked[r]) continue;
+            final int[] run = runs.get(r);
+            final int start = addresses[run[0]];
+            final int[] positions = new int[run.length];
+            for (int j = 0; j < run.length; j++) {
+                positions[j] = addresses[run[j]] - start;
+                inBlock[run[j]] = true;
+            }
+            segments.add(new Segment(start, span(addresses, run), run, positions));
+        }
+        if (listed > 0) {
+            final int[] indices = new int[listed];
+            final int[] positions = new int[listed];
+            int j = 0;
+            for (int i = 0; i < n; i++) {
+                if (!inBlock[i]) {
+                    indices[j] = i;
+                    positions[j] = j;
+                    j++;
+                }
+            }
+            segments.add(0, new Segment(-1, 0, indices, positions));
+        }
+        return segments.toArray(new Segment[segments.size()]);
+    }
+
+    private static int span(int[] addresses, int[] run) {
+        return addresses[run[run.length - 1]] - addresses[run[0]] + 1;
+    }
+}
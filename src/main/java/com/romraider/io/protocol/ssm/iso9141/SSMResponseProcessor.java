@@ -36,8 +36,11 @@ import static com.romraider.util.ParamChecker.checkNotNullOrEmpty;
 
 import com.romraider.logger.ecu.comms.manager.PollingState;
 import com.romraider.logger.ecu.exception.InvalidResponseException;
+import com.romraider.util.metrics.Metrics;
 
 public final class SSMResponseProcessor {
+    private static final byte[] RESPONSE_CODES = {ECU_INIT_RESPONSE, READ_ADDRESS_RESPONSE,
+            READ_MEMORY_RESPONSE, WRITE_ADDRESS_RESPONSE, WRITE_MEMORY_RESPONSE};
 
     private SSMResponseProcessor() {
         throw new UnsupportedOperationException();
@@ -67,8 +70,10 @@ public final class SSMResponseProcessor {
         assertEquals(module.getAddress()[0], response[i++],
                 "Invalid " + module.getName() + " id");
         assertEquals(asByte(response.length - RESPONSE_NON_DATA_BYTES + 1), response[i++], "Invalid response data length");
-        assertOneOf(new byte[]{ECU_INIT_RESPONSE, READ_ADDRESS_RESPONSE, READ_MEMORY_RESPONSE, WRITE_ADDRESS_RESPONSE, WRITE_MEMORY_RESPONSE}, response[i], "Invalid response code");
-        assertEquals(calculateChecksum(response), response[response.length - 1], "Invalid checksum");
+        assertOneOf(RESPONSE_CODES, response[i], "Invalid response code");
+        final byte checksum = calculateChecksum(response);
+        if (checksum != response[response.length - 1]) Metrics.BAD_CHECKSUMS.increment();
+        assertEquals(checksum, response[response.length - 1], "Invalid checksum");
     }
 
     public static byte[] extractResponseData(byte[] response) {
@@ -24,6 +24,8 @@ public interface SerialConnection {
 
     int available();
 
+    boolean waitForBytes(int numBytes, long timeout);
+
     int read();
 
     String readLine();
@@ -20,6 +20,7 @@
 package com.romraider.io.serial.connection;
 
 import static com.fazecast.jSerialComm.SerialPort.FLOW_CONTROL_DISABLED;
+import static com.fazecast.jSerialComm.SerialPort.LISTENING_EVENT_DATA_AVAILABLE;
 import static com.fazecast.jSerialComm.SerialPort.TIMEOUT_READ_SEMI_BLOCKING;
 import static com.romraider.util.HexUtil.asHex;
 import static com.romraider.util.ParamChecker.checkNotNull;
@@ -37,6 +38,8 @@ import java.io.InputStreamReader;
 import org.apache.log4j.Logger;
 
 import com.fazecast.jSerialComm.SerialPort;
+import com.fazecast.jSerialComm.SerialPortDataListener;
+import com.fazecast.jSerialComm.SerialPortEvent;
 import com.fazecast.jSerialComm.SerialPortInvalidPortException;
 import com.romraider.io.connection.ConnectionProperties;
 import com.romraider.logger.ecu.exception.ConfigurationException;
@@ -45,6 +48,9 @@ import com.romraider.logger.ecu.exception.SerialCommunicationException;
 
 public class SerialConnectionImpl implements SerialConnection {
     private static final Logger LOGGER = getLogger(SerialConnectionImpl.class);
+    // upper bound on a single wait so a missed data event costs at most this
+    private static final long MAX_EVENT_WAIT = 20L;
+    private final Object dataLock = new Object();
     private final SerialPort serialPort;
     private final BufferedOutputStream os;
     private final BufferedInputStream is;
@@ -58,6 +64,8 @@ public class SerialConnectionImpl implements SerialConnection {
             os = new BufferedOutputStream(serialPort.getOutputStream());
             is = new BufferedInputStream(serialPort.getInputStream());
             reader = new BufferedReader(new InputStreamReader(is));
+            if (!serialPort.addDataListener(new DataAvailableListener()))
+                LOGGER.warn("Serial data listener unavailable, reads will poll");
             LOGGER.info("Serial connection initialised: " + connectionProperties);
         } catch (Exception e) {
             close();
@@ -84,6 +92,26 @@ public class SerialConnectionImpl implements SerialConnection {
         }
     }
 
+    @Override
+    public boolean waitForBytes(int numBytes, long timeout) {
+        final long end = currentTimeMillis() + timeout;
+        synchronized (dataLock) {
+            while (available() < numBytes) {
+                final long remaining = end - currentTimeMillis();
+                if (remaining <= 0) return false;
+                try {
+                    dataLock.wait(Math.min(remaining, MAX_EVENT_WAIT));
+                } catch (InterruptedException e) {
+                    if (LOGGER.isTraceEnabled())
+                        LOGGER.trace("Wait for bytes interrupted", e);
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     @Override
     public int read() {
         try {
@@ -160,6 +188,7 @@ public class SerialConnectionImpl implements SerialConnection {
             }
         }
         if (serialPort != null) {
+            serialPort.removeDataListener();
             if (!serialPort.closePort())
                 LOGGER.error("Error closing serial port: " + serialPort.getSystemPortName());
         }
@@ -212,6 +241,22 @@ public class SerialConnectionImpl implements SerialConnection {
     }
 
     private void waitForBytes(int numBytes) {
-        while (available() < numBytes) sleep(2L);
+        while (!waitForBytes(numBytes, MAX_EVENT_WAIT)) {
+            if (Thread.currentThread().isInterrupted()) return;
+        }
+    }
+
+    private final class DataAvailableListener implements SerialPortDataListener {
+        @Override
+        public int getListeningEvents() {
+            return LISTENING_EVENT_DATA_AVAILABLE;
+        }
+
+        @Override
+        public void serialEvent(SerialPortEvent event) {
+            synchronized (dataLock) {
+                dataLock.notifyAll();
+            }
+        }
     }
 }
@@ -25,7 +25,6 @@ import static com.romraider.util.ParamChecker.checkNotNull;
 import static com.romraider.util.ParamChecker.checkNotNullOrEmpty;
 import static com.romraider.util.ThreadUtil.sleep;
 import static java.lang.System.arraycopy;
-import static java.lang.System.currentTimeMillis;
 import static org.apache.log4j.Logger.getLogger;
 
 import org.apache.log4j.Logger;
@@ -33,6 +32,7 @@ import org.apache.log4j.Logger;
 import com.romraider.io.connection.ConnectionManager;
 import com.romraider.io.connection.ConnectionProperties;
 import com.romraider.logger.ecu.comms.manager.PollingState;
+import com.romraider.util.metrics.Metrics;
 
 public final class SerialConnectionManager implements ConnectionManager {
     private static final Logger LOGGER = getLogger(SerialConnectionManager.class);
@@ -40,14 +40,12 @@ public final class SerialConnectionManager implements ConnectionManager {
     private final ConnectionProperties connectionProperties;
     private byte[] lastResponse;
     private final long timeout;
-    private long readTimeout;
 
     public SerialConnectionManager(String portName, ConnectionProperties connectionProperties) {
         checkNotNullOrEmpty(portName, "portName");
         checkNotNull(connectionProperties, "connectionProperties");
         this.connectionProperties = connectionProperties;
         timeout = connectionProperties.getConnectTimeout();
-        readTimeout = timeout;
         // Use TestSerialConnection for testing!!
         connection = new SerialConnectionImpl(portName, connectionProperties);
         //connection = new TestSerialConnection2(portName, connectionProperties);
@@ -73,17 +71,13 @@ public final class SerialConnectionManager implements ConnectionManager {
             connection.readStaleData();
             connection.write(request);
         }
-        while (connection.available() < response.length) {
-            sleep(1);
-            readTimeout -= 1;
-            if (readTimeout <= 0) {
-                byte[] badBytes = connection.readAvailable();
-                if (LOGGER.isDebugEnabled())
-                    LOGGER.debug("Serial Bad Read response (read timeout): " + asHex(badBytes));
-                return; // this will reinitialize the connection
-            }
+        if (!connection.waitForBytes(response.length, timeout)) {
+            Metrics.TIMEOUTS.increment();
+            byte[] badBytes = connection.readAvailable();
+            if (LOGGER.isDebugEnabled())
+                LOGGER.debug("Serial Bad Read response (read timeout): " + asHex(badBytes));
+            return; // this will reinitialize the connection
         }
-        readTimeout = timeout;
         connection.read(response);
 
         if (pollState.getCurrentState() == PollingState.State.STATE_1){
@@ -98,6 +92,7 @@ public final class SerialConnectionManager implements ConnectionManager {
             }
             else{
                 LOGGER.error("Serial Bad Data response: " + asHex(response));
+                Metrics.LAST_RESPONSE.increment();
                 arraycopy(lastResponse, 0, response, 0, response.length);
                 pollState.setNewQuery(true);
             }
@@ -114,16 +109,10 @@ public final class SerialConnectionManager implements ConnectionManager {
         if (LOGGER.isTraceEnabled())
             LOGGER.trace("Writing bytes");
         connection.write(bytes);
+        // wait until the line has been quiet for the timeout period
         int available = 0;
-        boolean keepLooking = true;
-        long lastChange = currentTimeMillis();
-        while (keepLooking) {
-            sleep(2);
-            if (connection.available() != available) {
-                available = connection.available();
-                lastChange = currentTimeMillis();
-            }
-            keepLooking = (currentTimeMillis() - lastChange) < timeout;
+        while (connection.waitForBytes(available + 1, timeout)) {
+            available = connection.available();
         }
         return connection.readAvailable();
     }
@@ -92,6 +92,10 @@ final class TestSerialConnection implements SerialConnection {
         }
     }
 
+    public boolean waitForBytes(int numBytes, long timeout) {
+        return available() >= numBytes;
+    }
+
     public void read(byte[] bytes) {
         if (isEcuInitRequest()) {
             if (module.getName().equalsIgnoreCase("ECU")){
@@ -116,6 +116,15 @@ final class TestSerialConnection2 implements SerialConnection {
         }
     }
 
+    public boolean waitForBytes(int numBytes, long timeout) {
+        final long end = currentTimeMillis() + timeout;
+        while (available() < numBytes) {
+            if (currentTimeMillis() >= end) return false;
+            sleep(1L);
+        }
+        return true;
+    }
+
     public void read(byte[] bytes) {
         long sleepTime = 500L;
 //        if (readResponse.length == 0) {
@@ -158,6 +158,7 @@ import com.romraider.logger.ecu.ui.SerialPortComboBox;
 import com.romraider.logger.ecu.ui.StatusIndicator;
 import com.romraider.logger.ecu.ui.handler.DataUpdateHandlerManager;
 import com.romraider.logger.ecu.ui.handler.DataUpdateHandlerManagerImpl;
+import com.romraider.logger.ecu.ui.handler.FrameScheduler;
 import com.romraider.logger.ecu.ui.handler.dash.DashboardUpdateHandler;
 import com.romraider.logger.ecu.ui.handler.dyno.DynoUpdateHandler;
 import com.romraider.logger.ecu.ui.handler.file.FileLoggerControllerSwitchHandler;
@@ -168,6 +169,7 @@ import com.romraider.logger.ecu.ui.handler.injector.InjectorUpdateHandler;
 import com.romraider.logger.ecu.ui.handler.livedata.LiveDataTableModel;
 import com.romraider.logger.ecu.ui.handler.livedata.LiveDataUpdateHandler;
 import com.romraider.logger.ecu.ui.handler.maf.MafUpdateHandler;
+import com.romraider.logger.ecu.ui.handler.table.CellHitUpdateHandler;
 import com.romraider.logger.ecu.ui.handler.table.TableUpdateHandler;
 import com.romraider.logger.ecu.ui.paramlist.ParameterListTable;
 import com.romraider.logger.ecu.ui.paramlist.ParameterListTableModel;
@@ -442,9 +444,14 @@ public final class EcuLogger extends AbstractFrame implements MessageListener {
         mafUpdateHandler = new MafUpdateHandler();
         injectorUpdateHandler = new InjectorUpdateHandler();
         dynoUpdateHandler = new DynoUpdateHandler();
+        FrameScheduler.getInstance().addListener(liveDataUpdateHandler);
+        FrameScheduler.getInstance().addListener(graphUpdateHandler);
+        FrameScheduler.getInstance().addListener(dashboardUpdateHandler);
+        FrameScheduler.getInstance().addListener(TableUpdateHandler.getInstance());
         controller = new LoggerControllerImpl(ecuInitCallback, this, liveDataUpdateHandler,
                 graphUpdateHandler, dashboardUpdateHandler, mafUpdateHandler, injectorUpdateHandler,
-                dynoUpdateHandler, fileUpdateHandler, TableUpdateHandler.getInstance());
+                dynoUpdateHandler, fileUpdateHandler, TableUpdateHandler.getInstance(),
+                CellHitUpdateHandler.getInstance());
 
         mafHandlerManager = new DataUpdateHandlerManagerImpl();
         mafTabBroker = new DataRegistrationBrokerImpl(controller, mafHandlerManager);
@@ -765,6 +772,7 @@ public final class EcuLogger extends AbstractFrame implements MessageListener {
         for (ParameterRow row : rows) {
             LoggerData loggerData = row.getLoggerData();
             setDefaultUnits(profile, loggerData);
+            loggerData.setTargetRate(profile.getTargetRate(loggerData));
             paramListTableModel.selectParam(loggerData, isSelectedOnLiveDataTab(profile, loggerData));
         }
     }
@@ -935,7 +943,8 @@ public final class EcuLogger extends AbstractFrame implements MessageListener {
             boolean dataTabSelected = dataTabRow.isSelected();
             boolean graphTabSelected = isEcuDataSelected(id, graphTabRows);
             boolean dashTabSelected = isEcuDataSelected(id, dashTabRows);
-            profileItems.put(id, new UserProfileItemImpl(units, dataTabSelected, graphTabSelected, dashTabSelected));
+            double rate = dataTabRow.getLoggerData().getTargetRate();
+            profileItems.put(id, new UserProfileItemImpl(units, dataTabSelected, graphTabSelected, dashTabSelected, rate));
         }
         return profileItems;
     }
@@ -1741,6 +1750,7 @@ public final class EcuLogger extends AbstractFrame implements MessageListener {
         panel.add(resetButton, NORTH);
         JScrollPane sp = new JScrollPane(new JTable(dataTableModel), VERTICAL_SCROLLBAR_AS_NEEDED, HORIZONTAL_SCROLLBAR_NEVER);
         sp.getVerticalScrollBar().setUnitIncrement(40);
+        liveDataUpdateHandler.setDisplay(sp);
         panel.add(sp, CENTER);
         return panel;
     }
@@ -1977,6 +1987,10 @@ public final class EcuLogger extends AbstractFrame implements MessageListener {
         dataHandlerManager.cleanUp();
         graphHandlerManager.cleanUp();
         dashboardHandlerManager.cleanUp();
+        FrameScheduler.getInstance().removeListener(liveDataUpdateHandler);
+        FrameScheduler.getInstance().removeListener(graphUpdateHandler);
+        FrameScheduler.getInstance().removeListener(dashboardUpdateHandler);
+        FrameScheduler.getInstance().removeListener(TableUpdateHandler.getInstance());
     }
 
     public Settings getSettings() {
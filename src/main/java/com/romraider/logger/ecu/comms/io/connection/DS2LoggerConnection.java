@@ -21,6 +21,7 @@ package com.romraider.logger.ecu.comms.io.connection;
 
 import static com.romraider.util.HexUtil.asHex;
 import static com.romraider.util.ParamChecker.checkNotNull;
+import static java.lang.System.nanoTime;
 import static org.apache.log4j.Logger.getLogger;
 
 import java.util.ArrayList;
@@ -45,6 +46,7 @@ import com.romraider.logger.ecu.definition.Module;
 import com.romraider.logger.ecu.exception.SerialCommunicationException;
 import com.romraider.util.ResourceUtil;
 import com.romraider.util.SettingsManager;
+import com.romraider.util.metrics.Metrics;
 
 public final class DS2LoggerConnection implements LoggerConnection {
     private static final Logger LOGGER = getLogger(DS2LoggerConnection.class);
@@ -54,6 +56,7 @@ public final class DS2LoggerConnection implements LoggerConnection {
     private final ConnectionManager manager;
     private final Settings settings = SettingsManager.getSettings();
     private int queryCount;
+    private long phaseStart;
 
     public DS2LoggerConnection(ConnectionManager manager) {
         checkNotNull(manager, "manager");
@@ -100,6 +103,7 @@ public final class DS2LoggerConnection implements LoggerConnection {
             Module module,
             PollingState pollState) {
 
+        phaseStart = nanoTime();
         // Group the queries into common command groups
         final Map<String, Collection<EcuQuery>> groupList = getGroupList(queries);
 
@@ -127,6 +131,7 @@ public final class DS2LoggerConnection implements LoggerConnection {
                             queryList,
                             sendRcv(module, request, response, pollState),
                             pollState);
+                    responseDecoded();
                 }
             }
             // read data starting at address [00 SG HI LO NN] NN - number of bytes<249
@@ -145,6 +150,7 @@ public final class DS2LoggerConnection implements LoggerConnection {
                     protocol.processReadMemoryRangeResponse(
                             querySet,
                             sendRcv(module, request, response, pollState));
+                    responseDecoded();
                 }
                 else {
                     for (EcuQuery query : querySet) {
@@ -161,6 +167,7 @@ public final class DS2LoggerConnection implements LoggerConnection {
                                 queryList,
                                 sendRcv(module, request, response, pollState),
                                 pollState);
+                        responseDecoded();
                     }
                 }
             }
@@ -189,6 +196,7 @@ public final class DS2LoggerConnection implements LoggerConnection {
                         querySet,
                         sendRcv(module, request, response, pollState),
                         pollState);
+                responseDecoded();
             }
             // user selected parameter list
             // [01 NN B4 B3 B2 B1 B0 ... B4n B3n B2n B1n B0n] NN<33h
@@ -214,6 +222,7 @@ public final class DS2LoggerConnection implements LoggerConnection {
                             request.length);
                     protocol.validateSetAddressResponse(
                             sendRcv(module, request, response, pollState));
+                    responseDecoded();
                     queryCount = querySet.size();
                 }
                 // Read set addresses
@@ -230,6 +239,7 @@ public final class DS2LoggerConnection implements LoggerConnection {
                         querySet,
                         sendRcv(module, request, response, pollState),
                         pollState);
+                responseDecoded();
             }
         }
     }
@@ -299,8 +309,27 @@ public final class DS2LoggerConnection implements LoggerConnection {
         return groups;
     }
 
+    // the CPU time of a poll is split at each send: the time before it is
+    // spent building the request, the time after it up to the end of
+    // processing the response is spent decoding it
+    private void requestBuilt() {
+        Metrics.REQUEST_BUILD.record(nanoTime() - phaseStart);
+    }
+
+    private void responseReceived() {
+        phaseStart = nanoTime();
+    }
+
+    private void responseDecoded() {
+        final long now = nanoTime();
+        Metrics.RESPONSE_DECODE.record(now - phaseStart);
+        phaseStart = now;
+    }
+
     private byte[] sendRcv(Module module, byte[] request, byte[] response, PollingState pollState) {
+        requestBuilt();
         manager.send(request, response, pollState);
+        responseReceived();
         if (LOGGER.isTraceEnabled())
             LOGGER.trace(module + " Read Raw Response <--- " + asHex(response));
         final byte[] processedResponse = protocol.preprocessResponse(
@@ -37,6 +37,16 @@ public final class LoggerConnectionFactory {
         return instantiateConnection(protocolName, manager);
     }
 
+    public static LoggerConnection getConnection(
+            final String protocolName,
+            final String portName,
+            final ConnectionProperties connectionProperties,
+            final String library) {
+
+        final ConnectionManager manager = getManager(portName, connectionProperties, library);
+        return instantiateConnection(protocolName, manager);
+    }
+
     private static LoggerConnection instantiateConnection(
             final String protocolName,
             final ConnectionManager manager) {
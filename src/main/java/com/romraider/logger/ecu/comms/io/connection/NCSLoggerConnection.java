@@ -22,6 +22,7 @@ package com.romraider.logger.ecu.comms.io.connection;
 import static com.romraider.util.HexUtil.asHex;
 import static com.romraider.util.ParamChecker.checkNotNull;
 import static com.romraider.util.ThreadUtil.sleep;
+import static java.lang.System.nanoTime;
 import static org.apache.log4j.Logger.getLogger;
 
 import java.util.ArrayList;
@@ -34,6 +35,7 @@ import org.apache.log4j.Logger;
 import com.romraider.Settings;
 import com.romraider.util.ResourceUtil;
 import com.romraider.util.SettingsManager;
+import com.romraider.util.metrics.Metrics;
 import com.romraider.io.connection.ConnectionManager;
 import com.romraider.io.protocol.ProtocolFactory;
 import com.romraider.logger.ecu.comms.io.protocol.LoggerProtocolNCS;
@@ -53,6 +55,7 @@ public final class NCSLoggerConnection implements LoggerConnection {
     private final LoggerProtocolNCS protocol;
     private final ConnectionManager manager;
     private int queryCount;
+    private long phaseStart;
     private final Settings settings = SettingsManager.getSettings();
     private final Collection<EcuQuery> scQuery = new ArrayList<EcuQuery>();
     private final Collection<EcuQuery> ramQuery = new ArrayList<EcuQuery>();
@@ -245,6 +248,7 @@ public final class NCSLoggerConnection implements LoggerConnection {
 
         // ConnectionManger must have completed a fastInit to start comms
         if (!commsStarted) open(module);
+        phaseStart = nanoTime();
 
         // CAN Slow poll, read each parameter in a separate query, inefficient
         if (settings.isCanBus() && !pollState.isFastPoll()) {
@@ -339,6 +343,7 @@ public final class NCSLoggerConnection implements LoggerConnection {
             }
             protocol.validateLoadAddressResponse(
                     sendRcv(module, request, response, pollState));
+            responseDecoded();
             queryCount = queries.size();
         }
         final byte[] request = protocol.constructReadAddressRequest(
@@ -355,6 +360,7 @@ public final class NCSLoggerConnection implements LoggerConnection {
                 queries,
                 sendRcv(module, request, response, pollState),
                 pollState);
+        responseDecoded();
     }
 
     /**
@@ -401,7 +407,7 @@ public final class NCSLoggerConnection implements LoggerConnection {
                     if (LOGGER.isDebugEnabled())
                         LOGGER.debug(String.format("%s Standard Diagnostics Request  ---> %s",
                             module, asHex(request)));
-                    response = manager.send(request);
+                    response = send(request);
                     if (LOGGER.isDebugEnabled())
                         LOGGER.debug(String.format("%s Standard Diagnostics Response <--- %s",
                             module, asHex(response)));
@@ -418,6 +424,7 @@ public final class NCSLoggerConnection implements LoggerConnection {
                         sidQuery,
                         sendRcv(module, request, response, pollState),
                         pollState);
+                responseDecoded();
             }
         }
         // if query address is not an SID, elevate diag session and
@@ -428,7 +435,7 @@ public final class NCSLoggerConnection implements LoggerConnection {
                 if (LOGGER.isDebugEnabled())
                     LOGGER.debug(String.format("%s Elevated Diagnostics Request  ---> %s",
                         module, asHex(request)));
-                response = manager.send(request);
+                response = send(request);
                 if (LOGGER.isDebugEnabled())
                     LOGGER.debug(String.format("%s Elevated Diagnostics Response <--- %s",
                         module, asHex(response)));
@@ -448,6 +455,7 @@ public final class NCSLoggerConnection implements LoggerConnection {
                 protocol.processReadMemoryResponses(
                         ramQuery,
                         sendRcv(module, request, response, pollState));
+                responseDecoded();
             }
             else {
                 // for each query in the collection create a new collection with one item
@@ -464,6 +472,7 @@ public final class NCSLoggerConnection implements LoggerConnection {
                     protocol.processReadMemoryResponses(
                             newQuery,
                             sendRcv(module, request, response, pollState));
+                    responseDecoded();
                 }
             }
         }
@@ -497,11 +506,12 @@ public final class NCSLoggerConnection implements LoggerConnection {
                     throw new SerialCommunicationException(
                             rb.getString("TOOLARGE"));
                 }
-                response = manager.send(request);
+                response = send(request);
                 if (LOGGER.isDebugEnabled())
                     LOGGER.debug(String.format("Mode:%s %s Load address response  <--- %s",
                         pollState.getCurrentState(), module, asHex(response)));
                 protocol.validateLoadAddressResponse(response);
+                responseDecoded();
             }
             request = protocol.constructReadAddressRequest(
                     module, scQuery, pollState);
@@ -511,6 +521,7 @@ public final class NCSLoggerConnection implements LoggerConnection {
                     scQuery,
                     sendRcv(module, request, response, pollState),
                     pollState);
+            responseDecoded();
         }
         // When parameter selection changes or there are SID CID parameters present
         // load and read the RAM parameters separate from the SID CID parameters
@@ -525,11 +536,12 @@ public final class NCSLoggerConnection implements LoggerConnection {
                     throw new SerialCommunicationException(
                             rb.getString("TOOLARGE"));
                 }
-                response = manager.send(request);
+                response = send(request);
                 if (LOGGER.isDebugEnabled())
                     LOGGER.debug(String.format("Mode:%s %s Load address response  <--- %s",
                         pollState.getCurrentState(), module, asHex(response)));
                 protocol.validateLoadAddressResponse(response);
+                responseDecoded();
                 pollState.setFastPoll(true);
             }
             request = protocol.constructReadAddressRequest(
@@ -540,14 +552,41 @@ public final class NCSLoggerConnection implements LoggerConnection {
                     ramQuery,
                     sendRcv(module, request, response, pollState),
                     pollState);
+            responseDecoded();
         }
     }
 
+    private byte[] send(byte[] request) {
+        requestBuilt();
+        final byte[] response = manager.send(request);
+        responseReceived();
+        return response;
+    }
+
+    // the CPU time of a poll is split at each send: the time before it is
+    // spent building the request, the time after it up to the end of
+    // processing the response is spent decoding it
+    private void requestBuilt() {
+        Metrics.REQUEST_BUILD.record(nanoTime() - phaseStart);
+    }
+
+    private void responseReceived() {
+        phaseStart = nanoTime();
+    }
+
+    private void responseDecoded() {
+        final long now = nanoTime();
+        Metrics.RESPONSE_DECODE.record(now - phaseStart);
+        phaseStart = now;
+    }
+
     private byte[] sendRcv(
             Module module, byte[] request,
             byte[] response, PollingState pollState) {
 
+        requestBuilt();
         manager.send(request, response, pollState);
+        responseReceived();
         if (LOGGER.isTraceEnabled())
             LOGGER.trace(module + " Read Raw Response <--- " + asHex(response));
         final byte[] processedResponse = protocol.preprocessResponse(
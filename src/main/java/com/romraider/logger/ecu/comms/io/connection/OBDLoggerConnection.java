@@ -21,6 +21,7 @@ package com.romraider.logger.ecu.comms.io.connection;
 
 import static com.romraider.util.HexUtil.asHex;
 import static com.romraider.util.ParamChecker.checkNotNull;
+import static java.lang.System.nanoTime;
 import static org.apache.log4j.Logger.getLogger;
 
 import java.util.ArrayList;
@@ -32,6 +33,7 @@ import org.apache.log4j.Logger;
 
 import com.romraider.Settings;
 import com.romraider.util.SettingsManager;
+import com.romraider.util.metrics.Metrics;
 import com.romraider.io.connection.ConnectionManager;
 import com.romraider.io.protocol.ProtocolFactory;
 import com.romraider.logger.ecu.comms.io.protocol.LoggerProtocolOBD;
@@ -155,6 +157,7 @@ public final class OBDLoggerConnection implements LoggerConnection {
             for (int j = i; (j < i + 6) && (j < obdQueryListLength); j++) {
                 obdQueries.add(((ArrayList<EcuQuery>) queries).get(j));
             }
+            long start = nanoTime();
             final byte[] request = protocol.constructReadAddressRequest(
                     module, obdQueries);
             if (LOGGER.isDebugEnabled())
@@ -163,7 +166,9 @@ public final class OBDLoggerConnection implements LoggerConnection {
 
             final byte[] response = protocol.constructReadAddressResponse(
                     obdQueries, pollState);
+            Metrics.REQUEST_BUILD.record(nanoTime() - start);
             manager.send(request, response, pollState);
+            start = nanoTime();
             final byte[] processedResponse = protocol.preprocessResponse(
                     request, response, pollState);
             if (LOGGER.isDebugEnabled())
@@ -171,6 +176,7 @@ public final class OBDLoggerConnection implements LoggerConnection {
                     pollState.getCurrentState(), module, asHex(processedResponse)));
             protocol.processReadAddressResponses(
                     obdQueries, processedResponse, pollState);
+            Metrics.RESPONSE_DECODE.record(nanoTime() - start);
             obdQueries.clear();
         }
     }
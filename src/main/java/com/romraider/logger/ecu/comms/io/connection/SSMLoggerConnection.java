@@ -21,6 +21,7 @@ package com.romraider.logger.ecu.comms.io.connection;
 
 import static com.romraider.util.HexUtil.asHex;
 import static com.romraider.util.ParamChecker.checkNotNull;
+import static java.lang.System.nanoTime;
 import static org.apache.log4j.Logger.getLogger;
 
 import java.util.ArrayList;
@@ -34,12 +35,14 @@ import com.romraider.Settings;
 import com.romraider.io.connection.ConnectionManager;
 import com.romraider.io.protocol.ProtocolFactory;
 import com.romraider.logger.ecu.comms.io.protocol.LoggerProtocol;
+import com.romraider.logger.ecu.comms.io.protocol.LoggerProtocolBlockRead;
 import com.romraider.logger.ecu.comms.manager.PollingState;
 import com.romraider.logger.ecu.comms.manager.PollingStateImpl;
 import com.romraider.logger.ecu.comms.query.EcuInitCallback;
 import com.romraider.logger.ecu.comms.query.EcuQuery;
 import com.romraider.logger.ecu.definition.Module;
 import com.romraider.util.SettingsManager;
+import com.romraider.util.metrics.Metrics;
 
 public final class SSMLoggerConnection implements LoggerConnection {
     private static final Logger LOGGER = getLogger(SSMLoggerConnection.class);
@@ -126,26 +129,64 @@ public final class SSMLoggerConnection implements LoggerConnection {
             }
         }
         else {
-            final byte[] request = protocol.constructReadAddressRequest(
-                    module, queries);
-            if (pollState.getCurrentState() == PollingState.State.STATE_0) {
+            // the protocol may find it quicker to split the read up
+            final int count = planReads(module, queries, pollState);
+            if (count > 1) {
+                final LoggerProtocolBlockRead blockProtocol =
+                        (LoggerProtocolBlockRead) protocol;
+                for (int i = 0; i < count; i++) {
+                    long start = nanoTime();
+                    final byte[] request = blockProtocol.constructReadRequest(i);
+                    if (LOGGER.isDebugEnabled())
+                        LOGGER.debug(module + " Block Request  ---> " + asHex(request));
+                    final byte[] response = blockProtocol.constructReadResponse(i);
+                    Metrics.REQUEST_BUILD.record(nanoTime() - start);
+                    manager.send(request, response, pollState);
+                    start = nanoTime();
+                    final byte[] processedResponse = protocol.preprocessResponse(
+                            request, response, pollState);
+                    if (LOGGER.isDebugEnabled())
+                        LOGGER.debug(module + " Block Response <--- " + asHex(processedResponse));
+                    blockProtocol.processReadResponse(queries, i, processedResponse);
+                    Metrics.RESPONSE_DECODE.record(nanoTime() - start);
+                }
+            }
+            else {
+                long start = nanoTime();
+                final byte[] request = protocol.constructReadAddressRequest(
+                        module, queries);
+                if (pollState.getCurrentState() == PollingState.State.STATE_0) {
+                    if (LOGGER.isDebugEnabled())
+                        LOGGER.debug("Mode:" + pollState.getCurrentState() + " " +
+                            module + " Request  ---> " + asHex(request));
+                }
+                final byte[] response = protocol.constructReadAddressResponse(
+                        queries, pollState);
+                Metrics.REQUEST_BUILD.record(nanoTime() - start);
+                manager.send(request, response, pollState);
+                start = nanoTime();
+                final byte[] processedResponse = protocol.preprocessResponse(
+                        request, response, pollState);
                 if (LOGGER.isDebugEnabled())
                     LOGGER.debug("Mode:" + pollState.getCurrentState() + " " +
-                        module + " Request  ---> " + asHex(request));
+                        module + " Response <--- " + asHex(processedResponse));
+                protocol.processReadAddressResponses(
+                        queries, processedResponse, pollState);
+                Metrics.RESPONSE_DECODE.record(nanoTime() - start);
             }
-            final byte[] response = protocol.constructReadAddressResponse(
-                    queries, pollState);
-            manager.send(request, response, pollState);
-            final byte[] processedResponse = protocol.preprocessResponse(
-                    request, response, pollState);
-            if (LOGGER.isDebugEnabled())
-                LOGGER.debug("Mode:" + pollState.getCurrentState() + " " +
-                    module + " Response <--- " + asHex(processedResponse));
-            protocol.processReadAddressResponses(
-                    queries, processedResponse, pollState);
         }
     }
 
+    // the number of requests a block read protocol splits this poll into
+    private int planReads(Module module, Collection<EcuQuery> queries,
+            PollingState pollState) {
+        if (protocol instanceof LoggerProtocolBlockRead) {
+            return ((LoggerProtocolBlockRead) protocol).planReads(
+                    module, queries, pollState);
+        }
+        return 1;
+    }
+
     @Override
     public void clearLine() {
         manager.clearLine();
@@ -0,0 +1,51 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.comms.io.protocol;
+
+import java.util.Collection;
+
+import com.romraider.logger.ecu.comms.manager.PollingState;
+import com.romraider.logger.ecu.comms.query.EcuQuery;
+import com.romraider.logger.ecu.definition.Module;
+
+/**
+ * A LoggerProtocol which can split one poll into several requests when
+ * that is quicker than a single address list, for example by reading
+ * runs of neighbouring addresses as memory blocks.
+ */
+public interface LoggerProtocolBlockRead extends LoggerProtocol {
+
+    /**
+     * Plan the reads for a query set.
+     * @return the number of requests needed, 1 to use the normal
+     * constructReadAddressRequest path
+     */
+    int planReads(Module module, Collection<EcuQuery> queries, PollingState pollState);
+
+    byte[] constructReadRequest(int index);
+
+    byte[] constructReadResponse(int index);
+
+    /**
+     * Process the response to one of the planned requests, the queries
+     * are updated after the last one.
+     */
+    void processReadResponse(Collection<EcuQuery> queries, int index, byte[] response);
+}
@@ -0,0 +1,266 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.comms.io.protocol;
+
+import static com.romraider.util.ParamChecker.checkGreaterThanZero;
+import static com.romraider.util.ParamChecker.checkNotNullOrEmpty;
+import static java.lang.System.arraycopy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import com.romraider.logger.ecu.comms.query.EcuQuery;
+import com.romraider.logger.ecu.definition.Module;
+
+/**
+ * The layout of an address read for one set of queries. It is built when
+ * the query set changes and reused every poll after that: the addresses
+ * are de-duplicated once, the request is assembled once, and the
+ * response and per-query buffers are allocated once.
+ */
+public final class ReadAddressPlan {
+    private final EcuQuery[] queries;
+    private final int[] slots;
+    private final int[] offsets;
+    private final byte[][] buffers;
+    private final byte[][] addresses;
+    private final int[] addressSlots;
+    private final int[] addressOffsets;
+    private final int dataSize;
+    private final int dataLength;
+    private byte[] request;
+    private Module requestModule;
+    private boolean requestFastPoll;
+    private final byte[][] responses = new byte[2][];
+    private byte[] processed;
+    private Object attachment;
+
+    /**
+     * @param queries - the queries in the order they are sent
+     * @param addressSize - bytes per address in the request
+     * @param dataSize - bytes returned per address in the response
+     */
+    public ReadAddressPlan(Collection<EcuQuery> queries, int addressSize, int dataSize) {
+        checkNotNullOrEmpty(queries, "queries");
+        checkGreaterThanZero(addressSize, "addressSize");
+        checkGreaterThanZero(dataSize, "dataSize");
+        this.queries = queries.toArray(new EcuQuery[queries.size()]);
+        slots = new int[this.queries.length];
+
+        // duplicate queries share the slot of the first with the same address
+        final Map<String, Integer> unique = new HashMap<String, Integer>();
+        final List<EcuQuery> distinct = new ArrayList<EcuQuery>();
+        for (int i = 0; i < this.queries.length; i++) {
+            final String hex = this.queries[i].getHex();
+            Integer slot = unique.get(hex);
+            if (slot == null) {
+                slot = distinct.size();
+                unique.put(hex, slot);
+                distinct.add(this.queries[i]);
+            }
+            slots[i] = slot;
+        }
+
+        offsets = new int[distinct.size()];
+        buffers = new byte[distinct.size()][];
+        int count = 0;
+        for (int i = 0; i < distinct.size(); i++) {
+            final int n = distinct.get(i).getBytes().length / addressSize;
+            offsets[i] = count * dataSize;
+            buffers[i] = new byte[n * dataSize];
+            count += n;
+        }
+        addresses = new byte[count][addressSize];
+        addressSlots = new int[count];
+        addressOffsets = new int[count];
+        int a = 0;
+        for (int i = 0; i < distinct.size(); i++) {
+            final byte[] bytes = distinct.get(i).getBytes();
+            for (int j = 0; j < bytes.length / addressSize; j++) {
+                arraycopy(bytes, j * addressSize, addresses[a], 0, addressSize);
+                addressSlots[a] = i;
+                addressOffsets[a] = j * dataSize;
+                a++;
+            }
+        }
+        this.dataSize = dataSize;
+        dataLength = count * dataSize;
+    }
+
+    /**
+     * @return true if queries holds the same query objects, in the same
+     * order, as this plan was built from
+     */
+    public boolean matches(Collection<EcuQuery> queries) {
+        if (queries.size() != this.queries.length) return false;
+        if (queries instanceof List && queries instanceof RandomAccess) {
+            final List<EcuQuery> list = (List<EcuQuery>) queries;
+            for (int i = 0; i < this.queries.length; i++) {
+                if (list.get(i) != this.queries[i]) return false;
+            }
+            return true;
+        }
+        int i = 0;
+        for (EcuQuery query : queries) {
+            if (query != this.queries[i++]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the distinct addresses in request order
+     */
+    public byte[][] getAddresses() {
+        return addresses;
+    }
+
+    /**
+     * @return the addresses in request order as unsigned big-endian values
+     */
+    public int[] getAddressValues() {
+        final int[] values = new int[addresses.length];
+        for (int i = 0; i < addresses.length; i++) {
+            int value = 0;
+            for (byte b : addresses[i]) {
+                value = (value << 8) | (b & 0xFF);
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+
+    /**
+     * @return the number of distinct addresses
+     */
+    public int getAddressCount() {
+        return addresses.length;
+    }
+
+    /**
+     * @return the number of data bytes in a response
+     */
+    public int getDataLength() {
+        return dataLength;
+    }
+
+    /**
+     * @return the request previously stored for this module and poll mode,
+     * or null if it has to be built
+     */
+    public byte[] getRequest(Module module, boolean fastPoll) {
+        return module == requestModule && fastPoll == requestFastPoll ? request : null;
+    }
+
+    public void setRequest(Module module, boolean fastPoll, byte[] request) {
+        this.requestModule = module;
+        this.requestFastPoll = fastPoll;
+        this.request = request;
+    }
+
+    /**
+     * Get a reusable response buffer, cleared so that a read which times
+     * out cannot pass off the previous response as its own.
+     * @param index - which buffer, one per response length in use
+     * @param length - the response length
+     * @return a buffer of the given length
+     */
+    public byte[] getResponse(int index, int length) {
+        byte[] response = responses[index];
+        if (response == null || response.length != length) {
+            response = new byte[length];
+            responses[index] = response;
+        } else {
+            Arrays.fill(response, (byte) 0);
+        }
+        return response;
+    }
+
+    /**
+     * @return true if response is one of this plan's response buffers
+     */
+    public boolean isResponse(byte[] response) {
+        return response == responses[0] || response == responses[1];
+    }
+
+    /**
+     * Get the reusable buffer for a response with the request echo removed.
+     * @param length - the length of the processed response
+     */
+    public byte[] getProcessed(int length) {
+        if (processed == null || processed.length != length) {
+            processed = new byte[length];
+        }
+        return processed;
+    }
+
+    /**
+     * @return protocol specific data stored with this plan
+     */
+    public Object getAttachment() {
+        return attachment;
+    }
+
+    public void setAttachment(Object attachment) {
+        this.attachment = attachment;
+    }
+
+    /**
+     * Copy the data for some of the addresses out of a response, for
+     * reads which are split over several requests. Call publish() once
+     * every part has been copied.
+     * @param indices - address indices, as in getAddresses()
+     * @param positions - position of each address's data in the response data
+     * @param response - the processed response
+     * @param dataOffset - index of the first data byte in response
+     */
+    public void copyData(int[] indices, int[] positions, byte[] response, int dataOffset) {
+        for (int i = 0; i < indices.length; i++) {
+            final int a = indices[i];
+            arraycopy(response, dataOffset + positions[i] * dataSize,
+                    buffers[addressSlots[a]], addressOffsets[a], dataSize);
+        }
+    }
+
+    /**
+     * Set the data copied by copyData on every query.
+     */
+    public void publish() {
+        for (int i = 0; i < queries.length; i++) {
+            queries[i].setResponse(buffers[slots[i]]);
+        }
+    }
+
+    /**
+     * Hand each query its slice of the response data.
+     * @param response - the processed response
+     * @param dataOffset - index of the first data byte in response
+     */
+    public void setResponses(byte[] response, int dataOffset) {
+        for (int i = 0; i < buffers.length; i++) {
+            arraycopy(response, dataOffset + offsets[i], buffers[i], 0, buffers[i].length);
+        }
+        publish();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.comms.io.protocol;
+
+import static com.romraider.util.ParamChecker.checkGreaterThanZero;
+
+import java.util.Collection;
+
+import com.romraider.logger.ecu.comms.query.EcuQuery;
+
+/**
+ * Keeps the plans of the last few query sets, so a poll which rotates
+ * through several frames does not rebuild a plan for every frame.
+ */
+public final class ReadAddressPlanCache {
+    private final ReadAddressPlan[] plans;
+    private final int addressSize;
+    private final int dataSize;
+    private int next;
+
+    /**
+     * @param size - number of plans kept
+     * @param addressSize - bytes per address in the request
+     * @param dataSize - bytes returned per address in the response
+     */
+    public ReadAddressPlanCache(int size, int addressSize, int dataSize) {
+        checkGreaterThanZero(size, "size");
+        this.plans = new ReadAddressPlan[size];
+        this.addressSize = addressSize;
+        this.dataSize = dataSize;
+    }
+
+    /**
+     * @return the plan for queries, built and replacing the oldest plan
+     * if it is not cached
+     */
+    public ReadAddressPlan get(Collection<EcuQuery> queries) {
+        for (ReadAddressPlan plan : plans) {
+            if (plan != null && plan.matches(queries)) return plan;
+        }
+        final ReadAddressPlan plan = new ReadAddressPlan(queries, addressSize, dataSize);
+        plans[next] = plan;
+        next = (next + 1) % plans.length;
+        return plan;
+    }
+}
@@ -19,67 +19,164 @@
 
 package com.romraider.logger.ecu.comms.manager;
 
+import static java.lang.System.nanoTime;
 
-import java.util.Vector;
+import java.util.concurrent.locks.LockSupport;
 
 import org.apache.log4j.Logger;
+
 import com.romraider.logger.ecu.comms.query.Response;
 import com.romraider.logger.ecu.ui.handler.DataUpdateHandler;
-
+import com.romraider.util.RingBuffer;
+import com.romraider.util.RingBuffer.OverflowPolicy;
+import com.romraider.util.metrics.Histogram;
+import com.romraider.util.metrics.Metrics;
 
 public class AsyncDataUpdateHandler extends Thread {
     private static final Logger LOGGER = Logger.getLogger(AsyncDataUpdateHandler.class);
+    private static final long MAX_WAIT_NANOS = 100000000L;
+    private final RingBuffer<Response> responsesToUpdate;
+    private final DataUpdateHandler[] handlers;
+    private final Histogram[] dispatchTimes;
+    private final long minIntervalNanos;
+    private volatile boolean stop = false;
+    private volatile boolean isRunning = false;
+    private volatile long handlerNanos;
+    private volatile long handlerMaxNanos;
+    private volatile long handledCount;
+
+    public AsyncDataUpdateHandler(DataUpdateHandler[] handlers) {
+        this(handlers, 256, OverflowPolicy.DROP_OLDEST);
+    }
+
+    public AsyncDataUpdateHandler(DataUpdateHandler[] handlers,
+            int queueSize, OverflowPolicy policy) {
+        this(handlers, queueSize, policy, 0L);
+    }
+
+    /**
+     * @param minIntervalNanos minimum time between handler dispatches,
+     * responses arriving in the meantime are queued per the policy
+     */
+    public AsyncDataUpdateHandler(DataUpdateHandler[] handlers,
+            int queueSize, OverflowPolicy policy, long minIntervalNanos) {
+        this.handlers = handlers;
+        this.dispatchTimes = new Histogram[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            dispatchTimes[i] = Metrics.dispatch(handlers[i]);
+        }
+        this.responsesToUpdate = new RingBuffer<Response>(queueSize, policy);
+        this.responsesToUpdate.setDropListener(new RingBuffer.DropListener<Response>() {
+            @Override
+            public void dropped(Response response) {
+                response.release();
+            }
+        });
+        this.minIntervalNanos = minIntervalNanos;
+        setName("AsyncDataUpdater");
+    }
+
+    public void run() {
+        LOGGER.info("Starting " + getName());
+        isRunning = true;
+
+        try {
+            while (!stop) {
+                final Response response = responsesToUpdate.take(MAX_WAIT_NANOS);
+                if (response == null) continue;
+
+                final long start = nanoTime();
+                try {
+                    long last = start;
+                    for (int i = 0; i < handlers.length; i++) {
+                        dispatch(handlers[i], response);
+                        final long now = nanoTime();
+                        dispatchTimes[i].record(now - last);
+                        last = now;
+                    }
+                } finally {
+                    response.release();
+                }
+                final long elapsed = nanoTime() - start;
+                handlerNanos += elapsed;
+                if (elapsed > handlerMaxNanos) handlerMaxNanos = elapsed;
+                handledCount++;
 
-    Vector<Response> responsesToUpdate = new Vector<Response>();
-	DataUpdateHandler[] handlers;
-	private  boolean stop = false;
-	private volatile boolean isRunning = false;
-	
-	public AsyncDataUpdateHandler(DataUpdateHandler[] handlers) {
-		this.handlers = handlers;
-		setName("AsyncDataUpdater");
-	}
-	
-    public void run(){
-    	LOGGER.info("Starting AsyncDataUpdateHandler");
-    	stop = false;
-    	
-    	while(!stop) {	    	
-    		isRunning = true;	
-    		
-	    	synchronized(responsesToUpdate) {		   
-	    		Response r;	    		
-	    		while(!responsesToUpdate.isEmpty()) {
-	    			r = responsesToUpdate.get(0);
-	    			
-		    	   for(DataUpdateHandler handler: handlers) {
-		    		   handler.handleDataUpdate(r);
-		    	   }	
-		    	   
-		    	   responsesToUpdate.remove(0);		    	   
-			  }
-	    	}
-		       
-	       try {
-	    	   Thread.sleep(16); //60 FPS
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
-       }
-    	
-    	LOGGER.info("AsyncDataUpdater stopped.");
-    	isRunning = false;
+                if (minIntervalNanos > 0) {
+                    final long next = start + minIntervalNanos;
+                    long remaining;
+                    while (!stop && (remaining = next - nanoTime()) > 0) {
+                        LockSupport.parkNanos(this, remaining);
+                    }
+                }
+            }
+        } finally {
+            // nothing consumes the queue from here on, so a producer must
+            // not wait for room in it
+            responsesToUpdate.close();
+            Response response;
+            while ((response = responsesToUpdate.poll()) != null) {
+                response.release();
+            }
+        }
+
+        LOGGER.info(String.format(
+                "%s stopped. Enqueued: %d, dropped: %d, " +
+                "handled: %d, handler avg: %.3f ms, max: %.3f ms",
+                getName(), getEnqueuedCount(), getDroppedCount(), handledCount,
+                getAverageHandlerNanos() / 1000000.0,
+                handlerMaxNanos / 1000000.0));
+        isRunning = false;
     }
-    
+
     public void stopUpdater() {
-    	stop = true;
+        stop = true;
+        responsesToUpdate.close();
+        responsesToUpdate.wakeConsumer();
+        LockSupport.unpark(this);
     }
-    
+
+    // a failing handler is logged and skipped, it must not end the lane
+    private void dispatch(DataUpdateHandler handler, Response response) {
+        try {
+            handler.handleDataUpdate(response);
+        } catch (RuntimeException e) {
+            LOGGER.error("Error in data update handler " +
+                    handler.getClass().getSimpleName(), e);
+        }
+    }
+
     public boolean isRunning() {
-    	return isRunning;
+        return isRunning;
     }
-    
+
+    /**
+     * Queue a response, the lane releases it once handled or dropped.
+     */
     public void addResponse(Response response) {
-    	responsesToUpdate.add(response);   
+        if (!responsesToUpdate.offer(response)) {
+            response.release();
+        }
+    }
+
+    public long getEnqueuedCount() {
+        return responsesToUpdate.getEnqueuedCount();
+    }
+
+    public long getDroppedCount() {
+        return responsesToUpdate.getDroppedCount();
+    }
+
+    public long getHandledCount() {
+        return handledCount;
+    }
+
+    public long getAverageHandlerNanos() {
+        final long count = handledCount;
+        return count == 0 ? 0 : handlerNanos / count;
+    }
+
+    public long getMaxHandlerNanos() {
+        return handlerMaxNanos;
     }
-  }
\ No newline at end of file
+}
@@ -0,0 +1,306 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.comms.manager;
+
+import static com.romraider.logger.ecu.comms.io.connection.LoggerConnectionFactory.getConnection;
+import static com.romraider.util.ParamChecker.checkGreaterThanZero;
+import static com.romraider.util.ParamChecker.checkNotNull;
+import static org.apache.log4j.Logger.getLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import com.romraider.Settings;
+import com.romraider.logger.ecu.comms.io.connection.LoggerConnection;
+import com.romraider.logger.ecu.comms.query.EcuInit;
+import com.romraider.logger.ecu.comms.query.EcuInitCallback;
+import com.romraider.logger.ecu.definition.Module;
+import com.romraider.util.SettingsManager;
+
+/**
+ * Sends the init request over several transports at once and keeps the
+ * first connection which returns a valid EcuInit. The other candidates are
+ * closed as soon as the winner is known, so a slow adapter never holds up
+ * the winner or keeps its port open into the next connect.
+ */
+final class ConnectionProbe {
+    private static final Logger LOGGER = getLogger(ConnectionProbe.class);
+    /** Transport value for a serial (or ELM327) connection. */
+    static final String SERIAL = "";
+    private final Module module;
+    private final long timeout;
+    private Result winner;
+    private int pending;
+    private boolean decided;
+
+    /**
+     * A transport to try.
+     */
+    static final class Candidate {
+        private final String name;
+        private final String library;
+
+        /**
+         * @param name - display name used in status messages
+         * @param library - J2534 library, or SERIAL
+         */
+        Candidate(String name, String library) {
+            checkNotNull(name, library);
+            this.name = name;
+            this.library = library;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getLibrary() {
+            return library;
+        }
+    }
+
+    /**
+     * The connection which answered first, still open.
+     */
+    static final class Result {
+        private final Candidate candidate;
+        private final LoggerConnection connection;
+        private final EcuInit ecuInit;
+
+        private Result(Candidate candidate, LoggerConnection connection, EcuInit ecuInit) {
+            this.candidate = candidate;
+            this.connection = connection;
+            this.ecuInit = ecuInit;
+        }
+
+        Candidate getCandidate() {
+            return candidate;
+        }
+
+        LoggerConnection getConnection() {
+            return connection;
+        }
+
+        EcuInit getEcuInit() {
+            return ecuInit;
+        }
+    }
+
+    /**
+     * @param module - the Module to initialize
+     * @param timeout - milliseconds each candidate has to answer once its
+     * connection is open
+     */
+    ConnectionProbe(Module module, long timeout) {
+        checkNotNull(module, "module");
+        checkGreaterThanZero((int) timeout, "timeout");
+        this.module = module;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return the transport the last connected ECU answered on, or null
+     * if none is recorded in the settings
+     */
+    static String getCachedTransport() {
+        final Settings settings = SettingsManager.getSettings();
+        final String ecuId = settings.getLoggerLastEcuId();
+        return ecuId == null ? null : settings.getLoggerEcuTransports().get(ecuId);
+    }
+
+    // kept in the settings so the next session tries it first
+    static void cacheTransport(String ecuId, String library) {
+        if (ecuId == null) return;
+        final Settings settings = SettingsManager.getSettings();
+        settings.setLoggerEcuTransport(ecuId, library);
+        settings.setLoggerLastEcuId(ecuId);
+    }
+
+    /**
+     * Try all candidates in parallel. Each candidate has its own deadline,
+     * counted from the moment its connection is open. Once a winner is
+     * chosen, or every candidate has failed or run out of time, the
+     * connections of the others are closed and their threads interrupted.
+     * @param candidates - the transports to try
+     * @return the first candidate to answer, or null if none did
+     * before its deadline
+     */
+    Result probe(List<Candidate> candidates) {
+        checkNotNull(candidates, "candidates");
+        final List<Attempt> attempts = new ArrayList<Attempt>(candidates.size());
+        synchronized (this) {
+            for (final Candidate candidate : candidates) {
+                final Attempt attempt = new Attempt(candidate);
+                attempt.thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        attempt(attempt);
+                    }
+                }, "Probe " + candidate.getName());
+                attempt.thread.setDaemon(true);
+                attempt.deadline = System.nanoTime()
+                        + TimeUnit.MILLISECONDS.toNanos(timeout);
+                attempts.add(attempt);
+            }
+        }
+        for (Attempt attempt : attempts) {
+            attempt.thread.start();
+        }
+        Result result = null;
+        final List<Attempt> expired = new ArrayList<Attempt>();
+        try {
+            while (true) {
+                synchronized (this) {
+                    final long now = System.nanoTime();
+                    long remaining = 0;
+                    for (Attempt attempt : attempts) {
+                        if (attempt.finished || attempt.cancelled) continue;
+                        if (attempt.deadline - now <= 0) {
+                            expired.add(attempt);
+                        } else {
+                            remaining = Math.max(remaining, attempt.deadline - now);
+                        }
+                    }
+                    if (winner != null || (remaining == 0 && expired.isEmpty())) {
+                        break;
+                    }
+                    if (expired.isEmpty()) {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                        continue;
+                    }
+                }
+                // an attempt past its own deadline is stopped at once
+                for (Attempt attempt : expired) {
+                    cancel(attempt);
+                }
+                expired.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            decided = true;
+            result = winner;
+        }
+        for (Attempt attempt : attempts) {
+            if (result == null || attempt.candidate != result.getCandidate()) {
+                cancel(attempt);
+            }
+        }
+        if (result != null) {
+            cacheTransport(result.getEcuInit().getEcuId(),
+                    result.getCandidate().getLibrary());
+        }
+        return result;
+    }
+
+    private void attempt(Attempt attempt) {
+        final Settings settings = SettingsManager.getSettings();
+        final Candidate candidate = attempt.candidate;
+        Result result = null;
+        try {
+            final LoggerConnection connection = getConnection(
+                    settings.getLoggerProtocol(),
+                    settings.getLoggerPort(),
+                    settings.getLoggerConnectionProperties(),
+                    candidate.getLibrary());
+            synchronized (this) {
+                attempt.connection = connection;
+                if (decided || attempt.cancelled) return;
+                attempt.deadline = System.nanoTime()
+                        + TimeUnit.MILLISECONDS.toNanos(timeout);
+            }
+            final EcuInit[] ecuInit = new EcuInit[1];
+            connection.ecuInit(new EcuInitCallback() {
+                @Override
+                public void callback(EcuInit init) {
+                    ecuInit[0] = init;
+                }
+            }, module);
+            if (ecuInit[0] != null) {
+                result = new Result(candidate, connection, ecuInit[0]);
+            }
+        } catch (Exception e) {
+            LOGGER.info(String.format("Probe %s failed: %s",
+                    candidate.getName(), e.getMessage()));
+        } finally {
+            boolean won = false;
+            synchronized (this) {
+                attempt.finished = true;
+                if (result != null && winner == null && !decided
+                        && !attempt.cancelled) {
+                    winner = result;
+                    won = true;
+                }
+                notifyAll();
+            }
+            if (!won) {
+                close(attempt);
+            }
+        }
+    }
+
+    // stop a losing attempt without waiting for its init to return
+    private void cancel(Attempt attempt) {
+        synchronized (this) {
+            if (attempt.finished || attempt.cancelled) return;
+            attempt.cancelled = true;
+        }
+        LOGGER.info(String.format("Probe %s cancelled",
+                attempt.candidate.getName()));
+        attempt.thread.interrupt();
+        close(attempt);
+    }
+
+    private void close(Attempt attempt) {
+        final LoggerConnection connection;
+        synchronized (this) {
+            connection = attempt.connection;
+            if (connection == null || attempt.closed) return;
+            attempt.closed = true;
+        }
+        try {
+            connection.close();
+        } catch (Exception e) {
+            LOGGER.info(String.format("Probe %s close failed: %s",
+                    attempt.candidate.getName(), e.getMessage()));
+        }
+    }
+
+    /**
+     * The state of one candidate, guarded by the probe.
+     */
+    private static final class Attempt {
+        private final Candidate candidate;
+        private Thread thread;
+        private LoggerConnection connection;
+        private long deadline;
+        private boolean finished;
+        private boolean cancelled;
+        private boolean closed;
+
+        private Attempt(Candidate candidate) {
+            this.candidate = candidate;
+        }
+    }
+}
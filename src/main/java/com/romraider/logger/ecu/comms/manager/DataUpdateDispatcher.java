@@ -0,0 +1,101 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.comms.manager;
+
+import static com.romraider.util.ParamChecker.checkNotNull;
+
+import com.romraider.logger.ecu.comms.query.Response;
+import com.romraider.logger.ecu.ui.handler.DataUpdateHandler;
+import com.romraider.logger.ecu.ui.handler.DisplayUpdateHandler;
+import com.romraider.logger.ecu.ui.handler.QueuedUpdateHandler;
+import com.romraider.util.RingBuffer.OverflowPolicy;
+
+/**
+ * Fans each Response out to one dispatch lane per DataUpdateHandler so a
+ * slow handler only delays itself.  Lanes for a {@link DisplayUpdateHandler}
+ * keep only the latest response and run at the display refresh rate.  Lanes
+ * for a {@link QueuedUpdateHandler}, the file logger and the cell hit
+ * recorder, are queued with the configured overflow policy.  All
+ * other lanes, the graphs and analysis tabs, drop their oldest response when
+ * full so they can never hold up the query thread.
+ */
+public final class DataUpdateDispatcher {
+    private final AsyncDataUpdateHandler[] lanes;
+
+    public DataUpdateDispatcher(DataUpdateHandler[] handlers, int queueSize,
+            OverflowPolicy policy, int displayRate) {
+        checkNotNull(handlers, "handlers");
+        final long displayIntervalNanos = displayRate > 0
+                ? 1000000000L / displayRate : 0L;
+        lanes = new AsyncDataUpdateHandler[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            final DataUpdateHandler[] handler = new DataUpdateHandler[] {handlers[i]};
+            if (handlers[i] instanceof DisplayUpdateHandler) {
+                lanes[i] = new AsyncDataUpdateHandler(handler, 1,
+                        OverflowPolicy.COALESCE_LATEST, displayIntervalNanos);
+            }
+            else if (handlers[i] instanceof QueuedUpdateHandler) {
+                lanes[i] = new AsyncDataUpdateHandler(handler, queueSize, policy);
+            }
+            else {
+                lanes[i] = new AsyncDataUpdateHandler(handler, queueSize,
+                        policy == OverflowPolicy.BLOCK
+                                ? OverflowPolicy.DROP_OLDEST : policy);
+            }
+            lanes[i].setName("AsyncDataUpdater-" +
+                    handlers[i].getClass().getSimpleName());
+            lanes[i].setDaemon(true);
+        }
+    }
+
+    public void start() {
+        for (AsyncDataUpdateHandler lane : lanes) {
+            lane.start();
+        }
+    }
+
+    /**
+     * Hand the response to every lane, each holds its own reference so the
+     * caller's reference is unaffected.
+     */
+    public void addResponse(Response response) {
+        response.retain(lanes.length);
+        for (AsyncDataUpdateHandler lane : lanes) {
+            lane.addResponse(response);
+        }
+    }
+
+    public void stop() {
+        for (AsyncDataUpdateHandler lane : lanes) {
+            lane.stopUpdater();
+        }
+    }
+
+    public boolean isRunning() {
+        for (AsyncDataUpdateHandler lane : lanes) {
+            if (lane.isRunning()) return true;
+        }
+        return false;
+    }
+
+    public AsyncDataUpdateHandler[] getLanes() {
+        return lanes.clone();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.comms.manager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.romraider.logger.ecu.comms.query.EcuQuery;
+import com.romraider.logger.ecu.comms.query.ExternalQuery;
+import com.romraider.logger.ecu.comms.query.Query;
+
+/**
+ * The queries being logged, keyed by caller and parameter, with the ECU
+ * and external queries kept in separate lists as they are added and
+ * removed so the poll loop never has to sort them out again. The lists
+ * keep their order and identity until the next change. Only used from
+ * the query manager thread.
+ */
+final class QueryList {
+    private final Map<String, Query> queries = new HashMap<String, Query>();
+    private final List<EcuQuery> ecuQueries = new ArrayList<EcuQuery>();
+    private final List<ExternalQuery> externalQueries = new ArrayList<ExternalQuery>();
+
+    void put(String queryId, Query query) {
+        final Query previous = queries.put(queryId, query);
+        if (previous != null) {
+            unlink(previous);
+        }
+        //FIXME: This is a hack!!
+        if (query instanceof EcuQuery) {
+            ecuQueries.add((EcuQuery) query);
+        }
+        else if (query instanceof ExternalQuery) {
+            externalQueries.add((ExternalQuery) query);
+        }
+    }
+
+    void remove(String queryId) {
+        final Query query = queries.remove(queryId);
+        if (query != null) {
+            unlink(query);
+        }
+    }
+
+    boolean isEmpty() {
+        return queries.isEmpty();
+    }
+
+    int size() {
+        return queries.size();
+    }
+
+    List<EcuQuery> getEcuQueries() {
+        return ecuQueries;
+    }
+
+    List<ExternalQuery> getExternalQueries() {
+        return externalQueries;
+    }
+
+    Query[] toArray() {
+        return queries.values().toArray(new Query[queries.size()]);
+    }
+
+    // by identity, equal queries may be logged for several callers
+    private void unlink(Query query) {
+        final List<? extends Query> list = query instanceof EcuQuery
+                ? ecuQueries : externalQueries;
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == query) {
+                list.remove(i);
+                return;
+            }
+        }
+    }
+}
@@ -25,12 +25,13 @@ import static com.romraider.util.ParamChecker.checkNotNull;
 import static com.romraider.util.ParamChecker.isNullOrEmpty;
 import static com.romraider.util.ThreadUtil.sleep;
 import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
 import static java.util.Collections.synchronizedList;
-import static java.util.Collections.synchronizedMap;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
 
+import java.io.File;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -52,7 +53,9 @@ import com.romraider.logger.ecu.comms.query.ExternalQuery;
 import com.romraider.logger.ecu.comms.query.ExternalQueryImpl;
 import com.romraider.logger.ecu.comms.query.Query;
 import com.romraider.logger.ecu.comms.query.Response;
-import com.romraider.logger.ecu.comms.query.ResponseImpl;
+import com.romraider.logger.ecu.comms.query.IndexedResponse;
+import com.romraider.logger.ecu.comms.query.ResponsePool;
+import com.romraider.logger.ecu.comms.query.ResponseSchema;
 import com.romraider.logger.ecu.definition.EcuData;
 import com.romraider.logger.ecu.definition.ExternalData;
 import com.romraider.logger.ecu.definition.LoggerData;
@@ -63,6 +66,8 @@ import com.romraider.logger.ecu.ui.handler.DataUpdateHandler;
 import com.romraider.logger.ecu.ui.handler.file.FileLoggerControllerSwitchMonitor;
 import com.romraider.util.ResourceUtil;
 import com.romraider.util.SettingsManager;
+import com.romraider.util.metrics.Metrics;
+import com.romraider.util.metrics.MetricsDump;
 
 public final class QueryManagerImpl implements QueryManager {
     private static final Logger LOGGER = Logger.getLogger(QueryManagerImpl.class);
@@ -70,13 +75,21 @@ public final class QueryManagerImpl implements QueryManager {
             QueryManagerImpl.class.getName());
     private final List<StatusChangeListener> listeners =
             synchronizedList(new ArrayList<StatusChangeListener>());
-    private final Map<String, Query> queryMap =
-            synchronizedMap(new HashMap<String, Query>());
+    private final QueryList queryList = new QueryList();
     private final Map<String, Query> addList = new HashMap<String, Query>();
     private final List<String> removeList = new ArrayList<String>();
     private static final PollingState pollState = new PollingStateImpl();
     private static final Settings settings = SettingsManager.getSettings();
     private static final String EXT = "Externals";
+    private static final int RECONNECT_ATTEMPTS = 3;
+    private static final long RECONNECT_DELAY = 250L;
+    private static final long PROBE_TIMEOUT = 5000L;
+    // shortest time between the start of two polls
+    private static final long POLL_INTERVAL = 1000000L;
+    // status bar and stats refresh, the poll itself runs much faster
+    private static final long STATUS_INTERVAL = 250000000L;
+    private static final long METRICS_INTERVAL = 10000L;
+    private static final String METRICS_FILE = "rr_metrics.log";
     private final EcuInitCallback ecuInitCallback;
     private final MessageListener messageListener;
     private FileLoggerControllerSwitchMonitor monitor;
@@ -84,10 +97,17 @@ public final class QueryManagerImpl implements QueryManager {
     private Thread queryManagerThread;
     private static boolean started;
     private static boolean stop;
-    private AsyncDataUpdateHandler dataUpdater;
+    private DataUpdateDispatcher dataUpdater;
     private DataUpdateHandler[] updateHandlers;
+    private ResponsePool responsePool;
+    private ResponseSchema responseSchema;
+    private Query[] responseQueries;
+    private int[] responseSlots;
     private int queryCounter;
     private long queryStart;
+    private LoggerConnection connection;
+    private final QueryScheduler scheduler = new QueryScheduler();
+    private final List<EcuQuery> frameQueries = new ArrayList<EcuQuery>();
 
     public QueryManagerImpl(EcuInitCallback ecuInitCallback,
             MessageListener messageListener,
@@ -192,8 +212,9 @@ public final class QueryManagerImpl implements QueryManager {
                 LOGGER.debug("QueryManager stopped.");
 
             if (dataUpdater != null) {
-                dataUpdater.stopUpdater();
+                dataUpdater.stop();
             }
+            closeConnection();
         }
     }
 
@@ -202,6 +223,10 @@ public final class QueryManagerImpl implements QueryManager {
         final Set<J2534Library> libraries = J2534LibraryLocator.getLibraries(
                 settings.getTransportProtocol().toUpperCase());
 
+        if (settings.isLoggerParallelProbe()) {
+            return probeConnection(module, libraries);
+        }
+
         if (isNullOrEmpty(settings.getJ2534Device())) {
             // No previous J2534 library selected in settings
             for (J2534Library dll : libraries) {
@@ -233,8 +258,72 @@ public final class QueryManagerImpl implements QueryManager {
         return false;
     }
 
+    private boolean probeConnection(Module module, Set<J2534Library> libraries) {
+        closeConnection();
+        final List<ConnectionProbe.Candidate> candidates =
+                new ArrayList<ConnectionProbe.Candidate>();
+        for (J2534Library dll : libraries) {
+            candidates.add(new ConnectionProbe.Candidate(
+                    dll.getVendor(), dll.getLibrary()));
+        }
+        candidates.add(new ConnectionProbe.Candidate(
+                settings.getLoggerPort(), ConnectionProbe.SERIAL));
+
+        // the transport this ECU answered on last time is tried on its own
+        // first, then everything else at once
+        String preferred = ConnectionProbe.getCachedTransport();
+        if (preferred == null && !isNullOrEmpty(settings.getJ2534Device())) {
+            preferred = settings.getJ2534Device();
+        }
+        if (preferred != null) {
+            for (int i = 0; i < candidates.size(); i++) {
+                final ConnectionProbe.Candidate candidate = candidates.get(i);
+                if (candidate.getLibrary().equals(preferred)) {
+                    candidates.remove(i);
+                    final List<ConnectionProbe.Candidate> first =
+                            new ArrayList<ConnectionProbe.Candidate>(1);
+                    first.add(candidate);
+                    if (probeConnection(module, first)) {
+                        return true;
+                    }
+                    break;
+                }
+            }
+        }
+        return !candidates.isEmpty() && probeConnection(module, candidates);
+    }
+
+    private boolean probeConnection(Module module,
+            List<ConnectionProbe.Candidate> candidates) {
+        final StringBuilder names = new StringBuilder();
+        for (ConnectionProbe.Candidate candidate : candidates) {
+            if (names.length() > 0) names.append(", ");
+            names.append(candidate.getName());
+        }
+        LOGGER.info(String.format("Probing %s connections: %s",
+                settings.getTransportProtocol(), names));
+        messageListener.reportMessage(MessageFormat.format(
+                rb.getString("SENDINIT"), module.getName(), names));
+        final ConnectionProbe.Result result =
+                new ConnectionProbe(module, PROBE_TIMEOUT).probe(candidates);
+        if (result == null) {
+            messageListener.reportMessage(MessageFormat.format(
+                    rb.getString("INITFAIL"), module.getName()));
+            return false;
+        }
+        connection = result.getConnection();
+        settings.setJ2534Device(result.getCandidate().getLibrary());
+        ecuInitCallback.callback(result.getEcuInit());
+        messageListener.reportMessage(MessageFormat.format(
+                rb.getString("INITDONE"), module.getName(),
+                result.getCandidate().getName()));
+        return true;
+    }
+
+    // on success the initialized connection is kept open and handed to
+    // the TransmissionManager by runLogger
     private boolean initConnection(final Module module, final String name) {
-        LoggerConnection connection = null;
+        closeConnection();
         boolean rv = false;
         try {
             messageListener.reportMessage(MessageFormat.format(
@@ -250,13 +339,21 @@ public final class QueryManagerImpl implements QueryManager {
             messageListener.reportMessage(MessageFormat.format(
                     rb.getString("INITFAIL"), module.getName()));
             LOGGER.error("Error sending init: " + e.getMessage());
-        }
-        finally {
-            if (connection != null) connection.close();
+            closeConnection();
         }
         return rv;
     }
 
+    private void closeConnection() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
     private void runLogger(Module module) {
         String moduleName = null;
         if (module == null){
@@ -265,26 +362,41 @@ public final class QueryManagerImpl implements QueryManager {
         else {
             moduleName = module.getName();
         }
-        TransmissionManager txManager = new TransmissionManagerImpl();
+        final TransmissionManager txManager = new TransmissionManagerImpl(connection);
+        connection = null;
+        Metrics.reset();
+        final MetricsDump metricsDump = settings.isLoggerMetricsFile()
+                ? new MetricsDump(new File(System.getProperty("user.home")
+                        + "/.RomRaider", METRICS_FILE), METRICS_INTERVAL)
+                : null;
+        if (metricsDump != null) metricsDump.start();
         queryStart = currentTimeMillis();
         queryCounter = 1;
-        long end = currentTimeMillis();
+        final String queryingMessage = MessageFormat.format(
+                rb.getString("QUERYING"), moduleName);
+        long nextStatus = nanoTime();
 
         try {
             txManager.start();
 
             if(dataUpdater != null && dataUpdater.isRunning()) {
-                dataUpdater.stopUpdater();
+                dataUpdater.stop();
             }
 
-            dataUpdater = new AsyncDataUpdateHandler(updateHandlers);
+            dataUpdater = new DataUpdateDispatcher(updateHandlers,
+                    settings.getLoggerUpdateQueueSize(),
+                    settings.getLoggerUpdateOverflowPolicy(),
+                    settings.getLoggerDisplayRefreshRate());
             dataUpdater.start();
+            // enough for every lane queue to be full with a few in flight
+            responsePool = new ResponsePool(settings.getLoggerUpdateQueueSize() + 16);
+            responseSchema = null;
 
             boolean lastPollState = settings.isFastPoll();
             while (!stop) {
                 pollState.setFastPoll(settings.isFastPoll());
                 updateQueryList();
-                if (queryMap.isEmpty()) {
+                if (queryList.isEmpty()) {
                     if (pollState.isLastQuery() &&
                             pollState.getCurrentState() == PollingState.State.STATE_0) {
                         endEcuQueries(txManager);
@@ -294,13 +406,13 @@ public final class QueryManagerImpl implements QueryManager {
                     messageListener.reportMessage(rb.getString("SELECTPARAMS"));
                     sleep(100L);
                 } else {
-                    end = currentTimeMillis() + 1L; // update once every 1msec
-                    final List<EcuQuery> ecuQueries =
-                            filterEcuQueries(queryMap.values());
+                    final long deadline = nanoTime() + POLL_INTERVAL;
 
                     if (!settings.isLogExternalsOnly()) {
-                        if (!ecuQueries.isEmpty()) {
-                            sendEcuQueries(txManager);
+                        if (!queryList.getEcuQueries().isEmpty()) {
+                            if (!sendEcuQueries(module, txManager)) {
+                                continue;
+                            }
                             if (!pollState.isFastPoll() && lastPollState) {
                                 endEcuQueries(txManager);
                             }
@@ -344,16 +456,16 @@ public final class QueryManagerImpl implements QueryManager {
                         }
                     }
                     sendExternalQueries();
-                    // waiting until at least 1msec has passed since last query set
-                    while (currentTimeMillis() < end) {
-                        sleep(1L);
-                    }
+                    waitUntil(deadline);
 
                     handleQueryResponse();
                     queryCounter++;
-                    messageListener.reportMessage(MessageFormat.format(
-                            rb.getString("QUERYING"), moduleName));
-                    messageListener.reportStats(buildStatsMessage(queryStart, queryCounter));
+                    final long now = nanoTime();
+                    if (now - nextStatus >= 0L) {
+                        messageListener.reportMessage(queryingMessage);
+                        messageListener.reportStats(buildStatsMessage(queryStart, queryCounter));
+                        nextStatus = now + STATUS_INTERVAL;
+                    }
                 }
             }
         } catch (Exception e) {
@@ -362,23 +474,72 @@ public final class QueryManagerImpl implements QueryManager {
         } finally {
             messageListener.reportMessage(rb.getString("STOPPING"));
             txManager.stop();
+            if (metricsDump != null) metricsDump.stop();
             pollState.setCurrentState(PollingState.State.STATE_0);
             pollState.setNewQuery(true);
         }
     }
 
     private void sendEcuQueries(TransmissionManager txManager) {
-        final List<EcuQuery> ecuQueries = filterEcuQueries(queryMap.values());
+        List<EcuQuery> ecuQueries = scheduler.nextFrame(
+                queryList.getEcuQueries(),
+                pollState.isFastPoll(),
+                settings.isLoggerAutoSampleRate());
+        // an ECU holding a loaded address list must be sent the new list
+        // whenever the frame carries other queries, even at the same size
+        if (scheduler.isFrameChanged()) {
+            pollState.setNewQuery(true);
+        }
         if (fileLoggerQuery != null
-                && settings.isFileLoggingControllerSwitchActive())
-            ecuQueries.add(fileLoggerQuery);
-            txManager.sendQueries(ecuQueries, pollState);
+                && settings.isFileLoggingControllerSwitchActive()) {
+            // the scheduled list may be the query list itself
+            frameQueries.clear();
+            for (int i = 0; i < ecuQueries.size(); i++) {
+                frameQueries.add(ecuQueries.get(i));
+            }
+            frameQueries.add(fileLoggerQuery);
+            ecuQueries = frameQueries;
+        }
+        txManager.sendQueries(ecuQueries, pollState);
+        scheduler.observe();
+    }
+
+    // A failed read is retried on the same connection with a fresh init
+    // before giving up and letting run() reopen the port from scratch.
+    // Returns false if the queries were not sent but the link was recovered.
+    private boolean sendEcuQueries(Module module, TransmissionManager txManager) {
+        try {
+            sendEcuQueries(txManager);
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Error sending queries: " + e.getMessage());
+            if (module == null || !reconnect(module, txManager)) {
+                throw e;
+            }
+            return false;
+        }
+    }
+
+    private boolean reconnect(Module module, TransmissionManager txManager) {
+        for (int i = 1; i <= RECONNECT_ATTEMPTS && !stop; i++) {
+            messageListener.reportMessage(MessageFormat.format(
+                    rb.getString("RECONNECT"), module.getName(), i));
+            if (txManager.reconnect(ecuInitCallback, module)) {
+                pollState.setCurrentState(PollingState.State.STATE_0);
+                pollState.setLastState(PollingState.State.STATE_0);
+                pollState.setLastQuery(false);
+                pollState.setNewQuery(true);
+                return true;
+            }
+            sleep(RECONNECT_DELAY);
+        }
+        return false;
     }
 
     private void sendExternalQueries() {
-        final List<ExternalQuery> externalQueries =
-                filterExternalQueries(queryMap.values());
-        for (ExternalQuery externalQuery : externalQueries) {
+        final List<ExternalQuery> externalQueries = queryList.getExternalQueries();
+        for (int i = 0; i < externalQueries.size(); i++) {
+            final ExternalQuery externalQuery = externalQueries.get(i);
             //FIXME: This is a hack!!
             externalQuery.setResponse(
                     externalQuery.getLoggerData().getSelectedConvertor().convert(null));
@@ -393,40 +554,47 @@ public final class QueryManagerImpl implements QueryManager {
     private void handleQueryResponse() {
         if (settings.isFileLoggingControllerSwitchActive())
             monitor.monitorFileLoggerSwitch(fileLoggerQuery.getResponse());
-        final Response response = buildResponse(queryMap.values());
-
-
+        final Response response = buildResponse();
         dataUpdater.addResponse(response);
+        response.release();
     }
 
-    private Response buildResponse(Collection<Query> queries) {
-        final Response response = new ResponseImpl();
-        for (final Query query : queries) {
-            response.setDataValue(query.getLoggerData(), query.getResponse());
+    private Response buildResponse() {
+        if (responseSchema == null) {
+            buildResponseSchema();
+        }
+        final IndexedResponse response = responsePool.acquire(responseSchema);
+        for (int i = 0; i < responseQueries.length; i++) {
+            response.setValue(responseSlots[i], responseQueries[i].getResponse());
         }
         return response;
     }
 
-    //FIXME: This is a hack!!
-    private List<EcuQuery> filterEcuQueries(Collection<Query> queries) {
-        List<EcuQuery> filtered = new ArrayList<EcuQuery>();
+    // rebuilt only when the query list changes, the same LoggerData
+    // queried for several callers shares one slot
+    private void buildResponseSchema() {
+        final Query[] queries = queryList.toArray();
+        final List<LoggerData> loggerDatas = new ArrayList<LoggerData>(queries.length);
         for (Query query : queries) {
-            if (EcuQuery.class.isAssignableFrom(query.getClass())) {
-                filtered.add((EcuQuery) query);
-            }
+            loggerDatas.add(query.getLoggerData());
+        }
+        final ResponseSchema schema = new ResponseSchema(loggerDatas);
+        responseSlots = new int[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            responseSlots[i] = schema.indexOf(queries[i].getLoggerData());
         }
-        return filtered;
+        responseQueries = queries;
+        responseSchema = schema;
     }
 
-    //FIXME: This is a hack!!
-    private List<ExternalQuery> filterExternalQueries(Collection<Query> queries) {
-        List<ExternalQuery> filtered = new ArrayList<ExternalQuery>();
-        for (Query query : queries) {
-            if (ExternalQuery.class.isAssignableFrom(query.getClass())) {
-                filtered.add((ExternalQuery) query);
-            }
+    // parks rather than sleeping in whole milliseconds so the poll can
+    // run at the pace of the link
+    private static void waitUntil(long deadline) {
+        long remaining = deadline - nanoTime();
+        while (remaining > 0L) {
+            parkNanos(remaining);
+            remaining = deadline - nanoTime();
         }
-        return filtered;
     }
 
     @Override
@@ -439,20 +607,23 @@ public final class QueryManagerImpl implements QueryManager {
     }
 
     private synchronized void updateQueryList() {
-        addQueries();
-        removeQueries();
+        if (!addList.isEmpty() || !removeList.isEmpty()) {
+            responseSchema = null;
+            addQueries();
+            removeQueries();
+        }
     }
 
     private void addQueries() {
-        for (String queryId : addList.keySet()) {
-            queryMap.put(queryId, addList.get(queryId));
+        for (Map.Entry<String, Query> entry : addList.entrySet()) {
+            queryList.put(entry.getKey(), entry.getValue());
         }
         addList.clear();
     }
 
     private void removeQueries() {
         for (String queryId : removeList) {
-            queryMap.remove(queryId);
+            queryList.remove(queryId);
         }
         removeList.clear();
     }
@@ -0,0 +1,312 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.comms.manager;
+
+import static org.apache.log4j.Logger.getLogger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import com.romraider.logger.ecu.comms.query.EcuQuery;
+
+/**
+ * Chooses which ECU queries are sent in each poll. A query whose data has
+ * a target rate below the achieved poll rate is only sent every 2nd, 4th
+ * or 8th frame, with the slow queries spread over the frames so each
+ * frame carries about the same load. With auto rate on, queries without
+ * a target rate are slowed down while their value is steady and return
+ * to every frame as soon as it changes.
+ */
+final class QueryScheduler {
+    private static final Logger LOGGER = getLogger(QueryScheduler.class);
+    /** slowest a query is sent, in frames, a power of 2 */
+    static final int MAX_PERIOD = 8;
+    // steady samples before an auto rate query is slowed down
+    static final int STEADY_SAMPLES = 4;
+    // change, relative to the value, still counted as steady
+    static final double STEADY_CHANGE = 0.005;
+    // frames between recalculating periods from the target rates
+    private static final int UPDATE_FRAMES = 64;
+    private static final long REPORT_INTERVAL = 30000000000L;
+    private final List<EcuQuery> frame = new ArrayList<EcuQuery>();
+    private final int[] load = new int[MAX_PERIOD];
+    private EcuQuery[] queries = new EcuQuery[0];
+    private int[] periods = new int[0];
+    private int[] phases = new int[0];
+    private int[] steady = new int[0];
+    private int[] samples = new int[0];
+    private double[] values = new double[0];
+    private int[] frameIndices = new int[0];
+    private int frameSize;
+    // members of the frame before, to tell when the frame changes
+    private int[] lastIndices = new int[0];
+    private int lastSize = -1;
+    private boolean frameChanged;
+    private long frameCount;
+    // counted apart from frameCount, which skips the empty frames
+    private int framesSinceUpdate;
+    private double frameRate;
+    private long lastFrame;
+    private long reportStart;
+    private boolean auto;
+
+    /**
+     * Get the queries to send this poll.
+     * @param all - every ECU query being logged
+     * @param fastPoll - true if the ECU streams the whole list, which
+     * must then be sent every time
+     * @param auto - true to derive rates for queries without a target rate
+     * @return the queries for this frame, the caller may add to it
+     */
+    List<EcuQuery> nextFrame(List<EcuQuery> all, boolean fastPoll, boolean auto) {
+        if (!matches(all)) {
+            reset(all);
+        }
+        final long now = System.nanoTime();
+        if (lastFrame != 0L && now > lastFrame) {
+            final double rate = 1e9 / (now - lastFrame);
+            frameRate = frameRate == 0.0 ? rate : frameRate + 0.1 * (rate - frameRate);
+        }
+        lastFrame = now;
+
+        if (fastPoll) {
+            for (int i = 0; i < queries.length; i++) {
+                frameIndices[i] = i;
+            }
+            frameSize = queries.length;
+            updateFrameChanged();
+            return all;
+        }
+
+        if (this.auto != auto || framesSinceUpdate >= UPDATE_FRAMES) {
+            this.auto = auto;
+            updatePeriods();
+            framesSinceUpdate = 0;
+        }
+        framesSinceUpdate++;
+        // every query appears within MAX_PERIOD frames so this ends
+        do {
+            frame.clear();
+            frameSize = 0;
+            for (int i = 0; i < queries.length; i++) {
+                if ((frameCount + phases[i]) % periods[i] == 0) {
+                    frame.add(queries[i]);
+                    frameIndices[frameSize++] = i;
+                }
+            }
+            frameCount++;
+        } while (frameSize == 0 && queries.length > 0);
+        updateFrameChanged();
+        return frame;
+    }
+
+    /**
+     * @return true if the last frame returned by {@link #nextFrame} holds
+     * other queries than the frame before it, even when both are the same
+     * size. Protocols which load an address list into the ECU must then
+     * load the new list before reading.
+     */
+    boolean isFrameChanged() {
+        return frameChanged;
+    }
+
+    private void updateFrameChanged() {
+        boolean changed = frameSize != lastSize;
+        for (int k = 0; k < frameSize && !changed; k++) {
+            changed = frameIndices[k] != lastIndices[k];
+        }
+        if (changed) {
+            System.arraycopy(frameIndices, 0, lastIndices, 0, frameSize);
+            lastSize = frameSize;
+        }
+        frameChanged = changed;
+    }
+
+    /**
+     * Record the responses to the last frame, call after the queries
+     * have been sent.
+     */
+    void observe() {
+        boolean changed = false;
+        for (int k = 0; k < frameSize; k++) {
+            final int i = frameIndices[k];
+            final double value = queries[i].getResponse();
+            samples[i]++;
+            if (auto && queries[i].getLoggerData().getTargetRate() == 0.0) {
+                if (Math.abs(value - values[i]) <= STEADY_CHANGE * Math.max(Math.abs(value), 1.0)) {
+                    if (++steady[i] >= STEADY_SAMPLES && periods[i] < MAX_PERIOD) {
+                        periods[i] <<= 1;
+                        steady[i] = 0;
+                        changed = true;
+                    }
+                } else {
+                    steady[i] = 0;
+                    if (periods[i] > 1) {
+                        periods[i] = 1;
+                        changed = true;
+                    }
+                }
+            }
+            values[i] = value;
+        }
+        if (changed) {
+            assignPhases();
+        }
+        final long now = System.nanoTime();
+        if (now - reportStart >= REPORT_INTERVAL) {
+            report(now);
+        }
+    }
+
+    /**
+     * @return the number of queries sent less often than every frame
+     */
+    int getInterleavedCount() {
+        int count = 0;
+        for (int period : periods) {
+            if (period > 1) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return the achieved full frame rate, per second
+     */
+    double getFrameRate() {
+        return frameRate;
+    }
+
+    int getPeriod(EcuQuery query) {
+        for (int i = 0; i < queries.length; i++) {
+            if (queries[i] == query) return periods[i];
+        }
+        return 0;
+    }
+
+    private boolean matches(List<EcuQuery> all) {
+        if (all.size() != queries.length) return false;
+        for (int i = 0; i < queries.length; i++) {
+            if (all.get(i) != queries[i]) return false;
+        }
+        return true;
+    }
+
+    private void reset(List<EcuQuery> all) {
+        final int n = all.size();
+        final EcuQuery[] previous = queries;
+        final int[] previousPeriods = periods;
+        queries = all.toArray(new EcuQuery[n]);
+        periods = new int[n];
+        phases = new int[n];
+        steady = new int[n];
+        samples = new int[n];
+        values = new double[n];
+        frameIndices = new int[n];
+        frameSize = 0;
+        lastIndices = new int[n];
+        lastSize = -1;
+        framesSinceUpdate = 0;
+        // queries still being logged keep their period
+        for (int i = 0; i < n; i++) {
+            periods[i] = 1;
+            for (int j = 0; j < previous.length; j++) {
+                if (previous[j] == queries[i]) {
+                    periods[i] = previousPeriods[j];
+                    break;
+                }
+            }
+        }
+        updatePeriods();
+        assignPhases();
+        reportStart = System.nanoTime();
+    }
+
+    private void updatePeriods() {
+        boolean changed = false;
+        for (int i = 0; i < queries.length; i++) {
+            final double target = queries[i].getLoggerData().getTargetRate();
+            int period = periods[i];
+            if (target > 0.0) {
+                period = 1;
+                while (period < MAX_PERIOD && frameRate / (period << 1) >= target) {
+                    period <<= 1;
+                }
+            } else if (!auto) {
+                period = 1;
+            }
+            if (period != periods[i]) {
+                periods[i] = period;
+                changed = true;
+            }
+        }
+        if (changed) {
+            assignPhases();
+        }
+    }
+
+    // spread queries with the same period over the frames so that no
+    // frame ends up carrying all of them
+    private void assignPhases() {
+        final int[] load = this.load;
+        Arrays.fill(load, 0);
+        for (int period = 1; period <= MAX_PERIOD; period <<= 1) {
+            for (int i = 0; i < queries.length; i++) {
+                if (periods[i] != period) continue;
+                int best = 0;
+                int bestLoad = Integer.MAX_VALUE;
+                for (int phase = 0; phase < period; phase++) {
+                    int sum = 0;
+                    for (int f = (period - phase) % period; f < MAX_PERIOD; f += period) {
+                        sum += load[f];
+                    }
+                    if (sum < bestLoad) {
+                        best = phase;
+                        bestLoad = sum;
+                    }
+                }
+                phases[i] = best;
+                for (int f = (period - best) % period; f < MAX_PERIOD; f += period) {
+                    load[f]++;
+                }
+            }
+        }
+    }
+
+    private void report(long now) {
+        final double seconds = (now - reportStart) / 1e9;
+        if (getInterleavedCount() > 0 && seconds > 0.0) {
+            final StringBuilder builder = new StringBuilder("Achieved sample rates:");
+            for (int i = 0; i < queries.length; i++) {
+                builder.append(String.format(" %s=%.1f/s(1/%d)",
+                        queries[i].getLoggerData().getId(),
+                        samples[i] / seconds,
+                        periods[i]));
+            }
+            LOGGER.info(builder.toString());
+        }
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = 0;
+        }
+        reportStart = now;
+    }
+}
@@ -19,7 +19,9 @@
 
 package com.romraider.logger.ecu.comms.manager;
 
+import com.romraider.logger.ecu.comms.query.EcuInitCallback;
 import com.romraider.logger.ecu.comms.query.EcuQuery;
+import com.romraider.logger.ecu.definition.Module;
 import java.util.Collection;
 
 public interface TransmissionManager {
@@ -30,6 +32,15 @@ public interface TransmissionManager {
     
     void endQueries();
 
+    /**
+     * Try to re-establish communications on the connection already held
+     * by this manager, without closing and reopening the port.
+     * @param callback - callback which will identify the Module
+     * @param module - the Module to re-initialize
+     * @return true if the Module answered the init request
+     */
+    boolean reconnect(EcuInitCallback callback, Module module);
+
     void stop();
 
 }
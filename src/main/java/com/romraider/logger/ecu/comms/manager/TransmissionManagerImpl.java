@@ -29,7 +29,9 @@ import org.apache.log4j.Logger;
 
 import com.romraider.Settings;
 import com.romraider.logger.ecu.comms.io.connection.LoggerConnection;
+import com.romraider.logger.ecu.comms.query.EcuInitCallback;
 import com.romraider.logger.ecu.comms.query.EcuQuery;
+import com.romraider.logger.ecu.definition.Module;
 import com.romraider.logger.ecu.exception.NotConnectedException;
 import com.romraider.util.SettingsManager;
 
@@ -40,8 +42,21 @@ public final class TransmissionManagerImpl implements TransmissionManager {
     public TransmissionManagerImpl() {
     }
 
+    /**
+     * Create a manager which takes ownership of an already initialized
+     * connection, so start() does not need to open the port again.
+     * @param connection - the open LoggerConnection, closed by stop()
+     */
+    public TransmissionManagerImpl(LoggerConnection connection) {
+        this.connection = connection;
+    }
+
     @Override
     public void start() {
+        if (connection != null) {
+            LOGGER.info("TX Manager Started with existing connection.");
+            return;
+        }
         try {
             Settings settings = SettingsManager.getSettings();
             connection = getConnection(settings.getLoggerProtocol(), settings.getLoggerPort(), settings.getLoggerConnectionProperties());
@@ -65,11 +80,30 @@ public final class TransmissionManagerImpl implements TransmissionManager {
         connection.clearLine();
     }
 
+    @Override
+    public boolean reconnect(EcuInitCallback callback, Module module) {
+        checkNotNull(callback, module);
+        if (connection == null) return false;
+        try {
+            connection.clearLine();
+            connection.ecuInit(callback, module);
+            LOGGER.info("TX Manager reconnected to " + module.getName());
+            return true;
+        } catch (Exception e) {
+            LOGGER.warn("TX Manager reconnect failed: " + e.getMessage());
+            return false;
+        }
+    }
+
     @Override
     public void stop() {
         if (connection != null) {
-            endQueries();
-            connection.close();
+            try {
+                endQueries();
+            } finally {
+                connection.close();
+                connection = null;
+            }
         }
         LOGGER.info("TX Manager Stopped.");
     }
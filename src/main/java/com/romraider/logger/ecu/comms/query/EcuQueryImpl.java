@@ -21,8 +21,10 @@ package com.romraider.logger.ecu.comms.query;
 
 import com.romraider.logger.ecu.definition.EcuData;
 import com.romraider.logger.ecu.definition.LoggerData;
+import com.romraider.util.metrics.Metrics;
 import static com.romraider.util.HexUtil.asHex;
 import static com.romraider.util.ParamChecker.checkNotNull;
+import static java.lang.System.nanoTime;
 
 public final class EcuQueryImpl implements EcuQuery {
     private final EcuData ecuData;
@@ -58,7 +60,9 @@ public final class EcuQueryImpl implements EcuQuery {
     }
 
     public void setResponse(byte[] bytes) {
+        final long start = nanoTime();
         this.response = ecuData.getSelectedConvertor().convert(bytes);
+        Metrics.CONVERSION.record(nanoTime() - start);
     }
 
     public boolean equals(Object object) {
@@ -0,0 +1,107 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.comms.query;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.romraider.logger.ecu.definition.LoggerData;
+
+/**
+ * A Response holding its values in a double[] laid out by a
+ * {@link ResponseSchema}.  Instances come from a {@link ResponsePool} and go
+ * back to it when the last consumer releases them.
+ */
+public final class IndexedResponse implements Response {
+    private final ResponseSchema schema;
+    private final double[] values;
+    private final ResponsePool pool;
+    private final AtomicInteger references = new AtomicInteger();
+    private long timestamp;
+    private long timestampNanos;
+
+    IndexedResponse(ResponseSchema schema, ResponsePool pool) {
+        this.schema = schema;
+        this.values = new double[schema.size()];
+        this.pool = pool;
+    }
+
+    void reset() {
+        timestamp = System.currentTimeMillis();
+        timestampNanos = System.nanoTime();
+        references.set(1);
+    }
+
+    public void setValue(int slot, double value) {
+        values[slot] = value;
+    }
+
+    @Override
+    public double getValue(int slot) {
+        return values[slot];
+    }
+
+    @Override
+    public void setDataValue(LoggerData data, double value) {
+        final int slot = schema.indexOf(data);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Not in response schema: " + data.getId());
+        }
+        values[slot] = value;
+    }
+
+    @Override
+    public Set<LoggerData> getData() {
+        return schema.getDataSet();
+    }
+
+    @Override
+    public double getDataValue(LoggerData data) {
+        final int slot = schema.indexOf(data);
+        return slot < 0 ? 0.0 : values[slot];
+    }
+
+    @Override
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    @Override
+    public ResponseSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public void retain(int count) {
+        references.addAndGet(count);
+    }
+
+    @Override
+    public void release() {
+        if (references.decrementAndGet() == 0 && pool != null) {
+            pool.recycle(this);
+        }
+    }
+}
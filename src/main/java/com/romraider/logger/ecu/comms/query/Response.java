@@ -22,6 +22,13 @@ package com.romraider.logger.ecu.comms.query;
 import com.romraider.logger.ecu.definition.LoggerData;
 import java.util.Set;
 
+/**
+ * The values of one polling cycle.  Each LoggerData has a slot in
+ * {@link #getSchema()}, handlers on the hot path should read values by slot
+ * rather than through the LoggerData lookups.  A response may be recycled
+ * once every consumer has released it, so handlers must copy what they
+ * need before handleDataUpdate returns.
+ */
 public interface Response {
 
     void setDataValue(LoggerData data, double value);
@@ -31,4 +38,20 @@ public interface Response {
     double getDataValue(LoggerData data);
 
     long getTimestamp();
+
+    ResponseSchema getSchema();
+
+    double getValue(int slot);
+
+    /**
+     * @return the System.nanoTime() at which the response was captured
+     */
+    long getTimestampNanos();
+
+    /**
+     * Add count consumers that must {@link #release()} this response.
+     */
+    void retain(int count);
+
+    void release();
 }
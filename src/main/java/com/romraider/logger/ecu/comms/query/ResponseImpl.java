@@ -24,17 +24,26 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * A Response built up one LoggerData at a time, for callers without a
+ * fixed schema.  It is never pooled.
+ */
 public class ResponseImpl implements Response {
     private static final double ZERO = 0.0;
     private final Map<LoggerData, Double> dataValues = new LinkedHashMap<LoggerData, Double>();
     private final long timestamp;
+    private final long timestampNanos;
+    private ResponseSchema schema;
 
     public ResponseImpl() {
         timestamp = System.currentTimeMillis();
+        timestampNanos = System.nanoTime();
     }
 
     public void setDataValue(LoggerData data, double value) {
-        dataValues.put(data, value);
+        if (dataValues.put(data, value) == null) {
+            schema = null;
+        }
     }
 
     public Set<LoggerData> getData() {
@@ -49,4 +58,25 @@ public class ResponseImpl implements Response {
     public long getTimestamp() {
         return timestamp;
     }
+
+    public ResponseSchema getSchema() {
+        if (schema == null) {
+            schema = new ResponseSchema(dataValues.keySet());
+        }
+        return schema;
+    }
+
+    public double getValue(int slot) {
+        return getDataValue(getSchema().getData(slot));
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public void retain(int count) {
+    }
+
+    public void release() {
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.comms.query;
+
+import static com.romraider.util.ParamChecker.checkGreaterThanZero;
+import static com.romraider.util.ParamChecker.checkNotNull;
+
+/**
+ * Recycles {@link IndexedResponse} instances so the polling loop does not
+ * allocate one per cycle.  A response is taken with a reference held by the
+ * caller and returns to the pool when its last reference is released, a
+ * response that is never released is simply left to the garbage collector
+ * and the pool allocates a replacement.
+ */
+public final class ResponsePool {
+    private final IndexedResponse[] free;
+    private int size;
+    private ResponseSchema schema;
+    private long allocatedCount;
+
+    public ResponsePool(int capacity) {
+        checkGreaterThanZero(capacity, "capacity");
+        free = new IndexedResponse[capacity];
+    }
+
+    /**
+     * @return a response laid out by schema holding one reference for the
+     * caller, with its timestamps set to now and stale values
+     */
+    public synchronized IndexedResponse acquire(ResponseSchema schema) {
+        checkNotNull(schema, "schema");
+        if (schema != this.schema) {
+            this.schema = schema;
+            while (size > 0) free[--size] = null;
+        }
+        final IndexedResponse response;
+        if (size > 0) {
+            response = free[--size];
+            free[size] = null;
+        }
+        else {
+            response = new IndexedResponse(schema, this);
+            allocatedCount++;
+        }
+        response.reset();
+        return response;
+    }
+
+    synchronized void recycle(IndexedResponse response) {
+        if (response.getSchema() == schema && size < free.length) {
+            free[size++] = response;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getAllocatedCount() {
+        return allocatedCount;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.comms.query;
+
+import static com.romraider.util.ParamChecker.checkNotNull;
+import static java.util.Collections.unmodifiableSet;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.romraider.logger.ecu.definition.LoggerData;
+
+/**
+ * The slot layout of a Response, each distinct LoggerData is given the
+ * next slot index in iteration order.  A schema is immutable, a new one is
+ * built whenever the set of queried parameters changes, so handlers can
+ * cache per-schema lookups by identity.
+ */
+public final class ResponseSchema {
+    private final LoggerData[] datas;
+    private final Map<LoggerData, Integer> indexes;
+    private final Set<LoggerData> dataSet;
+
+    public ResponseSchema(Collection<? extends LoggerData> loggerDatas) {
+        checkNotNull(loggerDatas, "loggerDatas");
+        final Set<LoggerData> distinct = new LinkedHashSet<LoggerData>(loggerDatas);
+        datas = distinct.toArray(new LoggerData[distinct.size()]);
+        indexes = new HashMap<LoggerData, Integer>();
+        for (int i = 0; i < datas.length; i++) {
+            indexes.put(datas[i], i);
+        }
+        dataSet = unmodifiableSet(distinct);
+    }
+
+    public int size() {
+        return datas.length;
+    }
+
+    public LoggerData getData(int slot) {
+        return datas[slot];
+    }
+
+    /**
+     * @return the slot of the LoggerData or -1 if it is not in the schema
+     */
+    public int indexOf(LoggerData loggerData) {
+        final Integer index = indexes.get(loggerData);
+        return index == null ? -1 : index;
+    }
+
+    public Set<LoggerData> getDataSet() {
+        return dataSet;
+    }
+}
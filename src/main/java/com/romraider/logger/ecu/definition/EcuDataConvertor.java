@@ -34,6 +34,12 @@ public interface EcuDataConvertor {
 
     String getFormat();
 
+    /**
+     * @return true if format(double) is exactly the DecimalFormat of
+     * getFormat(), with no value replacement
+     */
+    boolean isDecimalFormat();
+
     String getExpression();
 
     String getDataType();
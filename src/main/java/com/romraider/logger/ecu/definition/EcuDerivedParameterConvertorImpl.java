@@ -20,7 +20,8 @@
 package com.romraider.logger.ecu.definition;
 
 import com.romraider.logger.ecu.ui.handler.dash.GaugeMinMax;
-import static com.romraider.util.JEPUtil.evaluate;
+import com.romraider.util.CompiledExpression;
+import static com.romraider.util.JEPUtil.compile;
 import static com.romraider.util.ParamChecker.checkNotNull;
 import static com.romraider.util.ParamChecker.checkNotNullOrEmpty;
 import static java.util.Collections.synchronizedMap;
@@ -36,6 +37,8 @@ public final class EcuDerivedParameterConvertorImpl implements EcuDerivedParamet
     private final Map<String, String> replaceMap;
     private final Map<String, ExpressionInfo> expressionInfoMap = synchronizedMap(new HashMap<String, ExpressionInfo>());
     private final GaugeMinMax gaugeMinMax;
+    private volatile Binding binding;
+    private final ThreadLocal<Scratch> scratch = new ThreadLocal<Scratch>();
 
     public EcuDerivedParameterConvertorImpl(String units, String expression, String format, Map<String, String> replaceMap, GaugeMinMax gaugeMinMax) {
         checkNotNullOrEmpty(units, "units");
@@ -51,19 +54,18 @@ public final class EcuDerivedParameterConvertorImpl implements EcuDerivedParamet
     }
 
     public double convert(byte[] bytes) {
-        Map<String, Double> valueMap = new HashMap<String, Double>();
-        String exp = expression;
-        int index = 0;
-        for (EcuData ecuData : ecuDatas) {
-            int length = ecuData.getAddress().getLength();
-            byte[] tmp = new byte[length];
-            System.arraycopy(bytes, index, tmp, 0, length);
-            ExpressionInfo expressionInfo = expressionInfoMap.get(ecuData.getId());
-            valueMap.put(expressionInfo.getReplacementKey(), expressionInfo.getConvertor().convert(tmp));
-            exp = exp.replace(buildParameterKey(expressionInfo), expressionInfo.getReplacementKey());
-            index += length;
+        final Binding binding = this.binding;
+        Scratch scratch = this.scratch.get();
+        if (scratch == null || scratch.binding != binding) {
+            scratch = new Scratch(binding);
+            this.scratch.set(scratch);
+        }
+        for (int i = 0; i < binding.convertors.length; i++) {
+            final byte[] tmp = scratch.bytes[i];
+            System.arraycopy(bytes, binding.offsets[i], tmp, 0, tmp.length);
+            scratch.values[i] = binding.convertors[i].convert(tmp);
         }
-        double result = evaluate(exp, valueMap);
+        double result = binding.expression.evaluate(scratch.values);
         return Double.isNaN(result) || Double.isInfinite(result) ? 0.0 : result;
     }
 
@@ -79,6 +81,10 @@ public final class EcuDerivedParameterConvertorImpl implements EcuDerivedParamet
         return format.toPattern();
     }
 
+    public boolean isDecimalFormat() {
+        return replaceMap.isEmpty();
+    }
+
     public String format(double value) {
         String formattedValue = format.format(value);
         if (replaceMap.containsKey(formattedValue)) {
@@ -94,6 +100,7 @@ public final class EcuDerivedParameterConvertorImpl implements EcuDerivedParamet
         for (EcuData ecuData : ecuDatas) {
             addExpressionInfo(ecuData);
         }
+        binding = bind();
     }
 
     public String toString() {
@@ -125,10 +132,63 @@ public final class EcuDerivedParameterConvertorImpl implements EcuDerivedParamet
         }
     }
 
+    // resolve the expression once: each component gets a variable slot,
+    // its offset in the response bytes and its convertor
+    private Binding bind() {
+        final int count = ecuDatas.length;
+        final String[] variables = new String[count];
+        final EcuDataConvertor[] convertors = new EcuDataConvertor[count];
+        final int[] offsets = new int[count];
+        final int[] lengths = new int[count];
+        String exp = expression;
+        int index = 0;
+        for (int i = 0; i < count; i++) {
+            final ExpressionInfo expressionInfo = expressionInfoMap.get(ecuDatas[i].getId());
+            variables[i] = expressionInfo.getReplacementKey();
+            convertors[i] = expressionInfo.getConvertor();
+            offsets[i] = index;
+            lengths[i] = ecuDatas[i].getAddress().getLength();
+            exp = exp.replace(buildParameterKey(expressionInfo), expressionInfo.getReplacementKey());
+            index += lengths[i];
+        }
+        return new Binding(compile(exp, variables), convertors, offsets, lengths);
+    }
+
     private String buildParameterKey(ExpressionInfo expressionInfo) {
         return '[' + expressionInfo.getEcuDataId() + ':' + expressionInfo.getConvertor().getUnits() + ']';
     }
 
+    private static final class Binding {
+        private final CompiledExpression expression;
+        private final EcuDataConvertor[] convertors;
+        private final int[] offsets;
+        private final int[] lengths;
+
+        private Binding(CompiledExpression expression, EcuDataConvertor[] convertors,
+                int[] offsets, int[] lengths) {
+            this.expression = expression;
+            this.convertors = convertors;
+            this.offsets = offsets;
+            this.lengths = lengths;
+        }
+    }
+
+    // per thread buffers so convert does not allocate
+    private static final class Scratch {
+        private final Binding binding;
+        private final byte[][] bytes;
+        private final double[] values;
+
+        private Scratch(Binding binding) {
+            this.binding = binding;
+            bytes = new byte[binding.lengths.length][];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = new byte[binding.lengths[i]];
+            }
+            values = new double[binding.lengths.length];
+        }
+    }
+
     private static final class ExpressionInfo {
         private final String ecuDataId;
         private final EcuDataConvertor convertor;
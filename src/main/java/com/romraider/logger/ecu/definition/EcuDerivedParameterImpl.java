@@ -34,6 +34,7 @@ public final class EcuDerivedParameterImpl implements EcuParameter {
     private final Set<ConvertorUpdateListener> listeners = new HashSet<ConvertorUpdateListener>();
     private int selectedConvertorIndex;
     private boolean selected;
+    private double targetRate;
 
     public EcuDerivedParameterImpl(String id, String name, String description, EcuData[] ecuDatas,
                                    EcuDerivedParameterConvertor[] convertors) {
@@ -108,6 +109,14 @@ public final class EcuDerivedParameterImpl implements EcuParameter {
         this.selected = selected;
     }
 
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public void setTargetRate(double rate) {
+        this.targetRate = rate > 0.0 ? rate : 0.0;
+    }
+
     @Override
     public void addConvertorUpdateListener(ConvertorUpdateListener listener) {
         checkNotNull(listener, "listener");
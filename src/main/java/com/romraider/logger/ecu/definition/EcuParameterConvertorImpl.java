@@ -21,7 +21,7 @@ package com.romraider.logger.ecu.definition;
 
 import static com.romraider.logger.ecu.definition.xml.ConverterMaxMinDefaults.getDefault;
 import static com.romraider.util.ByteUtil.asUnsignedInt;
-import static com.romraider.util.JEPUtil.evaluate;
+import static com.romraider.util.JEPUtil.compile;
 import static com.romraider.util.ParamChecker.checkNotNull;
 import static com.romraider.util.ParamChecker.checkNotNullOrEmpty;
 
@@ -33,6 +33,7 @@ import java.util.Map;
 
 import com.romraider.Settings;
 import com.romraider.logger.ecu.ui.handler.dash.GaugeMinMax;
+import com.romraider.util.CompiledExpression;
 
 public final class EcuParameterConvertorImpl implements EcuDataConvertor {
     private static final String FLOAT = "float";
@@ -45,6 +46,9 @@ public final class EcuParameterConvertorImpl implements EcuDataConvertor {
     private final Settings.Endian endian;
     private final Map<String, String> replaceMap;
     private final GaugeMinMax gaugeMinMax;
+    private final boolean isFloat;
+    private final boolean isUnsigned;
+    private CompiledExpression compiledExpression;
 
     public EcuParameterConvertorImpl() {
         this("Raw data", "x", "0", -1, "uint", Settings.Endian.BIG,
@@ -64,6 +68,8 @@ public final class EcuParameterConvertorImpl implements EcuDataConvertor {
         this.format = new DecimalFormat(format);
         this.bit = bit;
         this.dataType = (dataType == null ? "uint8" : dataType);
+        this.isFloat = this.dataType.equalsIgnoreCase(FLOAT);
+        this.isUnsigned = this.dataType.toLowerCase().startsWith(UINT);
         this.endian = endian;
         this.replaceMap = replaceMap;
         this.gaugeMinMax = gaugeMinMax;
@@ -79,8 +85,8 @@ public final class EcuParameterConvertorImpl implements EcuDataConvertor {
         if (bit >= 0 && bit <= 31) {
             return (asUnsignedInt(bytes) & (1 << bit)) != 0 ? 1 : 0;
         }
-        else if (dataType.equalsIgnoreCase(FLOAT)) {
-            result = evaluate(expression, bb.getFloat());
+        else if (isFloat) {
+            result = getCompiledExpression().evaluate(bb.getFloat());
         }
         else {
             long value = 0;
@@ -95,7 +101,7 @@ public final class EcuParameterConvertorImpl implements EcuDataConvertor {
                     value = bb.getInt();
                     break;
             }
-            if (dataType.toLowerCase().startsWith(UINT)) {
+            if (isUnsigned) {
                 switch (bb.capacity()) {
                     case 1:
                         value = value & 0xff;
@@ -108,11 +114,19 @@ public final class EcuParameterConvertorImpl implements EcuDataConvertor {
                         break;
                 }
             }
-            result = evaluate(expression, value);
+            result = getCompiledExpression().evaluate(value);
         }
         return Double.isNaN(result) || Double.isInfinite(result) ? 0.0 : result;
     }
 
+    // compiled on first use, the cache in JEPUtil makes a race harmless
+    private CompiledExpression getCompiledExpression() {
+        if (compiledExpression == null) {
+            compiledExpression = compile(expression);
+        }
+        return compiledExpression;
+    }
+
     public String getUnits() {
         return units;
     }
@@ -125,6 +139,10 @@ public final class EcuParameterConvertorImpl implements EcuDataConvertor {
         return format.toPattern();
     }
 
+    public boolean isDecimalFormat() {
+        return replaceMap.isEmpty();
+    }
+
     public String format(double value) {
         String formattedValue = format.format(value);
         if (replaceMap.containsKey(formattedValue)) {
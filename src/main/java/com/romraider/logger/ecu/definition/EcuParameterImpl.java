@@ -38,6 +38,7 @@ public final class EcuParameterImpl implements EcuParameter {
     private final Set<ConvertorUpdateListener> listeners = new HashSet<ConvertorUpdateListener>();
     private int selectedConvertorIndex;
     private boolean selected;
+    private double targetRate;
 
     public EcuParameterImpl(
             String id, String name, String description, EcuAddress address,
@@ -131,6 +132,14 @@ public final class EcuParameterImpl implements EcuParameter {
         this.selected = selected;
     }
 
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public void setTargetRate(double rate) {
+        this.targetRate = rate > 0.0 ? rate : 0.0;
+    }
+
     @Override
     public void addConvertorUpdateListener(ConvertorUpdateListener listener) {
         checkNotNull(listener, "listener");
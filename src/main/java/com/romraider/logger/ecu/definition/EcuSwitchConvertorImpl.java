@@ -52,6 +52,10 @@ public final class EcuSwitchConvertorImpl implements EcuDataConvertor {
         return FORMAT;
     }
 
+    public boolean isDecimalFormat() {
+        return false;
+    }
+
     public String format(double value) {
         //return value > 0 ? "On" : "Off";
         return value > 0 ? "1" : "0";
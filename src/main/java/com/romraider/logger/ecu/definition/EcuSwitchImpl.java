@@ -35,6 +35,7 @@ public final class EcuSwitchImpl implements EcuSwitch {
     private int selectedConvertorIndex;
     private boolean fileLogController;
     private boolean selected;
+    private double targetRate;
 
     public EcuSwitchImpl(
             String id, String name, String description, EcuAddress address,
@@ -125,6 +126,14 @@ public final class EcuSwitchImpl implements EcuSwitch {
         this.selected = selected;
     }
 
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public void setTargetRate(double rate) {
+        this.targetRate = rate > 0.0 ? rate : 0.0;
+    }
+
     public void setFileLogController(boolean fileLogController) {
         this.fileLogController = fileLogController;
     }
@@ -19,12 +19,13 @@
 
 package com.romraider.logger.ecu.definition;
 
-import static com.romraider.util.JEPUtil.evaluate;
+import static com.romraider.util.JEPUtil.compile;
 
 import java.text.DecimalFormat;
 
 import com.romraider.logger.ecu.ui.handler.dash.GaugeMinMax;
 import com.romraider.logger.external.core.ExternalDataItem;
+import com.romraider.util.CompiledExpression;
 
 public final class ExternalDataConvertorImpl implements EcuDataConvertor {
     private final String units;
@@ -32,6 +33,7 @@ public final class ExternalDataConvertorImpl implements EcuDataConvertor {
     private final GaugeMinMax gaugeMinMax;
     private final ExternalDataItem dataItem; 
     private DecimalFormat format;
+    private CompiledExpression compiledExpression;
     
     public ExternalDataConvertorImpl(ExternalDataItem dataItem, String units, String expression,
                                      String format,
@@ -46,7 +48,10 @@ public final class ExternalDataConvertorImpl implements EcuDataConvertor {
 
     public double convert(byte[] bytes) {
         double value = dataItem.getData();
-        double result = evaluate(expression, value);
+        if (compiledExpression == null) {
+            compiledExpression = compile(expression);
+        }
+        double result = compiledExpression.evaluate(value);
         return Double.isNaN(result) || Double.isInfinite(result) ? 0.0 : result;
     }
 
@@ -66,6 +71,10 @@ public final class ExternalDataConvertorImpl implements EcuDataConvertor {
         return format.toPattern();
     }
 
+    public boolean isDecimalFormat() {
+        return true;
+    }
+
     public String toString() {
         return getUnits();
     }
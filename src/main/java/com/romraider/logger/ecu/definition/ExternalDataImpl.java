@@ -36,6 +36,7 @@ public final class ExternalDataImpl implements ExternalData {
     private final Set<ConvertorUpdateListener> listeners = new HashSet<ConvertorUpdateListener>();
     private int selectedConvertorIndex;
     private boolean selected;
+    private double targetRate;
 
     public ExternalDataImpl(final ExternalDataItem dataItem, ExternalDataSource dataSource) {
         checkNotNull(dataItem, dataSource);
@@ -95,6 +96,14 @@ public final class ExternalDataImpl implements ExternalData {
         updateConnection(selected);
     }
 
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public void setTargetRate(double rate) {
+        this.targetRate = rate > 0.0 ? rate : 0.0;
+    }
+
     private String createId(ExternalDataItem dataItem) {
         return "X_" + dataItem.getName().replaceAll(" ", "_");
     }
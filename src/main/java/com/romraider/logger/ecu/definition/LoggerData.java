@@ -38,4 +38,12 @@ public interface LoggerData {
     boolean isSelected();
 
     void setSelected(boolean selected);
+
+    /**
+     * @return the number of samples per second wanted, 0 to poll this
+     * data as often as possible
+     */
+    double getTargetRate();
+
+    void setTargetRate(double rate);
 }
@@ -34,6 +34,8 @@ public interface UserProfile {
 
     EcuDataConvertor getSelectedConvertor(LoggerData loggerData);
 
+    double getTargetRate(LoggerData loggerData);
+
     byte[] getBytes();
 
     String getProtocol();
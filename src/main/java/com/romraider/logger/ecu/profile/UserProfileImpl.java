@@ -99,6 +99,11 @@ public final class UserProfileImpl implements UserProfile {
         return loggerData.getSelectedConvertor();
     }
 
+    public double getTargetRate(LoggerData loggerData) {
+        checkNotNull(loggerData, "loggerData");
+        return contains(loggerData) ? getUserProfileItem(loggerData).getRate() : 0.0;
+    }
+
     public byte[] getBytes() {
         byte[] profile = null;
         try {
@@ -154,6 +159,8 @@ public final class UserProfileImpl implements UserProfile {
             if (item.isDashSelected()) builder.append(" dash=\"selected\"");
             if (showUnits && !isNullOrEmpty(item.getUnits()))
                 builder.append(" units=\"").append(item.getUnits()).append("\"");
+            if (item.getRate() > 0.0)
+                builder.append(" rate=\"").append(item.getRate()).append("\"");
             builder.append("/>").append(NEW_LINE);
         }
     }
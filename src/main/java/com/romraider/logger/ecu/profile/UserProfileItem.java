@@ -29,4 +29,9 @@ public interface UserProfileItem {
 
     String getUnits();
 
+    /**
+     * @return the target sample rate per second, 0 if not set
+     */
+    double getRate();
+
 }
@@ -24,12 +24,19 @@ public final class UserProfileItemImpl implements UserProfileItem {
     private final boolean liveDataSelected;
     private final boolean graphSelected;
     private final boolean dashSelected;
+    private final double rate;
 
     public UserProfileItemImpl(String units, boolean liveDataSelected, boolean graphSelected, boolean dashSelected) {
+        this(units, liveDataSelected, graphSelected, dashSelected, 0.0);
+    }
+
+    public UserProfileItemImpl(String units, boolean liveDataSelected, boolean graphSelected, boolean dashSelected,
+            double rate) {
         this.units = units;
         this.liveDataSelected = liveDataSelected;
         this.graphSelected = graphSelected;
         this.dashSelected = dashSelected;
+        this.rate = rate;
     }
 
     public boolean isDashSelected() {
@@ -48,4 +55,8 @@ public final class UserProfileItemImpl implements UserProfileItem {
         return units;
     }
 
+    public double getRate() {
+        return rate;
+    }
+
 }
@@ -40,6 +40,7 @@ public final class UserProfileHandler extends DefaultHandler {
     private static final String ATTR_LIVE_DATA = "livedata";
     private static final String ATTR_GRAPH = "graph";
     private static final String ATTR_DASH = "dash";
+    private static final String ATTR_RATE = "rate";
     private Map<String, UserProfileItem> params;
     private Map<String, UserProfileItem> switches;
     private Map<String, UserProfileItem> external;
@@ -72,8 +73,18 @@ public final class UserProfileHandler extends DefaultHandler {
                 attributes.getValue(ATTR_UNITS),
                 SELECTED.equalsIgnoreCase(attributes.getValue(ATTR_LIVE_DATA)),
                 SELECTED.equalsIgnoreCase(attributes.getValue(ATTR_GRAPH)),
-                SELECTED.equalsIgnoreCase(attributes.getValue(ATTR_DASH))
+                SELECTED.equalsIgnoreCase(attributes.getValue(ATTR_DASH)),
+                getRate(attributes.getValue(ATTR_RATE))
         );
     }
 
+    private double getRate(String value) {
+        if (value == null) return 0.0;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
 }
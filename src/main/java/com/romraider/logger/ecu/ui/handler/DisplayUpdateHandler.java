@@ -0,0 +1,30 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.ui.handler;
+
+/**
+ * A handler that only renders the most recent values, such as the gauges,
+ * the live data table and the table overlay.  Responses for these handlers
+ * are delivered latest-value-wins at the display refresh rate, so
+ * intermediate responses may be skipped.  Handlers that keep a history of
+ * the values, like the graphs, must not use this interface.
+ */
+public interface DisplayUpdateHandler extends DataUpdateHandler {
+}
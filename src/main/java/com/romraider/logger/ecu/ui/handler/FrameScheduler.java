@@ -0,0 +1,119 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.ui.handler;
+
+import static com.romraider.util.ParamChecker.checkNotNull;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.Timer;
+
+import com.romraider.util.SettingsManager;
+
+/**
+ * Paces the logger displays.  Handlers keep the latest values of a sample
+ * in a snapshot of their own and call {@link #requestFrame()}, at most once
+ * per frame every showing listener is then asked to apply its snapshot, all
+ * in a single event on the EDT.  However fast the samples arrive the EDT
+ * queue holds no more than one frame.  The frame rate is the logger display
+ * refresh rate setting, the timer stops while no frames are requested.
+ */
+public final class FrameScheduler implements ActionListener {
+    private static final FrameScheduler INSTANCE = new FrameScheduler();
+    private final List<FrameListener> listeners = new CopyOnWriteArrayList<FrameListener>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean requested;
+    private final Timer timer;
+
+    /**
+     * A display updated once per frame.
+     */
+    public interface FrameListener {
+
+        /**
+         * @return false to skip frames while the display is hidden
+         */
+        boolean isShowing();
+
+        /**
+         * Apply the latest snapshot, called on the EDT.
+         */
+        void updateFrame();
+    }
+
+    private FrameScheduler() {
+        timer = new Timer(0, this);
+        timer.setInitialDelay(0);
+        timer.setCoalesce(true);
+    }
+
+    public static FrameScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    public void addListener(FrameListener listener) {
+        checkNotNull(listener, "listener");
+        listeners.add(listener);
+    }
+
+    public void removeListener(FrameListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Ask for the listeners to be updated in the next frame, may be called
+     * from any thread.
+     */
+    public void requestFrame() {
+        requested = true;
+        if (!running.get() && running.compareAndSet(false, true)) {
+            start();
+        }
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        if (!requested) {
+            // idle for a whole frame, stop until the next request
+            timer.stop();
+            running.set(false);
+            if (requested && running.compareAndSet(false, true)) {
+                start();
+            }
+            return;
+        }
+        requested = false;
+        for (FrameListener listener : listeners) {
+            if (listener.isShowing()) {
+                listener.updateFrame();
+            }
+        }
+    }
+
+    private void start() {
+        final int rate = SettingsManager.getSettings().getLoggerDisplayRefreshRate();
+        timer.setDelay(Math.max(1, 1000 / Math.max(1, rate)));
+        timer.start();
+    }
+}
@@ -20,9 +20,11 @@
 package com.romraider.logger.ecu.ui.handler.dash;
 
 import com.romraider.logger.ecu.comms.query.Response;
+import com.romraider.logger.ecu.comms.query.ResponseSchema;
 import com.romraider.logger.ecu.definition.ConvertorUpdateListener;
 import com.romraider.logger.ecu.definition.LoggerData;
-import com.romraider.logger.ecu.ui.handler.DataUpdateHandler;
+import com.romraider.logger.ecu.ui.handler.DisplayUpdateHandler;
+import com.romraider.logger.ecu.ui.handler.FrameScheduler;
 import static com.romraider.util.ThreadUtil.run;
 import static java.util.Collections.synchronizedMap;
 import javax.swing.JPanel;
@@ -32,7 +34,8 @@ import java.lang.reflect.Constructor;
 import java.util.HashMap;
 import java.util.Map;
 
-public final class DashboardUpdateHandler implements DataUpdateHandler, ConvertorUpdateListener {
+public final class DashboardUpdateHandler implements DisplayUpdateHandler, ConvertorUpdateListener,
+        FrameScheduler.FrameListener {
     private static final Class[] STYLES = {PlainGaugeStyle.class, SmallGaugeStyle.class, NoFrillsGaugeStyle.class, DialGaugeStyle.class, SmallDialGaugeStyle.class};
     private final Map<LoggerData, Gauge> gauges = synchronizedMap(new HashMap<LoggerData, Gauge>());
     private final JPanel dashboardPanel;
@@ -53,16 +56,29 @@ public final class DashboardUpdateHandler implements DataUpdateHandler, Converto
 
     public synchronized void handleDataUpdate(Response response) {
     	if (dashboardPanel.isShowing()) {
-	        for (LoggerData loggerData : response.getData()) {
-	            Gauge gauge = gauges.get(loggerData);
+	        final ResponseSchema schema = response.getSchema();
+	        for (int i = 0; i < schema.size(); i++) {
+	            Gauge gauge = gauges.get(schema.getData(i));
 	            if (gauge != null) {
-	                double value = response.getDataValue(loggerData);
-	                gauge.updateValue(value);
+	                gauge.setLatestValue(response.getValue(i));
 	            }
 	        }
+	        FrameScheduler.getInstance().requestFrame();
     	}
     }
 
+    public boolean isShowing() {
+        return dashboardPanel.isShowing();
+    }
+
+    public void updateFrame() {
+        synchronized (gauges) {
+            for (Gauge gauge : gauges.values()) {
+                gauge.updateFrame();
+            }
+        }
+    }
+
     public synchronized void deregisterData(LoggerData loggerData) {
         dashboardPanel.remove(gauges.get(loggerData));
         gauges.remove(loggerData);
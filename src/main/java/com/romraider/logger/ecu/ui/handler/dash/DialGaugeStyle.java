@@ -92,41 +92,26 @@ public class DialGaugeStyle implements GaugeStyle {
         refreshChart(panel);
     }
 
-    public void updateValue(final double value) {
-        SwingUtilities.invokeLater(new Runnable() {
-            public void run() {
-                current.setValue(value);
-            }
-        });
-        updateMinMax(value);
-    }
-
-    private void updateMinMax(final double value) {
-        SwingUtilities.invokeLater(new Runnable() {
-            public void run() {
-                if (value > maxValue) {
-                    maxValue = value;
-                    max.setValue(value);
-                }
-                if (value < minValue) {
-                    minValue = value;
-                    min.setValue(value);
-                }
-            }
-        });
+    // called on the EDT once per frame
+    public void updateValue(double value) {
+        current.setValue(value);
+        if (value > maxValue) {
+            maxValue = value;
+            max.setValue(value);
+        }
+        if (value < minValue) {
+            minValue = value;
+            min.setValue(value);
+        }
     }
 
     public void resetValue() {
         EcuDataConvertor convertor = loggerData.getSelectedConvertor();
         GaugeMinMax minMax = convertor.getGaugeMinMax();
-        double value = minMax.min;
-        updateValue(value);
-        resetMinMax(value);
-    }
-
-    private void resetMinMax(final double value) {
+        final double value = minMax.min;
         SwingUtilities.invokeLater(new Runnable() {
             public void run() {
+                current.setValue(value);
                 maxValue = MAX_VALUE * -1;
                 minValue = MAX_VALUE;
                 max.setValue(value);
@@ -27,6 +27,8 @@ import java.awt.BorderLayout;
 public final class Gauge extends JPanel {
     private static final long serialVersionUID = 7354117571944547043L;
     private GaugeStyle style;
+    private volatile double latestValue;
+    private volatile boolean updated;
 
     public Gauge(GaugeStyle style) {
         setLayout(new BorderLayout(0, 0));
@@ -37,8 +39,24 @@ public final class Gauge extends JPanel {
         style.refreshTitle();
     }
 
-    public void updateValue(double value) {
-        style.updateValue(value);
+    /**
+     * Keep the latest logged value until the next frame, may be called
+     * from any thread.
+     */
+    public void setLatestValue(double value) {
+        latestValue = value;
+        updated = true;
+    }
+
+    /**
+     * Show the latest value if it changed since the last frame, called on
+     * the EDT.
+     */
+    public void updateFrame() {
+        if (updated) {
+            updated = false;
+            style.updateValue(latestValue);
+        }
     }
 
     public void resetValue() {
@@ -76,6 +76,7 @@ public class PlainGaugeStyle implements GaugeStyle, ActionListener {
     private double min = Double.MAX_VALUE;
     private JPanel panel = new JPanel();
     private String warningFilePath = "customize/warningSound.wav";
+    private boolean warning;
 
     public PlainGaugeStyle(LoggerData loggerData) {
         checkNotNull(loggerData, "loggerData");
@@ -91,6 +92,7 @@ public class PlainGaugeStyle implements GaugeStyle, ActionListener {
         });
     }
 
+    // called on the EDT once per frame
     public void updateValue(double value) {
         refreshValue(value);
         if (warnCheckBox.isSelected() && isValidWarnThreshold()) {
@@ -218,25 +220,21 @@ public class PlainGaugeStyle implements GaugeStyle, ActionListener {
         return panel;
     }
 
-    private void refreshValue(final double value) {
+    private void refreshValue(double value) {
         final String text = format(loggerData, value);
         final int scaledValue = scaleForProgressBar(value);
-        SwingUtilities.invokeLater(new Runnable() {
-            public void run() {
-                if (value > max) {
-                    max = value;
-                    maxLabel.setText(text);
-                    progressBar.setMaximum(scaledValue);
-                }
-                if (value < min) {
-                    min = value;
-                    minLabel.setText(text);
-                    progressBar.setMinimum(scaledValue);
-                }
-                liveValueLabel.setText(text);
-                progressBar.setValue(scaledValue);
-            }
-        });
+        if (value > max) {
+            max = value;
+            maxLabel.setText(text);
+            progressBar.setMaximum(scaledValue);
+        }
+        if (value < min) {
+            min = value;
+            minLabel.setText(text);
+            progressBar.setMinimum(scaledValue);
+        }
+        liveValueLabel.setText(text);
+        progressBar.setValue(scaledValue);
     }
 
     private boolean isValidWarnThreshold() {
@@ -253,6 +251,11 @@ public class PlainGaugeStyle implements GaugeStyle, ActionListener {
     }
 
     private void setWarning(boolean enabled) {
+        // now on the EDT every frame, only act on a change of state
+        if (enabled == warning) {
+            return;
+        }
+        warning = enabled;
         if (enabled) {
             panel.setBackground(RED);
             liveValuePanel.setBackground(RED);
@@ -0,0 +1,240 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.ui.handler.file;
+
+import static com.romraider.util.ParamChecker.checkNotNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.ResourceBundle;
+
+import com.romraider.Settings;
+import com.romraider.logger.ecu.definition.LoggerData;
+import com.romraider.logger.ecu.exception.FileLoggerException;
+import com.romraider.logger.ecu.ui.MessageListener;
+import com.romraider.util.FormatFilename;
+import com.romraider.util.ResourceUtil;
+import com.romraider.util.SettingsManager;
+
+/**
+ * Opens and closes the session log file, subclasses encode the rows.
+ * When rotation is enabled the session is split into numbered segments
+ * once a segment reaches the size or time limit, each segment starts with
+ * the current headers and closed segments are listed in a
+ * {@link SessionManifest}.
+ */
+abstract class AbstractFileLogger implements FileLogger {
+    private static final ResourceBundle rb = new ResourceUtil().getBundle(
+            FileLoggerImpl.class.getName());
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMdd_HHmmss");
+    private final MessageListener messageListener;
+    private final String extension;
+    private boolean started;
+    private FileOutputStream os;
+    private File file;
+    private String basePath;
+    private long rotateBytes;
+    private long rotateMillis;
+    private boolean compress;
+    private SessionManifest manifest;
+    private LoggerData[] loggerDatas;
+    private int segment;
+    private long rows;
+    private long firstTimestamp;
+    private long lastTimestamp;
+
+    AbstractFileLogger(MessageListener messageListener, String extension) {
+        checkNotNull(messageListener);
+        this.messageListener = messageListener;
+        this.extension = extension;
+    }
+
+    @Override
+    public void start() {
+        if (!started) {
+            stop();
+            try {
+                final Settings settings = SettingsManager.getSettings();
+                rotateBytes = settings.getFileLoggingRotateSize() * 1024L * 1024L;
+                rotateMillis = settings.getFileLoggingRotateMinutes() * 60000L;
+                compress = settings.isFileLoggingCompress();
+                basePath = buildBasePath();
+                manifest = isRotating()
+                        ? new SessionManifest(new File(basePath + SessionManifest.EXTENSION))
+                        : null;
+                loggerDatas = null;
+                segment = 1;
+                openSegment();
+                messageListener.reportMessageInTitleBar(MessageFormat.format(
+                        rb.getString("STARTLOG"),
+                        FormatFilename.getShortName(file.getPath())));
+            } catch (Exception e) {
+                stop();
+                throw new FileLoggerException(e);
+            }
+
+            started = true;
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (os != null) {
+            try {
+                closeSegment();
+                messageListener.reportMessageInTitleBar(rb.getString("STOPLOG"));
+            } catch (Exception e) {
+                throw new FileLoggerException(e);
+            } finally {
+                os = null;
+            }
+        }
+        started = false;
+    }
+
+    @Override
+    public boolean isStarted() {
+        return started;
+    }
+
+    @Override
+    public final void writeHeaders(LoggerData[] loggerDatas) {
+        if (os == null) return;
+        this.loggerDatas = loggerDatas;
+        try {
+            writeSchema(loggerDatas);
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    @Override
+    public final void writeLine(double[] values, long timestamp) {
+        if (os == null) return;
+        try {
+            if (rows > 0 && isRotationDue(timestamp)) {
+                rotate();
+            }
+            writeRow(values, timestamp);
+            if (rows++ == 0) firstTimestamp = timestamp;
+            lastTimestamp = timestamp;
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    @Override
+    public void commit(boolean sync) {
+        if (os != null) {
+            try {
+                flush();
+                if (sync) {
+                    os.getChannel().force(false);
+                }
+            } catch (IOException e) {
+                failed(e);
+            }
+        }
+    }
+
+    /**
+     * Called once each log file has been created, subclasses do their own
+     * buffering.
+     */
+    protected abstract void open(FileOutputStream os) throws IOException;
+
+    /**
+     * Write the column definitions, called when the logged parameters change
+     * and at the start of each segment.
+     */
+    protected abstract void writeSchema(LoggerData[] loggerDatas) throws IOException;
+
+    protected abstract void writeRow(double[] values, long timestamp) throws IOException;
+
+    /**
+     * Write any output buffered by the subclass to the log file, called on
+     * commit and before the log file is closed.
+     */
+    protected abstract void flush() throws IOException;
+
+    protected final void failed(Exception e) {
+        stop();
+        throw new FileLoggerException(e);
+    }
+
+    private boolean isRotating() {
+        return rotateBytes > 0 || rotateMillis > 0;
+    }
+
+    // the size check sees what has reached the file, which lags by at most
+    // the subclass' buffer
+    private boolean isRotationDue(long timestamp) throws IOException {
+        return (rotateBytes > 0 && os.getChannel().position() >= rotateBytes)
+                || (rotateMillis > 0 && timestamp - firstTimestamp >= rotateMillis);
+    }
+
+    private void rotate() throws IOException {
+        closeSegment();
+        segment++;
+        openSegment();
+        if (loggerDatas != null) {
+            writeSchema(loggerDatas);
+        }
+    }
+
+    private void openSegment() throws IOException {
+        file = new File(isRotating()
+                ? basePath + String.format("_%03d", segment) + extension
+                : basePath + extension);
+        os = new FileOutputStream(file);
+        rows = 0;
+        open(os);
+    }
+
+    private void closeSegment() throws IOException {
+        try {
+            flush();
+        } finally {
+            os.close();
+        }
+        if (manifest != null) {
+            manifest.add(file, firstTimestamp, lastTimestamp, rows, compress);
+        }
+    }
+
+    private String buildBasePath() {
+        String logDir = SettingsManager.getSettings().getLoggerOutputDirPath();
+        if (!logDir.endsWith(File.separator)) {
+            logDir += File.separator;
+        }
+        logDir += "romraiderlog_";
+        Settings settings = SettingsManager.getSettings();
+        if (settings.getLogfileNameText() != null
+                && !settings.getLogfileNameText().isEmpty()) {
+            logDir += settings.getLogfileNameText() + "_";
+        }
+        logDir += dateFormat.format(new Date());
+        return logDir;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.ui.handler.file;
+
+import static java.lang.System.nanoTime;
+
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.Logger;
+
+import com.romraider.logger.ecu.definition.LoggerData;
+import com.romraider.logger.ecu.ui.MessageListener;
+import com.romraider.util.RingBuffer;
+import com.romraider.util.RingBuffer.OverflowPolicy;
+import com.romraider.util.metrics.Metrics;
+
+/**
+ * Moves the file I/O of a {@link FileLogger} onto its own writer thread.
+ * Rows are copied into a fixed pool of records and handed over through a
+ * bounded queue, when the writer falls behind (a stalled disk) new rows
+ * are dropped rather than holding up the caller.  The writer commits after
+ * a number of rows or an interval, whichever comes first, and forces the
+ * data to disk according to the {@link FileLogger.SyncPolicy}.
+ */
+final class AsyncFileLogger implements FileLogger {
+    private static final Logger LOGGER = Logger.getLogger(AsyncFileLogger.class);
+    private static final long MAX_WAIT_NANOS = 100000000L;
+    private final FileLogger delegate;
+    private final MessageListener messageListener;
+    private final RingBuffer<Record> pending;
+    private final RingBuffer<Record> free;
+    private final int commitRows;
+    private final long commitNanos;
+    private final SyncPolicy syncPolicy;
+    private LoggerData[] headers;
+    private Thread writer;
+    private volatile boolean stop;
+    private volatile boolean failed;
+    private long droppedCount;
+    private volatile long writtenCount;
+    private volatile long commitMaxNanos;
+
+    AsyncFileLogger(FileLogger delegate, MessageListener messageListener,
+            int queueSize, int commitRows, long commitInterval,
+            SyncPolicy syncPolicy) {
+        this.delegate = delegate;
+        this.messageListener = messageListener;
+        this.free = new RingBuffer<Record>(queueSize, OverflowPolicy.DROP_OLDEST);
+        this.pending = new RingBuffer<Record>(
+                free.getCapacity(), OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < free.getCapacity(); i++) {
+            free.offer(new Record());
+        }
+        this.commitRows = Math.max(1, commitRows);
+        this.commitNanos = Math.max(1L, commitInterval) * 1000000L;
+        this.syncPolicy = syncPolicy;
+    }
+
+    @Override
+    public void start() {
+        if (writer == null) {
+            delegate.start();
+            stop = false;
+            failed = false;
+            droppedCount = 0;
+            writtenCount = 0;
+            commitMaxNanos = 0;
+            writer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    write();
+                }
+            }, "FileLogWriter");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (writer == null) return;
+        stop = true;
+        // unpark the thread itself, it may not be waiting in take yet
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        headers = null;
+        Record record;
+        while ((record = pending.poll()) != null) {
+            free.offer(record);
+        }
+        try {
+            if (delegate.isStarted()) {
+                delegate.commit(syncPolicy != SyncPolicy.NONE);
+            }
+        } finally {
+            delegate.stop();
+        }
+        LOGGER.info(String.format(
+                "File log writer stopped. Rows written: %d, dropped: %d, " +
+                "commit max: %.3f ms",
+                writtenCount, droppedCount, commitMaxNanos / 1000000.0));
+    }
+
+    @Override
+    public void writeHeaders(LoggerData[] loggerDatas) {
+        headers = loggerDatas;
+        queueHeaders();
+    }
+
+    @Override
+    public void writeLine(double[] values, long timestamp) {
+        if (failed) {
+            droppedCount++;
+            return;
+        }
+        if (headers != null && !queueHeaders()) {
+            droppedCount++;
+            return;
+        }
+        final Record record = free.poll();
+        if (record == null) {
+            droppedCount++;
+            return;
+        }
+        if (record.values.length != values.length) {
+            record.values = new double[values.length];
+        }
+        System.arraycopy(values, 0, record.values, 0, values.length);
+        record.timestamp = timestamp;
+        pending.offer(record);
+    }
+
+    /**
+     * Commits are made by the writer thread, this only wakes it.
+     */
+    @Override
+    public void commit(boolean sync) {
+        pending.wakeConsumer();
+    }
+
+    /**
+     * Stays true after the writer failed, until {@link #stop()} is called.
+     */
+    @Override
+    public boolean isStarted() {
+        return writer != null;
+    }
+
+    /**
+     * @return true if the writer thread stopped on an error, the file is
+     * then already closed and rows are dropped until {@link #stop()}
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    // a parameter change must reach the file before the rows that follow
+    // it, so it is held until a record is free
+    private boolean queueHeaders() {
+        final Record record = free.poll();
+        if (record == null) return false;
+        record.headers = headers;
+        headers = null;
+        pending.offer(record);
+        return true;
+    }
+
+    private void write() {
+        final boolean sync = syncPolicy == SyncPolicy.COMMIT;
+        long lastCommit = nanoTime();
+        int rows = 0;
+        try {
+            while (true) {
+                final long wait = stop ? 1L
+                        : rows == 0 ? MAX_WAIT_NANOS
+                        : Math.max(1L, lastCommit + commitNanos - nanoTime());
+                final Record record = pending.take(wait);
+                if (record != null) {
+                    if (record.headers != null) {
+                        delegate.writeHeaders(record.headers);
+                        record.headers = null;
+                    }
+                    else {
+                        final long start = nanoTime();
+                        delegate.writeLine(record.values, record.timestamp);
+                        Metrics.FILE_WRITE.record(nanoTime() - start);
+                        writtenCount++;
+                        rows++;
+                    }
+                    free.offer(record);
+                }
+                else if (stop) {
+                    break;
+                }
+                final long now = nanoTime();
+                if (rows > 0 && (rows >= commitRows || now - lastCommit >= commitNanos)) {
+                    delegate.commit(sync);
+                    final long elapsed = nanoTime() - now;
+                    if (elapsed > commitMaxNanos) commitMaxNanos = elapsed;
+                    lastCommit = now;
+                    rows = 0;
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("File log writer failed", e);
+            // close the file now rather than when the logger is stopped
+            try {
+                delegate.stop();
+            } catch (RuntimeException ex) {
+                LOGGER.error("File log close failed", ex);
+            }
+            failed = true;
+            messageListener.reportError(e);
+        }
+    }
+
+    private static final class Record {
+        private LoggerData[] headers;
+        private double[] values = new double[0];
+        private long timestamp;
+    }
+}
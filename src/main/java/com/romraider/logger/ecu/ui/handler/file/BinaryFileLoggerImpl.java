@@ -0,0 +1,102 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.ui.handler.file;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import com.romraider.logger.ecu.definition.EcuDataConvertor;
+import com.romraider.logger.ecu.definition.LoggerData;
+import com.romraider.logger.ecu.ui.MessageListener;
+
+/**
+ * Writes a compact binary log.  The file starts with a magic number and
+ * version followed by a stream of records:
+ * <pre>
+ *   'S' schema: u16 column count, then per column UTF name, units, format
+ *   'R' row:    zigzag varint timestamp delta (ms), then one double per column
+ * </pre>
+ * A schema record is written whenever the set of logged parameters changes.
+ * The first row's delta is taken from zero so it holds the absolute time,
+ * each segment of a rotated session is a complete log of its own.
+ * Use {@link BinaryLogConverter} to render the file in the CSV layout.
+ */
+public final class BinaryFileLoggerImpl extends AbstractFileLogger {
+    static final int MAGIC = 0x52524C47; // RRLG
+    static final int VERSION = 1;
+    static final int SCHEMA = 'S';
+    static final int ROW = 'R';
+    static final String EXTENSION = ".rrlog";
+    private DataOutputStream out;
+    private int columns;
+    private long lastTimestamp;
+
+    public BinaryFileLoggerImpl(MessageListener messageListener) {
+        super(messageListener, EXTENSION);
+    }
+
+    @Override
+    protected void open(FileOutputStream os) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(os));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        lastTimestamp = 0;
+        columns = 0;
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    protected void writeSchema(LoggerData[] loggerDatas) throws IOException {
+        out.writeByte(SCHEMA);
+        out.writeShort(loggerDatas.length);
+        for (LoggerData loggerData : loggerDatas) {
+            final EcuDataConvertor convertor = loggerData.getSelectedConvertor();
+            out.writeUTF(loggerData.getName());
+            out.writeUTF(convertor.getUnits());
+            out.writeUTF(convertor.getFormat());
+        }
+        columns = loggerDatas.length;
+    }
+
+    @Override
+    protected void writeRow(double[] values, long timestamp) throws IOException {
+        out.writeByte(ROW);
+        writeVarLong(out, timestamp - lastTimestamp);
+        lastTimestamp = timestamp;
+        for (int i = 0; i < columns; i++) {
+            out.writeDouble(values[i]);
+        }
+    }
+
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.ui.handler.file;
+
+import static com.romraider.logger.ecu.ui.handler.file.BinaryFileLoggerImpl.EXTENSION;
+import static com.romraider.logger.ecu.ui.handler.file.BinaryFileLoggerImpl.MAGIC;
+import static com.romraider.logger.ecu.ui.handler.file.BinaryFileLoggerImpl.ROW;
+import static com.romraider.logger.ecu.ui.handler.file.BinaryFileLoggerImpl.SCHEMA;
+import static com.romraider.logger.ecu.ui.handler.file.BinaryFileLoggerImpl.VERSION;
+import static com.romraider.logger.ecu.ui.handler.file.CsvLayout.NEW_LINE;
+import static com.romraider.logger.ecu.ui.handler.file.SessionManifest.GZIP_EXTENSION;
+import static org.apache.log4j.Logger.getLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.text.DecimalFormat;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Renders a binary log written by {@link BinaryFileLoggerImpl} in the same
+ * CSV layout as {@link FileLoggerImpl}.
+ */
+public final class BinaryLogConverter {
+    private static final Logger LOGGER = getLogger(BinaryLogConverter.class);
+
+    private BinaryLogConverter() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Convert a binary log, or a gzip compressed segment of one, to a .csv
+     * file of the same name in the same directory.
+     * @return the CSV file written
+     */
+    public static File convert(File binaryLog, boolean absoluteTimestamp) throws IOException {
+        String path = binaryLog.getAbsolutePath();
+        final boolean compressed = path.endsWith(GZIP_EXTENSION);
+        if (compressed) {
+            path = path.substring(0, path.length() - GZIP_EXTENSION.length());
+        }
+        if (path.endsWith(EXTENSION)) {
+            path = path.substring(0, path.length() - EXTENSION.length());
+        }
+        final File csvLog = new File(path + ".csv");
+        final InputStream is = compressed
+                ? new GZIPInputStream(new FileInputStream(binaryLog), 64 * 1024)
+                : new BufferedInputStream(new FileInputStream(binaryLog));
+        try {
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(csvLog)));
+            try {
+                convert(is, writer, absoluteTimestamp);
+            } finally {
+                writer.close();
+            }
+        } finally {
+            is.close();
+        }
+        return csvLog;
+    }
+
+    public static void convert(InputStream is, Writer writer, boolean absoluteTimestamp) throws IOException {
+        final DataInputStream in = new DataInputStream(is);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a RomRaider binary log");
+        }
+        final int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary log version: " + version);
+        }
+
+        final CsvLayout layout = new CsvLayout(absoluteTimestamp);
+        final String delimiter = layout.getDelimiter();
+        DecimalFormat[] formats = new DecimalFormat[0];
+        long timestamp = 0;
+        long startTimestamp = 0;
+        int rows = 0;
+        try {
+            int record;
+            while ((record = in.read()) != -1) {
+                if (record == SCHEMA) {
+                    final int columns = in.readUnsignedShort();
+                    final String[] names = new String[columns];
+                    final String[] units = new String[columns];
+                    formats = new DecimalFormat[columns];
+                    for (int i = 0; i < columns; i++) {
+                        names[i] = in.readUTF();
+                        units[i] = in.readUTF();
+                        formats[i] = new DecimalFormat(in.readUTF());
+                    }
+                    writer.write(layout.headers(names, units));
+                    writer.write(NEW_LINE);
+                }
+                else if (record == ROW) {
+                    timestamp += readVarLong(in);
+                    final StringBuilder line = new StringBuilder();
+                    for (DecimalFormat format : formats) {
+                        line.append(delimiter).append(format.format(in.readDouble()));
+                    }
+                    if (startTimestamp == 0) startTimestamp = timestamp;
+                    writer.write(layout.timestamp(timestamp, startTimestamp));
+                    writer.write(line.toString());
+                    writer.write(NEW_LINE);
+                    rows++;
+                }
+                else {
+                    throw new IOException(String.format(
+                            "Unknown binary log record: %02X after %d rows",
+                            record, rows));
+                }
+            }
+        } catch (EOFException e) {
+            LOGGER.warn("Binary log truncated after " + rows + " rows");
+        }
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long zigzag = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.ui.handler.file;
+
+import static com.romraider.logger.ecu.ui.handler.file.CsvLayout.NEW_LINE;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.TimeZone;
+import java.util.regex.Pattern;
+
+import com.romraider.logger.ecu.definition.EcuDataConvertor;
+
+/**
+ * Encodes CSV log rows straight into a reusable byte array.  Values whose
+ * convertor uses a plain decimal pattern are written digit by digit with the
+ * pattern's precision and the same half-even rounding as DecimalFormat,
+ * anything else falls back to the convertor's own format.
+ */
+final class CsvEncoder {
+    // plain patterns such as 0, #0, 0.00 or 0.0##, no grouping or exponent
+    private static final Pattern PLAIN = Pattern.compile("#*0+(\\.0*#*)?");
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L };
+    private static final double MAX_SCALED = 1e15;
+    private static final int DAY = 86400000;
+    private final TimeZone timeZone = TimeZone.getDefault();
+    private final CsvLayout layout;
+    private final byte[] delimiter;
+    private final byte[] newLine;
+    private byte[] headerBytes = new byte[0];
+    private EcuDataConvertor[] convertors = new EcuDataConvertor[0];
+    private int[] minInteger = new int[0];
+    private int[] minFraction = new int[0];
+    private int[] maxFraction = new int[0];
+    private byte[] separator = new byte[0];
+    private byte[] minus = new byte[0];
+    private boolean[] plain = new boolean[0];
+    private byte[] row = new byte[256];
+    private int length;
+
+    CsvEncoder(CsvLayout layout) {
+        this.layout = layout;
+        delimiter = layout.getDelimiter().getBytes();
+        newLine = NEW_LINE.getBytes();
+    }
+
+    void setColumns(String[] names, EcuDataConvertor[] convertors) {
+        final String[] units = new String[convertors.length];
+        this.convertors = convertors;
+        minInteger = new int[convertors.length];
+        minFraction = new int[convertors.length];
+        maxFraction = new int[convertors.length];
+        separator = new byte[convertors.length];
+        minus = new byte[convertors.length];
+        plain = new boolean[convertors.length];
+        for (int i = 0; i < convertors.length; i++) {
+            units[i] = convertors[i].getUnits();
+            final String pattern = convertors[i].getFormat();
+            if (!convertors[i].isDecimalFormat() || !PLAIN.matcher(pattern).matches()) {
+                continue;
+            }
+            final DecimalFormat format = new DecimalFormat(pattern);
+            final DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+            if (format.getMaximumFractionDigits() >= POW10.length
+                    || symbols.getZeroDigit() != '0'
+                    || symbols.getDecimalSeparator() > 0x7F
+                    || symbols.getMinusSign() > 0x7F) {
+                continue;
+            }
+            minInteger[i] = format.getMinimumIntegerDigits();
+            minFraction[i] = format.getMinimumFractionDigits();
+            maxFraction[i] = format.getMaximumFractionDigits();
+            separator[i] = (byte) symbols.getDecimalSeparator();
+            minus[i] = (byte) symbols.getMinusSign();
+            plain[i] = true;
+        }
+        final String header = layout.headers(names, units) + NEW_LINE;
+        headerBytes = header.getBytes();
+    }
+
+    byte[] getHeaderBytes() {
+        return headerBytes;
+    }
+
+    /**
+     * Encode one row, the result is valid until the next call.
+     * @return the number of bytes in {@link #getRowBytes()}
+     */
+    int encodeRow(double[] values, long timestamp, long startTimestamp) {
+        length = 0;
+        if (layout.isAbsoluteTimestamp()) {
+            putTime(timestamp);
+        }
+        else {
+            putLong(timestamp - startTimestamp, 1);
+        }
+        for (int i = 0; i < convertors.length; i++) {
+            put(delimiter);
+            if (!plain[i] || !putDecimal(values[i], i)) {
+                put(convertors[i].format(values[i]).getBytes());
+            }
+        }
+        put(newLine);
+        return length;
+    }
+
+    byte[] getRowBytes() {
+        return row;
+    }
+
+    private boolean putDecimal(double value, int column) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) return false;
+        final int fractionDigits = maxFraction[column];
+        final long pow = POW10[fractionDigits];
+        final double product = Math.abs(value) * pow;
+        if (product >= MAX_SCALED) return false;
+        // leave values that land near a rounding tie to DecimalFormat,
+        // it rounds the exact binary value rather than the product
+        final double fraction = product - Math.floor(product);
+        if (Math.abs(fraction - 0.5) < 1e-6) return false;
+        final long scaled = (long) Math.rint(product);
+
+        final long integer = scaled / pow;
+        long fractional = scaled % pow;
+        int digits = fractionDigits;
+        while (digits > minFraction[column] && fractional % 10 == 0) {
+            fractional /= 10;
+            digits--;
+        }
+        if (value < 0 || (value == 0 && 1 / value < 0)) {
+            ensure(1);
+            row[length++] = minus[column];
+        }
+        putLong(integer, minInteger[column]);
+        if (digits > 0) {
+            ensure(1);
+            row[length++] = separator[column];
+            putLong(fractional, digits);
+        }
+        return true;
+    }
+
+    private void putTime(long timestamp) {
+        long local = (timestamp + timeZone.getOffset(timestamp)) % DAY;
+        if (local < 0) local += DAY;
+        putLong(local / 3600000, 2);
+        put((byte) ':');
+        putLong(local / 60000 % 60, 2);
+        put((byte) ':');
+        putLong(local / 1000 % 60, 2);
+        put((byte) '.');
+        putLong(local % 1000, 3);
+    }
+
+    private void putLong(long value, int minDigits) {
+        if (value < 0) {
+            put((byte) '-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value / 10; v > 0; v /= 10) digits++;
+        if (digits < minDigits) digits = minDigits;
+        ensure(digits);
+        for (int i = length + digits - 1; i >= length; i--) {
+            row[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        row[length++] = b;
+    }
+
+    private void put(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, row, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > row.length) {
+            final byte[] grown = new byte[Math.max(row.length * 2, length + extra)];
+            System.arraycopy(row, 0, grown, 0, length);
+            row = grown;
+        }
+    }
+}
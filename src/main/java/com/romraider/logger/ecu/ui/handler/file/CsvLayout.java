@@ -0,0 +1,88 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.ui.handler.file;
+
+import static com.romraider.Settings.COMMA;
+import static com.romraider.Settings.SEMICOLON;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The column layout of a RomRaider CSV log file, shared by the file logger
+ * and the binary log converter so both produce the same text.
+ */
+final class CsvLayout {
+    static final String NEW_LINE = System.getProperty("line.separator");
+    private static final Set<String> LOCALES = new HashSet<String>(
+            Arrays.asList(new String[] {
+                    "be_BY","bg_BG","ca_ES","cs_CZ","da_DK","de_AT","de_CH","de_DE","de_LU",
+                    "el_CY","el_GR","es_AR","es_BO","es_CL","es_CO","es_EC","es_ES","es_PE",
+                    "es_PY","es_UY","es_VE","et_EE","fi_FI","fr_BE","fr_CA","fr_CH","fr_FR",
+                    "fr_LU","hr_HR","hu_HU","in_ID","is_IS","it_CH","it_IT","lt_LT","lv_LV",
+                    "mk_MK","nl_BE","nl_NL","no_NO","no_NO_NY","pl_PL","pt_BR","pt_PT",
+                    "ro_RO","ru_RU","sk_SK","sl_SI","sq_AL","sr_BA","sr_CS","sr_ME","sr_RS",
+                    "sv_SE","tr_TR","uk_UA","vi_VN"
+            }
+                    ));
+    private final SimpleDateFormat timestampFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+    private final String delimiter;
+    private final boolean absoluteTimestamp;
+
+    CsvLayout(boolean absoluteTimestamp) {
+        final String language = System.getProperty("user.language.format");
+        final String country = System.getProperty("user.country.format");
+        this.delimiter = language == null ?
+                LOCALES.contains(Locale.getDefault().toString()) ? SEMICOLON : COMMA
+                        : LOCALES.contains(language + "_" + country) ? SEMICOLON : COMMA;
+        this.absoluteTimestamp = absoluteTimestamp;
+    }
+
+    String getDelimiter() {
+        return delimiter;
+    }
+
+    boolean isAbsoluteTimestamp() {
+        return absoluteTimestamp;
+    }
+
+    String headers(String[] names, String[] units) {
+        final StringBuilder buffer = new StringBuilder("Time");
+        if (!absoluteTimestamp) {
+            buffer.append(" (msec)");
+        }
+        for (int i = 0; i < names.length; i++) {
+            buffer.append(delimiter).append(names[i]).append(" (")
+            .append(units[i]).append(')');
+        }
+        return buffer.toString();
+    }
+
+    String timestamp(long timestamp, long startTimestamp) {
+        if (absoluteTimestamp) {
+            return timestampFormat.format(new Date(timestamp));
+        }
+        return String.valueOf(timestamp - startTimestamp);
+    }
+}
@@ -19,14 +19,32 @@
 
 package com.romraider.logger.ecu.ui.handler.file;
 
+import com.romraider.logger.ecu.definition.LoggerData;
+
 public interface FileLogger {
+    /** when buffered log data is forced to the storage device */
+    enum SyncPolicy {
+        /** leave it to the operating system */
+        NONE,
+        /** when the log file is closed */
+        CLOSE,
+        /** at every commit, at most one commit interval is lost on power loss */
+        COMMIT
+    }
+
     void start();
 
     void stop();
 
-    void writeHeaders(String headers);
+    void writeHeaders(LoggerData[] loggerDatas);
+
+    void writeLine(double[] values, long timestamp);
 
-    void writeLine(String line, long timestamp);
+    /**
+     * Write buffered rows to the file.
+     * @param sync true to also force them to the storage device
+     */
+    void commit(boolean sync);
 
     boolean isStarted();
 }
@@ -19,129 +19,78 @@
 
 package com.romraider.logger.ecu.ui.handler.file;
 
-import static com.romraider.util.ParamChecker.checkNotNull;
-
-import java.io.BufferedOutputStream;
-import java.io.File;
 import java.io.FileOutputStream;
-import java.io.OutputStream;
-import java.text.MessageFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.ResourceBundle;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
-import com.romraider.Settings;
-import com.romraider.logger.ecu.exception.FileLoggerException;
+import com.romraider.logger.ecu.definition.EcuDataConvertor;
+import com.romraider.logger.ecu.definition.LoggerData;
 import com.romraider.logger.ecu.ui.MessageListener;
-import com.romraider.util.FormatFilename;
-import com.romraider.util.ResourceUtil;
 import com.romraider.util.SettingsManager;
 
-public final class FileLoggerImpl implements FileLogger {
-    private static final String NEW_LINE = System.getProperty("line.separator");
-    private static final ResourceBundle rb = new ResourceUtil().getBundle(
-            FileLoggerImpl.class.getName());
-    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMdd_HHmmss");
-    private final SimpleDateFormat timestampFormat = new SimpleDateFormat("HH:mm:ss.SSS");
-    private final MessageListener messageListener;
-    private boolean started;
-    private OutputStream os;
+public final class FileLoggerImpl extends AbstractFileLogger {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private FileChannel channel;
+    private CsvEncoder encoder;
     private long startTimestamp;
-    //private boolean zero;
 
     public FileLoggerImpl(MessageListener messageListener) {
-        checkNotNull(messageListener);
-        this.messageListener = messageListener;
+        super(messageListener, ".csv");
     }
 
     @Override
     public void start() {
-        if (!started) {
-            stop();
-            try {
-                String filePath = buildFilePath();
-                os = new BufferedOutputStream(new FileOutputStream(filePath));
-                messageListener.reportMessageInTitleBar(MessageFormat.format(
-                        rb.getString("STARTLOG"),
-                        FormatFilename.getShortName(filePath)));
-            } catch (Exception e) {
-                stop();
-                throw new FileLoggerException(e);
-            }
-            
-            started = true;
-            startTimestamp = 0;
-        }
-    }
-
-    @Override
-    public void stop() {
-        if (os != null) {
-            try {
-                os.close();
-                messageListener.reportMessageInTitleBar(rb.getString("STOPLOG"));
-            } catch (Exception e) {
-                throw new FileLoggerException(e);
-            }
-        }
-        started = false;
+        encoder = new CsvEncoder(new CsvLayout(
+                SettingsManager.getSettings().isFileLoggingAbsoluteTimestamp()));
+        startTimestamp = 0;
+        super.start();
     }
 
+    // relative timestamps continue across segments of a rotated session
     @Override
-    public boolean isStarted() {
-        return started;
+    protected void open(FileOutputStream os) {
+        channel = os.getChannel();
+        buffer.clear();
     }
 
     @Override
-    public void writeHeaders(String headers) {
-        String timeHeader = "Time";
-        if (!SettingsManager.getSettings().isFileLoggingAbsoluteTimestamp()) {
-            timeHeader = timeHeader  + " (msec)";
+    protected void writeSchema(LoggerData[] loggerDatas) throws IOException {
+        final String[] names = new String[loggerDatas.length];
+        final EcuDataConvertor[] convertors = new EcuDataConvertor[loggerDatas.length];
+        for (int i = 0; i < loggerDatas.length; i++) {
+            convertors[i] = loggerDatas[i].getSelectedConvertor();
+            names[i] = loggerDatas[i].getName();
         }
-        writeText(timeHeader + headers);
+        encoder.setColumns(names, convertors);
+        final byte[] header = encoder.getHeaderBytes();
+        write(header, header.length);
     }
 
     @Override
-    public void writeLine(String line, long timestamp) {
-        writeText(prependTimestamp(line, timestamp));
+    protected void writeRow(double[] values, long timestamp) throws IOException {
+        if (startTimestamp == 0) startTimestamp = timestamp;
+        final int length = encoder.encodeRow(values, timestamp, startTimestamp);
+        write(encoder.getRowBytes(), length);
     }
 
-    private void writeText(String text) {
-        try {
-            os.write(text.getBytes());
-            if (!text.endsWith(NEW_LINE)) {
-                os.write(NEW_LINE.getBytes());
-            }
-        } catch (Exception e) {
-            stop();
-            throw new FileLoggerException(e);
+    private void write(byte[] bytes, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            if (!buffer.hasRemaining()) flush();
+            final int count = Math.min(buffer.remaining(), length - offset);
+            buffer.put(bytes, offset, count);
+            offset += count;
         }
     }
 
-    private String prependTimestamp(String line, long timestamp) {
-        String formattedTimestamp;
-        if (SettingsManager.getSettings().isFileLoggingAbsoluteTimestamp()) {
-            formattedTimestamp = timestampFormat.format(new Date(timestamp));
-        } else {
-        	if(startTimestamp == 0) startTimestamp = timestamp;
-        	formattedTimestamp = String.valueOf(timestamp - startTimestamp);          
-        }
-        return new StringBuilder(formattedTimestamp).append(line).toString();
-    }
-
-    private String buildFilePath() {
-        String logDir = SettingsManager.getSettings().getLoggerOutputDirPath();
-        if (!logDir.endsWith(File.separator)) {
-            logDir += File.separator;
-        }
-        logDir += "romraiderlog_";
-        Settings settings = SettingsManager.getSettings();
-        if (settings.getLogfileNameText() != null
-                && !settings.getLogfileNameText().isEmpty()) {
-            logDir += settings.getLogfileNameText() + "_";
+    @Override
+    protected void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
         }
-        logDir += dateFormat.format(new Date()) + ".csv";
-        return logDir;
+        buffer.clear();
     }
-
 }
@@ -20,9 +20,9 @@
 package com.romraider.logger.ecu.ui.handler.file;
 
 import com.romraider.logger.ecu.ui.StatusChangeListener;
-import com.romraider.logger.ecu.ui.handler.DataUpdateHandler;
+import com.romraider.logger.ecu.ui.handler.QueuedUpdateHandler;
 
-public interface FileUpdateHandler extends DataUpdateHandler {
+public interface FileUpdateHandler extends QueuedUpdateHandler {
 
     void addListener(StatusChangeListener listener);
 
@@ -19,52 +19,37 @@
 
 package com.romraider.logger.ecu.ui.handler.file;
 
-import static com.romraider.Settings.COMMA;
-import static com.romraider.Settings.SEMICOLON;
 import static com.romraider.util.ParamChecker.checkNotNull;
 import static java.util.Collections.synchronizedList;
 import static java.util.Collections.synchronizedMap;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
+import com.romraider.Settings;
 import com.romraider.logger.ecu.comms.query.Response;
+import com.romraider.logger.ecu.comms.query.ResponseSchema;
 import com.romraider.logger.ecu.definition.ConvertorUpdateListener;
 import com.romraider.logger.ecu.definition.LoggerData;
 import com.romraider.logger.ecu.ui.MessageListener;
 import com.romraider.logger.ecu.ui.StatusChangeListener;
+import com.romraider.util.SettingsManager;
 
 public final class FileUpdateHandlerImpl implements FileUpdateHandler, ConvertorUpdateListener {
     private final Map<LoggerData, Integer> loggerDatas = synchronizedMap(new LinkedHashMap<LoggerData, Integer>());
     private final List<StatusChangeListener> listeners = synchronizedList(new ArrayList<StatusChangeListener>());
-    private final FileLogger fileLogger;
-    private final Set<String> locales = new HashSet<String>(
-            Arrays.asList(new String[] {
-                    "be_BY","bg_BG","ca_ES","cs_CZ","da_DK","de_AT","de_CH","de_DE","de_LU",
-                    "el_CY","el_GR","es_AR","es_BO","es_CL","es_CO","es_EC","es_ES","es_PE",
-                    "es_PY","es_UY","es_VE","et_EE","fi_FI","fr_BE","fr_CA","fr_CH","fr_FR",
-                    "fr_LU","hr_HR","hu_HU","in_ID","is_IS","it_CH","it_IT","lt_LT","lv_LV",
-                    "mk_MK","nl_BE","nl_NL","no_NO","no_NO_NY","pl_PL","pt_BR","pt_PT",
-                    "ro_RO","ru_RU","sk_SK","sl_SI","sq_AL","sr_BA","sr_CS","sr_ME","sr_RS",
-                    "sv_SE","tr_TR","uk_UA","vi_VN"
-            }
-                    ));
-    private final String language = System.getProperty("user.language.format");
-    private final String country = System.getProperty("user.country.format");
-
-    private final String delimiter = language == null ?
-            locales.contains(Locale.getDefault().toString()) ? SEMICOLON : COMMA
-                    : locales.contains(language + "_" + country) ? SEMICOLON : COMMA;
+    private final MessageListener messageListener;
+    private FileLogger fileLogger;
 
     private Line currentLine = new Line(loggerDatas.keySet());
 
     public FileUpdateHandlerImpl(MessageListener messageListener) {
+        this.messageListener = messageListener;
         fileLogger = new FileLoggerImpl(messageListener);
     }
 
@@ -88,12 +73,14 @@ public final class FileUpdateHandlerImpl implements FileUpdateHandler, Convertor
     @Override
     public synchronized void handleDataUpdate(Response response) {
         if (fileLogger.isStarted()) {
-            for (LoggerData loggerData : response.getData()) {
-                currentLine.updateParamValue(loggerData, loggerData.getSelectedConvertor().format(response.getDataValue(loggerData)));
+            if (isFailed()) {
+                stop();
+                return;
             }
+            currentLine.updateParamValues(response);
             if (currentLine.isFull()) {
                 fileLogger.writeLine(currentLine.values(), response.getTimestamp());
-                resetLine();
+                currentLine.clear();
             }
         }
     }
@@ -129,6 +116,15 @@ public final class FileUpdateHandlerImpl implements FileUpdateHandler, Convertor
     @Override
     public synchronized void start() {
         if (!fileLogger.isStarted()) {
+            final Settings settings = SettingsManager.getSettings();
+            fileLogger = new AsyncFileLogger(settings.isFileLoggingBinary()
+                    ? new BinaryFileLoggerImpl(messageListener)
+                    : new FileLoggerImpl(messageListener),
+                    messageListener,
+                    settings.getFileLoggingQueueSize(),
+                    settings.getFileLoggingCommitRows(),
+                    settings.getFileLoggingCommitInterval(),
+                    settings.getFileLoggingSyncPolicy());
             fileLogger.start();
             notifyListeners(true);
             writeHeaders();
@@ -143,6 +139,12 @@ public final class FileUpdateHandlerImpl implements FileUpdateHandler, Convertor
         }
     }
 
+    // the writer thread has already closed the file
+    private boolean isFailed() {
+        return fileLogger instanceof AsyncFileLogger
+                && ((AsyncFileLogger) fileLogger).isFailed();
+    }
+
     private void resetLine() {
         currentLine = new Line(loggerDatas.keySet());
     }
@@ -164,46 +166,62 @@ public final class FileUpdateHandlerImpl implements FileUpdateHandler, Convertor
     }
 
     private final class Line {
-        private final Map<LoggerData, String> loggerDataValues;
+        private final LoggerData[] loggerDatas;
+        private final Map<LoggerData, Integer> indexes;
+        private final double[] values;
+        private final boolean[] updated;
+        private int count;
+        private ResponseSchema schema;
+        private int[] columns;
 
         public Line(Set<LoggerData> loggerDatas) {
-            this.loggerDataValues = new LinkedHashMap<LoggerData, String>();
-            for (LoggerData loggerData : loggerDatas) {
-                loggerDataValues.put(loggerData, null);
+            this.loggerDatas = loggerDatas.toArray(new LoggerData[loggerDatas.size()]);
+            this.indexes = new HashMap<LoggerData, Integer>();
+            for (int i = 0; i < this.loggerDatas.length; i++) {
+                indexes.put(this.loggerDatas[i], i);
             }
+            values = new double[this.loggerDatas.length];
+            updated = new boolean[this.loggerDatas.length];
         }
 
-        public synchronized void updateParamValue(LoggerData loggerData, String value) {
-            if (loggerDataValues.containsKey(loggerData)) {
-                loggerDataValues.put(loggerData, value);
+        // maps each slot of the last seen response schema to a column
+        public synchronized void updateParamValues(Response response) {
+            final ResponseSchema responseSchema = response.getSchema();
+            if (responseSchema != schema) {
+                schema = responseSchema;
+                columns = new int[schema.size()];
+                for (int i = 0; i < columns.length; i++) {
+                    final Integer index = indexes.get(schema.getData(i));
+                    columns[i] = index == null ? -1 : index;
+                }
+            }
+            for (int i = 0; i < columns.length; i++) {
+                final int index = columns[i];
+                if (index >= 0) {
+                    values[index] = response.getValue(i);
+                    if (!updated[index]) {
+                        updated[index] = true;
+                        count++;
+                    }
+                }
             }
         }
 
         public synchronized boolean isFull() {
-            for (LoggerData loggerData : loggerDataValues.keySet()) {
-                if (loggerDataValues.get(loggerData) == null) {
-                    return false;
-                }
-            }
-            return true;
+            return count == values.length;
         }
 
-        public synchronized String headers() {
-            final StringBuilder buffer = new StringBuilder();
-            for (LoggerData loggerData : loggerDataValues.keySet()) {
-                buffer.append(delimiter).append(loggerData.getName()).append(" (")
-                .append(loggerData.getSelectedConvertor().getUnits()).append(')');
-            }
-            return buffer.toString();
+        public synchronized LoggerData[] headers() {
+            return loggerDatas;
         }
 
-        public synchronized String values() {
-            final StringBuilder buffer = new StringBuilder();
-            for (LoggerData loggerData : loggerDataValues.keySet()) {
-                String value = loggerDataValues.get(loggerData);
-                buffer.append(delimiter).append(value);
-            }
-            return buffer.toString();
+        public synchronized double[] values() {
+            return values;
+        }
+
+        public synchronized void clear() {
+            Arrays.fill(updated, false);
+            count = 0;
         }
     }
 }
@@ -0,0 +1,153 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.ui.handler.file;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.log4j.Logger;
+
+import com.romraider.util.ThreadUtil;
+
+/**
+ * Lists the segments of a rotated logging session with their time range,
+ * compressing each closed segment to gzip in the background.  The manifest
+ * is rewritten whenever a segment is added or compressed.
+ */
+final class SessionManifest {
+    private static final Logger LOGGER = Logger.getLogger(SessionManifest.class);
+    static final String EXTENSION = ".manifest";
+    static final String GZIP_EXTENSION = ".gz";
+    private final SimpleDateFormat dateFormat =
+            new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+    private final List<Segment> segments = new ArrayList<Segment>();
+    private final File file;
+
+    SessionManifest(File file) {
+        this.file = file;
+    }
+
+    synchronized void add(File segment, long firstTimestamp,
+            long lastTimestamp, long rows, boolean compress) {
+        final Segment entry = new Segment(
+                segment.getName(), firstTimestamp, lastTimestamp, rows);
+        segments.add(entry);
+        write();
+        if (compress) {
+            compress(segment, entry);
+        }
+    }
+
+    synchronized List<String> getFileNames() {
+        final List<String> names = new ArrayList<String>();
+        for (Segment segment : segments) {
+            names.add(segment.name);
+        }
+        return names;
+    }
+
+    private void compress(final File segment, final Segment entry) {
+        ThreadUtil.run(new Runnable() {
+            @Override
+            public void run() {
+                final File gzip = new File(segment.getPath() + GZIP_EXTENSION);
+                try {
+                    gzip(segment, gzip);
+                    if (!segment.delete()) {
+                        LOGGER.warn("Unable to delete compressed log segment: " + segment);
+                    }
+                    synchronized (SessionManifest.this) {
+                        entry.name = gzip.getName();
+                        write();
+                    }
+                } catch (IOException e) {
+                    LOGGER.error("Unable to compress log segment: " + segment, e);
+                    gzip.delete();
+                }
+            }
+        });
+    }
+
+    static void gzip(File source, File target) throws IOException {
+        final InputStream in = new BufferedInputStream(new FileInputStream(source));
+        try {
+            final OutputStream out = new GZIPOutputStream(
+                    new FileOutputStream(target), 64 * 1024);
+            try {
+                final byte[] buffer = new byte[64 * 1024];
+                int count;
+                while ((count = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, count);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private void write() {
+        try {
+            final Writer writer = new BufferedWriter(new FileWriter(file));
+            try {
+                writer.write("# RomRaider log session" + CsvLayout.NEW_LINE);
+                writer.write("# file\tstart\tend\trows" + CsvLayout.NEW_LINE);
+                for (Segment segment : segments) {
+                    writer.write(segment.name + '\t'
+                            + dateFormat.format(new Date(segment.firstTimestamp)) + '\t'
+                            + dateFormat.format(new Date(segment.lastTimestamp)) + '\t'
+                            + segment.rows + CsvLayout.NEW_LINE);
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            LOGGER.error("Unable to write log session manifest: " + file, e);
+        }
+    }
+
+    private static final class Segment {
+        private String name;
+        private final long firstTimestamp;
+        private final long lastTimestamp;
+        private final long rows;
+
+        private Segment(String name, long firstTimestamp, long lastTimestamp, long rows) {
+            this.name = name;
+            this.firstTimestamp = firstTimestamp;
+            this.lastTimestamp = lastTimestamp;
+            this.rows = rows;
+        }
+    }
+}
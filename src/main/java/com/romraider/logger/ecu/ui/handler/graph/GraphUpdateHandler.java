@@ -20,9 +20,11 @@
 package com.romraider.logger.ecu.ui.handler.graph;
 
 import com.romraider.logger.ecu.comms.query.Response;
+import com.romraider.logger.ecu.comms.query.ResponseSchema;
 import com.romraider.logger.ecu.definition.ConvertorUpdateListener;
 import com.romraider.logger.ecu.definition.LoggerData;
 import com.romraider.logger.ecu.ui.handler.DataUpdateHandler;
+import com.romraider.logger.ecu.ui.handler.FrameScheduler;
 import com.romraider.util.ResourceUtil;
 
 import static com.romraider.logger.ecu.ui.handler.graph.SpringUtilities.makeCompactGrid;
@@ -48,7 +50,6 @@ import javax.swing.JCheckBox;
 import javax.swing.JPanel;
 import javax.swing.JToggleButton;
 import javax.swing.SpringLayout;
-import javax.swing.SwingUtilities;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.event.ActionEvent;
@@ -57,11 +58,13 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.ResourceBundle;
 
-public final class GraphUpdateHandler implements DataUpdateHandler, ConvertorUpdateListener {
+public final class GraphUpdateHandler implements DataUpdateHandler, ConvertorUpdateListener,
+        FrameScheduler.FrameListener {
     private static final ResourceBundle rb = new ResourceUtil().getBundle(
             GraphUpdateHandler.class.getName());
     private static final Color DARK_GREY = new Color(80, 80, 80);
     private static final Color LIGHT_GREY = new Color(110, 110, 110);
+    private static final int MAX_ITEMS = 200;
     private final Map<LoggerData, ChartPanel> chartMap = synchronizedMap(new HashMap<LoggerData, ChartPanel>());
     private final Map<LoggerData, XYSeries> seriesMap = synchronizedMap(new HashMap<LoggerData, XYSeries>());
     private final Map<LoggerData, Integer> datasetIndexes = synchronizedMap(new HashMap<LoggerData, Integer>());
@@ -72,6 +75,15 @@ public final class GraphUpdateHandler implements DataUpdateHandler, ConvertorUpd
     private long pauseStartTime = System.currentTimeMillis();
     private ChartPanel combinedChartPanel = null;
     private int counter = 0;
+    // every sample from the queued lane waits here for the next frame; if
+    // more arrive in one frame than a series can show the oldest are
+    // overwritten. Guarded by pendingLock
+    private final Object pendingLock = new Object();
+    private final ResponseSchema[] pendingSchemas = new ResponseSchema[MAX_ITEMS];
+    private final long[] pendingTimes = new long[MAX_ITEMS];
+    private final double[][] pendingValues = new double[MAX_ITEMS][];
+    private int pendingStart;
+    private int pendingCount;
 
 
     public GraphUpdateHandler(final JPanel panel) {
@@ -154,19 +166,62 @@ public final class GraphUpdateHandler implements DataUpdateHandler, ConvertorUpd
 
     public synchronized void handleDataUpdate(final Response response) {
     	if(!paused) {
-	        SwingUtilities.invokeLater(new Runnable() {
-	            public void run() {
-	                for (final LoggerData loggerData : response.getData()) {
-	                    final XYSeries series = seriesMap.get(loggerData);
-	                    if (series != null) {
-	                    	series.add((response.getTimestamp() - startTime) / 1000.0, response.getDataValue(loggerData));
-	                    }
-	                }
+	        // the response may be recycled once this returns
+	        final ResponseSchema schema = response.getSchema();
+	        synchronized (pendingLock) {
+	            final int slot = (pendingStart + pendingCount) % MAX_ITEMS;
+	            if (pendingCount == MAX_ITEMS) {
+	                pendingStart = (pendingStart + 1) % MAX_ITEMS;
 	            }
-	        });
+	            else {
+	                pendingCount++;
+	            }
+	            if (pendingValues[slot] == null || pendingValues[slot].length < schema.size()) {
+	                pendingValues[slot] = new double[schema.size()];
+	            }
+	            final double[] values = pendingValues[slot];
+	            for (int i = 0; i < schema.size(); i++) {
+	                values[i] = response.getValue(i);
+	            }
+	            pendingSchemas[slot] = schema;
+	            pendingTimes[slot] = response.getTimestamp();
+	        }
+	        FrameScheduler.getInstance().requestFrame();
     	}
     }
 
+    public boolean isShowing() {
+        return graphPanel.isShowing();
+    }
+
+    // the points are added without notifying the charts, each series
+    // notifies once per frame
+    public void updateFrame() {
+        synchronized (pendingLock) {
+            if (pendingCount == 0) return;
+            for (int n = 0; n < pendingCount; n++) {
+                final int slot = (pendingStart + n) % MAX_ITEMS;
+                final ResponseSchema schema = pendingSchemas[slot];
+                final double[] values = pendingValues[slot];
+                final double time = (pendingTimes[slot] - startTime) / 1000.0;
+                for (int i = 0; i < schema.size(); i++) {
+                    final XYSeries series = seriesMap.get(schema.getData(i));
+                    if (series != null) {
+                        series.add(time, values[i], false);
+                    }
+                }
+                pendingSchemas[slot] = null;
+            }
+            pendingStart = 0;
+            pendingCount = 0;
+        }
+        synchronized (seriesMap) {
+            for (XYSeries series : seriesMap.values()) {
+                series.fireSeriesChanged();
+            }
+        }
+    }
+
     public synchronized void deregisterData(LoggerData loggerData) {
         seriesMap.remove(loggerData);
         if (combinedChart) {
@@ -202,6 +257,10 @@ public final class GraphUpdateHandler implements DataUpdateHandler, ConvertorUpd
     }
 
     public synchronized void reset() {
+        synchronized (pendingLock) {
+            pendingStart = 0;
+            pendingCount = 0;
+        }
         for (XYSeries series : seriesMap.values()) {
             series.clear();
         }
@@ -217,7 +276,7 @@ public final class GraphUpdateHandler implements DataUpdateHandler, ConvertorUpd
 
     private void registerSeries(LoggerData loggerData) {
         final XYSeries series = new XYSeries(loggerData.getName());
-        series.setMaximumItemCount(200);
+        series.setMaximumItemCount(MAX_ITEMS);
         seriesMap.put(loggerData, series);
     }
 
@@ -25,8 +25,8 @@ import com.romraider.util.ResourceUtil;
 import static java.util.Collections.synchronizedList;
 import static java.util.Collections.synchronizedMap;
 import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
@@ -39,7 +39,7 @@ public final class LiveDataTableModel extends AbstractTableModel {
             rb.getString("LBLCOL2"), rb.getString("LBLCOL3"),
             rb.getString("LBLCOL4"), rb.getString("LBLCOL5")};
     private final List<LoggerData> registeredLoggerData = synchronizedList(
-            new LinkedList<LoggerData>());
+            new ArrayList<LoggerData>());
     private final Map<LoggerData, LiveDataRow> dataRowMap = synchronizedMap(
             new LinkedHashMap<LoggerData, LiveDataRow>());
 
@@ -100,6 +100,26 @@ public final class LiveDataTableModel extends AbstractTableModel {
         }
     }
 
+    /**
+     * Update the rows of a whole sample with a single table event.
+     * @param loggerData - the parameters of the sample
+     * @param values - the values of the sample
+     * @param count - the number of parameters to update
+     */
+    public synchronized void updateParams(LoggerData[] loggerData, double[] values, int count) {
+        boolean updated = false;
+        for (int i = 0; i < count; i++) {
+            LiveDataRow dataRow = dataRowMap.get(loggerData[i]);
+            if (dataRow != null) {
+                dataRow.updateValue(values[i]);
+                updated = true;
+            }
+        }
+        if (updated) {
+            fireTableRowsUpdated(0, dataRowMap.size() - 1);
+        }
+    }
+
     public synchronized void reset() {
         for (LiveDataRow liveDataRow : dataRowMap.values()) {
             liveDataRow.reset();
@@ -20,13 +20,25 @@
 package com.romraider.logger.ecu.ui.handler.livedata;
 
 import com.romraider.logger.ecu.comms.query.Response;
+import com.romraider.logger.ecu.comms.query.ResponseSchema;
 import com.romraider.logger.ecu.definition.ConvertorUpdateListener;
 import com.romraider.logger.ecu.definition.LoggerData;
-import com.romraider.logger.ecu.ui.handler.DataUpdateHandler;
-import javax.swing.SwingUtilities;
+import com.romraider.logger.ecu.ui.handler.DisplayUpdateHandler;
+import com.romraider.logger.ecu.ui.handler.FrameScheduler;
+import java.awt.Component;
 
-public final class LiveDataUpdateHandler implements DataUpdateHandler, ConvertorUpdateListener {
+public final class LiveDataUpdateHandler implements DisplayUpdateHandler, ConvertorUpdateListener,
+        FrameScheduler.FrameListener {
     private final LiveDataTableModel dataTableModel;
+    private Component display;
+    // the latest sample, guarded by snapshotLock
+    private final Object snapshotLock = new Object();
+    private ResponseSchema schema;
+    private double[] values = new double[0];
+    private boolean updated;
+    // applied on the EDT only
+    private LoggerData[] frameData = new LoggerData[0];
+    private double[] frameValues = new double[0];
 
     public LiveDataUpdateHandler(LiveDataTableModel dataTableModel) {
         this.dataTableModel = dataTableModel;
@@ -37,14 +49,51 @@ public final class LiveDataUpdateHandler implements DataUpdateHandler, Convertor
         dataTableModel.addParam(loggerData);
     }
 
+    /**
+     * @param display - the component showing the data table, frames are
+     * skipped while it is hidden
+     */
+    public void setDisplay(Component display) {
+        this.display = display;
+    }
+
     public synchronized void handleDataUpdate(final Response response) {
-        for (final LoggerData loggerData : response.getData()) {
-            SwingUtilities.invokeLater(new Runnable() {
-                public void run() {
-                    dataTableModel.updateParam(loggerData, response.getDataValue(loggerData));
-                }
-            });
+        // the response may be recycled once this returns
+        final ResponseSchema responseSchema = response.getSchema();
+        synchronized (snapshotLock) {
+            if (values.length < responseSchema.size()) {
+                values = new double[responseSchema.size()];
+            }
+            for (int i = 0; i < responseSchema.size(); i++) {
+                values[i] = response.getValue(i);
+            }
+            schema = responseSchema;
+            updated = true;
+        }
+        FrameScheduler.getInstance().requestFrame();
+    }
+
+    public boolean isShowing() {
+        final Component c = display;
+        return c == null || c.isShowing();
+    }
+
+    public void updateFrame() {
+        final int n;
+        synchronized (snapshotLock) {
+            if (!updated) return;
+            updated = false;
+            n = schema.size();
+            if (frameValues.length < n) {
+                frameValues = new double[n];
+                frameData = new LoggerData[n];
+            }
+            for (int i = 0; i < n; i++) {
+                frameData[i] = schema.getData(i);
+                frameValues[i] = values[i];
+            }
         }
+        dataTableModel.updateParams(frameData, frameValues, n);
     }
 
     public synchronized void deregisterData(LoggerData loggerData) {
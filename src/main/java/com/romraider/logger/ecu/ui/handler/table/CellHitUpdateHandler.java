@@ -0,0 +1,175 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.ui.handler.table;
+
+import static com.romraider.util.ParamChecker.checkNotNull;
+import static com.romraider.util.ParamChecker.isNullOrEmpty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.romraider.logger.ecu.comms.query.Response;
+import com.romraider.logger.ecu.comms.query.ResponseSchema;
+import com.romraider.logger.ecu.definition.LoggerData;
+import com.romraider.logger.ecu.ui.handler.QueuedUpdateHandler;
+import com.romraider.maps.CellHitAccumulator;
+import com.romraider.maps.Table;
+import com.romraider.maps.Table2D;
+import com.romraider.maps.Table3D;
+
+/**
+ * Feeds every logged sample to the cell hit accumulators of the tables
+ * being recorded.  Unlike {@link TableUpdateHandler} this is not a display
+ * handler, its dispatch lane is queued like the file logger's so with the
+ * default BLOCK overflow policy no sample is dropped.
+ */
+public final class CellHitUpdateHandler implements QueuedUpdateHandler {
+    private static final CellHitUpdateHandler INSTANCE = new CellHitUpdateHandler();
+    private final List<Recorder> recorders = new CopyOnWriteArrayList<Recorder>();
+    private volatile ResponseSchema lastSchema;
+
+    private CellHitUpdateHandler() {
+    }
+
+    public static CellHitUpdateHandler getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void registerData(LoggerData loggerData) {
+    }
+
+    @Override
+    public void handleDataUpdate(Response response) {
+        final ResponseSchema schema = response.getSchema();
+        lastSchema = schema;
+        for (Recorder recorder : recorders) {
+            recorder.add(response, schema);
+        }
+    }
+
+    @Override
+    public void deregisterData(LoggerData loggerData) {
+    }
+
+    @Override
+    public void cleanUp() {
+        lastSchema = null;
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    /**
+     * @return the parameters in the latest logged sample, empty if the
+     * logger is not running
+     */
+    public List<LoggerData> getLoggedData() {
+        final ResponseSchema schema = lastSchema;
+        if (schema == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<LoggerData>(schema.getDataSet());
+    }
+
+    /**
+     * Record the samples of a 2D or 3D table, placed by the logged values
+     * of its axes.
+     * @param table - the table whose axes place each sample
+     * @param hits - the accumulator for the table
+     * @param targetId - the id of the parameter to keep statistics of
+     * @return false if an axis of the table has no log parameter
+     */
+    public boolean startRecording(Table table, CellHitAccumulator hits, String targetId) {
+        checkNotNull(table, "table");
+        checkNotNull(hits, "hits");
+        checkNotNull(targetId, "targetId");
+        String xId = null;
+        String yId = null;
+        if (table instanceof Table3D) {
+            xId = ((Table3D) table).getXAxis().getLogParam();
+            yId = ((Table3D) table).getYAxis().getLogParam();
+            if (isNullOrEmpty(yId)) return false;
+        }
+        else if (table instanceof Table2D) {
+            xId = ((Table2D) table).getAxis().getLogParam();
+        }
+        if (isNullOrEmpty(xId)) return false;
+        stopRecording(table);
+        recorders.add(new Recorder(table, hits, xId, yId, targetId));
+        return true;
+    }
+
+    public void stopRecording(Table table) {
+        for (Recorder recorder : recorders) {
+            if (recorder.table == table) {
+                recorders.remove(recorder);
+            }
+        }
+    }
+
+    private static final class Recorder {
+        private final Table table;
+        private final CellHitAccumulator hits;
+        private final String xId;
+        private final String yId;
+        private final String targetId;
+        // slots resolved for the schema last seen, only touched by the lane
+        private ResponseSchema schema;
+        private int xSlot;
+        private int ySlot;
+        private int targetSlot;
+
+        private Recorder(Table table, CellHitAccumulator hits,
+                String xId, String yId, String targetId) {
+            this.table = table;
+            this.hits = hits;
+            this.xId = xId;
+            this.yId = yId;
+            this.targetId = targetId;
+        }
+
+        private void add(Response response, ResponseSchema responseSchema) {
+            if (schema != responseSchema) {
+                schema = responseSchema;
+                xSlot = slotOf(xId);
+                ySlot = slotOf(yId);
+                targetSlot = slotOf(targetId);
+            }
+            if (xSlot < 0 || targetSlot < 0 || (yId != null && ySlot < 0)) {
+                return;
+            }
+            hits.add(response.getValue(xSlot),
+                    ySlot < 0 ? 0.0 : response.getValue(ySlot),
+                    response.getValue(targetSlot));
+        }
+
+        private int slotOf(String id) {
+            if (id == null) return -1;
+            for (int i = 0; i < schema.size(); i++) {
+                if (id.equals(schema.getData(i).getId())) return i;
+            }
+            return -1;
+        }
+    }
+}
@@ -25,20 +25,23 @@ import static java.util.Collections.synchronizedMap;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 
 import com.romraider.logger.ecu.comms.query.Response;
 import com.romraider.logger.ecu.definition.LoggerData;
-import com.romraider.logger.ecu.ui.handler.DataUpdateHandler;
+import com.romraider.logger.ecu.ui.handler.DisplayUpdateHandler;
+import com.romraider.logger.ecu.ui.handler.FrameScheduler;
 import com.romraider.maps.Table;
 import com.romraider.maps.Table2D;
 import com.romraider.maps.Table3D;
 import com.romraider.maps.TableView;
 
-public final class TableUpdateHandler implements DataUpdateHandler {
+public final class TableUpdateHandler implements DisplayUpdateHandler,
+        FrameScheduler.FrameListener {
     private static final TableUpdateHandler INSTANCE = new TableUpdateHandler();
     private final Map<String, List<Table>> tableMap = synchronizedMap(new HashMap<String, List<Table>>());
+    // guarded by tableMap
+    private final Map<String, LiveValue> liveValues = new HashMap<String, LiveValue>();
 
     private TableUpdateHandler() {
         tableMap.clear();
@@ -48,22 +51,57 @@ public final class TableUpdateHandler implements DataUpdateHandler {
     public void registerData(LoggerData loggerData) {
     }
 
+    // Only the latest value of each parameter is kept, the views are
+    // updated on the EDT at most once per frame however fast the
+    // samples arrive.
     @Override
     public void handleDataUpdate(Response response) {
-    	if(!tableMap.isEmpty()) {
-	        for (LoggerData loggerData : response.getData()) {
-	        	synchronized(tableMap) {
-		            List<Table> tables = tableMap.get(loggerData.getId());
-		            if (tables != null && !tables.isEmpty()) {
-		                String formattedValue = loggerData.getSelectedConvertor().format(response.getDataValue(loggerData));
-		                for(ListIterator<Table> item = tables.listIterator(); item.hasNext();) {
-		                	TableView v = item.next().getTableView();
-		                	if(v!= null) v.highlightLiveData(formattedValue);
-		                }
-		            }
-		        }
-	    	}
-	    }
+        if (tableMap.isEmpty()) return;
+        boolean updated = false;
+        synchronized (tableMap) {
+            for (LoggerData loggerData : response.getData()) {
+                final String id = loggerData.getId();
+                if (!tableMap.containsKey(id)) continue;
+                LiveValue live = liveValues.get(id);
+                if (live == null) {
+                    live = new LiveValue(id);
+                    liveValues.put(id, live);
+                }
+                live.loggerData = loggerData;
+                live.value = response.getDataValue(loggerData);
+                live.updated = true;
+                updated = true;
+            }
+        }
+        if (updated) {
+            FrameScheduler.getInstance().requestFrame();
+        }
+    }
+
+    @Override
+    public boolean isShowing() {
+        return true;
+    }
+
+    @Override
+    public void updateFrame() {
+        synchronized (tableMap) {
+            for (LiveValue live : liveValues.values()) {
+                if (!live.updated) continue;
+                live.updated = false;
+                final List<Table> tables = tableMap.get(live.id);
+                if (tables == null) continue;
+                String formattedValue = null;
+                for (int i = 0; i < tables.size(); i++) {
+                    final TableView v = tables.get(i).getTableView();
+                    if (v == null) continue;
+                    if (formattedValue == null) {
+                        formattedValue = live.loggerData.getSelectedConvertor().format(live.value);
+                    }
+                    v.highlightLiveData(live.value, formattedValue);
+                }
+            }
+        }
     }
 
     @Override
@@ -72,8 +110,11 @@ public final class TableUpdateHandler implements DataUpdateHandler {
 
     @Override
     public void cleanUp() {
-    	for(List<Table> t: tableMap.values())t.clear();
-    	tableMap.clear();
+        synchronized (tableMap) {
+            for(List<Table> t: tableMap.values())t.clear();
+            tableMap.clear();
+            liveValues.clear();
+        }
     }
 
     @Override
@@ -99,12 +140,26 @@ public final class TableUpdateHandler implements DataUpdateHandler {
             List<Table> tables = tableMap.get(logParam);
             tables.remove(table);
             if (tables.isEmpty()) {
-                tableMap.remove(logParam);
+                synchronized (tableMap) {
+                    tableMap.remove(logParam);
+                    liveValues.remove(logParam);
+                }
             }
         }
         deregisterAxes(table);
     }
 
+    private static final class LiveValue {
+        private final String id;
+        private LoggerData loggerData;
+        private double value;
+        private boolean updated;
+
+        private LiveValue(String id) {
+            this.id = id;
+        }
+    }
+
     public static TableUpdateHandler getInstance() {
         return INSTANCE;
     }
@@ -44,7 +44,9 @@ import static java.awt.event.KeyEvent.VK_S;
 import static java.awt.event.KeyEvent.VK_T;
 import static java.awt.event.KeyEvent.VK_U;
 import static java.awt.event.KeyEvent.VK_V;
+import static java.awt.event.KeyEvent.VK_W;
 import static java.awt.event.KeyEvent.VK_X;
+import static java.awt.event.KeyEvent.VK_Y;
 import static javax.swing.KeyStroke.getKeyStroke;
 
 import java.text.MessageFormat;
@@ -60,7 +62,9 @@ import javax.swing.JSeparator;
 import com.romraider.Settings;
 import com.romraider.logger.ecu.EcuLogger;
 import com.romraider.logger.ecu.ui.swing.menubar.action.AutoConnectAction;
+import com.romraider.logger.ecu.ui.swing.menubar.action.AutoSampleRateAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.ComPortAutoRefreshAction;
+import com.romraider.logger.ecu.ui.swing.menubar.action.ConvertBinaryLogAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.DisconnectAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.ElmEnabledAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.ExitAction;
@@ -69,12 +73,16 @@ import com.romraider.logger.ecu.ui.swing.menubar.action.GlobalAdjustmentAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.LearningTableValuesAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.LoadProfileAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.LogFileAbsoluteTimestampAction;
+import com.romraider.logger.ecu.ui.swing.menubar.action.LogFileBinaryFormatAction;
+import com.romraider.logger.ecu.ui.swing.menubar.action.LogFileDurableAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.LogFileControllerSwitchAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.LogFileLocationAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.LogFileNumberFormatAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.LoggerDebugLocationAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.LoggerDebuggingLevelAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.LoggerDefinitionLocationAction;
+import com.romraider.logger.ecu.ui.swing.menubar.action.MetricsAction;
+import com.romraider.logger.ecu.ui.swing.menubar.action.MetricsFileAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.ReadEcuCodesAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.ReloadProfileAction;
 import com.romraider.logger.ecu.ui.swing.menubar.action.ResetConnectionAction;
@@ -106,6 +114,8 @@ public class EcuLoggerMenuBar extends JMenuBar {
         fileMenu.add(new MenuItem(rb.getString("SAVEPROFILE"), new SaveProfileAction(logger), VK_S, getKeyStroke(VK_S, CTRL_MASK)));
         fileMenu.add(new MenuItem(rb.getString("SAVEPROFILEAS"), new SaveProfileAsAction(logger), VK_A, getKeyStroke(VK_S, CTRL_MASK | SHIFT_MASK)));
         fileMenu.add(new JSeparator());
+        fileMenu.add(new MenuItem(rb.getString("CONVERTLOG"), new ConvertBinaryLogAction(logger), VK_C));
+        fileMenu.add(new JSeparator());
         fileMenu.add(new MenuItem(rb.getString("EXIT"), new ExitAction(logger), VK_X));
         add(fileMenu);
 
@@ -142,8 +152,17 @@ public class EcuLoggerMenuBar extends JMenuBar {
         fastPoll.setSelected(false);
         settingsMenu.add(fastPoll);
         logger.getComponentList().put("fastPoll", fastPoll);
+        final RadioButtonMenuItem autoRate = new RadioButtonMenuItem(rb.getString("AUTORATE"), VK_A, null, new AutoSampleRateAction(logger), logger.getSettings().isLoggerAutoSampleRate());
+        autoRate.setToolTipText(rb.getString("AUTORATETT"));
+        settingsMenu.add(autoRate);
         settingsMenu.add(new JSeparator());
         settingsMenu.add(new RadioButtonMenuItem(rb.getString("ABSTIMESTAMP"), VK_T, getKeyStroke(VK_T, CTRL_MASK), new LogFileAbsoluteTimestampAction(logger), logger.getSettings().isFileLoggingAbsoluteTimestamp()));
+        final RadioButtonMenuItem binaryLog = new RadioButtonMenuItem(rb.getString("BINARYLOG"), VK_W, null, new LogFileBinaryFormatAction(logger), logger.getSettings().isFileLoggingBinary());
+        binaryLog.setToolTipText(rb.getString("BINARYLOGTT"));
+        settingsMenu.add(binaryLog);
+        final RadioButtonMenuItem durableLog = new RadioButtonMenuItem(rb.getString("DURABLELOG"), VK_Y, null, new LogFileDurableAction(logger), logger.getSettings().isFileLoggingDurable());
+        durableLog.setToolTipText(rb.getString("DURABLELOGTT"));
+        settingsMenu.add(durableLog);
         final RadioButtonMenuItem numFormat = new RadioButtonMenuItem(rb.getString("USNUMBERS"), VK_B, getKeyStroke(VK_B, CTRL_MASK), new LogFileNumberFormatAction(logger), logger.getSettings().isUsNumberFormat());
         numFormat.setToolTipText(rb.getString("USNUMBERSTT"));
         settingsMenu.add(numFormat);
@@ -166,6 +185,8 @@ public class EcuLoggerMenuBar extends JMenuBar {
         toolsMenu.add(new MenuItem(rb.getString("GLOBALADJ"), new GlobalAdjustmentAction(logger), VK_T, getKeyStroke(VK_F5, 0)));
         toolsMenu.add(new JSeparator());
         toolsMenu.add(new MenuItem(rb.getString("LTV"), new LearningTableValuesAction(logger), VK_V, getKeyStroke(VK_F6, 0)));
+        toolsMenu.add(new JSeparator());
+        toolsMenu.add(new MenuItem(rb.getString("METRICS"), new MetricsAction(logger), VK_M));
         add(toolsMenu);
 
         // plugins menu items
@@ -197,6 +218,9 @@ public class EcuLoggerMenuBar extends JMenuBar {
         debug.add(db);
         debug.add(trace);
         debug.add(new JSeparator());
+        final RadioButtonMenuItem metricsFile = new RadioButtonMenuItem(rb.getString("METRICSFILE"), VK_M, null, new MetricsFileAction(logger), logger.getSettings().isLoggerMetricsFile());
+        metricsFile.setToolTipText(rb.getString("METRICSFILETT"));
+        debug.add(metricsFile);
         debug.add(new MenuItem(rb.getString("DEBUGLOC"), new LoggerDebugLocationAction(logger), VK_O, getKeyStroke(VK_O, ALT_MASK)));
         helpMenu.add(debug);
         helpMenu.add(new JSeparator());
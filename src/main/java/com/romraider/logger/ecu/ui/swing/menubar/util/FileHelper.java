@@ -52,6 +52,14 @@ public final class FileHelper {
         return getFileChooser(lastDefFile, rb.getString("LOGDEFINITIONS"), "xml");
     }
 
+    public static JFileChooser getBinaryLogFileChooser(File lastLoggerOutputDir) {
+        final JFileChooser fc = lastLoggerOutputDir.isDirectory()
+                ? new JFileChooser(lastLoggerOutputDir.getAbsolutePath())
+                : new JFileChooser();
+        fc.setFileFilter(new GenericFileFilter(rb.getString("LOGBINARY"), "rrlog", "gz"));
+        return fc;
+    }
+
     public static String saveProfileToFile(UserProfile profile, File destinationFile) throws IOException {
         String profileFilePath = destinationFile.getAbsolutePath();
         if (!profileFilePath.endsWith(".xml")) {
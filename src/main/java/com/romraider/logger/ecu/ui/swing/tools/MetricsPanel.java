@@ -0,0 +1,129 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.ui.swing.tools;
+
+import java.awt.BorderLayout;
+import java.awt.Font;
+import java.awt.Point;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.text.MessageFormat;
+import java.util.ResourceBundle;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+
+import com.romraider.logger.ecu.EcuLogger;
+import com.romraider.util.ResourceUtil;
+import com.romraider.util.metrics.Metrics;
+
+/**
+ * Shows the logger hot path timings and counters, refreshed every second
+ * while open, to tell a bus bound session from a CPU bound one.
+ */
+public final class MetricsPanel extends JPanel {
+    private static final long serialVersionUID = -6244309816052479117L;
+    private static final ResourceBundle rb = new ResourceUtil().getBundle(
+            MetricsPanel.class.getName());
+    private static final int REFRESH = 1000;
+    private static final double BUS_BOUND = 0.8;
+    private final JTextArea text = new JTextArea(14, 100);
+    private final JLabel summary = new JLabel();
+    private final Timer timer;
+
+    private MetricsPanel() {
+        super(new BorderLayout());
+        text.setEditable(false);
+        text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, text.getFont().getSize()));
+        add(new JScrollPane(text), BorderLayout.CENTER);
+
+        final JPanel controlPanel = new JPanel(new BorderLayout());
+        controlPanel.setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
+        final JButton reset = new JButton(rb.getString("RESET"));
+        reset.setToolTipText(rb.getString("RESETTT"));
+        reset.setMnemonic(KeyEvent.VK_R);
+        reset.addActionListener(new ActionListener() {
+            @Override
+            public final void actionPerformed(ActionEvent actionEvent) {
+                Metrics.reset();
+                refresh();
+            }
+        });
+        controlPanel.add(summary, BorderLayout.CENTER);
+        controlPanel.add(reset, BorderLayout.EAST);
+        add(controlPanel, BorderLayout.SOUTH);
+
+        timer = new Timer(REFRESH, new ActionListener() {
+            @Override
+            public final void actionPerformed(ActionEvent actionEvent) {
+                refresh();
+            }
+        });
+        refresh();
+    }
+
+    private void refresh() {
+        text.setText(Metrics.format());
+        // without the CPU side timings the bus share means nothing
+        if (Metrics.BUS_ROUND_TRIP.getCount() == 0L
+                || (Metrics.REQUEST_BUILD.getCount() == 0L
+                        && Metrics.RESPONSE_DECODE.getCount() == 0L)) {
+            summary.setText(rb.getString("NODATA"));
+        }
+        else {
+            final double share = Metrics.getBusShare();
+            summary.setText(MessageFormat.format(
+                    rb.getString(share >= BUS_BOUND ? "BUSBOUND" : "CPUBOUND"),
+                    Math.round(share * 100.0)));
+        }
+    }
+
+    public final static void displayMetricsPane(EcuLogger logger) {
+        final JDialog frame = new JDialog(logger, rb.getString("TITLE"));
+        frame.setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+        final MetricsPanel metricsPane = new MetricsPanel();
+        frame.setContentPane(metricsPane);
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                metricsPane.timer.stop();
+            }
+        });
+        final Point loggerLocation = logger.getLocation();
+        final Point dialogLocation = new Point();
+        dialogLocation.setLocation(
+                loggerLocation.getX() + 30,
+                loggerLocation.getY() + 90);
+        frame.setLocation(dialogLocation);
+        frame.setIconImage(logger.getIconImage());
+        frame.pack();
+        frame.setVisible(true);
+        metricsPane.timer.start();
+    }
+}
@@ -54,6 +54,10 @@ public final class TestAlmConnection implements SerialConnection {
         return 1;
     }
 
+    public boolean waitForBytes(int numBytes, long timeout) {
+        return available() >= numBytes;
+    }
+
     public void read(byte[] bytes) {
         if (bytes.length == 1) {
             bytes[0] = data[index++];
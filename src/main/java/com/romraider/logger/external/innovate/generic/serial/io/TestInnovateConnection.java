@@ -38,6 +38,10 @@ public final class TestInnovateConnection implements SerialConnection {
         return source.length;
     }
 
+    public boolean waitForBytes(int numBytes, long timeout) {
+        return available() >= numBytes;
+    }
+
     public void read(byte[] bytes) {
         for (int j = 0; j < bytes.length; j++) {
             bytes[j] = source[(i + j) % source.length];
@@ -370,6 +370,10 @@ public final class TestTEConnection implements SerialConnection {
         return 1;
     }
 
+    public boolean waitForBytes(int numBytes, long timeout) {
+        return available() >= numBytes;
+    }
+
     public void read(byte[] bytes) {
         if (bytes.length != 1) throw new IllegalArgumentException();
         if (index >= data.length) index = 0;
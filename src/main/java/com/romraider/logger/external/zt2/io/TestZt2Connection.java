@@ -51,6 +51,10 @@ public final class TestZt2Connection implements SerialConnection {
         return 1;
     }
 
+    public boolean waitForBytes(int numBytes, long timeout) {
+        return available() >= numBytes;
+    }
+
     public void read(byte[] bytes) {
         if (bytes.length != 1) throw new IllegalArgumentException();
         if (index >= data.length) index = 0;
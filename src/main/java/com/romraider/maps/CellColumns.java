@@ -0,0 +1,68 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.maps;
+
+import java.io.Serializable;
+import java.util.BitSet;
+
+import com.romraider.Settings;
+
+/**
+ * Column storage for the cell values of one table. Each {@link DataCell}
+ * keeps only its slot in these arrays, so comparing or editing large tables
+ * does not cost a set of boxed values per cell.
+ */
+final class CellColumns implements Serializable {
+    private static final long serialVersionUID = -2640251879325160386L;
+
+    final double[] bin;
+    final double[] original;
+    final double[] compare;
+    final BitSet selected;
+
+    // only allocated once live data is traced on the table
+    private String[] live;
+
+    CellColumns(int size) {
+        bin = new double[size];
+        original = new double[size];
+        compare = new double[size];
+        selected = new BitSet(size);
+    }
+
+    int size() {
+        return bin.length;
+    }
+
+    String getLiveValue(int column) {
+        if (live == null || live[column] == null) {
+            return Settings.BLANK;
+        }
+        return live[column];
+    }
+
+    void setLiveValue(int column, String value) {
+        if (live == null) {
+            if (value == null || value.isEmpty()) return;
+            live = new String[bin.length];
+        }
+        live[column] = value;
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.maps;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Counts how long a logging session spends in each cell of a 2D or 3D
+ * table and keeps running statistics of a target parameter per cell.
+ * Every sample is shared between the cells around it by its bilinear
+ * weights, so a value half way between two breakpoints counts half in
+ * each.  A 2D table is treated as a single row, the y axis is then
+ * ignored.  All state is held in primitive arrays, adding a sample does
+ * not allocate.
+ */
+public final class CellHitAccumulator {
+    private static final String CSV_HEADER = "X,Y,Hits,Mean,Min,Max,StdDev";
+
+    private final LiveDataLookup xLookup = new LiveDataLookup(null);
+    private final LiveDataLookup yLookup = new LiveDataLookup(null);
+    private double[] xAxis;
+    private double[] yAxis;
+    private boolean xAscending;
+    private boolean yAscending;
+    private double[] weights;
+    private double[] means;
+    private double[] squares;
+    private double[] mins;
+    private double[] maxs;
+    private long samples;
+    private double maxWeight;
+
+    /**
+     * @param xAxis - the x axis breakpoints
+     * @param yAxis - the y axis breakpoints, null for a 2D table
+     */
+    public CellHitAccumulator(double[] xAxis, double[] yAxis) {
+        setAxes(xAxis, yAxis);
+    }
+
+    /**
+     * Replace the axis breakpoints, the statistics are kept unless the
+     * size of the table changed.
+     */
+    public synchronized void setAxes(double[] xAxis, double[] yAxis) {
+        if (xAxis == null || xAxis.length == 0) {
+            throw new IllegalArgumentException("x axis is empty");
+        }
+        if (yAxis == null || yAxis.length == 0) {
+            yAxis = new double[] {0.0};
+        }
+        final boolean resized = this.xAxis == null
+                || this.xAxis.length != xAxis.length
+                || this.yAxis.length != yAxis.length;
+        this.xAxis = xAxis.clone();
+        this.yAxis = yAxis.clone();
+        xAscending = isAscending(this.xAxis);
+        yAscending = isAscending(this.yAxis);
+        if (resized) {
+            final int n = xAxis.length * yAxis.length;
+            weights = new double[n];
+            means = new double[n];
+            squares = new double[n];
+            mins = new double[n];
+            maxs = new double[n];
+            clear();
+        }
+    }
+
+    /**
+     * Add one logged sample.
+     * @param x - the x axis parameter value
+     * @param y - the y axis parameter value, ignored for a 2D table
+     * @param value - the target parameter value
+     */
+    public synchronized void add(double x, double y, double value) {
+        if (Double.isNaN(x) || Double.isNaN(y) || Double.isNaN(value)) {
+            return;
+        }
+        xLookup.locate(xAxis, xAscending, x);
+        yLookup.locate(yAxis, yAscending, y);
+        final int xi = xLookup.getIndex();
+        final int yi = yLookup.getIndex();
+        final double wx = xLookup.getWeight();
+        final double wy = yLookup.getWeight();
+        samples++;
+        addWeighted(xi, yi, (1.0 - wx) * (1.0 - wy), value);
+        if (wx > 0.0) {
+            addWeighted(xi + 1, yi, wx * (1.0 - wy), value);
+        }
+        if (wy > 0.0) {
+            addWeighted(xi, yi + 1, (1.0 - wx) * wy, value);
+            if (wx > 0.0) {
+                addWeighted(xi + 1, yi + 1, wx * wy, value);
+            }
+        }
+    }
+
+    // West's weighted form of Welford's running mean and variance
+    private void addWeighted(int x, int y, double weight, double value) {
+        if (weight <= 0.0) {
+            return;
+        }
+        final int i = x * yAxis.length + y;
+        final double total = weights[i] + weight;
+        final double delta = value - means[i];
+        final double mean = means[i] + delta * weight / total;
+        squares[i] += weight * delta * (value - mean);
+        means[i] = mean;
+        if (weights[i] == 0.0 || value < mins[i]) mins[i] = value;
+        if (weights[i] == 0.0 || value > maxs[i]) maxs[i] = value;
+        weights[i] = total;
+        if (total > maxWeight) maxWeight = total;
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 0.0;
+            means[i] = 0.0;
+            squares[i] = 0.0;
+            mins[i] = 0.0;
+            maxs[i] = 0.0;
+        }
+        samples = 0;
+        maxWeight = 0.0;
+    }
+
+    public synchronized int getSizeX() {
+        return xAxis.length;
+    }
+
+    public synchronized int getSizeY() {
+        return yAxis.length;
+    }
+
+    /**
+     * @return the number of samples added
+     */
+    public synchronized long getSamples() {
+        return samples;
+    }
+
+    /**
+     * @return the samples counted in a cell, fractional as each sample is
+     * shared between the cells around it
+     */
+    public synchronized double getHits(int x, int y) {
+        return weights[index(x, y)];
+    }
+
+    /**
+     * @return the most hits counted in any cell
+     */
+    public synchronized double getMaxHits() {
+        return maxWeight;
+    }
+
+    public synchronized double getMean(int x, int y) {
+        return means[index(x, y)];
+    }
+
+    public synchronized double getMin(int x, int y) {
+        return mins[index(x, y)];
+    }
+
+    public synchronized double getMax(int x, int y) {
+        return maxs[index(x, y)];
+    }
+
+    /**
+     * @return the weighted population variance of the target values in a
+     * cell, 0.0 for a cell without hits
+     */
+    public synchronized double getVariance(int x, int y) {
+        final int i = index(x, y);
+        return weights[i] > 0.0 ? squares[i] / weights[i] : 0.0;
+    }
+
+    public double getStandardDeviation(int x, int y) {
+        return Math.sqrt(getVariance(x, y));
+    }
+
+    /**
+     * Write one row per cell with hits, a 2D table has an empty Y column.
+     */
+    public synchronized void writeCsv(Writer out) throws IOException {
+        final String eol = System.getProperty("line.separator");
+        final boolean is3D = yAxis.length > 1;
+        out.write(CSV_HEADER);
+        out.write(eol);
+        final StringBuilder row = new StringBuilder();
+        for (int x = 0; x < xAxis.length; x++) {
+            for (int y = 0; y < yAxis.length; y++) {
+                final int i = index(x, y);
+                if (weights[i] == 0.0) continue;
+                row.setLength(0);
+                row.append(xAxis[x]).append(',');
+                if (is3D) row.append(yAxis[y]);
+                row.append(',').append(weights[i])
+                   .append(',').append(means[i])
+                   .append(',').append(mins[i])
+                   .append(',').append(maxs[i])
+                   .append(',').append(Math.sqrt(squares[i] / weights[i]))
+                   .append(eol);
+                out.write(row.toString());
+            }
+        }
+        out.flush();
+    }
+
+    private int index(int x, int y) {
+        return x * yAxis.length + y;
+    }
+
+    private static boolean isAscending(double[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i - 1] > values[i]) return false;
+        }
+        return true;
+    }
+}
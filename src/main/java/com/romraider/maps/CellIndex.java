@@ -0,0 +1,226 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.maps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Index from image byte ranges to the data cells stored in them, so a write
+ * through one cell refreshes every cell that aliases the same bytes.
+ * Each populated table adds one entry holding its cells sorted by start
+ * address. Entries are kept sorted by start address with a running maximum
+ * of their end addresses, so the entries overlapping a range are found by
+ * binary search without any per-cell nodes.
+ */
+public final class CellIndex {
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private static final class Entry {
+        final int start;        // first byte
+        final int end;          // one past the last byte
+        final int cellSize;
+        final int[] starts;     // cell start addresses, ascending
+        final DataCell[] cells;
+
+        Entry(int cellSize, int[] starts, DataCell[] cells) {
+            this.cellSize = cellSize;
+            this.starts = starts;
+            this.cells = cells;
+            this.start = starts[0];
+            this.end = starts[starts.length - 1] + cellSize;
+        }
+    }
+
+    private Entry[] entries = NO_ENTRIES;
+    private int count;
+    private int[] maxEnd = new int[0];
+    private boolean sorted = true;
+
+    // byte ranges written during a bulk update, as from/to pairs
+    private int bulkDepth;
+    private int[] dirty = new int[16];
+    private int dirtyCount;
+
+    /**
+     * Add the cells of one table. Static cells and cells outside the image
+     * are not indexed.
+     */
+    public void add(DataCell[] tableCells) {
+        if (tableCells == null) return;
+
+        final long[] keys = new long[tableCells.length];
+        int n = 0;
+        for (int i = 0; i < tableCells.length; i++) {
+            final DataCell cell = tableCells[i];
+            if (cell == null || cell.getTable() == null) continue;
+            keys[n++] = ((long) DataCell.getMemoryStartAddress(cell) << 32) | i;
+        }
+        if (n == 0) return;
+
+        Arrays.sort(keys, 0, n);
+        final int[] starts = new int[n];
+        final DataCell[] cells = new DataCell[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = (int) (keys[i] >> 32);
+            cells[i] = tableCells[(int) keys[i]];
+        }
+        final Entry entry = new Entry(
+                cells[0].getTable().getStorageCellSize(), starts, cells);
+
+        synchronized (this) {
+            if (count == entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(16, count * 2));
+            }
+            entries[count++] = entry;
+            sorted = false;
+        }
+    }
+
+    public synchronized void clear() {
+        entries = NO_ENTRIES;
+        count = 0;
+        maxEnd = new int[0];
+        sorted = true;
+        dirtyCount = 0;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Refresh every cell stored in the bytes [from, to) from the image, or
+     * record the range until the current bulk update ends.
+     */
+    public void update(int from, int to) {
+        final List<DataCell> cells;
+        synchronized (this) {
+            if (bulkDepth > 0) {
+                if (dirtyCount + 2 > dirty.length) {
+                    dirty = Arrays.copyOf(dirty, dirty.length * 2);
+                }
+                dirty[dirtyCount++] = from;
+                dirty[dirtyCount++] = to;
+                return;
+            }
+            cells = new ArrayList<DataCell>();
+            collect(from, to, cells);
+        }
+        refresh(cells);
+    }
+
+    /**
+     * Defer refreshing aliased cells until the matching
+     * {@link #endBulkUpdate()}, so each cell is read back once however many
+     * of its neighbours were written.
+     */
+    public synchronized void beginBulkUpdate() {
+        bulkDepth++;
+    }
+
+    public void endBulkUpdate() {
+        final List<DataCell> cells;
+        synchronized (this) {
+            if (bulkDepth == 0 || --bulkDepth > 0) return;
+
+            final long[] ranges = new long[dirtyCount / 2];
+            for (int i = 0; i < ranges.length; i++) {
+                ranges[i] = ((long) dirty[2 * i] << 32) | (dirty[2 * i + 1] & 0xFFFFFFFFL);
+            }
+            dirtyCount = 0;
+            Arrays.sort(ranges);
+
+            cells = new ArrayList<DataCell>();
+            int i = 0;
+            while (i < ranges.length) {
+                final int from = (int) (ranges[i] >> 32);
+                int to = (int) ranges[i];
+                // merge overlapping and adjacent ranges
+                while (++i < ranges.length && (int) (ranges[i] >> 32) <= to) {
+                    to = Math.max(to, (int) ranges[i]);
+                }
+                collect(from, to, cells);
+            }
+        }
+        refresh(cells);
+    }
+
+    private void collect(int from, int to, List<DataCell> cells) {
+        if (!sorted) sort();
+
+        // last entry starting before the end of the range
+        int i = upperBound(to) - 1;
+        for (; i >= 0 && maxEnd[i] > from; i--) {
+            final Entry e = entries[i];
+            if (e.end <= from) continue;
+
+            // first cell ending after the start of the range
+            int k = Arrays.binarySearch(e.starts, from - e.cellSize + 1);
+            if (k < 0) {
+                k = -k - 1;
+            } else {
+                while (k > 0 && e.starts[k - 1] == e.starts[k]) k--;
+            }
+            for (; k < e.starts.length && e.starts[k] < to; k++) {
+                cells.add(e.cells[k]);
+            }
+        }
+    }
+
+    // number of entries starting before the address
+    private int upperBound(int address) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (entries[mid].start < address) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void sort() {
+        Arrays.sort(entries, 0, count, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry a, Entry b) {
+                return a.start < b.start ? -1 : (a.start == b.start ? 0 : 1);
+            }
+        });
+        maxEnd = new int[count];
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, entries[i].end);
+            maxEnd[i] = max;
+        }
+        sorted = true;
+    }
+
+    private static void refresh(List<DataCell> cells) {
+        for (int i = 0; i < cells.size(); i++) {
+            cells.get(i).updateBinValueFromMemory();
+        }
+    }
+}
@@ -21,7 +21,6 @@ package com.romraider.maps;
 
 import java.io.Serializable;
 import java.text.ParseException;
-import java.util.LinkedList;
 import java.util.StringTokenizer;
 
 import org.apache.log4j.Logger;
@@ -43,151 +42,116 @@ public class DataCell implements Serializable  {
     private DataCellView view = null;
     private Table table;
 
-    //This sounds like a View property, but the manipulation
-    //functions depend on this, so its better to put it here
-    private boolean isSelected = false;
-
     private int bitMask = 0;
-    private double minAllowedBin = 0.0;
-    private double maxAllowedBin = 0.0;
-    private double binValue = 0.0;
-    private double originalValue = 0.0;
-    private double compareToValue = 0.0;
-    private String liveValue = Settings.BLANK;
     private String staticText = null;
-    private Rom rom;
 
     //Index within table
     private int index;
 
-    public DataCell(Table table, Rom rom) {
+    //Slot of this cell's values in the table's columns
+    private final int column;
+
+    public DataCell(Table table, int column) {
         this.table = table;
-        this.rom = rom;
+        this.column = column;
         setBitMask(table.getBitMask()); //Take the global bitmask first
     }
 
-    public DataCell(Table table, String staticText, Rom rom) {
-        this(table, rom);
+    public DataCell(Table table, String staticText, int column) {
+        this(table, column);
         final StringTokenizer st = new StringTokenizer(staticText, DataCellView.ST_DELIMITER);
         if (st.hasMoreTokens()) {
             this.staticText = st.nextToken();
         }
     }
 
-    public DataCell(Table table, int index, Rom rom) {
-        this(table, rom);
+    /**
+     * Bind a cell to its memory index and column. The populating table
+     * decodes the values of all its cells into the columns in one pass.
+     */
+    public DataCell(Table table, int index, int column) {
+        this(table, column);
         this.index = index;
-
-        updateBinValueFromMemory();
-        this.originalValue = this.binValue;
-        registerDataCell(this);
     }
 
     public void setTable(Table t) {
         this.table = t;
     }
 
-    public void setRom(Rom rom) {
-        this.rom = rom;
+    public byte[] getBinary() {
+        return table.getRom().getBinary();
     }
 
-    public byte[] getBinary() {
-        return rom.getBinary();
+    private CellColumns columns() {
+        return table.getColumns();
     }
 
     public void setBitMask(int mask) {
         if (mask == 0) return;
 
-        //Clamp mask to max size
-        bitMask = (int) Math.min(mask, Math.pow(2,table.getStorageType()*8)-1);
-    }
-
-    protected void calcValueRange() {
-        if (table.getStorageType() != Settings.STORAGE_TYPE_FLOAT) {
-            if (table.isSignedData()) {
-                switch (table.getStorageType()) {
-                case 1:
-                    minAllowedBin = Byte.MIN_VALUE;
-                    maxAllowedBin = Byte.MAX_VALUE;
-                    break;
-                case 2:
-                    minAllowedBin = Short.MIN_VALUE;
-                    maxAllowedBin = Short.MAX_VALUE;
-                    break;
-                case 4:
-                    minAllowedBin = Integer.MIN_VALUE;
-                    maxAllowedBin = Integer.MAX_VALUE;
-                    break;
-                case Settings.STORAGE_TYPE_MOVI20:
-                    minAllowedBin = Settings.MOVI20_MIN_VALUE;
-                    maxAllowedBin = Settings.MOVI20_MAX_VALUE;
-                    break;
-                case Settings.STORAGE_TYPE_MOVI20S:
-                    minAllowedBin = Settings.MOVI20S_MIN_VALUE;
-                    maxAllowedBin = Settings.MOVI20S_MAX_VALUE;
-                    break;
-                }
-            }
-            else {
-                if (bitMask == 0) {
-                    maxAllowedBin = (Math.pow(256, table.getStorageType()) - 1);
-                }
-                else {
-                    maxAllowedBin =(int)(Math.pow(2,ByteUtil.lengthOfMask(bitMask)) - 1);
-                }
-                minAllowedBin = 0.0;
-            }
-        } else {
-            maxAllowedBin = Float.MAX_VALUE;
+        bitMask = clampBitMask(table, mask);
+    }
+
+    //Clamp mask to max size
+    static int clampBitMask(Table table, int mask) {
+        if (mask == 0) return 0;
+        return (int) Math.min(mask, Math.pow(2,table.getStorageType()*8)-1);
+    }
 
-            if (table.isSignedData()) {
-                minAllowedBin = 0.0;
-            } else {
-                minAllowedBin = -Float.MAX_VALUE;
+    public double getMaxAllowedBin() {
+        if (table.getStorageType() == Settings.STORAGE_TYPE_FLOAT) {
+            return Float.MAX_VALUE;
+        }
+        if (!table.isSignedData()) {
+            if (bitMask == 0) {
+                return Math.pow(256, table.getStorageType()) - 1;
             }
+            return (int)(Math.pow(2,ByteUtil.lengthOfMask(bitMask)) - 1);
+        }
+        switch (table.getStorageType()) {
+        case 1:
+            return Byte.MAX_VALUE;
+        case 2:
+            return Short.MAX_VALUE;
+        case 4:
+            return Integer.MAX_VALUE;
+        case Settings.STORAGE_TYPE_MOVI20:
+            return Settings.MOVI20_MAX_VALUE;
+        case Settings.STORAGE_TYPE_MOVI20S:
+            return Settings.MOVI20S_MAX_VALUE;
+        default:
+            return 0.0;
         }
     }
 
-    private double getValueFromMemory(int index) {
-        double dataValue = 0.0;
-        byte[] input = getBinary();
-        int storageType = table.getStorageType();
-        Endian endian = table.getEndian();
-        int ramOffset = table.getRamOffset();
-        int storageAddress = table.getStorageAddress();
-        boolean signed = table.isSignedData();
-
-        // populate data cells
-        if (storageType == Settings.STORAGE_TYPE_FLOAT) { //float storage type
-            byte[] byteValue = new byte[4];
-            byteValue[0] = input[storageAddress + index * 4 - table.getRamOffset()];
-            byteValue[1] = input[storageAddress + index * 4 - table.getRamOffset() + 1];
-            byteValue[2] = input[storageAddress + index * 4 - table.getRamOffset() + 2];
-            byteValue[3] = input[storageAddress + index * 4 - table.getRamOffset() + 3];
-            dataValue = RomAttributeParser.byteToFloat(byteValue, table.getEndian(), table.getMemModelEndian());
-
-        } else if (storageType == Settings.STORAGE_TYPE_MOVI20 ||
-                storageType == Settings.STORAGE_TYPE_MOVI20S) { // when data is in MOVI20 instruction
-            dataValue = RomAttributeParser.parseByteValue(input,
-                    endian,
-                    storageAddress + index * 3 - ramOffset,
-                    storageType,
-                    signed);
-
-        } else { // integer storage type
-            if (bitMask == 0) {
-                dataValue = RomAttributeParser.parseByteValue(input,
-                        endian, storageAddress + index * storageType - ramOffset,
-                        storageType, signed);
-                }
-                else {
-                    dataValue = RomAttributeParser.parseByteValueMasked(input, endian,
-                            storageAddress + index * storageType - ramOffset,
-                            storageType, signed, bitMask);
-                }
+    public double getMinAllowedBin() {
+        if (table.getStorageType() == Settings.STORAGE_TYPE_FLOAT) {
+            return table.isSignedData() ? 0.0 : -Float.MAX_VALUE;
+        }
+        if (!table.isSignedData()) {
+            return 0.0;
+        }
+        switch (table.getStorageType()) {
+        case 1:
+            return Byte.MIN_VALUE;
+        case 2:
+            return Short.MIN_VALUE;
+        case 4:
+            return Integer.MIN_VALUE;
+        case Settings.STORAGE_TYPE_MOVI20:
+            return Settings.MOVI20_MIN_VALUE;
+        case Settings.STORAGE_TYPE_MOVI20S:
+            return Settings.MOVI20S_MIN_VALUE;
+        default:
+            return 0.0;
         }
+    }
 
-        return dataValue;
+    private double getValueFromMemory(int index) {
+        return RomAttributeParser.decodeValue(getBinary(),
+                table.getStorageAddress() + index * table.getStorageCellSize() - table.getRamOffset(),
+                table.getStorageType(), table.getEndian(), table.getMemModelEndian(),
+                table.isSignedData(), bitMask);
     }
 
     private double getValueFromMemory() {
@@ -210,6 +174,9 @@ public class DataCell implements Serializable  {
     public void saveBinValueInFile() {
         if (table.getName().contains("Checksum Fix")) return;
 
+        // the table encodes all its values once the bulk edit ends
+        if (table.deferWrite()) return;
+
         byte[] binData = getBinary();
         int userLevel = table.getUserLevel();
         int storageType = table.getStorageType();
@@ -234,19 +201,15 @@ public class DataCell implements Serializable  {
         }
 
         if (userLevel <= getSettings().getUserLevel() && (userLevel < 5 || getSettings().isSaveDebugTables()) ) {
-                // determine output byte values
-                byte[] output;
-                int mask = bitMask;
+                double value = isBoschSubtract ? crossedValue : getBinValue();
 
                 if (storageType != Settings.STORAGE_TYPE_FLOAT) {
-                    int finalValue = 0;
-
                     // convert byte values
                     if (table.isStaticDataTable() && storageType > 0) {
                         LOGGER.warn("Static data table: " + table.toString() + ", storageType: "+storageType);
 
                         try {
-                            finalValue = Integer.parseInt(getStaticText());
+                            value = Integer.parseInt(getStaticText());
                         } catch (NumberFormatException ex) {
                             LOGGER.error("Error parsing static data table value: " + getStaticText(), ex);
                             LOGGER.error("Validate the table definition storageType and data value.");
@@ -257,56 +220,14 @@ public class DataCell implements Serializable  {
                         //if (LOGGER.isDebugEnabled())
                         //    LOGGER.debug("The static data table value will not be saved.");
                         return;
-                    }  else {
-                        finalValue = (int) (isBoschSubtract ? crossedValue : getBinValue());
-                    }
-
-                    if (mask != 0) {
-                        // Shift left again
-                        finalValue = finalValue << ByteUtil.firstOneOfMask(mask);
-                    }
-
-                    output = RomAttributeParser.parseIntegerValue(finalValue, endian, storageType);
-
-                    int byteLength = storageType;
-                    if (storageType == Settings.STORAGE_TYPE_MOVI20 ||
-                            storageType == Settings.STORAGE_TYPE_MOVI20S) { // when data is in MOVI20 instruction
-                        byteLength = 3;
-                    }
-
-                    //If mask enabled, only change bits within the mask
-                    if (mask != 0) {
-                        int tempBitMask = 0;
-
-                        for (int z = 0; z < byteLength; z++) { // insert into file
-
-                            tempBitMask = mask;
-
-                            //Trim mask depending on byte, from left to right
-                            tempBitMask = (tempBitMask & (0xFF << 8 * (byteLength - 1 - z))) >> 8*(byteLength - 1 - z);
-
-                            // Delete old bits
-                            binData[index * byteLength + z + storageAddress - ramOffset] &= ~tempBitMask;
-
-                            // Overwrite
-                            binData[index * byteLength + z + storageAddress - ramOffset] |= output[z];
-                        }
-                    }
-                    //No Masking
-                    else {
-                        for (int z = 0; z < byteLength; z++) { // insert into file
-                            binData[index * byteLength + z + storageAddress - ramOffset] = output[z];
-                        }
-                    }
-
-                } else { // float
-                    // convert byte values
-                    output = RomAttributeParser.floatToByte((float) getBinValue(), endian, table.getMemModelEndian());
-
-                    for (int z = 0; z < 4; z++) { // insert in to file
-                        binData[index * 4 + z + storageAddress - ramOffset] = output[z];
                     }
+                } else {
+                    value = getBinValue();
                 }
+
+                RomAttributeParser.encodeValue(binData,
+                        storageAddress + index * table.getStorageCellSize() - ramOffset,
+                        storageType, endian, table.getMemModelEndian(), bitMask, value);
         }
 
         //On the Bosch substract model, we need to update all previous cells, because they depend on our value
@@ -315,34 +236,14 @@ public class DataCell implements Serializable  {
         checkForDataUpdates();
     }
 
-    public void registerDataCell(DataCell cell) {
-
-        int memoryIndex = getMemoryStartAddress(cell);
-
-        if (rom.byteCellMapping.containsKey(memoryIndex))
-            {
-            rom.byteCellMapping.get(memoryIndex).add(cell);
-            }
-        else {
-            LinkedList<DataCell> l = new LinkedList<DataCell>();
-            l.add(cell);
-            rom.byteCellMapping.put(memoryIndex, l);
-        }
-    }
-
     public void checkForDataUpdates() {
         int memoryIndex = getMemoryStartAddress(this);
-
-        if (rom.byteCellMapping.containsKey(memoryIndex)){
-            for(DataCell c : rom.byteCellMapping.get(memoryIndex)) {
-                c.updateBinValueFromMemory();
-            }
-        }
+        table.getRom().getCellIndex().update(memoryIndex, memoryIndex + table.getStorageCellSize());
     }
 
     public static int getMemoryStartAddress(DataCell cell) {
         Table t = cell.getTable();
-        return t.getStorageAddress() + cell.getIndexInTable() * t.getStorageType() - t.getRamOffset();
+        return t.getStorageAddress() + cell.getIndexInTable() * t.getStorageCellSize() - t.getRamOffset();
     }
 
     public Settings getSettings()
@@ -351,8 +252,8 @@ public class DataCell implements Serializable  {
     }
 
     public void setSelected(boolean selected) {
-        if (!table.isStaticDataTable() && this.isSelected != selected) {
-            this.isSelected = selected;
+        if (!table.isStaticDataTable() && isSelected() != selected) {
+            columns().selected.set(column, selected);
 
             if (view!=null) {
                 ECUEditorManager.getECUEditor().getTableToolBar().updateTableToolBar(table);
@@ -362,15 +263,12 @@ public class DataCell implements Serializable  {
     }
 
     public boolean isSelected() {
-        return isSelected;
+        return columns().selected.get(column);
     }
 
     public void updateBinValueFromMemory() {
-        //We do this here because once we start populating all settings should be set
-        if (minAllowedBin == 0 && maxAllowedBin == 0)
-            calcValueRange();
-
-        this.binValue = getValueFromMemory();
+        columns().bin[column] = getValueFromMemory();
+        table.valueChanged();
         updateView();
     }
 
@@ -397,32 +295,32 @@ public class DataCell implements Serializable  {
     }
 
     public String getLiveValue() {
-        return this.liveValue;
+        return columns().getLiveValue(column);
     }
 
     public void setLiveDataTraceValue(String liveValue) {
-        if (this.liveValue != liveValue) {
-            this.liveValue = liveValue;
+        if (getLiveValue() != liveValue) {
+            columns().setLiveValue(column, liveValue);
             updateView();
         }
     }
 
     public double getBinValue() {
-        return binValue;
+        return columns().bin[column];
     }
 
     public double getOriginalValue() {
-        return originalValue;
+        return columns().original[column];
     }
 
     public double getCompareToValue() {
-        return compareToValue;
+        return columns().compare[column];
     }
 
     public double getRealValue() {
-        if (table.getCurrentScale() == null) return binValue;
+        if (table.getCurrentScale() == null) return getBinValue();
 
-        return JEPUtil.evaluate(table.getCurrentScale().getExpression(), binValue);
+        return JEPUtil.evaluate(table.getCurrentScale().getExpression(), getBinValue());
     }
 
     public void setRealValue(String input) throws UserLevelException {
@@ -448,7 +346,7 @@ public class DataCell implements Serializable  {
                     result = (int) Math.round(result);
                 }
 
-                if (binValue != result) {
+                if (getBinValue() != result) {
                     this.setBinValue(result);
                 }
             }
@@ -458,16 +356,16 @@ public class DataCell implements Serializable  {
     }
 
     public double getCompareValue() {
-        return binValue - compareToValue;
+        return getBinValue() - getCompareToValue();
     }
 
     public double getRealCompareValue() {
-        return JEPUtil.evaluate(table.getCurrentScale().getExpression(), binValue) - JEPUtil.evaluate(table.getCurrentScale().getExpression(), compareToValue);
+        return JEPUtil.evaluate(table.getCurrentScale().getExpression(), getBinValue()) - JEPUtil.evaluate(table.getCurrentScale().getExpression(), getCompareToValue());
     }
 
     public double getRealCompareChangeValue() {
-        double realBinValue = JEPUtil.evaluate(table.getCurrentScale().getExpression(), binValue);
-        double realCompareValue = JEPUtil.evaluate(table.getCurrentScale().getExpression(), compareToValue);
+        double realBinValue = JEPUtil.evaluate(table.getCurrentScale().getExpression(), getBinValue());
+        double realCompareValue = JEPUtil.evaluate(table.getCurrentScale().getExpression(), getCompareToValue());
 
         if (realCompareValue != 0.0) {
             // Compare change formula ((V2 - V1) / |V1|).
@@ -479,6 +377,7 @@ public class DataCell implements Serializable  {
     }
 
     public void setBinValue(double newBinValue) throws UserLevelException {
+        final double binValue = getBinValue();
         if (binValue == newBinValue || table.locked || table.getName().contains("Checksum Fix")) {
             return;
         }
@@ -489,12 +388,12 @@ public class DataCell implements Serializable  {
         double checkedValue = newBinValue;
 
         // make sure it's in range
-        if (checkedValue < minAllowedBin) {
-            checkedValue = minAllowedBin;
+        if (checkedValue < getMinAllowedBin()) {
+            checkedValue = getMinAllowedBin();
         }
 
-        if (checkedValue > maxAllowedBin) {
-            checkedValue = maxAllowedBin;
+        if (checkedValue > getMaxAllowedBin()) {
+            checkedValue = getMaxAllowedBin();
         }
 
         if (binValue == checkedValue) {
@@ -502,7 +401,8 @@ public class DataCell implements Serializable  {
         }
 
         // set bin.
-        binValue = checkedValue;
+        columns().bin[column] = checkedValue;
+        table.valueChanged();
         saveBinValueInFile();
         updateView();
     }
@@ -523,12 +423,12 @@ public class DataCell implements Serializable  {
         }
 
         if (table.getStorageType() == Settings.STORAGE_TYPE_FLOAT) {
-            if (binValue != incResult) {
+            if (getBinValue() != incResult) {
                 this.setBinValue(incResult);
             }
         } else {
             int roundResult = (int) Math.round(incResult);
-            if (binValue != roundResult) {
+            if (getBinValue() != roundResult) {
                 this.setBinValue(roundResult);
             }
         }
@@ -537,24 +437,24 @@ public class DataCell implements Serializable  {
         //TODO: This should use real values
         if (table.getStorageType() != Settings.STORAGE_TYPE_FLOAT &&
                 oldValue == getRealValue() &&
-                ((increment > 0 && binValue < maxAllowedBin) || (increment < 0 && binValue > minAllowedBin))) {
+                ((increment > 0 && getBinValue() < getMaxAllowedBin()) || (increment < 0 && getBinValue() > getMinAllowedBin()))) {
             if (LOGGER.isDebugEnabled())
-                LOGGER.debug(maxAllowedBin + " " + binValue);
+                LOGGER.debug(getMaxAllowedBin() + " " + getBinValue());
             increment(increment * 2);
         }
     }
 
     public void undo() throws UserLevelException {
-        this.setBinValue(originalValue);
+        this.setBinValue(getOriginalValue());
     }
 
     public void setRevertPoint() {
-        this.setOriginalValue(binValue);
+        this.setOriginalValue(getBinValue());
         updateView();
     }
 
     public void setOriginalValue(double originalValue) {
-        this.originalValue = originalValue;
+        columns().original[column] = originalValue;
     }
 
     public int getBitMask() {
@@ -564,17 +464,9 @@ public class DataCell implements Serializable  {
     public void setCompareValue(DataCell compareCell) {
         if (Settings.DataType.BIN == table.getCompareValueType())
         {
-            if (this.compareToValue == compareCell.binValue) {
-                return;
-            }
-
-            this.compareToValue = compareCell.binValue;
+            columns().compare[column] = compareCell.getBinValue();
         } else {
-            if (this.compareToValue == compareCell.originalValue) {
-                return;
-            }
-
-            this.compareToValue = compareCell.originalValue;
+            columns().compare[column] = compareCell.getOriginalValue();
         }
     }
 
@@ -608,15 +500,7 @@ public class DataCell implements Serializable  {
             return false;
         }
 
-        return binValue == otherCell.binValue;
-    }
-
-    public double getMaxAllowedBin() {
-        return maxAllowedBin;
-    }
-
-    public double getMinAllowedBin() {
-        return minAllowedBin;
+        return getBinValue() == otherCell.getBinValue();
     }
 
     @Override
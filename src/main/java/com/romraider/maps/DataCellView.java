@@ -46,6 +46,7 @@ public class DataCellView extends JLabel implements MouseListener, Serializable
     static final DecimalFormat FORMATTER = new DecimalFormat();
     static final String PERCENT_FORMAT = "#,##0.0%";
     static final String TT_FORMAT = "#,##0.##########";
+    static final String HIT_FORMAT = "#,##0.###";
     static final String TT_PERCENT_FORMAT = "#,##0.0#########%";
     static final String REPLACE_TEXT = "\u0020|\u00a0";
     
@@ -130,6 +131,8 @@ public class DataCellView extends JLabel implements MouseListener, Serializable
             backgroundColor = settings.getHighlightColor();
         } else if(dataCell.isSelected()) {
             backgroundColor = settings.getSelectColor();
+        } else if(tableView.isHeatmap()) {
+            backgroundColor = getHeatColor();
         } else if(null == tableView.getTable().getCompareTable()) {
             backgroundColor = getBinColor();
         }else {
@@ -159,6 +162,28 @@ public class DataCellView extends JLabel implements MouseListener, Serializable
         return getScaledColor(compareScale);
     }
 
+    /**
+     * @return the colour for the logged samples counted in this cell, on a
+     * log scale so rarely visited cells still stand out from unvisited ones
+     */
+    public Color getHeatColor() {
+        final CellHitAccumulator hits = tableView.getCellHits();
+        final double cellHits = null == hits ? 0.0 : hits.getHits(getCellHitX(), getCellHitY());
+        if (cellHits == 0.0) {
+            return Settings.UNCHANGED_VALUE_COLOR;
+        }
+        return getScaledColor(Math.log1p(cellHits) / Math.log1p(hits.getMaxHits()));
+    }
+
+    // a 2D table is a single row of cells in the accumulator
+    private int getCellHitX() {
+        return tableView instanceof Table3DView ? x : y;
+    }
+
+    private int getCellHitY() {
+        return tableView instanceof Table3DView ? y : 0;
+    }
+
     public Color getBinColor() {
     	Table t = tableView.getTable();
     	
@@ -329,6 +354,9 @@ public class DataCellView extends JLabel implements MouseListener, Serializable
                 ttString = getLiveValueString(ttString);
             }
         }
+        if(tableView.isHeatmap()) {
+            ttString = getCellHitString(ttString);
+        }
         return ttString;
     }
     
@@ -377,6 +405,21 @@ public class DataCellView extends JLabel implements MouseListener, Serializable
         }
     }
     
+    private String getCellHitString(String currentValue) {
+        final CellHitAccumulator hits = tableView.getCellHits();
+        final int hx = getCellHitX();
+        final int hy = getCellHitY();
+        if (null == hits || hits.getHits(hx, hy) == 0.0) {
+            return currentValue;
+        }
+        FORMATTER.applyPattern(HIT_FORMAT);
+        return currentValue + " [" + FORMATTER.format(hits.getHits(hx, hy)) +
+                " hits, mean " + FORMATTER.format(hits.getMean(hx, hy)) +
+                ", min " + FORMATTER.format(hits.getMin(hx, hy)) +
+                ", max " + FORMATTER.format(hits.getMax(hx, hy)) +
+                ", sd " + FORMATTER.format(hits.getStandardDeviation(hx, hy)) + "]";
+    }
+
     private String getLiveValueString(String currentValue) {
         return currentValue + (isNullOrEmpty(dataCell.getLiveValue()) ? Settings.BLANK : (':' + dataCell.getLiveValue()));
     }
@@ -0,0 +1,177 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.maps;
+
+/**
+ * The real values of the cells of a table view as a double[], so placing
+ * a live value costs a binary search instead of a scale evaluation per
+ * cell. The values are read again only after a cell of the table is
+ * changed, the scale is switched or the view is rebuilt.
+ */
+final class LiveDataLookup {
+    private final TableView view;
+    private double[] values = new double[0];
+    private DataCellView[] cells;
+    private Scale scale;
+    private int revision;
+    private boolean built;
+    private boolean numeric;
+    private boolean ascending;
+    private int index;
+    private double weight;
+
+    LiveDataLookup(TableView view) {
+        this.view = view;
+    }
+
+    /**
+     * Find the cells either side of a live value, available from
+     * {@link #getIndex()} and {@link #getWeight()}.
+     * @param liveValue - the logged value
+     * @return false if the cells do not all have a numeric value
+     */
+    boolean find(double liveValue) {
+        if (!isCurrent()) {
+            build();
+        }
+        return numeric && locate(values, ascending, liveValue);
+    }
+
+    /**
+     * Find the cells either side of a value.
+     * @param values - the cell values
+     * @param ascending - true if every value is at least the one before
+     * @param liveValue - the value to find
+     * @return false if there are no cells
+     */
+    boolean locate(double[] values, boolean ascending, double liveValue) {
+        final int n = values.length;
+        if (n == 0) {
+            return false;
+        }
+        weight = 0.0;
+        if (ascending) {
+            int low = 0;
+            int high = n;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (values[mid] < liveValue) low = mid + 1;
+                else high = mid;
+            }
+            if (low < n && values[low] == liveValue) {
+                index = low;
+            }
+            else if (low == 0) {
+                index = 0;
+            }
+            else if (low == n) {
+                index = n - 1;
+            }
+            else {
+                index = low - 1;
+                weight = (liveValue - values[index]) / (values[low] - values[index]);
+            }
+        }
+        else {
+            // as the cells were always scanned, the first cell equal to
+            // or the one before the first cell above the value
+            int found = n;
+            for (int i = 0; i < n; i++) {
+                if (liveValue == values[i]) {
+                    found = i;
+                    break;
+                }
+                else if (liveValue < values[i]) {
+                    found = i - 1;
+                    break;
+                }
+            }
+            index = Math.max(0, Math.min(found, n - 1));
+        }
+        return true;
+    }
+
+    /**
+     * @return the cell at or below the last value found
+     */
+    int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return how far the last value found lies towards the next cell,
+     * from 0.0 to 1.0, 0.0 outside the range of an ascending axis
+     */
+    double getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return a copy of the cell values, null if they are not all numeric
+     */
+    double[] getValues() {
+        if (!isCurrent()) {
+            build();
+        }
+        return numeric ? values.clone() : null;
+    }
+
+    void invalidate() {
+        built = false;
+    }
+
+    private boolean isCurrent() {
+        final Table table = view.getTable();
+        return built
+                && cells == view.data
+                && scale == table.getCurrentScale()
+                && revision == table.getValueRevision();
+    }
+
+    private void build() {
+        final Table table = view.getTable();
+        cells = view.data;
+        scale = table.getCurrentScale();
+        revision = table.getValueRevision();
+        built = true;
+        numeric = true;
+        final int n = cells == null ? 0 : cells.length;
+        if (values.length != n) {
+            values = new double[n];
+        }
+        for (int i = 0; i < n; i++) {
+            if (table.isStaticDataTable() && null != cells[i].getStaticText()) {
+                try {
+                    values[i] = Double.parseDouble(cells[i].getStaticText());
+                } catch (NumberFormatException e) {
+                    numeric = false;
+                    return;
+                }
+            }
+            else {
+                values[i] = cells[i].getDataCell().getRealValue();
+            }
+        }
+        ascending = true;
+        for (int i = 1; i < n && ascending; i++) {
+            ascending = values[i - 1] <= values[i];
+        }
+    }
+}
@@ -42,6 +42,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.ResourceBundle;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
@@ -52,6 +58,7 @@ import org.apache.log4j.Logger;
 import org.w3c.dom.Document;
 
 import com.romraider.Settings;
+import com.romraider.Settings.TablePopulation;
 import com.romraider.editor.ecu.ECUEditorManager;
 import com.romraider.logger.ecu.ui.handler.table.TableUpdateHandler;
 import com.romraider.maps.checksum.ChecksumManager;
@@ -82,13 +89,24 @@ public class Rom extends DefaultMutableTreeNode implements Serializable  {
 
     //This keeps track of DataCells on a byte level
     //This might also be possible to achieve by using the same Data Tables
-    protected HashMap<Integer, LinkedList<DataCell>> byteCellMapping = new HashMap<Integer, LinkedList<DataCell>>();
+    protected final CellIndex cellIndex = new CellIndex();
     
     private final LinkedHashMap<String, TableTreeNode> tableNodes = new LinkedHashMap<String, TableTreeNode>();
     private LinkedList<ChecksumManager> checksumManagers = new LinkedList<ChecksumManager>();
 
     private final Settings settings = SettingsManager.getSettings();
 
+    private static final ThreadFactory POPULATE_THREADS = new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            final Thread t = new Thread(r, "Table Populate " + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    };
+
     public Rom(RomID romID) {
         this.romID = romID;
     }
@@ -243,41 +261,63 @@ public class Rom extends DefaultMutableTreeNode implements Serializable  {
     
     public void populateTables(byte[] binData, JProgressPane progress) {
         this.binData = binData;
-        int size = tableNodes.size();
-        int i = 0;
         faultyTables.clear();
 
-        for(String name: tableNodes.keySet()) {
-            // update progress
-            int currProgress = (int) (i / (double) size * 100);
-            progress.update(rb.getString("POPTABLES"), currProgress);
+        final List<Table> tables = new ArrayList<Table>(tableNodes.size());
+        final List<String> unstored = new ArrayList<String>();
+        for(TableTreeNode node: tableNodes.values()) {
+            Table table = node.getTable();
+            if (table.getStorageAddress() >= 0) {
+                tables.add(table);
+            } else {
+                unstored.add(table.getName().toLowerCase());
+            }
+        }
+        for(String s: unstored) {
+            tableNodes.remove(s);
+        }
+
+        final TablePopulation population = settings.getTablePopulation();
+        final ExecutorService executor = population == TablePopulation.PARALLEL ?
+                Executors.newFixedThreadPool(
+                        Runtime.getRuntime().availableProcessors(), POPULATE_THREADS) : null;
+        try {
+            final List<Future<?>> futures = executor == null ?
+                    null : submitTables(executor, tables);
 
-            Table table = tableNodes.get(name.toLowerCase()).getTable();
-            try {
-                if (table.getStorageAddress() >= 0) {
-                    try {
+            for(int i = 0; i < tables.size(); i++) {
+                // update progress
+                int currProgress = (int) (i / (double) tables.size() * 100);
+                progress.update(rb.getString("POPTABLES"), currProgress);
+
+                Table table = tables.get(i);
+                try {
+                    if (futures != null) {
+                        awaitTable(futures.get(i));
+                    }
+                    // switches report the checksum state as the image loads
+                    else if (population == TablePopulation.LAZY &&
+                            !(table instanceof TableSwitch)) {
+                        table.validatePopulation(this);
+                        table.deferPopulation(this);
+                    }
+                    else {
                         table.populateTable(this);
-                        TableUpdateHandler.getInstance().registerTable(table);
+                    }
+                    TableUpdateHandler.getInstance().registerTable(table);
 
-                        if (null != table.getName() && table.getName().equalsIgnoreCase("Checksum Fix")){
-                            setEditStamp(binData, table.getStorageAddress());
-                        }
-                        i++;
-                    } catch (ArrayIndexOutOfBoundsException ex) {
-                    	handleException(table, ex, true);
-                        size--;
-                    } catch (IndexOutOfBoundsException iex) {
-                    	handleException(table, iex, true);
-                        size--;
+                    if (null != table.getName() && table.getName().equalsIgnoreCase("Checksum Fix")){
+                        setEditStamp(binData, table.getStorageAddress());
                     }
-                } else {
-                    tableNodes.remove(table.getName().toLowerCase());
-                    size--;
+                } catch (IndexOutOfBoundsException ex) {
+                    handleException(table, ex, true);
+                } catch (NullPointerException ex) {
+                    handleException(table, ex, false);
                 }
-
-            } catch (NullPointerException ex) {
-            	handleException(table, ex, false);
-                size--;
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
             }
         }
 
@@ -286,6 +326,45 @@ public class Rom extends DefaultMutableTreeNode implements Serializable  {
         }
     }
 
+    // Tables share nothing but the read-only image and the cell index, so
+    // they are populated independently and reported in definition order.
+    private List<Future<?>> submitTables(ExecutorService executor, List<Table> tables) {
+        final List<Future<?>> futures = new ArrayList<Future<?>>(tables.size());
+        for (final Table table : tables) {
+            futures.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    table.populateTable(Rom.this);
+                }
+            }));
+        }
+        return futures;
+    }
+
+    private static void awaitTable(Future<?> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    future.get();
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw (Error) cause;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     private void setEditStamp(byte[] binData, int address) {
         byte[] stampData = new byte[4];
         System.arraycopy(binData, address+204, stampData, 0, stampData.length);
@@ -481,10 +560,11 @@ public class Rom extends DefaultMutableTreeNode implements Serializable  {
     }
 
     public void clearByteMapping() {
-        for(List<?> l: byteCellMapping.values())l.clear();
+        cellIndex.clear();
+    }
 
-        byteCellMapping.clear();
-        byteCellMapping = null;
+    public CellIndex getCellIndex() {
+        return cellIndex;
     }
 
     public int getRealFileSize() {
@@ -32,6 +32,7 @@ import com.romraider.util.ByteUtil;
 import com.romraider.util.JEPUtil;
 import com.romraider.util.NumberUtil;
 import com.romraider.util.SettingsManager;
+import com.romraider.xml.RomAttributeParser;
 
 public abstract class Table implements Serializable, Comparable<Table> {
     private static final long serialVersionUID = 6559256489995552645L;
@@ -58,6 +59,7 @@ public abstract class Table implements Serializable, Comparable<Table> {
 
     protected DataLayout dataLayout = DataLayout.DEFAULT;   //DataCell Ordering
     protected DataCell[] data = new DataCell[1];
+    protected CellColumns columns;
 
     protected boolean beforeRam = false;
     protected int ramOffset = 0;
@@ -76,6 +78,18 @@ public abstract class Table implements Serializable, Comparable<Table> {
     protected boolean staticDataTable = false;
     private Table compareTable = null;
     protected Settings.DataType compareValueType = Settings.DataType.BIN;
+    private volatile int valueRevision;
+
+    // set while decoding is deferred; axes point at the table that owns them
+    private transient volatile Table deferredOwner;
+    private transient Rom deferredRom;
+    // set on the owner while it decodes its deferred cells
+    private transient boolean populating;
+
+    // cell writes held back until the outermost bulk edit ends
+    private transient int bulkEdits;
+    private transient boolean bulkWritePending;
+    private transient boolean scalingValidated;
 
     public enum DataLayout {
         DEFAULT,
@@ -99,16 +113,15 @@ public abstract class Table implements Serializable, Comparable<Table> {
     }
 
     public DataCell[] getData() {
+        ensurePopulated();
         return data;
     }
 
     public void addStaticDataCell(String s) {
         setStaticDataTable(true);
-        DataCell c = new DataCell(this, s, null);
-
         for(int i = 0; i < data.length; i++) {
             if(data[i] == null) {
-                data[i] = c;
+                data[i] = new DataCell(this, s, i);
                 break;
             }
         }
@@ -120,7 +133,6 @@ public abstract class Table implements Serializable, Comparable<Table> {
             for(int i=0;i<getDataSize();i++) {
                 if(data[i]!=null) {
                     data[i].setTable(null);
-                    data[i].setRom(null);
                     data[i] = null;
                 }
             }
@@ -128,6 +140,8 @@ public abstract class Table implements Serializable, Comparable<Table> {
             data = null;
         }
         rom = null;
+        columns = null;
+        cancelDeferredPopulation();
     }
 
     public void setData(DataCell[] data) {
@@ -158,9 +172,15 @@ public abstract class Table implements Serializable, Comparable<Table> {
             this.ramOffset = rom.getRomID().getRamOffset();
         }
 
+        this.rom = rom;
+        columns = new CellColumns(data.length);
+        readValues(columns.bin);
+        System.arraycopy(columns.bin, 0, columns.original, 0, data.length);
+        valueChanged();
         for (int i = 0; i < data.length; i++) {
-            data[i] = new DataCell(this, i, rom);
+            data[i] = new DataCell(this, i, i);
         }
+        rom.getCellIndex().add(data);
 
         // reset locked status
         locked = tempLock;
@@ -170,9 +190,185 @@ public abstract class Table implements Serializable, Comparable<Table> {
         addScale(new Scale());
     }
 
+    /**
+     * Check that every cell of this table lies inside the image, without
+     * decoding any of them.
+     */
+    public void validateStorage(Rom rom) throws IndexOutOfBoundsException {
+        if (isStaticDataTable()) return;
+
+        final int offset = beforeRam ? ramOffset : rom.getRomID().getRamOffset();
+        final int start = storageAddress - offset;
+        final long end = start + (long) getStorageCellCount() * getStorageCellSize();
+        if (start < 0 || end > rom.getBinary().length) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "Table storage 0x%X-0x%X exceeds image size 0x%X",
+                    start, end, rom.getBinary().length));
+        }
+    }
+
+    protected int getStorageCellCount() {
+        return data.length;
+    }
+
+    protected int getStorageCellSize() {
+        return RomAttributeParser.getValueLength(storageType);
+    }
+
+    /**
+     * @return the number of cells stored back to back before
+     * {@link #getRowSkip()} cells are skipped
+     */
+    protected int getRowLength() {
+        return data.length;
+    }
+
+    protected int getRowSkip() {
+        return 0;
+    }
+
+    /**
+     * Decode the values of all cells from the image in one pass, in
+     * column order.
+     */
+    protected void readValues(double[] values) {
+        final byte[] input = rom.getBinary();
+        final int address = storageAddress - ramOffset;
+        final int mask = DataCell.clampBitMask(this, tableBitMask);
+
+        if (dataLayout == DataLayout.BOSCH_SUBTRACT) {
+            RomAttributeParser.decodeValues(input, address, storageType, endian,
+                    memModelEndian, signed, mask, values, values.length, values.length, 0);
+
+            //Bosch Motronic subtract method
+            double dataValue = Math.pow(2, 8 * storageType);
+            for (int i = values.length - 1; i >= 0; i--) {
+                dataValue -= values[i];
+                values[i] = dataValue;
+            }
+        }
+        else {
+            RomAttributeParser.decodeValues(input, address, storageType, endian,
+                    memModelEndian, signed, mask, values, values.length,
+                    getRowLength(), getRowSkip());
+        }
+    }
+
+    /**
+     * Encode the values of all cells into the image in one pass and refresh
+     * every cell stored in the same bytes.
+     */
+    protected void writeValues() {
+        if (rom == null || columns == null || !isBulkWritable()) return;
+        if (getName().contains("Checksum Fix")) return;
+        if (userLevel > getSettings().getUserLevel() ||
+                (userLevel >= 5 && !getSettings().isSaveDebugTables())) return;
+
+        final int count = columns.size();
+        double[] values = columns.bin;
+
+        //Do reverse cross referencing in for Bosch Subtract Axis array
+        if (dataLayout == DataLayout.BOSCH_SUBTRACT && count > 0) {
+            values = new double[count];
+            for (int i = 0; i < count - 1; i++) {
+                values[i] = columns.bin[i + 1] - columns.bin[i];
+            }
+            values[count - 1] = -columns.bin[count - 1];
+        }
+
+        final int address = storageAddress - ramOffset;
+        RomAttributeParser.encodeValues(rom.getBinary(), address, storageType,
+                endian, memModelEndian, DataCell.clampBitMask(this, tableBitMask),
+                values, count, getRowLength(), getRowSkip());
+        rom.getCellIndex().update(address,
+                address + getStorageCellCount() * getStorageCellSize());
+    }
+
+    /**
+     * Hold back cell writes until the matching {@link #endBulkEdit()}, which
+     * then encodes the whole table at once. Edits may nest.
+     */
+    public void beginBulkEdit() {
+        bulkEdits++;
+    }
+
+    public void endBulkEdit() {
+        if (bulkEdits > 0 && --bulkEdits == 0 && bulkWritePending) {
+            bulkWritePending = false;
+            writeValues();
+        }
+    }
+
+    /**
+     * @return true if a cell write is taken over by the pending bulk edit
+     */
+    boolean deferWrite() {
+        if (bulkEdits == 0 || !isBulkWritable()) return false;
+        bulkWritePending = true;
+        return true;
+    }
+
+    /**
+     * @return true if all cells share one layout that
+     * {@link #writeValues()} can encode
+     */
+    protected boolean isBulkWritable() {
+        return !isStaticDataTable();
+    }
+
+    /**
+     * Defer {@link #populateTable(Rom)} until the cells are first needed.
+     * Callers validate the storage beforehand so faulty tables are still
+     * reported while the image loads.
+     */
+    public void deferPopulation(Rom rom) {
+        deferPopulation(rom, this);
+    }
+
+    protected void deferPopulation(Rom rom, Table owner) {
+        deferredRom = rom;
+        deferredOwner = owner;
+    }
+
+    protected void cancelDeferredPopulation() {
+        deferredRom = null;
+        deferredOwner = null;
+    }
+
+    public boolean isPopulationDeferred() {
+        return deferredOwner != null;
+    }
+
+    /**
+     * Decode the cells now if their population was deferred.
+     */
+    public void ensurePopulated() {
+        final Table owner = deferredOwner;
+        if (owner != null) {
+            owner.populateDeferred();
+        }
+    }
+
+    // The deferral is only cleared once the cells are complete, so other
+    // threads wait on this lock instead of reading half-built cells, and a
+    // failed population stays deferred and fails again on the next access.
+    private synchronized void populateDeferred() {
+        final Rom deferred = deferredRom;
+        if (deferred == null || populating) return;
+
+        populating = true;
+        try {
+            populateTable(deferred);
+            cancelDeferredPopulation();
+        } finally {
+            populating = false;
+        }
+    }
+
     public abstract TableType getType();
 
     public DataCell getDataCell(int location) {
+        ensurePopulated();
         return data[location];
     }
 
@@ -204,6 +400,21 @@ public abstract class Table implements Serializable, Comparable<Table> {
         return this.curScale;
     }
 
+    /**
+     * Called by a cell when its value changes so values cached from the
+     * cells are read again.
+     */
+    public void valueChanged() {
+        valueRevision++;
+    }
+
+    /**
+     * @return a number that changes whenever a cell value changes
+     */
+    public int getValueRevision() {
+        return valueRevision;
+    }
+
     public Scale getScale(String scaleName) throws NameNotFoundException {
         for (Scale scale : scales) {
             if (scale.getCategory().equalsIgnoreCase(scaleName)) {
@@ -273,6 +484,21 @@ public abstract class Table implements Serializable, Comparable<Table> {
 
     public void setDataSize(int size) {
         data = new DataCell[size];
+        columns = null;
+    }
+
+    /**
+     * @return the value columns the cells of this table are stored in
+     */
+    CellColumns getColumns() {
+        if (columns == null) {
+            columns = new CellColumns(getColumnCount());
+        }
+        return columns;
+    }
+
+    protected int getColumnCount() {
+        return data.length;
     }
 
     public int getDataSize() {
@@ -327,6 +553,7 @@ public abstract class Table implements Serializable, Comparable<Table> {
     }
 
     public StringBuffer getTableAsString() {
+        ensurePopulated();
         StringBuffer output = new StringBuffer(Settings.BLANK);
         for (int i = 0; i < data.length; i++) {
 
@@ -384,6 +611,8 @@ public abstract class Table implements Serializable, Comparable<Table> {
             if(!withoutData) return false;
 
             Table otherTable = (Table)other;
+            ensurePopulated();
+            otherTable.ensurePopulated();
 
             // Compare Bin Values
             for(int i=0 ; i < this.data.length ; i++) {
@@ -492,8 +721,13 @@ public abstract class Table implements Serializable, Comparable<Table> {
     }
 
     public void undoAll() throws UserLevelException {
-        for (DataCell cell : data) {
-            cell.undo();
+        beginBulkEdit();
+        try {
+            for (DataCell cell : data) {
+                cell.undo();
+            }
+        } finally {
+            endBulkEdit();
         }
     }
 
@@ -564,6 +798,9 @@ public abstract class Table implements Serializable, Comparable<Table> {
     }
 
     public void validateScaling() {
+        // a deferred table was checked when the image loaded
+        if (scalingValidated) return;
+
         if (getType() != TableType.SWITCH) {
             for(Scale scale : scales) {
                 if (!scale.validate()) {
@@ -571,6 +808,17 @@ public abstract class Table implements Serializable, Comparable<Table> {
                 }
             }
         }
+        scalingValidated = true;
+    }
+
+    /**
+     * Run the definition checks of {@link #populateTable(Rom)} without
+     * decoding any cells, so a table whose population is deferred is
+     * still found faulty while the image loads.
+     */
+    public void validatePopulation(Rom rom) throws IndexOutOfBoundsException {
+        validateScaling();
+        validateStorage(rom);
     }
 
     public void populateCompareValues(Table otherTable) {
@@ -578,6 +826,7 @@ public abstract class Table implements Serializable, Comparable<Table> {
             return;
         }
 
+        ensurePopulated();
         DataCell[] compareData = otherTable.getData();
         if(data.length != compareData.length) {
             return;
@@ -622,26 +871,31 @@ public abstract class Table implements Serializable, Comparable<Table> {
     }
 
     public void horizontalInterpolate() throws UserLevelException {
-        int[] coords = { getDataSize(), 0};
-        DataCell[] tableData = getData();
-
-        for (int i = 0; i < getDataSize(); ++i) {
-            if (tableData[i].isSelected()) {
-                if (i < coords[0])
-                    coords[0] = i;
-                if (i > coords[1])
-                    coords[1] = i;
+        beginBulkEdit();
+        try {
+            int[] coords = { getDataSize(), 0};
+            DataCell[] tableData = getData();
+
+            for (int i = 0; i < getDataSize(); ++i) {
+                if (tableData[i].isSelected()) {
+                    if (i < coords[0])
+                        coords[0] = i;
+                    if (i > coords[1])
+                        coords[1] = i;
+                }
             }
-        }
 
-        if (coords[1] - coords[0] > 1) {
-            double y1, y2;
-            y1 = tableData[coords[0]].getBinValue();
-            y2 = tableData[coords[1]].getBinValue();
-            for (int i = coords[0] + 1; i < coords[1]; ++i) {
-                float p = (float)((i - coords[0]))/(coords[1] - coords[0]);
-                data[i].setBinValue((y2*p)+(y1 *(1-p)));
+            if (coords[1] - coords[0] > 1) {
+                double y1, y2;
+                y1 = tableData[coords[0]].getBinValue();
+                y2 = tableData[coords[1]].getBinValue();
+                for (int i = coords[0] + 1; i < coords[1]; ++i) {
+                    float p = (float)((i - coords[0]))/(coords[1] - coords[0]);
+                    data[i].setBinValue((y2*p)+(y1 *(1-p)));
+                }
             }
+        } finally {
+            endBulkEdit();
         }
     }
 
@@ -654,26 +908,41 @@ public abstract class Table implements Serializable, Comparable<Table> {
     }
 
     public void increment(double increment) throws UserLevelException {
-        for (DataCell cell : data) {
-            if (cell.isSelected()) {
-                cell.increment(increment);
+        beginBulkEdit();
+        try {
+            for (DataCell cell : data) {
+                if (cell.isSelected()) {
+                    cell.increment(increment);
+                }
             }
+        } finally {
+            endBulkEdit();
         }
     }
 
     public void multiply(double factor) throws UserLevelException{
-        for (DataCell cell : data) {
-            if (cell.isSelected()) {
-                cell.multiply(factor);
-            }
-         }
+        beginBulkEdit();
+        try {
+            for (DataCell cell : data) {
+                if (cell.isSelected()) {
+                    cell.multiply(factor);
+                }
+             }
+        } finally {
+            endBulkEdit();
+        }
     }
 
     public void setRealValue(String realValue) throws UserLevelException {
-        for(DataCell cell : data) {
-            if (cell.isSelected()) {
-                cell.setRealValue(realValue);
+        beginBulkEdit();
+        try {
+            for(DataCell cell : data) {
+                if (cell.isSelected()) {
+                    cell.setRealValue(realValue);
+                }
             }
+        } finally {
+            endBulkEdit();
         }
     }
 
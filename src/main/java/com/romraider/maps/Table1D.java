@@ -91,6 +91,8 @@ public class Table1D extends Table {
             }
 
             Table1D otherTable = (Table1D)other;
+            ensurePopulated();
+            otherTable.ensurePopulated();
 
             if(this.data.length != otherTable.data.length)
             {
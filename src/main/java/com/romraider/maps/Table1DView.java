@@ -23,7 +23,6 @@ import java.awt.BorderLayout;
 
 import javax.swing.JLabel;
 import javax.swing.border.EmptyBorder;
-import com.romraider.util.NumberUtil;
 
 public class Table1DView extends TableView {
 
@@ -268,39 +267,13 @@ public class Table1DView extends TableView {
     }
 
     @Override
-    public void highlightLiveData(String liveVal) {
+    public void highlightLiveData(double liveValue, String liveVal) {
         if (getOverlayLog()) {
-            double liveValue = 0.0;
-            try {
-                liveValue = NumberUtil.doubleValue(liveVal);
-            } catch (Exception ex) {
-            	LOGGER.error("Table1D - live data highlight parsing error for value: " + liveVal);
+            if (!getLiveDataLookup().find(liveValue)) {
                 return;
             }
 
-            int startIdx = data.length;
-            for (int i = 0; i < data.length; i++) {
-                double currentValue = 0.0;
-                if(table.isStaticDataTable() && null != data[i].getStaticText()) {
-                    try {
-                        currentValue = Double.parseDouble(data[i].getStaticText());
-                    } catch(NumberFormatException nex) {
-                        return;
-                    }
-                } else {
-                    currentValue = data[i].getDataCell().getRealValue();
-                }
-
-                if (liveValue == currentValue) {
-                    startIdx = i;
-                    break;
-                } else if (liveValue < currentValue){
-                    startIdx = i-1;
-                    break;
-                }
-            }
-
-            setLiveDataIndex(startIdx);
+            setLiveDataIndex(getLiveDataLookup().getIndex());
             DataCellView cellp = data[getPreviousLiveDataIndex()];
             cellp.setPreviousLiveDataTrace(true);
             DataCellView cell = data[getLiveDataIndex()];
@@ -310,7 +283,10 @@ public class Table1DView extends TableView {
             getToolbar().setLiveDataValue(liveVal);
         }
         
-        table.getAxisParent().getTableView().updateLiveDataHighlight();
+        final Table axisParent = table.getAxisParent();
+        if (axisParent != null && axisParent.getTableView() != null) {
+            axisParent.getTableView().updateLiveDataHighlight();
+        }
     }
 
     public boolean isAxis() {
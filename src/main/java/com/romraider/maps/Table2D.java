@@ -61,6 +61,8 @@ public class Table2D extends Table {
         }
 
         Table2D compareTable2D = (Table2D) otherTable;
+        ensurePopulated();
+        compareTable2D.ensurePopulated();
         if(data.length != compareTable2D.data.length ||
                 axis.data.length != compareTable2D.axis.data.length) {
             return;
@@ -82,6 +84,30 @@ public class Table2D extends Table {
             super.populateTable(rom);
     }
 
+    @Override
+    public void validateStorage(Rom rom) throws IndexOutOfBoundsException {
+        axis.validateStorage(rom);
+        super.validateStorage(rom);
+    }
+
+    @Override
+    public void validatePopulation(Rom rom) throws IndexOutOfBoundsException {
+        axis.validateScaling();
+        super.validatePopulation(rom);
+    }
+
+    @Override
+    protected void deferPopulation(Rom rom, Table owner) {
+        super.deferPopulation(rom, owner);
+        axis.deferPopulation(rom, owner);
+    }
+
+    @Override
+    protected void cancelDeferredPopulation() {
+        super.cancelDeferredPopulation();
+        axis.cancelDeferredPopulation();
+    }
+
     @Override
     public void setRevertPoint() {
         super.setRevertPoint();
@@ -180,31 +206,36 @@ public class Table2D extends Table {
 
     @Override
     public void horizontalInterpolate() throws UserLevelException {
-        int[] coords = { getDataSize(), 0};
-        DataCell[] tableData = getData();
-        DataCell[] axisData = getAxis().getData();
-
-        for (int i = 0; i < getDataSize(); ++i) {
-            if (tableData[i].isSelected()) {
-                if (i < coords[0])
-                    coords[0] = i;
-                if (i > coords[1])
-                    coords[1] = i;
+        beginBulkEdit();
+        try {
+            int[] coords = { getDataSize(), 0};
+            DataCell[] tableData = getData();
+            DataCell[] axisData = getAxis().getData();
+
+            for (int i = 0; i < getDataSize(); ++i) {
+                if (tableData[i].isSelected()) {
+                    if (i < coords[0])
+                        coords[0] = i;
+                    if (i > coords[1])
+                        coords[1] = i;
+                }
             }
-        }
-        if (coords[1] - coords[0] > 1) {
-            double x, x1, x2, y1, y2;
-            x1 = axisData[coords[0]].getBinValue();
-            y1 = tableData[coords[0]].getBinValue();
-            x2 = axisData[coords[1]].getBinValue();
-            y2 = tableData[coords[1]].getBinValue();
-            for (int i = coords[0] + 1; i < coords[1]; ++i) {
-                x = axisData[i].getBinValue();
-                data[i].setBinValue(linearInterpolation(x, x1, x2, y1, y2));
+            if (coords[1] - coords[0] > 1) {
+                double x, x1, x2, y1, y2;
+                x1 = axisData[coords[0]].getBinValue();
+                y1 = tableData[coords[0]].getBinValue();
+                x2 = axisData[coords[1]].getBinValue();
+                y2 = tableData[coords[1]].getBinValue();
+                for (int i = coords[0] + 1; i < coords[1]; ++i) {
+                    x = axisData[i].getBinValue();
+                    data[i].setBinValue(linearInterpolation(x, x1, x2, y1, y2));
+                }
             }
+            // Interpolate x axis in case the x axis in selected.
+            this.getAxis().horizontalInterpolate();
+        } finally {
+            endBulkEdit();
         }
-        // Interpolate x axis in case the x axis in selected.
-        this.getAxis().horizontalInterpolate();
     }
 
     @Override
@@ -232,6 +263,8 @@ public class Table2D extends Table {
             }
 
             Table2D otherTable = (Table2D)other;
+            ensurePopulated();
+            otherTable.ensurePopulated();
 
             if( (null == this.getName() && null == otherTable.getName())
                     || (this.getName().isEmpty() && otherTable.getName().isEmpty()) ) {
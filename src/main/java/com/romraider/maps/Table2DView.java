@@ -256,6 +256,11 @@ public class Table2DView extends TableView {
         axis.clearLiveDataTrace();
     }
 
+    @Override
+    protected double[] getCellHitXAxis() {
+        return axis == null ? null : axis.getLiveDataLookup().getValues();
+    }
+
     @Override
     public void updateLiveDataHighlight() {
         if (getOverlayLog()) {
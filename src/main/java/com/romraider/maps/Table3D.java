@@ -94,6 +94,7 @@ public class Table3D extends Table {
 
     public void setSizeX(int size) {
         data = new DataCell[size][data[0].length];
+        columns = null;
     }
 
     public int getSizeX() {
@@ -102,6 +103,12 @@ public class Table3D extends Table {
 
     public void setSizeY(int size) {
         data = new DataCell[data.length][size];
+        columns = null;
+    }
+
+    @Override
+    protected int getColumnCount() {
+        return getSizeX() * getSizeY();
     }
 
     public int getSizeY() {
@@ -122,7 +129,6 @@ public class Table3D extends Table {
         for(DataCell[] column : data) {
             for(DataCell cell : column) {
                 cell.setTable(null);
-                cell.setRom(null);
             }
         }
 
@@ -136,6 +142,7 @@ public class Table3D extends Table {
 
     @Override
     public StringBuffer getTableAsString() {
+        ensurePopulated();
         StringBuffer output = new StringBuffer(Settings.BLANK);
 
         output.append(xAxis.getTableAsString());
@@ -186,7 +193,13 @@ public class Table3D extends Table {
         int offset = 0;
         int iMax = swapXY ? xAxis.getDataSize() : yAxis.getDataSize();
         int jMax = swapXY ? yAxis.getDataSize() : xAxis.getDataSize();
-        
+        DataCell[] cells = new DataCell[iMax * jMax];
+        this.rom = rom;
+        columns = new CellColumns(cells.length);
+        readValues(columns.bin);
+        System.arraycopy(columns.bin, 0, columns.original, 0, cells.length);
+        valueChanged();
+
         for (int i = 0; i < iMax; i++) {
             for (int j = 0; j < jMax; j++) {
 
@@ -197,8 +210,9 @@ public class Table3D extends Table {
                     x = y;
                     y = z;
                 }
-                DataCell c = new DataCell(this, offset, rom);
+                DataCell c = new DataCell(this, offset, i * jMax + j);
                 data[x][y] = c;
+                cells[i * jMax + j] = c;
                 
                 // If on last cell on row/column
                 if(j == jMax - 1)
@@ -211,6 +225,7 @@ public class Table3D extends Table {
                 }
             }
         }
+        rom.getCellIndex().add(cells);
 
         // reset locked status
         locked = tempLock;
@@ -220,6 +235,51 @@ public class Table3D extends Table {
         addScale(new Scale());
     }
 
+    @Override
+    public void validateStorage(Rom rom) throws IndexOutOfBoundsException {
+        xAxis.validateStorage(rom);
+        yAxis.validateStorage(rom);
+        super.validateStorage(rom);
+    }
+
+    @Override
+    public void validatePopulation(Rom rom) throws IndexOutOfBoundsException {
+        xAxis.validateScaling();
+        yAxis.validateScaling();
+        super.validatePopulation(rom);
+    }
+
+    @Override
+    protected int getStorageCellCount() {
+        int iMax = swapXY ? xAxis.getDataSize() : yAxis.getDataSize();
+        int jMax = swapXY ? yAxis.getDataSize() : xAxis.getDataSize();
+        return iMax * jMax + (iMax - 1) * skipCells;
+    }
+
+    @Override
+    protected int getRowLength() {
+        return swapXY ? yAxis.getDataSize() : xAxis.getDataSize();
+    }
+
+    @Override
+    protected int getRowSkip() {
+        return skipCells;
+    }
+
+    @Override
+    protected void deferPopulation(Rom rom, Table owner) {
+        super.deferPopulation(rom, owner);
+        xAxis.deferPopulation(rom, owner);
+        yAxis.deferPopulation(rom, owner);
+    }
+
+    @Override
+    protected void cancelDeferredPopulation() {
+        super.cancelDeferredPopulation();
+        xAxis.cancelDeferredPopulation();
+        yAxis.cancelDeferredPopulation();
+    }
+
     @Override
     public void calcCellRanges() {
         double binMax = data[0][0].getBinValue();
@@ -261,6 +321,8 @@ public class Table3D extends Table {
         }
 
         Table3D compareTable3D = (Table3D) otherTable;
+        ensurePopulated();
+        compareTable3D.ensurePopulated();
         if(data.length != compareTable3D.data.length ||
                 data[0].length != compareTable3D.data[0].length ||
                 xAxis.getDataSize() != compareTable3D.xAxis.getDataSize() ||
@@ -311,13 +373,18 @@ public class Table3D extends Table {
 
     @Override
     public void undoAll() throws UserLevelException {
-        for (int x = 0; x < this.getSizeX(); x++) {
-            for (int y = 0; y < this.getSizeY(); y++) {
-                data[x][y].undo();
+        beginBulkEdit();
+        try {
+            for (int x = 0; x < this.getSizeX(); x++) {
+                for (int y = 0; y < this.getSizeY(); y++) {
+                    data[x][y].undo();
+                }
             }
+            yAxis.undoAll();
+            xAxis.undoAll();
+        } finally {
+            endBulkEdit();
         }
-        yAxis.undoAll();
-        xAxis.undoAll();
     }
 
     @Override
@@ -331,6 +398,7 @@ public class Table3D extends Table {
     }
 
     public DataCell[][] get3dData() {
+        ensurePopulated();
         return data;
     }
 
@@ -423,111 +491,136 @@ public class Table3D extends Table {
 
     @Override
     public void increment(double increment) throws UserLevelException {
-            for (int x = 0; x < getSizeX(); x++) {
-                for (int y = 0; y < getSizeY(); y++) {
-                    if (data[x][y].isSelected()) {
-                        data[x][y].increment(increment);
+        beginBulkEdit();
+        try {
+                for (int x = 0; x < getSizeX(); x++) {
+                    for (int y = 0; y < getSizeY(); y++) {
+                        if (data[x][y].isSelected()) {
+                            data[x][y].increment(increment);
+                        }
                     }
                 }
-            }
+        } finally {
+            endBulkEdit();
+        }
     }
 
     @Override
     public void multiply(double factor) throws UserLevelException {
-            for (int x = 0; x < getSizeX(); x++) {
-                for (int y = 0; y < getSizeY(); y++) {
-                    if (data[x][y].isSelected()) {
-                            data[x][y].multiply(factor);
+        beginBulkEdit();
+        try {
+                for (int x = 0; x < getSizeX(); x++) {
+                    for (int y = 0; y < getSizeY(); y++) {
+                        if (data[x][y].isSelected()) {
+                                data[x][y].multiply(factor);
+                        }
                     }
                 }
-            }
+        } finally {
+            endBulkEdit();
+        }
     }
 
     @Override
     public void setRealValue(String realValue) throws UserLevelException {
-        for(DataCell[] column : data) {
-            for(DataCell cell : column) {
-                if(cell.isSelected()) {
-                    cell.setRealValue(realValue);
+        beginBulkEdit();
+        try {
+            for(DataCell[] column : data) {
+                for(DataCell cell : column) {
+                    if(cell.isSelected()) {
+                        cell.setRealValue(realValue);
+                    }
                 }
             }
+            xAxis.setRealValue(realValue);
+            yAxis.setRealValue(realValue);
+        } finally {
+            endBulkEdit();
         }
-        xAxis.setRealValue(realValue);
-        yAxis.setRealValue(realValue);
     }
 
     @Override
     public void verticalInterpolate() throws UserLevelException {
-        int[] coords = { getSizeX(), getSizeY(), 0, 0};
-        DataCell[][] tableData = get3dData();
-        DataCell[] axisData = getYAxis().getData();
-        int i, j;
-        for (i = 0; i < getSizeX(); ++i) {
-            for (j = 0; j < getSizeY(); ++j) {
-                if (tableData[i][j].isSelected()) {
-                    if (i < coords[0])
-                        coords[0] = i;
-                    if (i > coords[2])
-                        coords[2] = i;
-                    if (j < coords[1])
-                        coords[1] = j;
-                    if (j > coords[3])
-                        coords[3] = j;
+        beginBulkEdit();
+        try {
+            int[] coords = { getSizeX(), getSizeY(), 0, 0};
+            DataCell[][] tableData = get3dData();
+            DataCell[] axisData = getYAxis().getData();
+            int i, j;
+            for (i = 0; i < getSizeX(); ++i) {
+                for (j = 0; j < getSizeY(); ++j) {
+                    if (tableData[i][j].isSelected()) {
+                        if (i < coords[0])
+                            coords[0] = i;
+                        if (i > coords[2])
+                            coords[2] = i;
+                        if (j < coords[1])
+                            coords[1] = j;
+                        if (j > coords[3])
+                            coords[3] = j;
+                    }
                 }
             }
-        }
-        if (coords[3] - coords[1] > 1) {
-            double x, x1, x2, y1, y2;
-            x1 = axisData[coords[1]].getBinValue();
-            x2 = axisData[coords[3]].getBinValue();
-            for (i = coords[0]; i <= coords[2]; ++i) {
-                y1 = tableData[i][coords[1]].getBinValue();
-                y2 = tableData[i][coords[3]].getBinValue();
-                for (j = coords[1] + 1; j < coords[3]; ++j) {
-                    x = axisData[j].getBinValue();
-                    tableData[i][j].setBinValue(linearInterpolation(x, x1, x2, y1, y2));
+            if (coords[3] - coords[1] > 1) {
+                double x, x1, x2, y1, y2;
+                x1 = axisData[coords[1]].getBinValue();
+                x2 = axisData[coords[3]].getBinValue();
+                for (i = coords[0]; i <= coords[2]; ++i) {
+                    y1 = tableData[i][coords[1]].getBinValue();
+                    y2 = tableData[i][coords[3]].getBinValue();
+                    for (j = coords[1] + 1; j < coords[3]; ++j) {
+                        x = axisData[j].getBinValue();
+                        tableData[i][j].setBinValue(linearInterpolation(x, x1, x2, y1, y2));
+                    }
                 }
             }
+            // Interpolate y axis in case the y axis in selected.
+            getYAxis().verticalInterpolate();
+        } finally {
+            endBulkEdit();
         }
-        // Interpolate y axis in case the y axis in selected.
-        getYAxis().verticalInterpolate();
     }
 
     @Override
     public void horizontalInterpolate() throws UserLevelException {
-        int[] coords = { getSizeX(), getSizeY(), 0, 0 };
-        DataCell[][] tableData = get3dData();
-        DataCell[] axisData = getXAxis().getData();
-        int i, j;
-        for (i = 0; i < getSizeX(); ++i) {
-            for (j = 0; j < getSizeY(); ++j) {
-                if (tableData[i][j].isSelected()) {
-                    if (i < coords[0])
-                        coords[0] = i;
-                    if (i > coords[2])
-                        coords[2] = i;
-                    if (j < coords[1])
-                        coords[1] = j;
-                    if (j > coords[3])
-                        coords[3] = j;
+        beginBulkEdit();
+        try {
+            int[] coords = { getSizeX(), getSizeY(), 0, 0 };
+            DataCell[][] tableData = get3dData();
+            DataCell[] axisData = getXAxis().getData();
+            int i, j;
+            for (i = 0; i < getSizeX(); ++i) {
+                for (j = 0; j < getSizeY(); ++j) {
+                    if (tableData[i][j].isSelected()) {
+                        if (i < coords[0])
+                            coords[0] = i;
+                        if (i > coords[2])
+                            coords[2] = i;
+                        if (j < coords[1])
+                            coords[1] = j;
+                        if (j > coords[3])
+                            coords[3] = j;
+                    }
                 }
             }
-        }
-        if (coords[2] - coords[0] > 1) {
-            double x, x1, x2, y1, y2;
-            x1 = axisData[coords[0]].getBinValue();
-            x2 = axisData[coords[2]].getBinValue();
-            for (i = coords[1]; i <= coords[3]; ++i) {
-                y1 = tableData[coords[0]][i].getBinValue();
-                y2 = tableData[coords[2]][i].getBinValue();
-                for (j = coords[0] + 1; j < coords[2]; ++j) {
-                    x = axisData[j].getBinValue();
-                    tableData[j][i].setBinValue(linearInterpolation(x, x1, x2, y1, y2));
+            if (coords[2] - coords[0] > 1) {
+                double x, x1, x2, y1, y2;
+                x1 = axisData[coords[0]].getBinValue();
+                x2 = axisData[coords[2]].getBinValue();
+                for (i = coords[1]; i <= coords[3]; ++i) {
+                    y1 = tableData[coords[0]][i].getBinValue();
+                    y2 = tableData[coords[2]][i].getBinValue();
+                    for (j = coords[0] + 1; j < coords[2]; ++j) {
+                        x = axisData[j].getBinValue();
+                        tableData[j][i].setBinValue(linearInterpolation(x, x1, x2, y1, y2));
+                    }
                 }
             }
+            // Interpolate x axis in case the x axis in selected.
+            getXAxis().horizontalInterpolate();
+        } finally {
+            endBulkEdit();
         }
-        // Interpolate x axis in case the x axis in selected.
-        getXAxis().horizontalInterpolate();
     }
 
     @Override
@@ -561,6 +654,8 @@ public class Table3D extends Table {
             }
 
             Table3D otherTable = (Table3D)other;
+            ensurePopulated();
+            otherTable.ensurePopulated();
 
             if( (null == this.getName() && null == otherTable.getName())
                     || (this.getName().isEmpty() && otherTable.getName().isEmpty()) ) {
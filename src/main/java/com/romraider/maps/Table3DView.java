@@ -530,7 +530,7 @@ public class Table3DView extends TableView {
     }
 
     @Override
-    public void highlightLiveData(String liveValue) {
+    public void highlightLiveData(double value, String liveValue) {
         if (getOverlayLog()) {
             int x = xAxis.getLiveDataIndex();
             int y = yAxis.getLiveDataIndex();
@@ -541,6 +541,20 @@ public class Table3DView extends TableView {
         }
     }
 
+    @Override
+    protected double[] getCellHitXAxis() {
+        // both axes are needed to place a sample
+        if (getCellHitYAxis() == null) {
+            return null;
+        }
+        return xAxis.getLiveDataLookup().getValues();
+    }
+
+    @Override
+    protected double[] getCellHitYAxis() {
+        return yAxis.getLiveDataLookup().getValues();
+    }
+
     @Override
     public void updateLiveDataHighlight() {
         if (getOverlayLog()) {
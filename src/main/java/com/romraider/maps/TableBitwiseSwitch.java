@@ -44,13 +44,17 @@ public class TableBitwiseSwitch extends TableSwitch {
         }
 
         setDataSize(bits.size());
+        this.rom = rom;
+        columns = new CellColumns(data.length);
         int i = 0;
         for (int bit : bits) {
-            data[i] = new DataCell(this, 0, rom); //Offset is always 0
+            data[i] = new DataCell(this, 0, i); //Offset is always 0
             data[i].setBitMask(ByteUtil.bitToMask(bit));
             data[i].updateBinValueFromMemory();
+            data[i].setOriginalValue(data[i].getBinValue());
             i++;
         }
+        rom.getCellIndex().add(data);
 
         // reset locked status
         locked = tempLock;
@@ -59,6 +63,16 @@ public class TableBitwiseSwitch extends TableSwitch {
         //Add Raw Scale
         addScale(new Scale());
     }
+
+    @Override
+    protected int getStorageCellCount() {
+        return 1; //All bits share the first cell
+    }
+
+    @Override
+    protected boolean isBulkWritable() {
+        return false; //Each bit has its own mask
+    }
 	
     @Override
     public void clearData() {   
@@ -84,6 +84,9 @@ public abstract class TableView extends JPanel implements Serializable {
     protected String liveAxisValue = Settings.BLANK;
     protected int liveDataIndex = 0;
     protected int previousLiveDataIndex = 0;
+    private transient LiveDataLookup liveDataLookup;
+    private transient CellHitAccumulator cellHits;
+    protected boolean heatmap = false;
   
     protected Settings.CompareDisplay compareDisplay = Settings.CompareDisplay.ABSOLUTE;
 
@@ -763,7 +766,18 @@ public abstract class TableView extends JPanel implements Serializable {
         	return;
         }
         
-        paste(input);
+        // refresh aliased cells once the whole paste is written
+        final Rom rom = table.getRom();
+        if (rom == null) {
+            paste(input);
+            return;
+        }
+        rom.getCellIndex().beginBulkUpdate();
+        try {
+            paste(input);
+        } finally {
+            rom.getCellIndex().endBulkUpdate();
+        }
     }
     
     public void paste(String s) throws UserLevelException {
@@ -865,28 +879,24 @@ public abstract class TableView extends JPanel implements Serializable {
     
     
     public void highlightLiveData(String liveVal) {
-        if (getOverlayLog()) {
-            double liveValue = 0.0;
-            try {
-            	liveValue = NumberUtil.doubleValue(liveVal);
-            } catch (Exception ex) {
-            	LOGGER.error("Table - live data highlight parsing error for value: " + liveVal);
-            	return;
-            }
-
-            int startIdx = data.length;
-            for (int i = 0; i < data.length; i++) {
-                double currentValue = data[i].getDataCell().getRealValue();
-                if (liveValue == currentValue) {
-                    startIdx = i;
-                    break;
-                } else if (liveValue < currentValue){
-                    startIdx = i-1;
-                    break;
-                }
-            }
+        double liveValue = 0.0;
+        try {
+            liveValue = NumberUtil.doubleValue(liveVal);
+        } catch (Exception ex) {
+            LOGGER.error("Table - live data highlight parsing error for value: " + liveVal);
+            return;
+        }
+        highlightLiveData(liveValue, liveVal);
+    }
 
-            setLiveDataIndex(startIdx);
+    /**
+     * Mark the cell a logged value falls on.
+     * @param liveValue - the logged value
+     * @param liveVal - the logged value as displayed
+     */
+    public void highlightLiveData(double liveValue, String liveVal) {
+        if (getOverlayLog() && getLiveDataLookup().find(liveValue)) {
+            setLiveDataIndex(getLiveDataLookup().getIndex());
             DataCellView cell = data[getLiveDataIndex()];
             cell.setPreviousLiveDataTrace(false);
             cell.setLiveDataTrace(true);
@@ -895,6 +905,86 @@ public abstract class TableView extends JPanel implements Serializable {
         }
     }
 
+    /**
+     * @return the cell values of this view cached for live data lookups
+     */
+    protected LiveDataLookup getLiveDataLookup() {
+        if (liveDataLookup == null) {
+            liveDataLookup = new LiveDataLookup(this);
+        }
+        return liveDataLookup;
+    }
+
+    /**
+     * Start counting the logged samples that fall in each cell.
+     * @return the new accumulator or null if the table has no numeric axis
+     */
+    public CellHitAccumulator startCellHits() {
+        final double[] xValues = getCellHitXAxis();
+        if (xValues == null) {
+            return null;
+        }
+        cellHits = new CellHitAccumulator(xValues, getCellHitYAxis());
+        return cellHits;
+    }
+
+    public void stopCellHits() {
+        cellHits = null;
+        setHeatmap(false);
+    }
+
+    public CellHitAccumulator getCellHits() {
+        return cellHits;
+    }
+
+    /**
+     * Follow any change to the axes and redraw the heatmap, called
+     * periodically while cell hits are recorded.
+     */
+    public void updateCellHits() {
+        if (cellHits == null) {
+            return;
+        }
+        final double[] xValues = getCellHitXAxis();
+        if (xValues != null) {
+            cellHits.setAxes(xValues, getCellHitYAxis());
+        }
+        if (heatmap) {
+            drawTable();
+        }
+    }
+
+    /**
+     * Colour the cells by the number of logged samples in each instead
+     * of by their values.
+     */
+    public void setHeatmap(boolean heatmap) {
+        final boolean enabled = heatmap && cellHits != null;
+        if (this.heatmap != enabled) {
+            this.heatmap = enabled;
+            drawTable();
+        }
+    }
+
+    public boolean isHeatmap() {
+        return heatmap;
+    }
+
+    /**
+     * @return the breakpoints of the axis along the cells, null if the
+     * table has no numeric axis
+     */
+    protected double[] getCellHitXAxis() {
+        return null;
+    }
+
+    /**
+     * @return the breakpoints of the second axis, null for a 2D table
+     */
+    protected double[] getCellHitYAxis() {
+        return null;
+    }
+
     public void updateLiveDataHighlight() {
         if (getOverlayLog()) {
             data[getPreviousLiveDataIndex()].setPreviousLiveDataTrace(true);
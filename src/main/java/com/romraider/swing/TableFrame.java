@@ -23,27 +23,38 @@ import static javax.swing.BorderFactory.createBevelBorder;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
 import java.text.MessageFormat;
+import java.util.List;
 import java.util.ResourceBundle;
 import java.util.Vector;
 
 import javax.swing.Icon;
+import javax.swing.JFileChooser;
 import javax.swing.JInternalFrame;
 import javax.swing.JMenu;
 import javax.swing.JOptionPane;
 import javax.swing.JRadioButtonMenuItem;
+import javax.swing.Timer;
 import javax.swing.event.InternalFrameEvent;
 import javax.swing.event.InternalFrameListener;
 
 import com.romraider.Settings;
 import com.romraider.editor.ecu.ECUEditor;
 import com.romraider.editor.ecu.ECUEditorManager;
+import com.romraider.logger.ecu.definition.LoggerData;
+import com.romraider.logger.ecu.ui.handler.table.CellHitUpdateHandler;
 import com.romraider.logger.ecu.ui.handler.table.TableUpdateHandler;
+import com.romraider.maps.CellHitAccumulator;
 import com.romraider.maps.Rom;
 import com.romraider.maps.Table;
 import com.romraider.maps.TableView;
 import com.romraider.maps.UserLevelException;
 import com.romraider.util.ResourceUtil;
+import com.romraider.util.SettingsManager;
 
 public class TableFrame extends JInternalFrame implements InternalFrameListener, ActionListener {
 
@@ -52,6 +63,8 @@ public class TableFrame extends JInternalFrame implements InternalFrameListener,
             TableFrame.class.getName());
     private TableView tableView;
     private final TableMenuBar tableMenuBar;
+    private static final int CELL_HIT_REFRESH = 1000;
+    private Timer cellHitTimer;
 
     public TableFrame(String title, TableView tableView) {
         super(title, true, true);
@@ -106,7 +119,11 @@ public class TableFrame extends JInternalFrame implements InternalFrameListener,
     public void internalFrameOpened(InternalFrameEvent e) {}
 
     @Override
-    public void internalFrameClosed(InternalFrameEvent e) {}
+    public void internalFrameClosed(InternalFrameEvent e) {
+        if (cellHitTimer != null) {
+            stopCellHits();
+        }
+    }
     @Override
     public void internalFrameIconified(InternalFrameEvent e) {}
     @Override
@@ -216,6 +233,22 @@ public class TableFrame extends JInternalFrame implements InternalFrameListener,
 
         } else if (e.getSource() == menu.getHorizInterp()) {
         	getTable().horizontalInterpolate();
+
+        } else if (e.getSource() == menu.getCellHitRecord()) {
+            recordCellHits();
+
+        } else if (e.getSource() == menu.getCellHitStop()) {
+            stopCellHits();
+
+        } else if (e.getSource() == menu.getCellHitHeatmap()) {
+            getTableView().setHeatmap(menu.getCellHitHeatmap().isSelected());
+
+        } else if (e.getSource() == menu.getCellHitClear()) {
+            getTableView().getCellHits().clear();
+            getTableView().updateCellHits();
+
+        } else if (e.getSource() == menu.getCellHitExport()) {
+            exportCellHits();
         }
         }
         catch(UserLevelException ex) {
@@ -223,6 +256,97 @@ public class TableFrame extends JInternalFrame implements InternalFrameListener,
         }
     }
 
+    private void recordCellHits() {
+        final List<LoggerData> loggedData = CellHitUpdateHandler.getInstance().getLoggedData();
+        if (loggedData.isEmpty()) {
+            JOptionPane.showMessageDialog(getTableView(),
+                    rb.getString("CELLHITNOLOG"),
+                    rb.getString("CELLHITTITLE"),
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        final String[] names = new String[loggedData.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = loggedData.get(i).getName();
+        }
+        final Object selected = JOptionPane.showInputDialog(getTableView(),
+                rb.getString("CELLHITTARGET"),
+                rb.getString("CELLHITTITLE"),
+                JOptionPane.QUESTION_MESSAGE, null, names, names[0]);
+        if (selected == null) {
+            return;
+        }
+        String targetId = null;
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(selected)) {
+                targetId = loggedData.get(i).getId();
+                break;
+            }
+        }
+        final CellHitAccumulator hits = getTableView().startCellHits();
+        if (hits == null || !CellHitUpdateHandler.getInstance()
+                .startRecording(getTable(), hits, targetId)) {
+            getTableView().stopCellHits();
+            JOptionPane.showMessageDialog(getTableView(),
+                    MessageFormat.format(rb.getString("CELLHITNOAXIS"), getTable().getName()),
+                    rb.getString("CELLHITTITLE"),
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (cellHitTimer == null) {
+            cellHitTimer = new Timer(CELL_HIT_REFRESH, new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    getTableView().updateCellHits();
+                }
+            });
+            cellHitTimer.start();
+        }
+        getTableMenuBar().setCellHitRecording(true);
+    }
+
+    private void stopCellHits() {
+        if (cellHitTimer != null) {
+            cellHitTimer.stop();
+            cellHitTimer = null;
+        }
+        CellHitUpdateHandler.getInstance().stopRecording(getTable());
+        if (getTableView() != null) {
+            getTableView().stopCellHits();
+        }
+        getTableMenuBar().setCellHitRecording(false);
+    }
+
+    private void exportCellHits() {
+        final CellHitAccumulator hits = getTableView().getCellHits();
+        if (hits == null) {
+            return;
+        }
+        final JFileChooser fc = new JFileChooser(
+                SettingsManager.getSettings().getLoggerOutputDirPath());
+        fc.setSelectedFile(new File(getTable().getName() + "_hits.csv"));
+        if (fc.showSaveDialog(getTableView()) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        final File file = fc.getSelectedFile();
+        try {
+            final Writer out = new FileWriter(file);
+            try {
+                hits.writeCsv(out);
+            }
+            finally {
+                out.close();
+            }
+        }
+        catch (IOException ex) {
+            JOptionPane.showMessageDialog(getTableView(),
+                    MessageFormat.format(rb.getString("CELLHITEXPORTERR"),
+                            file.getName(), ex.getMessage()),
+                    rb.getString("CELLHITTITLE"),
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     public void compareByTable(Table selectedTable) {
     	Table t = getTable();
 
@@ -23,6 +23,7 @@ import java.text.MessageFormat;
 import java.util.ResourceBundle;
 
 import javax.swing.ButtonGroup;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
@@ -30,6 +31,7 @@ import javax.swing.JRadioButtonMenuItem;
 import javax.swing.JSeparator;
 
 import com.romraider.maps.Table;
+import com.romraider.maps.Table2D;
 import com.romraider.maps.Table3D;
 import com.romraider.util.ResourceUtil;
 
@@ -66,6 +68,12 @@ public class TableMenuBar extends JMenuBar {
     private JMenuItem horizInterp = new JMenuItem(rb.getString("HINTERP"));
     private JMenu viewMenu = new JMenu(rb.getString("VIEW"));
     private JMenuItem tableProperties = new JMenuItem(rb.getString("TBLPROP"));
+    private JMenu cellHitMenu = new JMenu(rb.getString("CELLHITS"));
+    private JMenuItem cellHitRecord = new JMenuItem(rb.getString("CELLHITREC"));
+    private JMenuItem cellHitStop = new JMenuItem(rb.getString("CELLHITSTOP"));
+    private JCheckBoxMenuItem cellHitHeatmap = new JCheckBoxMenuItem(rb.getString("CELLHITHEAT"));
+    private JMenuItem cellHitClear = new JMenuItem(rb.getString("CELLHITCLEAR"));
+    private JMenuItem cellHitExport = new JMenuItem(rb.getString("CELLHITEXPORT"));
 
     private ButtonGroup compareGroup;
     private ButtonGroup compareDisplayGroup;
@@ -150,10 +158,56 @@ public class TableMenuBar extends JMenuBar {
         fileMenu.setMnemonic('T');
 
         viewMenu.add(getTableProperties());
+        if (frame.getTable() instanceof Table2D || frame.getTable() instanceof Table3D) {
+            initCellHitMenu(frame);
+            viewMenu.add(new JSeparator());
+            viewMenu.add(cellHitMenu);
+        }
 
         this.add(viewMenu);
     }
 
+    private void initCellHitMenu(TableFrame frame) {
+        cellHitMenu.setToolTipText(rb.getString("CELLHITSTT"));
+        getCellHitRecord().setToolTipText(rb.getString("CELLHITRECTT"));
+        getCellHitHeatmap().setToolTipText(rb.getString("CELLHITHEATTT"));
+        getCellHitExport().setToolTipText(rb.getString("CELLHITEXPORTTT"));
+
+        cellHitMenu.add(getCellHitRecord());
+        cellHitMenu.add(getCellHitStop());
+        cellHitMenu.add(new JSeparator());
+        cellHitMenu.add(getCellHitHeatmap());
+        cellHitMenu.add(getCellHitClear());
+        cellHitMenu.add(getCellHitExport());
+
+        cellHitMenu.setMnemonic('H');
+        getCellHitRecord().setMnemonic('R');
+        getCellHitStop().setMnemonic('S');
+        getCellHitHeatmap().setMnemonic('H');
+        getCellHitClear().setMnemonic('C');
+        getCellHitExport().setMnemonic('E');
+
+        getCellHitRecord().addActionListener(frame);
+        getCellHitStop().addActionListener(frame);
+        getCellHitHeatmap().addActionListener(frame);
+        getCellHitClear().addActionListener(frame);
+        getCellHitExport().addActionListener(frame);
+        setCellHitRecording(false);
+    }
+
+    /**
+     * Enable the cell hit items that apply while recording, or not.
+     */
+    public void setCellHitRecording(boolean recording) {
+        getCellHitStop().setEnabled(recording);
+        getCellHitHeatmap().setEnabled(recording);
+        getCellHitClear().setEnabled(recording);
+        getCellHitExport().setEnabled(recording);
+        if (!recording) {
+            getCellHitHeatmap().setSelected(false);
+        }
+    }
+
     private void initCompareMenu(TableFrame frame) {
         getCompareOriginal().setToolTipText(rb.getString("COMPARETT"));
         getCompareMap().setToolTipText(rb.getString("COMPARETBLTT"));
@@ -252,6 +306,26 @@ public class TableMenuBar extends JMenuBar {
         return tableProperties;
     }
 
+    public JMenuItem getCellHitRecord() {
+        return cellHitRecord;
+    }
+
+    public JMenuItem getCellHitStop() {
+        return cellHitStop;
+    }
+
+    public JCheckBoxMenuItem getCellHitHeatmap() {
+        return cellHitHeatmap;
+    }
+
+    public JMenuItem getCellHitClear() {
+        return cellHitClear;
+    }
+
+    public JMenuItem getCellHitExport() {
+        return cellHitExport;
+    }
+
     public JMenuItem getCopySel() {
         return copySel;
     }
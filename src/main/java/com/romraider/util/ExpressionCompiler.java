@@ -0,0 +1,442 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles the JEP expression syntax used by definitions into a tree of
+ * nodes that is evaluated without locking, symbol table lookups or boxing.
+ * The supported subset is the arithmetic, comparison and logical operators,
+ * the JEP standard functions other than rand, binom and str, and the
+ * BitWise function.  Anything else is rejected with an
+ * IllegalArgumentException so the caller can fall back to JEP.
+ */
+public final class ExpressionCompiler {
+    private final String expression;
+    private final String[] variables;
+    private int pos;
+
+    private ExpressionCompiler(String expression, String[] variables) {
+        this.expression = expression;
+        this.variables = variables;
+    }
+
+    /**
+     * @param variables the variable names, their position is the index
+     * into the values passed to {@link CompiledExpression#evaluate(double[])}
+     * @throws IllegalArgumentException if the expression is not supported
+     */
+    public static CompiledExpression compile(String expression, String... variables) {
+        ParamChecker.checkNotNull(expression, "expression");
+        final ExpressionCompiler compiler = new ExpressionCompiler(expression, variables);
+        final Node root = compiler.parseOr();
+        compiler.skipSpace();
+        if (compiler.pos < expression.length()) {
+            throw compiler.error("Unexpected input");
+        }
+        return new Compiled(root);
+    }
+
+    private Node parseOr() {
+        Node left = parseAnd();
+        while (accept("||")) {
+            left = new Binary(Binary.OR, left, parseAnd());
+        }
+        return left;
+    }
+
+    private Node parseAnd() {
+        Node left = parseEquality();
+        while (accept("&&")) {
+            left = new Binary(Binary.AND, left, parseEquality());
+        }
+        return left;
+    }
+
+    private Node parseEquality() {
+        Node left = parseRelational();
+        while (true) {
+            if (accept("==")) left = new Binary(Binary.EQ, left, parseRelational());
+            else if (accept("!=")) left = new Binary(Binary.NE, left, parseRelational());
+            else return left;
+        }
+    }
+
+    private Node parseRelational() {
+        Node left = parseAdditive();
+        while (true) {
+            if (accept("<=")) left = new Binary(Binary.LE, left, parseAdditive());
+            else if (accept(">=")) left = new Binary(Binary.GE, left, parseAdditive());
+            else if (accept("<")) left = new Binary(Binary.LT, left, parseAdditive());
+            else if (accept(">")) left = new Binary(Binary.GT, left, parseAdditive());
+            else return left;
+        }
+    }
+
+    private Node parseAdditive() {
+        Node left = parseMultiplicative();
+        while (true) {
+            if (accept("+")) left = new Binary(Binary.ADD, left, parseMultiplicative());
+            else if (accept("-")) left = new Binary(Binary.SUB, left, parseMultiplicative());
+            else return left;
+        }
+    }
+
+    private Node parseMultiplicative() {
+        Node left = parseUnary();
+        while (true) {
+            if (accept("*")) left = new Binary(Binary.MUL, left, parseUnary());
+            else if (accept("/")) left = new Binary(Binary.DIV, left, parseUnary());
+            else if (accept("%")) left = new Binary(Binary.MOD, left, parseUnary());
+            else return left;
+        }
+    }
+
+    // as in JEP the power operator binds tighter than a unary sign, -x^2
+    // is -(x^2), and it is right associative with a signed exponent
+    private Node parseUnary() {
+        if (accept("+")) return parseUnary();
+        if (accept("-")) return new Unary(Unary.NEGATE, parseUnary());
+        if (peek() == '!' && peek(1) != '=') {
+            pos++;
+            return new Unary(Unary.NOT, parseUnary());
+        }
+        final Node base = parsePrimary();
+        if (accept("^")) {
+            return new Binary(Binary.POW, base, parseUnary());
+        }
+        return base;
+    }
+
+    private Node parsePrimary() {
+        skipSpace();
+        final char c = peek();
+        if (c == '(') {
+            pos++;
+            final Node node = parseOr();
+            expect(')');
+            return node;
+        }
+        if (Character.isDigit(c) || c == '.') {
+            return parseNumber();
+        }
+        if (Character.isLetter(c) || c == '_') {
+            final String name = parseName();
+            skipSpace();
+            if (peek() == '(') {
+                pos++;
+                return parseFunction(name);
+            }
+            for (int i = 0; i < variables.length; i++) {
+                if (variables[i].equals(name)) {
+                    return new Variable(i);
+                }
+            }
+            throw error("Unknown symbol " + name);
+        }
+        throw error("Unexpected character");
+    }
+
+    private Node parseNumber() {
+        final int start = pos;
+        while (Character.isDigit(peek())) pos++;
+        if (peek() == '.') {
+            pos++;
+            while (Character.isDigit(peek())) pos++;
+        }
+        if (peek() == 'e' || peek() == 'E') {
+            int exponent = pos + 1;
+            if (charAt(exponent) == '+' || charAt(exponent) == '-') exponent++;
+            if (Character.isDigit(charAt(exponent))) {
+                pos = exponent;
+                while (Character.isDigit(peek())) pos++;
+            }
+        }
+        final String number = expression.substring(start, pos);
+        if (number.equals(".")) throw error("Invalid number");
+        return new Constant(Double.parseDouble(number));
+    }
+
+    private String parseName() {
+        final int start = pos;
+        while (Character.isLetterOrDigit(peek()) || peek() == '_') pos++;
+        return expression.substring(start, pos);
+    }
+
+    private Node parseFunction(String name) {
+        final List<Node> args = new ArrayList<Node>();
+        skipSpace();
+        if (peek() != ')') {
+            do {
+                args.add(parseOr());
+            } while (accept(","));
+        }
+        expect(')');
+        final Node[] nodes = args.toArray(new Node[args.size()]);
+        if (name.equals("sum")) {
+            if (nodes.length == 0) throw error("sum requires parameters");
+            return new Function(Function.SUM, nodes);
+        }
+        final int code = Function.code(name);
+        if (code < 0) throw error("Unsupported function " + name);
+        if (nodes.length != Function.arity(code)) {
+            throw error("Function " + name + " requires " + Function.arity(code) + " parameters");
+        }
+        return new Function(code, nodes);
+    }
+
+    private boolean accept(String token) {
+        skipSpace();
+        if (expression.startsWith(token, pos)) {
+            pos += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        skipSpace();
+        if (peek() != c) throw error("Expected " + c);
+        pos++;
+    }
+
+    private void skipSpace() {
+        while (Character.isWhitespace(peek())) pos++;
+    }
+
+    private char peek() {
+        return charAt(pos);
+    }
+
+    private char peek(int offset) {
+        return charAt(pos + offset);
+    }
+
+    private char charAt(int index) {
+        return index < expression.length() ? expression.charAt(index) : '\0';
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(String.format(
+                "%s at position %d in expression: %s", message, pos, expression));
+    }
+
+    private static final class Compiled implements CompiledExpression {
+        private final Node root;
+
+        private Compiled(Node root) {
+            this.root = root;
+        }
+
+        @Override
+        public double evaluate(double x) {
+            return root.eval(x, null);
+        }
+
+        @Override
+        public double evaluate(double[] values) {
+            return root.eval(0.0, values);
+        }
+    }
+
+    // a single variable expression passes x and null values so evaluating
+    // it does not allocate
+    private abstract static class Node {
+        abstract double eval(double x, double[] values);
+    }
+
+    private static final class Constant extends Node {
+        private final double value;
+
+        private Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        double eval(double x, double[] values) {
+            return value;
+        }
+    }
+
+    private static final class Variable extends Node {
+        private final int index;
+
+        private Variable(int index) {
+            this.index = index;
+        }
+
+        @Override
+        double eval(double x, double[] values) {
+            return values == null ? x : values[index];
+        }
+    }
+
+    private static final class Unary extends Node {
+        private static final int NEGATE = 0;
+        private static final int NOT = 1;
+        private final int op;
+        private final Node operand;
+
+        private Unary(int op, Node operand) {
+            this.op = op;
+            this.operand = operand;
+        }
+
+        @Override
+        double eval(double x, double[] values) {
+            final double value = operand.eval(x, values);
+            return op == NEGATE ? -value : bool(value == 0.0);
+        }
+    }
+
+    private static final class Binary extends Node {
+        private static final int ADD = 0;
+        private static final int SUB = 1;
+        private static final int MUL = 2;
+        private static final int DIV = 3;
+        private static final int MOD = 4;
+        private static final int POW = 5;
+        private static final int LT = 6;
+        private static final int GT = 7;
+        private static final int LE = 8;
+        private static final int GE = 9;
+        private static final int EQ = 10;
+        private static final int NE = 11;
+        private static final int AND = 12;
+        private static final int OR = 13;
+        private final int op;
+        private final Node left;
+        private final Node right;
+
+        private Binary(int op, Node left, Node right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double eval(double x, double[] values) {
+            final double a = left.eval(x, values);
+            final double b = right.eval(x, values);
+            switch (op) {
+                case ADD: return a + b;
+                case SUB: return a - b;
+                case MUL: return a * b;
+                case DIV: return a / b;
+                case MOD: return a % b;
+                case POW: return Math.pow(a, b);
+                case LT:  return bool(a < b);
+                case GT:  return bool(a > b);
+                case LE:  return bool(a <= b);
+                case GE:  return bool(a >= b);
+                case EQ:  return bool(a == b);
+                case NE:  return bool(a != b);
+                case AND: return bool(a != 0.0 && b != 0.0);
+                default:  return bool(a != 0.0 || b != 0.0);
+            }
+        }
+    }
+
+    private static final class Function extends Node {
+        private static final String[] NAMES = {
+                "sin", "cos", "tan", "asin", "acos", "atan", "sinh", "cosh", "tanh",
+                "asinh", "acosh", "atanh", "ln", "log", "exp", "abs", "sqrt",
+                "atan2", "mod", "pow", "if", "BitWise" };
+        private static final int SUM = -1;
+        private static final int ATAN2 = 17;
+        private static final int BITWISE = 21;
+        private final int code;
+        private final Node[] args;
+
+        private Function(int code, Node[] args) {
+            this.code = code;
+            this.args = args;
+        }
+
+        private static int code(String name) {
+            for (int i = 0; i < NAMES.length; i++) {
+                if (NAMES[i].equals(name)) return i;
+            }
+            return -1;
+        }
+
+        private static int arity(int code) {
+            return code < ATAN2 ? 1 : code < BITWISE - 1 ? 2 : 3;
+        }
+
+        @Override
+        double eval(double x, double[] values) {
+            if (code == SUM) {
+                double sum = 0.0;
+                for (Node arg : args) sum += arg.eval(x, values);
+                return sum;
+            }
+            final double a = args[0].eval(x, values);
+            switch (code) {
+                case 0:  return Math.sin(a);
+                case 1:  return Math.cos(a);
+                case 2:  return Math.tan(a);
+                case 3:  return Math.asin(a);
+                case 4:  return Math.acos(a);
+                case 5:  return Math.atan(a);
+                case 6:  return Math.sinh(a);
+                case 7:  return Math.cosh(a);
+                case 8:  return Math.tanh(a);
+                case 9:  return Math.log(a + Math.sqrt(a * a + 1.0));
+                case 10: return Math.log(a + Math.sqrt(a * a - 1.0));
+                case 11: return 0.5 * Math.log((1.0 + a) / (1.0 - a));
+                case 12: return Math.log(a);
+                // JEP goes complex for log(0), where ln(0) is -Infinity
+                case 13: return a > 0.0 ? Math.log10(a) : Double.NaN;
+                case 14: return Math.exp(a);
+                case 15: return Math.abs(a);
+                case 16: return Math.sqrt(a);
+                case ATAN2: return Math.atan2(a, args[1].eval(x, values));
+                case 18: return a % args[1].eval(x, values);
+                case 19: return Math.pow(a, args[1].eval(x, values));
+                case 20: return a > 0.0
+                        ? args[1].eval(x, values) : args[2].eval(x, values);
+                default: return bitWise(a, args[1].eval(x, values), args[2].eval(x, values));
+            }
+        }
+
+        // same int conversions as the BitWise JEP function
+        private static double bitWise(double mask, double variable, double operation) {
+            final int m = (int) mask;
+            final int v = (int) variable;
+            switch ((int) operation) {
+                case 1:  return v & m;
+                case 2:  return v | m;
+                case 3:  return v ^ m;
+                case 4:  return v << m;
+                case 5:  return v >> m;
+                case 6:  return v >>> m;
+                case 7:  return ~v;
+                default: return 0.0;
+            }
+        }
+    }
+
+    private static double bool(boolean value) {
+        return value ? 1.0 : 0.0;
+    }
+}
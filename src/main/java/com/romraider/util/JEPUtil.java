@@ -19,13 +19,20 @@
 
 package com.romraider.util;
 
+import org.apache.log4j.Logger;
 import org.nfunk.jep.JEP;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.LinkedHashMap;
 
 public final class JEPUtil {
+    private static final Logger LOGGER = Logger.getLogger(JEPUtil.class);
+    // inputs the compiled form must reproduce JEP's result for
+    private static final double[] SAMPLES = {
+            0.0, 1.0, -1.0, 0.5, 2.0, 3.0, 7.25, -12.5, 100.0, 127.0,
+            128.0, 255.0, 256.0, 1000.0, 32767.0, 65535.0 };
     @SuppressWarnings("serial")
     static class LRUCache<K, V> extends LinkedHashMap<K, V> {
         private int cacheSize;
@@ -44,7 +51,108 @@ public final class JEPUtil {
     private static final Map<String, JEP> parserCache =
     		Collections.synchronizedMap(new LRUCache<String, JEP>(32));
 
-    public static synchronized double evaluate(String expression, double value) {
+    // compiled forms are kept on the convertors, this only spares callers
+    // of evaluate(String, double) from recompiling the expressions in use
+    private static final Map<String, CompiledExpression> compiledCache =
+            Collections.synchronizedMap(new LRUCache<String, CompiledExpression>(128));
+
+    /**
+     * Evaluate a single variable expression in x, using the compiled form
+     * when the expression supports it.
+     */
+    public static double evaluate(String expression, double value) {
+        return compile(expression).evaluate(value);
+    }
+
+    /**
+     * @return the expression in x compiled by {@link ExpressionCompiler},
+     * or evaluated by JEP if it uses syntax the compiler does not support or
+     * the compiled form does not give the same results as JEP
+     */
+    public static CompiledExpression compile(final String expression) {
+        CompiledExpression compiled = compiledCache.get(expression);
+        if (compiled == null) {
+            try {
+                compiled = ExpressionCompiler.compile(expression, "x");
+                for (double sample : SAMPLES) {
+                    if (!same(compiled.evaluate(sample), evaluateJep(expression, sample))) {
+                        throw new IllegalArgumentException(
+                                "Compiled result differs from JEP for x = " + sample);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                if (LOGGER.isDebugEnabled())
+                    LOGGER.debug("Using JEP to evaluate: " + e.getMessage());
+                compiled = new CompiledExpression() {
+                    @Override
+                    public double evaluate(double x) {
+                        return evaluateJep(expression, x);
+                    }
+
+                    @Override
+                    public double evaluate(double[] values) {
+                        return evaluateJep(expression, values[0]);
+                    }
+                };
+            }
+            compiledCache.put(expression, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * @param variables the variable names in the order of the values passed
+     * to {@link CompiledExpression#evaluate(double[])}
+     * @return the expression compiled by {@link ExpressionCompiler}, or
+     * evaluated by JEP as {@link #evaluate(String, Map)} does if it uses
+     * syntax the compiler does not support or the compiled form does not
+     * give the same results as JEP
+     */
+    public static CompiledExpression compile(final String expression, final String[] variables) {
+        try {
+            final CompiledExpression compiled = ExpressionCompiler.compile(expression, variables);
+            final double[] values = new double[variables.length];
+            for (int i = 0; i < SAMPLES.length; i++) {
+                final Map<String, Double> valueMap = new HashMap<String, Double>();
+                for (int j = 0; j < values.length; j++) {
+                    values[j] = SAMPLES[(i + j) % SAMPLES.length];
+                    valueMap.put(variables[j], values[j]);
+                }
+                if (!same(compiled.evaluate(values), evaluate(expression, valueMap))) {
+                    throw new IllegalArgumentException(
+                            "Compiled result differs from JEP for sample " + i);
+                }
+            }
+            return compiled;
+        } catch (IllegalArgumentException e) {
+            if (LOGGER.isDebugEnabled())
+                LOGGER.debug("Using JEP to evaluate: " + e.getMessage());
+            return new CompiledExpression() {
+                @Override
+                public double evaluate(double x) {
+                    return evaluate(new double[] {x});
+                }
+
+                @Override
+                public double evaluate(double[] values) {
+                    final Map<String, Double> valueMap = new HashMap<String, Double>();
+                    for (int i = 0; i < variables.length; i++) {
+                        valueMap.put(variables[i], values[i]);
+                    }
+                    return JEPUtil.evaluate(expression, valueMap);
+                }
+            };
+        }
+    }
+
+    static boolean same(double a, double b) {
+        if (Double.isNaN(a) || Double.isNaN(b)) {
+            return Double.isNaN(a) && Double.isNaN(b);
+        }
+        return a == b || Math.abs(a - b) <= 1e-9 * Math.max(1.0, Math.abs(a));
+    }
+
+    private static synchronized double evaluateJep(String expression, double value) {
         JEP parser = parserCache.get(expression);
         if (parser == null) {
             parser = new JEP();
@@ -0,0 +1,228 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.util;
+
+import static com.romraider.util.ParamChecker.checkGreaterThanZero;
+import static com.romraider.util.ParamChecker.checkNotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free ring buffer for exactly one producer thread and one
+ * consumer thread.  When the buffer is full the producer applies the
+ * configured {@link OverflowPolicy}.  A consumer blocked in
+ * {@link #take(long)} is parked and unparked by the producer on the next
+ * {@link #offer(Object)}.  Elements discarded by the overflow policy can be
+ * handed to a {@link DropListener}, e.g. to return them to a pool.  Once the
+ * consumer stops it {@link #close() closes} the buffer, after which offers
+ * are refused rather than left waiting for room that never comes.
+ */
+public final class RingBuffer<E> {
+    public enum OverflowPolicy {
+        /** discard the oldest queued element to make room */
+        DROP_OLDEST,
+        /** discard every queued element, only the newest is kept */
+        COALESCE_LATEST,
+        /** park the producer until the consumer makes room */
+        BLOCK
+    }
+
+    /**
+     * Receives the elements discarded by the overflow policy, called on the
+     * producer thread.
+     */
+    public interface DropListener<E> {
+        void dropped(E element);
+    }
+
+    private static final long MAX_PARK_NANOS = 1000000L;
+    private final AtomicReferenceArray<E> slots;
+    private final int capacity;
+    private final int mask;
+    private final OverflowPolicy policy;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile Thread waitingProducer;
+    private volatile Thread waitingConsumer;
+    private volatile boolean closed;
+    private volatile DropListener<? super E> dropListener;
+
+    public RingBuffer(int capacity, OverflowPolicy policy) {
+        checkGreaterThanZero(capacity, "capacity");
+        checkNotNull(policy, "policy");
+        this.capacity = Integer.highestOneBit(capacity) == capacity
+                ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.mask = this.capacity - 1;
+        this.policy = policy;
+        slots = new AtomicReferenceArray<E>(this.capacity);
+    }
+
+    /**
+     * Add an element, producer thread only.
+     * @return false if the element was not queued because the buffer is
+     * closed, or the producer was interrupted while blocked waiting for room
+     */
+    public boolean offer(E element) {
+        checkNotNull(element, "element");
+        if (closed) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        final long t = tail.get();
+        long h;
+        while (t - (h = head.get()) >= capacity) {
+            switch (policy) {
+                case BLOCK:
+                    waitingProducer = Thread.currentThread();
+                    if (t - head.get() >= capacity && !closed) {
+                        LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                    }
+                    waitingProducer = null;
+                    if (closed || Thread.interrupted()) {
+                        dropped.incrementAndGet();
+                        return false;
+                    }
+                    break;
+                case COALESCE_LATEST:
+                    if (head.compareAndSet(h, t)) {
+                        dropped.addAndGet(t - h);
+                        for (long i = h; i < t; i++) {
+                            notifyDropped(i);
+                        }
+                    }
+                    break;
+                default:
+                    if (head.compareAndSet(h, h + 1)) {
+                        dropped.incrementAndGet();
+                        notifyDropped(h);
+                    }
+                    break;
+            }
+        }
+        slots.lazySet((int) t & mask, element);
+        tail.set(t + 1);
+        enqueued.incrementAndGet();
+        final Thread consumer = waitingConsumer;
+        if (consumer != null) LockSupport.unpark(consumer);
+        return true;
+    }
+
+    /**
+     * Remove the oldest element, consumer thread only.
+     * @return the element or null if the buffer is empty
+     */
+    public E poll() {
+        while (true) {
+            final long h = head.get();
+            if (h >= tail.get()) return null;
+            final int index = (int) h & mask;
+            final E element = slots.get(index);
+            // the producer may have dropped this slot while it was read
+            if (head.compareAndSet(h, h + 1)) {
+                // release the element, unless the producer has already
+                // refilled the slot since head moved on
+                slots.compareAndSet(index, element, null);
+                final Thread producer = waitingProducer;
+                if (producer != null) LockSupport.unpark(producer);
+                return element;
+            }
+        }
+    }
+
+    /**
+     * Remove the oldest element, parking the consumer thread for up to
+     * maxWaitNanos while the buffer is empty.
+     * @return the element or null if none arrived in time
+     */
+    public E take(long maxWaitNanos) {
+        E element = poll();
+        if (element != null) return element;
+        waitingConsumer = Thread.currentThread();
+        try {
+            element = poll();
+            if (element == null) {
+                LockSupport.parkNanos(this, maxWaitNanos);
+                element = poll();
+            }
+        } finally {
+            waitingConsumer = null;
+        }
+        return element;
+    }
+
+    /**
+     * Unpark a consumer waiting in {@link #take(long)}.
+     */
+    public void wakeConsumer() {
+        final Thread consumer = waitingConsumer;
+        if (consumer != null) LockSupport.unpark(consumer);
+    }
+
+    /**
+     * Refuse further elements and release a producer blocked waiting for
+     * room, called when the consumer stops.  Queued elements can still be
+     * polled.
+     */
+    public void close() {
+        closed = true;
+        final Thread producer = waitingProducer;
+        if (producer != null) LockSupport.unpark(producer);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void setDropListener(DropListener<? super E> listener) {
+        this.dropListener = listener;
+    }
+
+    // once head has moved past a slot only the producer writes it again
+    private void notifyDropped(long index) {
+        final DropListener<? super E> listener = dropListener;
+        if (listener != null) {
+            listener.dropped(slots.get((int) index & mask));
+        }
+    }
+
+    public int size() {
+        return (int) Math.max(0L, tail.get() - head.get());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
@@ -61,6 +61,14 @@ public class SettingsManager {
         return settings;
     }
 
+    /**
+     * @return the directory the settings file is kept in
+     */
+    public static String getSettingsDir() {
+        getSettings();
+        return settingsDir;
+    }
+
     public static void setTesting(boolean b) {
     	testing = b;
     }
@@ -99,9 +107,11 @@ public class SettingsManager {
                 throw new FileNotFoundException("file length is 0");
             }
         } catch (FileNotFoundException e) {
-            showMessageDialog(null,
-                    rb.getString("FNF"),
-                    rb.getString("ERROR"), INFORMATION_MESSAGE);
+            if (!testing) {
+                showMessageDialog(null,
+                        rb.getString("FNF"),
+                        rb.getString("ERROR"), INFORMATION_MESSAGE);
+            }
             loadedSettings = new Settings();
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -0,0 +1,128 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.util.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock free histogram of durations in nanoseconds. Values are counted
+ * in buckets 1/16th of a power of 2 wide, so a percentile is within
+ * about 6% of the recorded value, from a few nanoseconds to minutes.
+ */
+public final class Histogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    Histogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Count one duration.
+     * @param nanos - the duration, negative values count as 0
+     */
+    public void record(long nanos) {
+        if (nanos < 0L) nanos = 0L;
+        buckets.incrementAndGet(indexOf(nanos));
+        total.addAndGet(nanos);
+        long current = max.get();
+        while (nanos > current && !max.compareAndSet(current, nanos)) {
+            current = max.get();
+        }
+    }
+
+    public long getCount() {
+        long count = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return the sum of all recorded durations in nanoseconds
+     */
+    public long getTotal() {
+        return total.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        final long n = getCount();
+        return n == 0L ? 0.0 : (double) total.get() / n;
+    }
+
+    /**
+     * @param fraction - the percentile from 0.0 to 1.0, e.g. 0.99
+     * @return the upper end of the bucket the percentile falls in,
+     * never more than the largest value recorded
+     */
+    public long getPercentile(double fraction) {
+        final long n = getCount();
+        if (n == 0L) return 0L;
+        final long rank = Math.max(1L, (long) Math.ceil(fraction * n));
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(highestOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0L);
+        }
+        total.set(0L);
+        max.set(0L);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    static long lowestOf(int index) {
+        if (index < SUB_COUNT) return index;
+        final int exponent = index / SUB_COUNT + SUB_BITS - 1;
+        return (long) (SUB_COUNT + index % SUB_COUNT) << (exponent - SUB_BITS);
+    }
+
+    static long highestOf(int index) {
+        return index == BUCKETS - 1 ? Long.MAX_VALUE : lowestOf(index + 1) - 1L;
+    }
+}
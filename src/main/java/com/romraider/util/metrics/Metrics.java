@@ -0,0 +1,157 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.util.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The timings and counters taken on the logger hot path. The fixed
+ * metrics are fields so recording one is a couple of atomic adds, per
+ * handler dispatch histograms are looked up once by name and kept by
+ * the caller.
+ */
+public final class Metrics {
+    private static final Map<String, Histogram> histograms =
+            new LinkedHashMap<String, Histogram>();
+    private static final Map<String, Counter> counters =
+            new LinkedHashMap<String, Counter>();
+
+    /** building the request bytes for the queries of one poll */
+    public static final Histogram REQUEST_BUILD = histogram("Request build");
+    /** one request written and its response read, including bus idle time */
+    public static final Histogram BUS_ROUND_TRIP = histogram("Bus round trip");
+    /** checking and splitting a response to its queries, including conversion */
+    public static final Histogram RESPONSE_DECODE = histogram("Response decode");
+    /** converting the raw value of one parameter */
+    public static final Histogram CONVERSION = histogram("Conversion");
+    /** writing one row to the log file */
+    public static final Histogram FILE_WRITE = histogram("File write");
+    public static final Counter TIMEOUTS = counter("Timeouts");
+    public static final Counter BAD_CHECKSUMS = counter("Bad checksums");
+    /** fast poll responses replaced by the last good one */
+    public static final Counter LAST_RESPONSE = counter("Last response substitutions");
+    private static final String DISPATCH = "Dispatch ";
+    private static final double MICROS = 1000.0;
+
+    private Metrics() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param name - the histogram name
+     * @return the histogram of that name, created when first asked for
+     */
+    public static Histogram histogram(String name) {
+        synchronized (histograms) {
+            Histogram histogram = histograms.get(name);
+            if (histogram == null) {
+                histogram = new Histogram(name);
+                histograms.put(name, histogram);
+            }
+            return histogram;
+        }
+    }
+
+    /**
+     * @param name - the counter name
+     * @return the counter of that name, created when first asked for
+     */
+    public static Counter counter(String name) {
+        synchronized (counters) {
+            Counter counter = counters.get(name);
+            if (counter == null) {
+                counter = new Counter(name);
+                counters.put(name, counter);
+            }
+            return counter;
+        }
+    }
+
+    /**
+     * @param handler - the data update handler
+     * @return the histogram of the time spent in its handleDataUpdate
+     */
+    public static Histogram dispatch(Object handler) {
+        return histogram(DISPATCH + handler.getClass().getSimpleName());
+    }
+
+    public static List<Histogram> getHistograms() {
+        synchronized (histograms) {
+            return new ArrayList<Histogram>(histograms.values());
+        }
+    }
+
+    public static List<Counter> getCounters() {
+        synchronized (counters) {
+            return new ArrayList<Counter>(counters.values());
+        }
+    }
+
+    /**
+     * Clear every metric, done at the start of each logging session.
+     */
+    public static void reset() {
+        for (Histogram histogram : getHistograms()) {
+            histogram.reset();
+        }
+        for (Counter counter : getCounters()) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * @return the part of the time spent polling that was spent waiting
+     * on the bus, from 0.0 to 1.0. Close to 1 the session is bus bound,
+     * a low share means the CPU side is holding up the poll.
+     */
+    public static double getBusShare() {
+        final long bus = BUS_ROUND_TRIP.getTotal();
+        final long all = bus + REQUEST_BUILD.getTotal() + RESPONSE_DECODE.getTotal();
+        return all == 0L ? 0.0 : (double) bus / all;
+    }
+
+    /**
+     * @return every metric as a fixed width text table, times in microseconds
+     */
+    public static String format() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-32s %10s %10s %10s %10s %10s %10s%n",
+                "Timing (us)", "Count", "Mean", "p50", "p90", "p99", "Max"));
+        for (Histogram histogram : getHistograms()) {
+            sb.append(String.format("%-32s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    histogram.getName(),
+                    histogram.getCount(),
+                    histogram.getMean() / MICROS,
+                    histogram.getPercentile(0.5) / MICROS,
+                    histogram.getPercentile(0.9) / MICROS,
+                    histogram.getPercentile(0.99) / MICROS,
+                    histogram.getMax() / MICROS));
+        }
+        for (Counter counter : getCounters()) {
+            sb.append(String.format("%-32s %10d%n", counter.getName(), counter.get()));
+        }
+        sb.append(String.format("%-32s %9.1f%%%n", "Bus share of poll time",
+                getBusShare() * 100.0));
+        return sb.toString();
+    }
+}
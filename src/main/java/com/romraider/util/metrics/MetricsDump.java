@@ -0,0 +1,111 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.util.metrics;
+
+import static org.apache.log4j.Logger.getLogger;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Date;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Appends {@link Metrics#format()} to a file at a fixed interval from a
+ * daemon thread, and once more when stopped, so a session can be looked
+ * at afterwards.
+ */
+public final class MetricsDump implements Runnable {
+    private static final Logger LOGGER = getLogger(MetricsDump.class);
+    private final File file;
+    private final long interval;
+    private Thread thread;
+    private volatile boolean stop;
+
+    /**
+     * @param file - the file to append to
+     * @param interval - milliseconds between dumps
+     */
+    public MetricsDump(File file, long interval) {
+        this.file = file;
+        this.interval = interval;
+    }
+
+    public synchronized void start() {
+        if (thread != null) return;
+        stop = false;
+        thread = new Thread(this, "Metrics Dump");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        final Thread running;
+        synchronized (this) {
+            running = thread;
+            thread = null;
+            stop = true;
+            notifyAll();
+        }
+        if (running == null) return;
+        try {
+            running.join(interval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        LOGGER.info("Writing logger metrics to " + file.getAbsolutePath());
+        while (!stop) {
+            synchronized (this) {
+                try {
+                    if (!stop) wait(interval);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+            write();
+        }
+    }
+
+    private void write() {
+        Writer writer = null;
+        try {
+            writer = new FileWriter(file, true);
+            writer.write(String.format("%s%n", new Date()));
+            writer.write(Metrics.format());
+            writer.write(String.format("%n"));
+        } catch (IOException e) {
+            LOGGER.warn("Error writing logger metrics: " + e.getMessage());
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    LOGGER.warn("Error closing logger metrics file: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
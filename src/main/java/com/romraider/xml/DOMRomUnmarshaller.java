@@ -58,6 +58,50 @@ public final class DOMRomUnmarshaller {
         return n;
     }
 
+    /**
+     * Check the rom found by a {@link DefinitionIndex}, searching the whole
+     * definition if the file no longer agrees with the index.
+     * @param romIndex - the position of the rom among the rom elements
+     */
+    public Node checkDefinitionMatch(Node rootNode, int romIndex, byte[] input){
+        int count = 0;
+        NodeList nodes = rootNode.getChildNodes();
+
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Node n = nodes.item(i);
+
+            if (n.getNodeType() == ELEMENT_NODE
+                    && n.getNodeName().equalsIgnoreCase("rom")) {
+                if (count++ == romIndex) {
+                    RomID romId = findRomID(n);
+                    if (romId != null && romId.checkMatch(input)) {
+                        return n;
+                    }
+                    break;
+                }
+            }
+        }
+
+        LOGGER.warn("Definition index out of date, searching all roms");
+        return checkDefinitionMatch(rootNode, input);
+    }
+
+    // the first romid of a rom, null if it has none
+    private RomID findRomID(Node romNode) {
+        NodeList nodes = romNode.getChildNodes();
+
+        for (int z = 0; z < nodes.getLength(); z++) {
+            Node n = nodes.item(z);
+
+            if (n.getNodeType() == ELEMENT_NODE
+                    && n.getNodeName().equalsIgnoreCase("romid")) {
+                return unmarshallRomID(n, new RomID());
+            }
+        }
+
+        return null;
+    }
+
     public Rom unmarshallXMLDefinition(File definition, Node rootNode, Node romNode, byte[] input,
             JProgressPane progress) throws
             XMLParseException, StackOverflowError, Exception {
@@ -106,30 +150,17 @@ public final class DOMRomUnmarshaller {
 
             if (n.getNodeType() == ELEMENT_NODE
                     && n.getNodeName().equalsIgnoreCase("rom")) {
-                Node n2;
-                NodeList nodes2 = n.getChildNodes();
+                RomID romId = findRomID(n);
+                if (romId == null) continue;
 
-                for (int z = 0; z < nodes2.getLength(); z++) {
-                    n2 = nodes2.item(z);
-
-                    if (n2.getNodeType() == ELEMENT_NODE
-                            && n2.getNodeName().equalsIgnoreCase("romid")) {
-
-                        RomID romId = new RomID();
-                        romId = unmarshallRomID(n2, romId);
-
-                        //Check if bytes match in file
-                        if(input != null && romId.checkMatch(input)) {
-                            return n;
-                        }
-
-                        //Check if the ID matches
-                        else if(xmlID != null && romId.getXmlid().equalsIgnoreCase(xmlID)) {
-                            return n;
-                        }
+                //Check if bytes match in file
+                if(input != null && romId.checkMatch(input)) {
+                    return n;
+                }
 
-                        break;
-                    }
+                //Check if the ID matches
+                else if(xmlID != null && romId.getXmlid().equalsIgnoreCase(xmlID)) {
+                    return n;
                 }
             }
         }
@@ -196,6 +196,11 @@ public final class DOMSettingsBuilder {
         saveDebugTables.setAttribute("value", String.valueOf(settings.isSaveDebugTables()));
         options.appendChild(saveDebugTables);
 
+        // when table cells are decoded
+        IIOMetadataNode tablePopulation = new IIOMetadataNode("tablepopulation");
+        tablePopulation.setAttribute("value", settings.getTablePopulation().name());
+        options.appendChild(tablePopulation);
+
         // display tables higher than userlevel
         IIOMetadataNode displayHighTables = new IIOMetadataNode("displayhightables");
         displayHighTables.setAttribute("value", String.valueOf(settings.isDisplayHighTables()));
@@ -345,8 +350,23 @@ public final class DOMSettingsBuilder {
         protocol.setAttribute("module", settings.getTargetModule());
         protocol.setAttribute("fastpoll", String.valueOf(settings.isFastPoll()));
         protocol.setAttribute("library", validateAttr(settings.getJ2534Device()));
+        protocol.setAttribute("parallelprobe", String.valueOf(settings.isLoggerParallelProbe()));
         loggerSettings.appendChild(protocol);
 
+        // transport each ECU last answered on
+        Map<String, String> ecuTransports = settings.getLoggerEcuTransports();
+        if (!ecuTransports.isEmpty()) {
+            IIOMetadataNode transports = new IIOMetadataNode("transports");
+            transports.setAttribute("last", validateAttr(settings.getLoggerLastEcuId()));
+            for (Map.Entry<String, String> entry : ecuTransports.entrySet()) {
+                IIOMetadataNode transport = new IIOMetadataNode("transport");
+                transport.setAttribute("ecuid", entry.getKey());
+                transport.setAttribute("library", entry.getValue());
+                transports.appendChild(transport);
+            }
+            loggerSettings.appendChild(transports);
+        }
+
         // window maximized
         IIOMetadataNode maximized = new IIOMetadataNode("maximized");
         maximized.setAttribute("value", String.valueOf((settings.isLoggerWindowMaximized())));
@@ -387,13 +407,30 @@ public final class DOMSettingsBuilder {
         filelogging.setAttribute("switchid", settings.getFileLoggingControllerSwitchId());
         filelogging.setAttribute("active", String.valueOf(settings.isFileLoggingControllerSwitchActive()));
         filelogging.setAttribute("absolutetimestamp", String.valueOf(settings.isFileLoggingAbsoluteTimestamp()));
+        filelogging.setAttribute("binary", String.valueOf(settings.isFileLoggingBinary()));
+        filelogging.setAttribute("queuesize", String.valueOf(settings.getFileLoggingQueueSize()));
+        filelogging.setAttribute("commitrows", String.valueOf(settings.getFileLoggingCommitRows()));
+        filelogging.setAttribute("commitinterval", String.valueOf(settings.getFileLoggingCommitInterval()));
+        filelogging.setAttribute("sync", settings.getFileLoggingSyncPolicy().name());
+        filelogging.setAttribute("rotatesize", String.valueOf(settings.getFileLoggingRotateSize()));
+        filelogging.setAttribute("rotateminutes", String.valueOf(settings.getFileLoggingRotateMinutes()));
+        filelogging.setAttribute("compress", String.valueOf(settings.isFileLoggingCompress()));
         loggerSettings.appendChild(filelogging);
 
         // debug level
         IIOMetadataNode debug = new IIOMetadataNode("debug");
         debug.setAttribute("level", settings.getLoggerDebuggingLevel());
+        debug.setAttribute("metrics", String.valueOf(settings.isLoggerMetricsFile()));
         loggerSettings.appendChild(debug);
 
+        // data update queue
+        IIOMetadataNode dataUpdate = new IIOMetadataNode("dataupdate");
+        dataUpdate.setAttribute("queuesize", String.valueOf(settings.getLoggerUpdateQueueSize()));
+        dataUpdate.setAttribute("overflow", settings.getLoggerUpdateOverflowPolicy().name());
+        dataUpdate.setAttribute("displayrate", String.valueOf(settings.getLoggerDisplayRefreshRate()));
+        dataUpdate.setAttribute("autorate", String.valueOf(settings.isLoggerAutoSampleRate()));
+        loggerSettings.appendChild(dataUpdate);
+
         // plugin ports
         Map<String, String> pluginPorts = settings.getLoggerPluginPorts();
         if (pluginPorts != null && !pluginPorts.isEmpty()) {
@@ -155,6 +155,9 @@ public final class DOMSettingsUnmarshaller {
             } else if (n.getNodeType() == ELEMENT_NODE && n.getNodeName().equalsIgnoreCase("savedebugtables")) {
                 settings.setSaveDebugTables(Boolean.parseBoolean(unmarshallAttribute(n, "value", "false")));
 
+            } else if (n.getNodeType() == ELEMENT_NODE && n.getNodeName().equalsIgnoreCase("tablepopulation")) {
+                settings.setTablePopulation(unmarshallAttribute(n, "value", "LAZY"));
+
             } else if (n.getNodeType() == ELEMENT_NODE && n.getNodeName().equalsIgnoreCase("displayhightables")) {
                 settings.setDisplayHighTables(Boolean.parseBoolean(unmarshallAttribute(n, "value", "false")));
 
@@ -271,6 +274,21 @@ public final class DOMSettingsUnmarshaller {
                 settings.setTargetModule(unmarshallAttribute(n, "module", "ecu"));
                 settings.setFastPoll(unmarshallAttribute(n, "fastpoll", true));
                 settings.setJ2534Device(unmarshallAttribute(n, "library", null));
+                settings.setLoggerParallelProbe(unmarshallAttribute(n, "parallelprobe", false));
+
+            } else if (n.getNodeType() == ELEMENT_NODE && n.getNodeName().equalsIgnoreCase("transports")) {
+                NodeList transportNodes = n.getChildNodes();
+                for (int j = 0; j < transportNodes.getLength(); j++) {
+                    Node transportNode = transportNodes.item(j);
+                    if (transportNode.getNodeType() == ELEMENT_NODE && transportNode.getNodeName().equalsIgnoreCase("transport")) {
+                        String ecuId = unmarshallAttribute(transportNode, "ecuid", null);
+                        if (ecuId == null || ecuId.trim().length() == 0) continue;
+                        settings.setLoggerEcuTransport(ecuId.trim(),
+                                unmarshallAttribute(transportNode, "library", ""));
+                    }
+                }
+                String last = unmarshallAttribute(n, "last", "");
+                settings.setLoggerLastEcuId(last.length() == 0 ? null : last);
 
             } else if (n.getNodeType() == ELEMENT_NODE && n.getNodeName().equalsIgnoreCase("maximized")) {
                 settings.setLoggerWindowMaximized(unmarshallAttribute(n, "value", false));
@@ -299,9 +317,24 @@ public final class DOMSettingsUnmarshaller {
                 settings.setFileLoggingControllerSwitchId(unmarshallAttribute(n, "switchid", settings.getFileLoggingControllerSwitchId()));
                 settings.setFileLoggingControllerSwitchActive(unmarshallAttribute(n, "active", true));
                 settings.setFileLoggingAbsoluteTimestamp(unmarshallAttribute(n, "absolutetimestamp", false));
+                settings.setFileLoggingBinary(unmarshallAttribute(n, "binary", false));
+                settings.setFileLoggingQueueSize(unmarshallAttribute(n, "queuesize", 4096));
+                settings.setFileLoggingCommitRows(unmarshallAttribute(n, "commitrows", 500));
+                settings.setFileLoggingCommitInterval(unmarshallAttribute(n, "commitinterval", 1000));
+                settings.setFileLoggingSyncPolicy(unmarshallAttribute(n, "sync", "CLOSE"));
+                settings.setFileLoggingRotateSize(unmarshallAttribute(n, "rotatesize", 0));
+                settings.setFileLoggingRotateMinutes(unmarshallAttribute(n, "rotateminutes", 0));
+                settings.setFileLoggingCompress(unmarshallAttribute(n, "compress", true));
 
             } else if (n.getNodeType() == ELEMENT_NODE && n.getNodeName().equalsIgnoreCase("debug")) {
                 settings.setLoggerDebuggingLevel(unmarshallAttribute(n, "level", "info"));
+                settings.setLoggerMetricsFile(unmarshallAttribute(n, "metrics", false));
+
+            } else if (n.getNodeType() == ELEMENT_NODE && n.getNodeName().equalsIgnoreCase("dataupdate")) {
+                settings.setLoggerUpdateQueueSize(unmarshallAttribute(n, "queuesize", 256));
+                settings.setLoggerUpdateOverflowPolicy(unmarshallAttribute(n, "overflow", "BLOCK"));
+                settings.setLoggerDisplayRefreshRate(unmarshallAttribute(n, "displayrate", 30));
+                settings.setLoggerAutoSampleRate(unmarshallAttribute(n, "autorate", false));
 
             } else if (n.getNodeType() == ELEMENT_NODE && n.getNodeName().equalsIgnoreCase("gauge")) {
                 settings.setLoggerSelectedGaugeIndex(unmarshallAttribute(n, "index", 0));
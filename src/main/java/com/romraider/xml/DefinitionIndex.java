@@ -0,0 +1,365 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.xml;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.log4j.Logger;
+
+import com.romraider.maps.RomID;
+import com.romraider.util.SettingsManager;
+import com.romraider.xml.ConversionLayer.ConversionLayerFactory;
+
+/**
+ * The romid of every rom in the ECU definition files, so an image can be
+ * matched without building a DOM of each file.  A file is read again with
+ * a streaming parser only when its size or modification time changes, the
+ * index is kept in the settings directory between sessions.
+ * <p>
+ * Files that need a conversion layer or pull roms in by XInclude can not
+ * be indexed, they are reported as {@link #UNINDEXED} and have to be
+ * parsed and searched as before.
+ */
+public final class DefinitionIndex {
+    private static final Logger LOGGER = Logger.getLogger(DefinitionIndex.class);
+    private static final String INDEX_FILE = "/definitions.idx";
+    private static final int VERSION = 1;
+    private static final String XINCLUDE_NS = "http://www.w3.org/2001/XInclude";
+
+    /** No rom of the file matches the image. */
+    public static final int NO_MATCH = -1;
+
+    /** The file could not be indexed and has to be searched. */
+    public static final int UNINDEXED = -2;
+
+    private final File indexFile;
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>();
+    private boolean changed;
+
+    public DefinitionIndex(File indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * @return the index saved in the settings directory, empty if there is
+     * none or it can not be read
+     */
+    public static DefinitionIndex load() {
+        final DefinitionIndex index = new DefinitionIndex(
+                new File(SettingsManager.getSettingsDir() + INDEX_FILE));
+        index.read();
+        return index;
+    }
+
+    /**
+     * Find the first rom of a definition file whose romid matches an image,
+     * indexing the file first if it is new or has changed.
+     * @param definition - the definition file
+     * @param input - the image
+     * @return the position of the rom among the rom elements of the file,
+     * {@link #NO_MATCH} or {@link #UNINDEXED}
+     */
+    public int findMatch(File definition, byte[] input) {
+        final Entry entry = getEntry(definition);
+        if (!entry.indexed) {
+            return UNINDEXED;
+        }
+        for (int i = 0; i < entry.ordinals.length; i++) {
+            final RomID romId = new RomID();
+            romId.setInternalIdAddress(entry.addresses[i]);
+            romId.setInternalIdString(entry.idStrings[i]);
+            if (romId.checkMatch(input)) {
+                return entry.ordinals[i];
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Write the index if anything was indexed since it was loaded, files
+     * that no longer exist are dropped.
+     */
+    public void save() {
+        if (!changed) {
+            return;
+        }
+        final Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (!new File(it.next().path).exists()) it.remove();
+        }
+        final File parent = indexFile.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        // write aside and swap so a concurrent reader never sees half a file
+        final File tmp = new File(indexFile.getPath() + ".tmp");
+        try {
+            final DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tmp)));
+            try {
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (Entry entry : entries.values()) {
+                    entry.write(out);
+                }
+            }
+            finally {
+                out.close();
+            }
+            if (indexFile.exists() && !indexFile.delete()) {
+                throw new IOException("Unable to replace " + indexFile);
+            }
+            if (!tmp.renameTo(indexFile)) {
+                throw new IOException("Unable to rename " + tmp);
+            }
+            changed = false;
+        }
+        catch (IOException e) {
+            LOGGER.warn("Error saving definition index", e);
+            tmp.delete();
+        }
+    }
+
+    void read() {
+        if (!indexFile.exists()) {
+            return;
+        }
+        try {
+            final DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(indexFile)));
+            try {
+                if (in.readInt() != VERSION) {
+                    return;
+                }
+                final int n = in.readInt();
+                for (int i = 0; i < n; i++) {
+                    final Entry entry = Entry.read(in);
+                    entries.put(entry.path, entry);
+                }
+            }
+            finally {
+                in.close();
+            }
+        }
+        catch (IOException e) {
+            LOGGER.warn("Error reading definition index, it will be rebuilt", e);
+            entries.clear();
+        }
+    }
+
+    private Entry getEntry(File definition) {
+        final String path = definition.getAbsolutePath();
+        Entry entry = entries.get(path);
+        if (entry == null
+                || entry.modified != definition.lastModified()
+                || entry.length != definition.length()) {
+            entry = index(definition);
+            entries.put(path, entry);
+            changed = true;
+        }
+        return entry;
+    }
+
+    static Entry index(File definition) {
+        final Entry entry = new Entry(definition.getAbsolutePath(),
+                definition.lastModified(), definition.length());
+        if (ConversionLayerFactory.requiresConversionLayer(definition)) {
+            return entry;
+        }
+        final long start = System.currentTimeMillis();
+        try {
+            final InputStream in = new BufferedInputStream(new FileInputStream(definition));
+            try {
+                entry.indexed = scan(in, entry);
+            }
+            finally {
+                in.close();
+            }
+        }
+        catch (Exception e) {
+            // the definition is searched the old way, which reports the error
+            LOGGER.debug("Unable to index " + definition, e);
+            entry.indexed = false;
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(String.format("Indexed %d roms of %s in %dms",
+                    entry.ordinals.length, definition.getName(),
+                    System.currentTimeMillis() - start));
+        }
+        return entry;
+    }
+
+    // The same romid the DOM search uses: the first romid element of each
+    // rom element below the root, text taken from text nodes only.
+    private static boolean scan(InputStream in, Entry entry)
+            throws XMLStreamException {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        final XMLStreamReader reader = factory.createXMLStreamReader(in);
+        final List<Integer> ordinals = new ArrayList<Integer>();
+        final List<Integer> addresses = new ArrayList<Integer>();
+        final List<String> idStrings = new ArrayList<String>();
+        final StringBuilder text = new StringBuilder();
+        int depth = 0;
+        int romCount = 0;
+        boolean inRom = false;
+        boolean romIdSeen = false;
+        boolean inRomId = false;
+        String field = null;
+        String address = null;
+        String idString = null;
+        try {
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth <= 3 && XINCLUDE_NS.equals(reader.getNamespaceURI())) {
+                        // roms or romids may be pulled in from elsewhere
+                        return false;
+                    }
+                    final String name = nodeName(reader);
+                    if (depth == 2 && name.equalsIgnoreCase("rom")) {
+                        inRom = true;
+                        romIdSeen = false;
+                    }
+                    else if (depth == 3 && inRom && !romIdSeen
+                            && name.equalsIgnoreCase("romid")) {
+                        inRomId = true;
+                        address = null;
+                        idString = null;
+                    }
+                    else if (depth == 4 && inRomId) {
+                        field = name;
+                        text.setLength(0);
+                    }
+                }
+                else if (event == XMLStreamConstants.CHARACTERS && field != null) {
+                    text.append(reader.getText());
+                }
+                else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == 4 && field != null) {
+                        // the last of repeated elements wins, as in the DOM
+                        if (field.equalsIgnoreCase("internalidaddress")) {
+                            address = text.toString();
+                        }
+                        else if (field.equalsIgnoreCase("internalidstring")) {
+                            idString = text.toString();
+                        }
+                        field = null;
+                    }
+                    else if (depth == 3 && inRomId) {
+                        inRomId = false;
+                        romIdSeen = true;
+                        ordinals.add(romCount);
+                        addresses.add(address == null
+                                ? 0 : RomAttributeParser.parseHexString(address));
+                        idStrings.add(idString);
+                    }
+                    else if (depth == 2 && inRom) {
+                        inRom = false;
+                        romCount++;
+                    }
+                    depth--;
+                }
+            }
+        }
+        finally {
+            reader.close();
+        }
+        entry.ordinals = new int[ordinals.size()];
+        entry.addresses = new int[ordinals.size()];
+        entry.idStrings = idStrings.toArray(new String[idStrings.size()]);
+        for (int i = 0; i < entry.ordinals.length; i++) {
+            entry.ordinals[i] = ordinals.get(i);
+            entry.addresses[i] = addresses.get(i);
+        }
+        return true;
+    }
+
+    private static String nodeName(XMLStreamReader reader) {
+        final String prefix = reader.getPrefix();
+        return prefix == null || prefix.length() == 0
+                ? reader.getLocalName()
+                : prefix + ':' + reader.getLocalName();
+    }
+
+    static final class Entry {
+        private final String path;
+        private final long modified;
+        private final long length;
+        private boolean indexed;
+        private int[] ordinals = new int[0];
+        private int[] addresses = new int[0];
+        private String[] idStrings = new String[0];
+
+        private Entry(String path, long modified, long length) {
+            this.path = path;
+            this.modified = modified;
+            this.length = length;
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeUTF(path);
+            out.writeLong(modified);
+            out.writeLong(length);
+            out.writeBoolean(indexed);
+            out.writeInt(ordinals.length);
+            for (int i = 0; i < ordinals.length; i++) {
+                out.writeInt(ordinals[i]);
+                out.writeInt(addresses[i]);
+                out.writeBoolean(idStrings[i] != null);
+                if (idStrings[i] != null) out.writeUTF(idStrings[i]);
+            }
+        }
+
+        private static Entry read(DataInputStream in) throws IOException {
+            final Entry entry = new Entry(in.readUTF(), in.readLong(), in.readLong());
+            entry.indexed = in.readBoolean();
+            final int n = in.readInt();
+            entry.ordinals = new int[n];
+            entry.addresses = new int[n];
+            entry.idStrings = new String[n];
+            for (int i = 0; i < n; i++) {
+                entry.ordinals[i] = in.readInt();
+                entry.addresses[i] = in.readInt();
+                entry.idStrings[i] = in.readBoolean() ? in.readUTF() : null;
+            }
+            return entry;
+        }
+    }
+}
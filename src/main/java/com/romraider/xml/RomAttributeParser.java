@@ -184,6 +184,162 @@ public final class RomAttributeParser {
         }
     }
 
+    /**
+     * Decode the values of a table region in one pass over a ByteBuffer view
+     * of the image. Value i is read from storage slot
+     * (i / rowLength) * (rowLength + rowSkip) + i % rowLength counted from
+     * address, so the rows of a table may be separated by unused cells.
+     */
+    public static void decodeValues(byte[] input, int address, int storageType,
+            Settings.Endian endian, Settings.Endian memModelEndian, boolean signed,
+            int mask, double[] values, int count, int rowLength, int rowSkip)
+            throws IndexOutOfBoundsException {
+        final ByteBuffer bb = view(input, storageType, endian, memModelEndian);
+        final int length = getValueLength(storageType);
+        int position = address;
+        for (int i = 0, column = 0; i < count; i++) {
+            values[i] = decodeValue(bb, position, storageType, signed, mask);
+            position += length;
+            if (++column == rowLength) {
+                column = 0;
+                position += rowSkip * length;
+            }
+        }
+    }
+
+    public static double decodeValue(byte[] input, int address, int storageType,
+            Settings.Endian endian, Settings.Endian memModelEndian, boolean signed,
+            int mask) throws IndexOutOfBoundsException {
+        return decodeValue(view(input, storageType, endian, memModelEndian),
+                address, storageType, signed, mask);
+    }
+
+    /**
+     * Encode the values of a table region in one pass, laid out as for
+     * {@link #decodeValues}. Bits outside a non zero mask are kept.
+     */
+    public static void encodeValues(byte[] output, int address, int storageType,
+            Settings.Endian endian, Settings.Endian memModelEndian, int mask,
+            double[] values, int count, int rowLength, int rowSkip)
+            throws IndexOutOfBoundsException {
+        final ByteBuffer bb = view(output, storageType, endian, memModelEndian);
+        final int length = getValueLength(storageType);
+        int position = address;
+        for (int i = 0, column = 0; i < count; i++) {
+            encodeValue(bb, position, storageType, endian, mask, values[i]);
+            position += length;
+            if (++column == rowLength) {
+                column = 0;
+                position += rowSkip * length;
+            }
+        }
+    }
+
+    public static void encodeValue(byte[] output, int address, int storageType,
+            Settings.Endian endian, Settings.Endian memModelEndian, int mask,
+            double value) throws IndexOutOfBoundsException {
+        encodeValue(view(output, storageType, endian, memModelEndian),
+                address, storageType, endian, mask, value);
+    }
+
+    /**
+     * @return the number of image bytes one value of the storage type uses
+     */
+    public static int getValueLength(int storageType) {
+        switch (storageType) {
+        case Settings.STORAGE_TYPE_FLOAT:
+            return 4;
+        case Settings.STORAGE_TYPE_MOVI20:
+        case Settings.STORAGE_TYPE_MOVI20S:
+            return 3;
+        default:
+            return storageType;
+        }
+    }
+
+    // floats follow the memory model, other values the table endian
+    private static ByteBuffer view(byte[] data, int storageType,
+            Settings.Endian endian, Settings.Endian memModelEndian) {
+        final ByteBuffer bb = ByteBuffer.wrap(data);
+        if (storageType == Settings.STORAGE_TYPE_FLOAT) {
+            if (memModelEndian == Settings.Endian.LITTLE) {
+                bb.order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+        else if (endian == Settings.Endian.LITTLE) {
+            bb.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return bb;
+    }
+
+    private static double decodeValue(ByteBuffer bb, int position, int storageType,
+            boolean signed, int mask) {
+        long output;
+        switch (storageType) {
+        case Settings.STORAGE_TYPE_FLOAT:
+            return bb.getFloat(position);
+        case Settings.STORAGE_TYPE_MOVI20:
+        case Settings.STORAGE_TYPE_MOVI20S:
+            return getMovi20(bb.getInt(position - 1));
+        case 1:
+            output = signed ? bb.get(position) : bb.get(position) & 0xff;
+            break;
+        case 2:
+            output = signed ? bb.getShort(position) : bb.getShort(position) & 0xffff;
+            break;
+        case 4:
+            output = signed ? bb.getInt(position) : bb.getInt(position) & 0xffffffffL;
+            break;
+        default:
+            output = 0L;
+        }
+        if (mask != 0) {
+            output = (output & mask) >> ByteUtil.firstOneOfMask(mask);
+        }
+        return output;
+    }
+
+    private static void encodeValue(ByteBuffer bb, int position, int storageType,
+            Settings.Endian endian, int mask, double value) {
+        if (storageType == Settings.STORAGE_TYPE_FLOAT) {
+            bb.putFloat(position, (float) value);
+            return;
+        }
+
+        int finalValue = (int) value;
+        if (mask == 0) {
+            switch (storageType) {
+            case 1:
+                bb.put(position, (byte) finalValue);
+                return;
+            case 2:
+                bb.putShort(position, (short) finalValue);
+                return;
+            case 4:
+                bb.putInt(position, finalValue);
+                return;
+            }
+        }
+        else {
+            finalValue = finalValue << ByteUtil.firstOneOfMask(mask);
+        }
+
+        // masked and MOVI20 values go through their byte form
+        final byte[] bytes = parseIntegerValue(finalValue, endian, storageType);
+        final int byteLength = getValueLength(storageType);
+        for (int z = 0; z < byteLength; z++) {
+            if (mask != 0) {
+                //Trim mask depending on byte, from left to right
+                final int shift = 8 * (byteLength - 1 - z);
+                final int byteMask = (mask & (0xFF << shift)) >> shift;
+                bb.put(position + z, (byte) ((bb.get(position + z) & ~byteMask) | bytes[z]));
+            }
+            else {
+                bb.put(position + z, bytes[z]);
+            }
+        }
+    }
+
     // when data is in MOVI20 instruction
     private static int getMovi20(int value) {
     	final int shift = value & 0x00010000;
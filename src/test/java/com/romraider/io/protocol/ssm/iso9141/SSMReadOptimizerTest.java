@@ -0,0 +1,86 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.io.protocol.ssm.iso9141;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.romraider.io.protocol.ssm.iso9141.SSMReadOptimizer.Segment;
+
+public class SSMReadOptimizerTest {
+
+    @Test
+    public final void testScatteredAddressesStayInOneList() {
+        final int[] addresses = {0x000008, 0x00000E, 0xFF6000, 0xFF7000, 0xFF8000};
+        final Segment[] segments = SSMReadOptimizer.optimize(addresses, 4800);
+        assertEquals(1, segments.length);
+        assertFalse(segments[0].isBlock());
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, segments[0].indices);
+    }
+
+    @Test
+    public final void testContiguousFloatsBecomeOneBlock() {
+        // four 4 byte floats read as sixteen single byte addresses
+        final int[] addresses = new int[16];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = 0xFF6A00 + i;
+        }
+        final Segment[] segments = SSMReadOptimizer.optimize(addresses, 4800);
+        assertEquals(1, segments.length);
+        assertTrue(segments[0].isBlock());
+        assertEquals(0xFF6A00, segments[0].start);
+        assertEquals(16, segments[0].length);
+        assertEquals(15, segments[0].positions[15]);
+    }
+
+    @Test
+    public final void testBlockAlongsideList() {
+        final int[] addresses = new int[20];
+        addresses[0] = 0x000008;
+        addresses[1] = 0x00000E;
+        addresses[2] = 0xFF5000;
+        for (int i = 3; i < addresses.length; i++) {
+            // every other byte, gaps are cheaper to read than skip
+            addresses[i] = 0xFF6000 + 2 * i;
+        }
+        final Segment[] segments = SSMReadOptimizer.optimize(addresses, 4800);
+        assertEquals(2, segments.length);
+        assertFalse(segments[0].isBlock());
+        assertArrayEquals(new int[]{0, 1, 2}, segments[0].indices);
+        assertTrue(segments[1].isBlock());
+        assertEquals(0xFF6006, segments[1].start);
+        assertEquals(33, segments[1].length);
+    }
+
+    @Test
+    public final void testFasterLinkPrefersFewerRoundTrips() {
+        final int[] addresses = new int[10];
+        addresses[0] = 0x000008;
+        for (int i = 1; i < addresses.length; i++) {
+            addresses[i] = 0xFF6000 + i;
+        }
+        assertEquals(2, SSMReadOptimizer.optimize(addresses, 4800).length);
+        assertEquals(1, SSMReadOptimizer.optimize(addresses, 115200).length);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.comms.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.romraider.logger.ecu.comms.query.Response;
+import com.romraider.logger.ecu.comms.query.ResponseImpl;
+import com.romraider.logger.ecu.definition.LoggerData;
+import com.romraider.logger.ecu.ui.handler.DataUpdateHandler;
+import com.romraider.util.RingBuffer.OverflowPolicy;
+
+public class AsyncDataUpdateHandlerTest {
+
+    private static class FailingHandler implements DataUpdateHandler {
+        final CountDownLatch handled;
+        int calls;
+
+        FailingHandler(int count) {
+            handled = new CountDownLatch(count);
+        }
+
+        public void registerData(LoggerData loggerData) {}
+        public void handleDataUpdate(Response response) {
+            handled.countDown();
+            if (calls++ == 0) throw new IllegalStateException("first update");
+        }
+        public void deregisterData(LoggerData loggerData) {}
+        public void cleanUp() {}
+        public void reset() {}
+    }
+
+    @Test(timeout = 5000)
+    public final void testFailingHandlerDoesNotEndLane() throws InterruptedException {
+        final FailingHandler handler = new FailingHandler(3);
+        final AsyncDataUpdateHandler lane = new AsyncDataUpdateHandler(
+                new DataUpdateHandler[] {handler}, 4, OverflowPolicy.BLOCK);
+        lane.start();
+        for (int i = 0; i < 3; i++) {
+            lane.addResponse(new ResponseImpl());
+        }
+        assertTrue(handler.handled.await(2, TimeUnit.SECONDS));
+        lane.stopUpdater();
+        lane.join();
+        assertEquals(3, lane.getHandledCount());
+    }
+
+    @Test(timeout = 5000)
+    public final void testStoppedLaneDoesNotBlockProducer() throws InterruptedException {
+        final AsyncDataUpdateHandler lane = new AsyncDataUpdateHandler(
+                new DataUpdateHandler[] {new FailingHandler(0)}, 2, OverflowPolicy.BLOCK);
+        lane.start();
+        lane.stopUpdater();
+        lane.join();
+        for (int i = 0; i < 10; i++) {
+            lane.addResponse(new ResponseImpl());
+        }
+        assertFalse(lane.isRunning());
+        assertEquals(10, lane.getDroppedCount());
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.comms.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.romraider.logger.ecu.comms.query.Response;
+import com.romraider.logger.ecu.comms.query.ResponseImpl;
+import com.romraider.logger.ecu.definition.LoggerData;
+import com.romraider.logger.ecu.ui.handler.DataUpdateHandler;
+import com.romraider.logger.ecu.ui.handler.QueuedUpdateHandler;
+import com.romraider.util.RingBuffer.OverflowPolicy;
+
+public class DataUpdateDispatcherTest {
+
+    private static class SlowHandler implements QueuedUpdateHandler {
+        final CountDownLatch handled;
+
+        SlowHandler(int count) {
+            handled = new CountDownLatch(count);
+        }
+
+        public void registerData(LoggerData loggerData) {}
+        public void handleDataUpdate(Response response) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handled.countDown();
+        }
+        public void deregisterData(LoggerData loggerData) {}
+        public void cleanUp() {}
+        public void reset() {}
+    }
+
+    @Test(timeout = 10000)
+    public final void testQueuedHandlerSeesEveryResponse() throws InterruptedException {
+        final SlowHandler handler = new SlowHandler(50);
+        final DataUpdateDispatcher dispatcher = new DataUpdateDispatcher(
+                new DataUpdateHandler[] {handler}, 2, OverflowPolicy.BLOCK, 30);
+        dispatcher.start();
+        for (int i = 0; i < 50; i++) {
+            dispatcher.addResponse(new ResponseImpl());
+        }
+        assertTrue(handler.handled.await(5, TimeUnit.SECONDS));
+        dispatcher.stop();
+        final AsyncDataUpdateHandler lane = dispatcher.getLanes()[0];
+        lane.join();
+        assertEquals(0, lane.getDroppedCount());
+        assertEquals(50, lane.getHandledCount());
+    }
+}
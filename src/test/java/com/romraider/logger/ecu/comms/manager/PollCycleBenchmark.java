@@ -0,0 +1,138 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.comms.manager;
+
+import static com.romraider.logger.ecu.definition.xml.ConverterMaxMinDefaults.getDefault;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import com.romraider.Settings;
+import com.romraider.logger.ecu.comms.query.EcuQuery;
+import com.romraider.logger.ecu.comms.query.EcuQueryImpl;
+import com.romraider.logger.ecu.comms.query.IndexedResponse;
+import com.romraider.logger.ecu.comms.query.Query;
+import com.romraider.logger.ecu.comms.query.ResponsePool;
+import com.romraider.logger.ecu.comms.query.ResponseSchema;
+import com.romraider.logger.ecu.definition.EcuAddressImpl;
+import com.romraider.logger.ecu.definition.EcuDataConvertor;
+import com.romraider.logger.ecu.definition.EcuParameterConvertorImpl;
+import com.romraider.logger.ecu.definition.EcuParameterImpl;
+import com.romraider.logger.ecu.definition.LoggerData;
+
+/**
+ * Runs the work the query manager does for each poll, without the link:
+ * picking the frame, converting the responses, recording them for the
+ * scheduler and filling a pooled response, and reports the bytes
+ * allocated per poll once warmed up, which should be 0.
+ * Run from the command line, e.g.
+ * <pre>
+ *   java -cp &lt;classpath&gt; com.romraider.logger.ecu.comms.manager.PollCycleBenchmark
+ * </pre>
+ */
+public final class PollCycleBenchmark {
+    private static final int QUERIES = 24;
+    private static final int WARMUP = 200000;
+    private static final int CYCLES = 1000000;
+
+    private PollCycleBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final QueryList queryList = new QueryList();
+        for (int i = 0; i < QUERIES; i++) {
+            final EcuDataConvertor convertor = new EcuParameterConvertorImpl("x", "x*0.5+1", "0.0",
+                    -1, "uint8", Settings.Endian.BIG, new HashMap<String, String>(), getDefault());
+            queryList.put("bench_P" + i, new EcuQueryImpl(new EcuParameterImpl("P" + i, "P" + i, "",
+                    new EcuAddressImpl(String.format("0x%06X", i), 1, -1), null, null, null,
+                    new EcuDataConvertor[]{convertor})));
+        }
+        final Query[] queries = queryList.toArray();
+        final List<LoggerData> loggerDatas = new ArrayList<LoggerData>(queries.length);
+        for (Query query : queries) {
+            loggerDatas.add(query.getLoggerData());
+        }
+        final ResponseSchema schema = new ResponseSchema(loggerDatas);
+        final int[] slots = new int[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            slots[i] = schema.indexOf(queries[i].getLoggerData());
+        }
+        final Poll poll = new Poll(queryList, schema, queries, slots);
+
+        poll.run(WARMUP, true);
+        poll.run(WARMUP, false);
+        for (int round = 0; round < 3; round++) {
+            report("fast poll", poll, true);
+            report("slow poll", poll, false);
+        }
+    }
+
+    private static void report(String name, Poll poll, boolean fastPoll) {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().getId();
+        final long before = threads.getThreadAllocatedBytes(thread);
+        final long start = System.nanoTime();
+        poll.run(CYCLES, fastPoll);
+        final long elapsed = System.nanoTime() - start;
+        final long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        System.out.println(String.format("%-9s %8.1f ns/poll  %6.3f bytes/poll",
+                name, (double) elapsed / CYCLES, (double) allocated / CYCLES));
+    }
+
+    private static final class Poll {
+        private final QueryScheduler scheduler = new QueryScheduler();
+        private final ResponsePool pool = new ResponsePool(16);
+        private final byte[] data = new byte[1];
+        private final QueryList queryList;
+        private final ResponseSchema schema;
+        private final Query[] queries;
+        private final int[] slots;
+        private double sink;
+
+        Poll(QueryList queryList, ResponseSchema schema, Query[] queries, int[] slots) {
+            this.queryList = queryList;
+            this.schema = schema;
+            this.queries = queries;
+            this.slots = slots;
+        }
+
+        void run(int cycles, boolean fastPoll) {
+            for (int n = 0; n < cycles; n++) {
+                final List<EcuQuery> frame =
+                        scheduler.nextFrame(queryList.getEcuQueries(), fastPoll, true);
+                for (int i = 0; i < frame.size(); i++) {
+                    // most values hold so some queries get slowed down
+                    data[0] = (byte) (i < 4 ? n : 0);
+                    frame.get(i).setResponse(data);
+                }
+                scheduler.observe();
+                final IndexedResponse response = pool.acquire(schema);
+                for (int i = 0; i < queries.length; i++) {
+                    response.setValue(slots[i], queries[i].getResponse());
+                }
+                sink += response.getValue(0);
+                response.release();
+            }
+        }
+    }
+}
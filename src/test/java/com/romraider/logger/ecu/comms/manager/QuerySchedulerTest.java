@@ -0,0 +1,249 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.comms.manager;
+
+import static com.romraider.logger.ecu.definition.xml.ConverterMaxMinDefaults.getDefault;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.romraider.Settings;
+import com.romraider.logger.ecu.comms.io.connection.LoggerConnection;
+import com.romraider.logger.ecu.comms.query.EcuInitCallback;
+import com.romraider.logger.ecu.comms.query.EcuQuery;
+import com.romraider.logger.ecu.comms.query.EcuQueryImpl;
+import com.romraider.logger.ecu.definition.EcuAddressImpl;
+import com.romraider.logger.ecu.definition.EcuDataConvertor;
+import com.romraider.logger.ecu.definition.EcuParameterConvertorImpl;
+import com.romraider.logger.ecu.definition.EcuParameterImpl;
+import com.romraider.logger.ecu.definition.Module;
+
+public class QuerySchedulerTest {
+
+    // keeps the address list loaded into the ECU the way the DS2 and NCS
+    // connections do, and records the list each read was answered from
+    private static final class RecordingConnection implements LoggerConnection {
+        private final List<EcuQuery> loaded = new ArrayList<EcuQuery>();
+        private final List<List<EcuQuery>> requests = new ArrayList<List<EcuQuery>>();
+        private final List<List<EcuQuery>> answers = new ArrayList<List<EcuQuery>>();
+        private int loads;
+
+        @Override
+        public void sendAddressReads(Collection<EcuQuery> queries, Module module,
+                PollingState pollState) {
+            if (queries.size() != loaded.size() || pollState.isNewQuery()) {
+                loaded.clear();
+                loaded.addAll(queries);
+                loads++;
+            }
+            requests.add(new ArrayList<EcuQuery>(queries));
+            answers.add(new ArrayList<EcuQuery>(loaded));
+        }
+
+        @Override
+        public void open(Module module) {
+        }
+
+        @Override
+        public void ecuReset(Module module, int resetCode) {
+        }
+
+        @Override
+        public void ecuInit(EcuInitCallback callback, Module module) {
+        }
+
+        @Override
+        public void clearLine() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void sendAddressWrites(Map<EcuQuery, byte[]> writeQueries, Module module) {
+        }
+    }
+
+    private static List<EcuQuery> queries(int count) {
+        final List<EcuQuery> queries = new ArrayList<EcuQuery>();
+        for (int i = 0; i < count; i++) {
+            final EcuDataConvertor convertor = new EcuParameterConvertorImpl("x", "x", "0", -1,
+                    "uint8", Settings.Endian.BIG, new HashMap<String, String>(), getDefault());
+            queries.add(new EcuQueryImpl(new EcuParameterImpl("P" + i, "P" + i, "",
+                    new EcuAddressImpl(String.format("0x%06X", i), 1, -1), null, null, null,
+                    new EcuDataConvertor[]{convertor})));
+        }
+        return queries;
+    }
+
+    @Test
+    public final void testEveryQueryEveryFrameByDefault() {
+        final QueryScheduler scheduler = new QueryScheduler();
+        final List<EcuQuery> all = queries(4);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(4, scheduler.nextFrame(new ArrayList<EcuQuery>(all), false, false).size());
+            scheduler.observe();
+        }
+        assertEquals(0, scheduler.getInterleavedCount());
+    }
+
+    @Test
+    public final void testSteadyValueSlowsDownAndChangeRestores() {
+        final QueryScheduler scheduler = new QueryScheduler();
+        final List<EcuQuery> all = queries(2);
+        final EcuQuery steady = all.get(0);
+        final EcuQuery moving = all.get(1);
+        for (int i = 0; i < 200; i++) {
+            moving.setResponse(new byte[]{(byte) (i * 37)});
+            scheduler.nextFrame(new ArrayList<EcuQuery>(all), false, true);
+            scheduler.observe();
+        }
+        assertEquals(QueryScheduler.MAX_PERIOD, scheduler.getPeriod(steady));
+        assertEquals(1, scheduler.getPeriod(moving));
+
+        // back to every frame the next time the changed value is read
+        steady.setResponse(new byte[]{50});
+        boolean restored = false;
+        for (int i = 0; i < QueryScheduler.MAX_PERIOD && !restored; i++) {
+            scheduler.nextFrame(new ArrayList<EcuQuery>(all), false, true);
+            scheduler.observe();
+            restored = scheduler.getPeriod(steady) == 1;
+        }
+        assertTrue(restored);
+    }
+
+    @Test
+    public final void testTargetRateInterleavesSlowQueries() {
+        final QueryScheduler scheduler = new QueryScheduler();
+        final List<EcuQuery> all = queries(10);
+        for (int i = 2; i < all.size(); i++) {
+            all.get(i).getLoggerData().setTargetRate(0.001);
+        }
+        for (int i = 0; i < 64; i++) {
+            scheduler.nextFrame(new ArrayList<EcuQuery>(all), false, false);
+            scheduler.observe();
+        }
+        final int[] counts = new int[all.size()];
+        for (int f = 0; f < QueryScheduler.MAX_PERIOD; f++) {
+            final List<EcuQuery> frame = scheduler.nextFrame(new ArrayList<EcuQuery>(all), false, false);
+            scheduler.observe();
+            // two fast queries plus one of the eight slow ones
+            assertEquals(3, frame.size());
+            for (EcuQuery query : frame) {
+                counts[all.indexOf(query)]++;
+            }
+        }
+        assertEquals(QueryScheduler.MAX_PERIOD, counts[0]);
+        assertEquals(QueryScheduler.MAX_PERIOD, counts[1]);
+        for (int i = 2; i < all.size(); i++) {
+            assertEquals(1, counts[i]);
+        }
+        assertEquals(8, scheduler.getInterleavedCount());
+    }
+
+    @Test
+    public final void testTargetRateFollowedWhenFramesAreSkipped() {
+        final QueryScheduler scheduler = new QueryScheduler();
+        final List<EcuQuery> all = queries(1);
+        final EcuQuery query = all.get(0);
+        query.getLoggerData().setTargetRate(0.001);
+        for (int i = 0; i < 100; i++) {
+            scheduler.nextFrame(new ArrayList<EcuQuery>(all), false, false);
+            scheduler.observe();
+        }
+        assertEquals(QueryScheduler.MAX_PERIOD, scheduler.getPeriod(query));
+
+        // a lone slow query skips seven empty frames on every call
+        query.getLoggerData().setTargetRate(1e12);
+        for (int i = 0; i < 100; i++) {
+            scheduler.nextFrame(new ArrayList<EcuQuery>(all), false, false);
+            scheduler.observe();
+        }
+        assertEquals(1, scheduler.getPeriod(query));
+    }
+
+    @Test
+    public final void testFastPollSendsEverything() {
+        final QueryScheduler scheduler = new QueryScheduler();
+        final List<EcuQuery> all = queries(3);
+        all.get(0).getLoggerData().setTargetRate(0.001);
+        for (int i = 0; i < 100; i++) {
+            final List<EcuQuery> frame = scheduler.nextFrame(all, true, true);
+            assertTrue(frame == all);
+            scheduler.observe();
+        }
+        assertFalse(scheduler.getFrameRate() == 0.0);
+    }
+
+    @Test
+    public final void testEqualSizeFramesReloadAddressList() {
+        final QueryScheduler scheduler = new QueryScheduler();
+        final List<EcuQuery> all = queries(10);
+        for (int i = 2; i < all.size(); i++) {
+            all.get(i).getLoggerData().setTargetRate(0.001);
+        }
+        final PollingState pollState = new PollingStateImpl();
+        pollState.setFastPoll(false);
+        final RecordingConnection connection = new RecordingConnection();
+        // the slow poll sequence of QueryManagerImpl
+        for (int i = 0; i < 64 + 2 * QueryScheduler.MAX_PERIOD; i++) {
+            final List<EcuQuery> frame = scheduler.nextFrame(
+                    new ArrayList<EcuQuery>(all), false, false);
+            if (scheduler.isFrameChanged()) {
+                pollState.setNewQuery(true);
+            }
+            connection.sendAddressReads(frame, null, pollState);
+            scheduler.observe();
+            pollState.setNewQuery(false);
+        }
+        final int frames = connection.requests.size();
+        for (int i = 0; i < frames; i++) {
+            assertEquals(connection.requests.get(i), connection.answers.get(i));
+        }
+        // the last frames all have three queries but rotate the slow one
+        for (int i = frames - QueryScheduler.MAX_PERIOD; i < frames; i++) {
+            assertEquals(3, connection.requests.get(i).size());
+        }
+        assertTrue(connection.loads > QueryScheduler.MAX_PERIOD);
+    }
+
+    @Test
+    public final void testUnchangedFrameKeepsAddressList() {
+        final QueryScheduler scheduler = new QueryScheduler();
+        final List<EcuQuery> all = queries(4);
+        assertEquals(4, scheduler.nextFrame(new ArrayList<EcuQuery>(all), false, false).size());
+        assertTrue(scheduler.isFrameChanged());
+        scheduler.observe();
+        for (int i = 0; i < 10; i++) {
+            scheduler.nextFrame(new ArrayList<EcuQuery>(all), false, false);
+            assertFalse(scheduler.isFrameChanged());
+            scheduler.observe();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.comms.query;
+
+import static com.romraider.logger.ecu.definition.xml.ConverterMaxMinDefaults.getDefault;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.romraider.Settings;
+import com.romraider.logger.ecu.definition.EcuAddressImpl;
+import com.romraider.logger.ecu.definition.EcuDataConvertor;
+import com.romraider.logger.ecu.definition.EcuParameterConvertorImpl;
+import com.romraider.logger.ecu.definition.EcuParameterImpl;
+import com.romraider.logger.ecu.definition.LoggerData;
+
+public class ResponsePoolTest {
+
+    private static LoggerData data(String id) {
+        final EcuDataConvertor convertor = new EcuParameterConvertorImpl("x", "x", "0", -1,
+                "uint8", Settings.Endian.BIG, new HashMap<String, String>(), getDefault());
+        return new EcuParameterImpl(id, id, "", new EcuAddressImpl("0x000001", 1, -1),
+                null, null, null, new EcuDataConvertor[]{convertor});
+    }
+
+    private static ResponseSchema schema(LoggerData... datas) {
+        return new ResponseSchema(Arrays.asList(datas));
+    }
+
+    @Test
+    public final void testAcquireAfterReleaseReusesInstance() {
+        final ResponsePool pool = new ResponsePool(4);
+        final ResponseSchema schema = schema(data("P1"));
+        final IndexedResponse first = pool.acquire(schema);
+        first.release();
+        assertEquals(1, pool.size());
+        assertSame(first, pool.acquire(schema));
+        assertEquals(0, pool.size());
+        assertEquals(1, pool.getAllocatedCount());
+    }
+
+    @Test
+    public final void testRetainedResponseRecycledOnceOnLastRelease() {
+        final ResponsePool pool = new ResponsePool(4);
+        final ResponseSchema schema = schema(data("P1"));
+        final IndexedResponse response = pool.acquire(schema);
+        response.retain(3);
+        for (int i = 0; i < 3; i++) {
+            response.release();
+            assertEquals(0, pool.size());
+        }
+        response.release();
+        assertEquals(1, pool.size());
+        // pooled once, so only the first acquire gets it back
+        assertSame(response, pool.acquire(schema));
+        assertNotSame(response, pool.acquire(schema));
+        assertEquals(2, pool.getAllocatedCount());
+    }
+
+    @Test
+    public final void testSchemaChangeDropsPooledInstances() {
+        final ResponsePool pool = new ResponsePool(4);
+        final ResponseSchema before = schema(data("P1"));
+        final IndexedResponse old = pool.acquire(before);
+        final IndexedResponse pending = pool.acquire(before);
+        old.release();
+        assertEquals(1, pool.size());
+
+        final ResponseSchema after = schema(data("P1"), data("P2"));
+        final IndexedResponse response = pool.acquire(after);
+        assertNotSame(old, response);
+        assertSame(after, response.getSchema());
+        assertEquals(0, pool.size());
+        // a response of the old schema released late is not pooled
+        pending.release();
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public final void testOverflowFallsBackToAllocation() {
+        final ResponsePool pool = new ResponsePool(2);
+        final ResponseSchema schema = schema(data("P1"));
+        final List<IndexedResponse> responses = new ArrayList<IndexedResponse>();
+        for (int i = 0; i < 5; i++) {
+            responses.add(pool.acquire(schema));
+        }
+        assertEquals(5, pool.getAllocatedCount());
+        for (IndexedResponse response : responses) {
+            response.release();
+        }
+        // only the capacity is kept, the rest go to the garbage collector
+        assertEquals(2, pool.size());
+        for (int i = 0; i < 3; i++) {
+            pool.acquire(schema);
+        }
+        assertEquals(6, pool.getAllocatedCount());
+    }
+
+    @Test
+    public final void testValuesBySlotAndData() {
+        final LoggerData p1 = data("P1");
+        final LoggerData p2 = data("P2");
+        final ResponsePool pool = new ResponsePool(2);
+        final IndexedResponse response = pool.acquire(schema(p1, p2));
+        response.setValue(1, 2.5);
+        response.setDataValue(p1, 1.5);
+        assertEquals(1.5, response.getValue(0), 0.0);
+        assertEquals(2.5, response.getDataValue(p2), 0.0);
+        assertEquals(0.0, response.getDataValue(data("P3")), 0.0);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.definition;
+
+import static com.romraider.logger.ecu.definition.xml.ConverterMaxMinDefaults.getDefault;
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.romraider.Settings;
+import com.romraider.util.ExpressionCompiler;
+import com.romraider.util.JEPUtil;
+
+public class EcuDerivedParameterConvertorImplTest {
+    // P1 is one byte, P2 two bytes: 0x10 -> 400 rpm, 0x012C -> 30 kPa
+    private static final byte[] P1 = {0x10};
+    private static final byte[] P2 = {0x01, 0x2C};
+
+    private static EcuDataConvertor convertor(String units, String expression, String dataType) {
+        return new EcuParameterConvertorImpl(units, expression, "0.00", -1, dataType,
+                Settings.Endian.BIG, new HashMap<String, String>(), getDefault());
+    }
+
+    private static EcuData p1() {
+        return new EcuParameterImpl("P1", "P1", "", new EcuAddressImpl("0x000001", 1, -1),
+                null, null, null, new EcuDataConvertor[]{
+                        convertor("raw", "x", "uint8"),
+                        convertor("rpm", "x*25", "uint8")});
+    }
+
+    private static EcuData p2() {
+        return new EcuParameterImpl("P2", "P2", "", new EcuAddressImpl("0x000002", 2, -1),
+                null, null, null, new EcuDataConvertor[]{
+                        convertor("kPa", "x/10", "uint16")});
+    }
+
+    private static EcuDerivedParameterConvertorImpl derived(String expression, EcuData... ecuDatas) {
+        final EcuDerivedParameterConvertorImpl convertor = new EcuDerivedParameterConvertorImpl(
+                "units", expression, "0.00", new HashMap<String, String>(), getDefault());
+        convertor.setEcuDatas(ecuDatas);
+        return convertor;
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        final byte[] bytes = new byte[a.length + b.length];
+        System.arraycopy(a, 0, bytes, 0, a.length);
+        System.arraycopy(b, 0, bytes, a.length, b.length);
+        return bytes;
+    }
+
+    // the map based JEP evaluation used before the expression was bound
+    private static double jep(String expression) {
+        final Map<String, Double> valueMap = new HashMap<String, Double>();
+        valueMap.put("_P1_rpm_", 400.0);
+        valueMap.put("_P2_kPa_", 30.0);
+        return JEPUtil.evaluate(expression, valueMap);
+    }
+
+    @Test
+    public final void testMatchesJep() {
+        final EcuDerivedParameterConvertorImpl convertor =
+                derived("([P1:rpm]+1)/[P2:kPa]", p1(), p2());
+        final double expected = jep("(_P1_rpm_+1)/_P2_kPa_");
+        assertEquals(401.0 / 30.0, expected, 1e-12);
+        assertEquals(expected, convertor.convert(concat(P1, P2)), 1e-12);
+    }
+
+    @Test
+    public final void testOffsetsFollowComponentLengths() {
+        final EcuDerivedParameterConvertorImpl convertor =
+                derived("([P1:rpm]+1)/[P2:kPa]", p2(), p1());
+        assertEquals(401.0 / 30.0, convertor.convert(concat(P2, P1)), 1e-12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testCompilerRejectsStringComparison() {
+        ExpressionCompiler.compile("(_P1_rpm_==\"x\")+_P2_kPa_", "_P1_rpm_", "_P2_kPa_");
+    }
+
+    @Test
+    public final void testJepFallback() {
+        final EcuDerivedParameterConvertorImpl convertor =
+                derived("([P1:rpm]==\"x\")+[P2:kPa]", p1(), p2());
+        final double expected = jep("(_P1_rpm_==\"x\")+_P2_kPa_");
+        assertEquals(30.0, expected, 0.0);
+        assertEquals(expected, convertor.convert(concat(P1, P2)), 0.0);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.ui.handler.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import com.romraider.logger.ecu.definition.LoggerData;
+import com.romraider.logger.ecu.exception.FileLoggerException;
+import com.romraider.logger.ecu.ui.MessageListener;
+import com.romraider.logger.ecu.ui.handler.file.FileLogger.SyncPolicy;
+
+public class AsyncFileLoggerTest {
+    private static final MessageListener LISTENER = new MessageListener() {
+        public void reportStats(String message) {}
+        public void reportMessage(String message) {}
+        public void reportMessageInTitleBar(String message) {}
+        public void reportError(String error) {}
+        public void reportError(Exception e) {}
+        public void reportError(String error, Exception e) {}
+    };
+
+    private static class RecordingLogger implements FileLogger {
+        final List<String> calls = new ArrayList<String>();
+        final CountDownLatch release;
+        boolean started;
+
+        RecordingLogger(CountDownLatch release) {
+            this.release = release;
+        }
+
+        public void start() { started = true; }
+        public void stop() { started = false; calls.add("stop"); }
+        public boolean isStarted() { return started; }
+        public void writeHeaders(LoggerData[] loggerDatas) {
+            calls.add("headers " + loggerDatas.length);
+        }
+        public void writeLine(double[] values, long timestamp) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            calls.add(timestamp + "=" + values[0]);
+        }
+        public void commit(boolean sync) {
+            if (sync) calls.add("sync");
+        }
+    }
+
+    @Test
+    public final void testRowsWrittenInOrderAndSyncedOnClose() {
+        final RecordingLogger delegate = new RecordingLogger(new CountDownLatch(0));
+        final AsyncFileLogger logger = new AsyncFileLogger(
+                delegate, LISTENER, 16, 1000, 50, SyncPolicy.CLOSE);
+        logger.start();
+        assertTrue(logger.isStarted());
+        logger.writeHeaders(new LoggerData[1]);
+        final double[] values = new double[1];
+        for (int i = 0; i < 5; i++) {
+            values[0] = i;
+            logger.writeLine(values, i);
+        }
+        final long start = System.currentTimeMillis();
+        logger.stop();
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertFalse(logger.isStarted());
+        assertEquals("[headers 1, 0=0.0, 1=1.0, 2=2.0, 3=3.0, 4=4.0, sync, stop]",
+                delegate.calls.toString());
+    }
+
+    @Test
+    public final void testStalledWriterDropsRows() {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingLogger delegate = new RecordingLogger(release);
+        final AsyncFileLogger logger = new AsyncFileLogger(
+                delegate, LISTENER, 4, 1, 1, SyncPolicy.NONE);
+        logger.start();
+        logger.writeHeaders(new LoggerData[1]);
+        final double[] values = new double[1];
+        for (int i = 0; i < 100; i++) {
+            logger.writeLine(values, i);
+        }
+        assertTrue(logger.getDroppedCount() >= 100 - 4);
+        release.countDown();
+        logger.stop();
+        assertEquals("stop", delegate.calls.get(delegate.calls.size() - 1));
+        assertEquals(100 - logger.getDroppedCount() + 2, delegate.calls.size());
+    }
+
+    @Test(timeout = 10000)
+    public final void testStopDoesNotWaitForCommitInterval() {
+        final RecordingLogger delegate = new RecordingLogger(new CountDownLatch(0));
+        final AsyncFileLogger logger = new AsyncFileLogger(
+                delegate, LISTENER, 16, 1000, 60000, SyncPolicy.NONE);
+        logger.start();
+        logger.writeHeaders(new LoggerData[1]);
+        logger.writeLine(new double[1], 0);
+        final long start = System.currentTimeMillis();
+        logger.stop();
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertEquals("[headers 1, 0=0.0, stop]", delegate.calls.toString());
+    }
+
+    @Test(timeout = 10000)
+    public final void testFailedWriterClosesFileAndStaysStartedUntilStop()
+            throws InterruptedException {
+        final RecordingLogger delegate = new RecordingLogger(new CountDownLatch(0)) {
+            @Override
+            public void writeLine(double[] values, long timestamp) {
+                throw new FileLoggerException("disk full");
+            }
+        };
+        final AsyncFileLogger logger = new AsyncFileLogger(
+                delegate, LISTENER, 16, 1000, 50, SyncPolicy.CLOSE);
+        logger.start();
+        logger.writeLine(new double[1], 0);
+        while (!logger.isFailed()) {
+            Thread.sleep(5);
+        }
+        logger.writeLine(new double[1], 1);
+        assertEquals(1, logger.getDroppedCount());
+        // the file is closed by the writer, the logger waits for stop
+        assertFalse(delegate.isStarted());
+        assertEquals("[stop]", delegate.calls.toString());
+        assertTrue(logger.isStarted());
+        logger.stop();
+        assertFalse(logger.isStarted());
+    }
+}
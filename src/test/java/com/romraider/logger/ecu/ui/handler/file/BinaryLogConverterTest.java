@@ -0,0 +1,93 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.ui.handler.file;
+
+import static com.romraider.logger.ecu.ui.handler.file.CsvLayout.NEW_LINE;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.text.DecimalFormat;
+
+import org.junit.Test;
+
+public class BinaryLogConverterTest {
+
+    private byte[] buildLog(boolean truncate) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(BinaryFileLoggerImpl.MAGIC);
+        out.writeByte(BinaryFileLoggerImpl.VERSION);
+        out.writeByte(BinaryFileLoggerImpl.SCHEMA);
+        out.writeShort(2);
+        out.writeUTF("Engine Speed");
+        out.writeUTF("rpm");
+        out.writeUTF("0");
+        out.writeUTF("Boost");
+        out.writeUTF("psi");
+        out.writeUTF("0.00");
+        out.writeByte(BinaryFileLoggerImpl.ROW);
+        BinaryFileLoggerImpl.writeVarLong(out, 1500000000000L);
+        out.writeDouble(850.0);
+        out.writeDouble(-10.125);
+        out.writeByte(BinaryFileLoggerImpl.ROW);
+        BinaryFileLoggerImpl.writeVarLong(out, 45L);
+        out.writeDouble(3000.0);
+        if (!truncate) out.writeDouble(12.5);
+        return bytes.toByteArray();
+    }
+
+    private String convert(byte[] log) throws IOException {
+        final StringWriter writer = new StringWriter();
+        BinaryLogConverter.convert(new ByteArrayInputStream(log), writer, false);
+        return writer.toString();
+    }
+
+    @Test
+    public final void testConvertToCsvLayout() throws IOException {
+        final String d = new CsvLayout(false).getDelimiter();
+        final DecimalFormat boost = new DecimalFormat("0.00");
+        final String expected =
+                "Time (msec)" + d + "Engine Speed (rpm)" + d + "Boost (psi)" + NEW_LINE +
+                "0" + d + "850" + d + boost.format(-10.125) + NEW_LINE +
+                "45" + d + "3000" + d + boost.format(12.5) + NEW_LINE;
+        assertEquals(expected, convert(buildLog(false)));
+    }
+
+    @Test
+    public final void testTruncatedRowIsDropped() throws IOException {
+        assertEquals(2, convert(buildLog(true)).split(NEW_LINE).length);
+    }
+
+    @Test
+    public final void testVarLongRoundTrip() throws IOException {
+        final long[] values = {0L, 1L, -1L, 63L, -64L, 1500000000000L, Long.MIN_VALUE};
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        for (long value : values) BinaryFileLoggerImpl.writeVarLong(out, value);
+        final DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()));
+        for (long value : values) assertEquals(value, BinaryLogConverter.readVarLong(in));
+    }
+}
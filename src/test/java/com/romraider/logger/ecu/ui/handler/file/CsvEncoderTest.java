@@ -0,0 +1,104 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.ui.handler.file;
+
+import static com.romraider.logger.ecu.definition.xml.ConverterMaxMinDefaults.getDefault;
+import static com.romraider.logger.ecu.ui.handler.file.CsvLayout.NEW_LINE;
+import static org.junit.Assert.assertEquals;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.romraider.Settings;
+import com.romraider.logger.ecu.definition.EcuDataConvertor;
+import com.romraider.logger.ecu.definition.EcuParameterConvertorImpl;
+
+public class CsvEncoderTest {
+    private static final String[] FORMATS = {"0", "0.0", "0.00", "0.000", "#0.0##", "00.0"};
+    private static final double[] VALUES = {
+            0.0, -0.0, 1.0, -1.0, 0.04, -0.04, 0.05, 0.15, 0.25, 2.675, 12.5, 13.5,
+            -10.125, 99.9999, 850.0, 3000.0, 1234567.891, 0.001, 14.7, 1.0E-9,
+            Double.NaN, Double.POSITIVE_INFINITY, 1.0E20
+    };
+
+    private static EcuDataConvertor convertor(String format, Map<String, String> replace) {
+        return new EcuParameterConvertorImpl("x", "x", format, -1, "uint",
+                Settings.Endian.BIG, replace, getDefault());
+    }
+
+    private static String encode(CsvEncoder encoder, double[] values, long timestamp, long start) {
+        final int length = encoder.encodeRow(values, timestamp, start);
+        return new String(encoder.getRowBytes(), 0, length);
+    }
+
+    @Test
+    public final void testMatchesConvertorFormat() {
+        final CsvEncoder encoder = new CsvEncoder(new CsvLayout(false));
+        final String d = new CsvLayout(false).getDelimiter();
+        final EcuDataConvertor[] convertors = new EcuDataConvertor[FORMATS.length];
+        final String[] names = new String[FORMATS.length];
+        for (int i = 0; i < FORMATS.length; i++) {
+            convertors[i] = convertor(FORMATS[i], new HashMap<String, String>());
+            names[i] = FORMATS[i];
+        }
+        encoder.setColumns(names, convertors);
+        final double[] row = new double[FORMATS.length];
+        for (double value : VALUES) {
+            final StringBuilder expected = new StringBuilder("25");
+            for (int i = 0; i < FORMATS.length; i++) {
+                row[i] = value;
+                expected.append(d).append(convertors[i].format(value));
+            }
+            expected.append(NEW_LINE);
+            // the file holds platform encoded bytes, as for the NaN symbol
+            assertEquals(new String(expected.toString().getBytes()),
+                    encode(encoder, row, 1025L, 1000L));
+        }
+    }
+
+    @Test
+    public final void testReplacementFallsBack() {
+        final CsvEncoder encoder = new CsvEncoder(new CsvLayout(false));
+        final String d = new CsvLayout(false).getDelimiter();
+        final Map<String, String> replace = new HashMap<String, String>();
+        replace.put("1", "On");
+        encoder.setColumns(new String[] {"Switch"},
+                new EcuDataConvertor[] {convertor("0", replace)});
+        assertEquals("Time (msec)" + d + "Switch (x)" + NEW_LINE,
+                new String(encoder.getHeaderBytes()));
+        assertEquals("0" + d + "On" + NEW_LINE,
+                encode(encoder, new double[] {1.0}, 5L, 5L));
+    }
+
+    @Test
+    public final void testAbsoluteTimestamp() {
+        final CsvEncoder encoder = new CsvEncoder(new CsvLayout(true));
+        encoder.setColumns(new String[0], new EcuDataConvertor[0]);
+        final SimpleDateFormat format = new SimpleDateFormat("HH:mm:ss.SSS");
+        for (long timestamp : new long[] {0L, 1500000000007L, 1666000123456L}) {
+            assertEquals(format.format(new Date(timestamp)) + NEW_LINE,
+                    encode(encoder, new double[0], timestamp, 0L));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.logger.ecu.ui.handler.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SessionManifestTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File segment(String name, String text) throws IOException {
+        final File file = folder.newFile(name);
+        final FileWriter writer = new FileWriter(file);
+        writer.write(text);
+        writer.close();
+        return file;
+    }
+
+    private static String firstLine(BufferedReader reader) throws IOException {
+        try {
+            return reader.readLine();
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public final void testManifestListsSegments() throws IOException {
+        final File file = new File(folder.getRoot(), "session" + SessionManifest.EXTENSION);
+        final SessionManifest manifest = new SessionManifest(file);
+        manifest.add(segment("log_001.csv", "a"), 0L, 1000L, 10, false);
+        manifest.add(segment("log_002.csv", "b"), 1010L, 2000L, 5, false);
+        assertEquals(Arrays.asList("log_001.csv", "log_002.csv"), manifest.getFileNames());
+        final BufferedReader reader = new BufferedReader(new FileReader(file));
+        int segments = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.startsWith("#")) {
+                assertEquals(4, line.split("\t").length);
+                segments++;
+            }
+        }
+        reader.close();
+        assertEquals(2, segments);
+    }
+
+    @Test
+    public final void testClosedSegmentIsCompressed() throws Exception {
+        final SessionManifest manifest = new SessionManifest(
+                new File(folder.getRoot(), "session" + SessionManifest.EXTENSION));
+        final File segment = segment("log_001.csv", "Time (msec),RPM (rpm)");
+        manifest.add(segment, 0L, 1000L, 0, true);
+        final long deadline = System.currentTimeMillis() + 10000L;
+        while (!manifest.getFileNames().get(0).endsWith(SessionManifest.GZIP_EXTENSION)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertFalse(segment.exists());
+        assertEquals(Arrays.asList("log_001.csv.gz"), manifest.getFileNames());
+        final File gzip = new File(folder.getRoot(), "log_001.csv.gz");
+        assertTrue(gzip.exists());
+        assertEquals("Time (msec),RPM (rpm)", firstLine(new BufferedReader(
+                new InputStreamReader(new GZIPInputStream(new FileInputStream(gzip))))));
+    }
+}
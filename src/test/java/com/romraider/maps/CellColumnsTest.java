@@ -0,0 +1,80 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.maps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.romraider.Settings;
+
+public class CellColumnsTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public final void testCellsShareTheirTablesColumns() {
+        final Table1D table = new Table1D();
+        table.setStorageType(1);
+        table.setDataSize(3);
+        final DataCell first = new DataCell(table, 0);
+        final DataCell last = new DataCell(table, 2);
+
+        first.setOriginalValue(7.0);
+        last.setOriginalValue(9.0);
+        last.setSelected(true);
+        last.setLiveDataTraceValue("42");
+
+        final CellColumns columns = table.getColumns();
+        assertEquals(3, columns.size());
+        assertEquals(7.0, columns.original[0], DELTA);
+        assertEquals(9.0, last.getOriginalValue(), DELTA);
+        assertFalse(first.isSelected());
+        assertTrue(last.isSelected());
+        assertTrue(columns.selected.get(2));
+        assertSame(Settings.BLANK, first.getLiveValue());
+        assertEquals("42", last.getLiveValue());
+    }
+
+    @Test
+    public final void testCompareValueFollowsCompareType() {
+        final Table1D table = new Table1D();
+        table.setStorageType(1);
+        table.setDataSize(1);
+        final Table1D other = new Table1D();
+        other.setStorageType(1);
+        other.setDataSize(1);
+        final DataCell cell = new DataCell(table, 0);
+        final DataCell otherCell = new DataCell(other, 0);
+        other.getColumns().bin[0] = 12.0;
+        otherCell.setOriginalValue(10.0);
+
+        table.setCompareValueType(Settings.DataType.ORIGINAL);
+        cell.setCompareValue(otherCell);
+        assertEquals(10.0, cell.getCompareToValue(), DELTA);
+
+        table.setCompareValueType(Settings.DataType.BIN);
+        cell.setCompareValue(otherCell);
+        assertEquals(12.0, cell.getCompareToValue(), DELTA);
+        assertEquals(-12.0, cell.getCompareValue(), DELTA);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.maps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+public class CellHitAccumulatorTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public final void testSampleIsSharedByBilinearWeights() {
+        final CellHitAccumulator hits = new CellHitAccumulator(
+                new double[] {0.0, 10.0, 20.0}, new double[] {0.0, 100.0});
+        hits.add(12.5, 25.0, 3.0);
+        assertEquals(0.75 * 0.75, hits.getHits(1, 0), DELTA);
+        assertEquals(0.25 * 0.75, hits.getHits(2, 0), DELTA);
+        assertEquals(0.75 * 0.25, hits.getHits(1, 1), DELTA);
+        assertEquals(0.25 * 0.25, hits.getHits(2, 1), DELTA);
+        assertEquals(0.0, hits.getHits(0, 0), DELTA);
+        assertEquals(3.0, hits.getMean(2, 1), DELTA);
+        assertEquals(1, hits.getSamples());
+    }
+
+    @Test
+    public final void testStatisticsMatchTwoPassOnBreakpoint() {
+        final CellHitAccumulator hits = new CellHitAccumulator(
+                new double[] {1000.0, 2000.0, 3000.0}, null);
+        final double[] values = {14.2, 14.9, 13.1, 15.0, 14.4, 12.8};
+        double sum = 0.0;
+        for (double v : values) {
+            hits.add(2000.0, 0.0, v);
+            sum += v;
+        }
+        final double mean = sum / values.length;
+        double squares = 0.0;
+        for (double v : values) {
+            squares += (v - mean) * (v - mean);
+        }
+        assertEquals(values.length, hits.getHits(1, 0), DELTA);
+        assertEquals(mean, hits.getMean(1, 0), DELTA);
+        assertEquals(squares / values.length, hits.getVariance(1, 0), DELTA);
+        assertEquals(12.8, hits.getMin(1, 0), DELTA);
+        assertEquals(15.0, hits.getMax(1, 0), DELTA);
+        assertEquals(values.length, hits.getMaxHits(), DELTA);
+    }
+
+    @Test
+    public final void testOutOfRangeSamplesCountInEdgeCells() {
+        final CellHitAccumulator hits = new CellHitAccumulator(
+                new double[] {0.0, 10.0}, new double[] {0.0, 10.0});
+        hits.add(-5.0, 50.0, 1.0);
+        hits.add(Double.NaN, 5.0, 1.0);
+        assertEquals(1.0, hits.getHits(0, 1), DELTA);
+        assertEquals(1, hits.getSamples());
+        hits.clear();
+        assertEquals(0.0, hits.getHits(0, 1), DELTA);
+        assertEquals(0, hits.getSamples());
+    }
+
+    @Test
+    public final void testCsvHasOneRowPerVisitedCell() throws Exception {
+        final CellHitAccumulator hits = new CellHitAccumulator(
+                new double[] {0.0, 10.0}, new double[] {0.0, 10.0});
+        hits.add(0.0, 10.0, 2.0);
+        hits.add(10.0, 0.0, 4.0);
+        final StringWriter out = new StringWriter();
+        hits.writeCsv(out);
+        final String[] lines = out.toString().trim().split("\\r?\\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("X,Y,Hits,Mean"));
+        assertEquals("0.0,10.0,1.0,2.0,2.0,2.0,0.0", lines[1]);
+        assertEquals("10.0,0.0,1.0,4.0,4.0,4.0,0.0", lines[2]);
+    }
+}
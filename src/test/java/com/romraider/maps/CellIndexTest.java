@@ -0,0 +1,113 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.maps;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class CellIndexTest {
+
+    private static final class ProbeCell extends DataCell {
+        private static final long serialVersionUID = 1L;
+        private final int offset;
+        int refreshes;
+
+        ProbeCell(Table table, int offset) {
+            super(table, offset);
+            this.offset = offset;
+        }
+
+        @Override
+        public int getIndexInTable() {
+            return offset;
+        }
+
+        @Override
+        public void updateBinValueFromMemory() {
+            refreshes++;
+        }
+    }
+
+    private static ProbeCell[] table(int address, int storageType, int size) {
+        final Table1D table = new Table1D();
+        table.setStorageAddress(address);
+        table.setStorageType(storageType);
+        table.setDataSize(size);
+        final ProbeCell[] cells = new ProbeCell[size];
+        for (int i = 0; i < size; i++) {
+            cells[i] = new ProbeCell(table, i);
+        }
+        return cells;
+    }
+
+    @Test
+    public final void testOverlappingCellsOfAliasedTablesAreRefreshed() {
+        final CellIndex index = new CellIndex();
+        final ProbeCell[] bytes = table(0x100, 1, 8);
+        final ProbeCell[] words = table(0x102, 2, 2);
+        final ProbeCell[] other = table(0x200, 1, 4);
+        index.add(other);
+        index.add(words);
+        index.add(bytes);
+
+        // write the second word
+        index.update(0x104, 0x106);
+        assertEquals(0, bytes[3].refreshes);
+        assertEquals(1, bytes[4].refreshes);
+        assertEquals(1, bytes[5].refreshes);
+        assertEquals(0, bytes[6].refreshes);
+        assertEquals(0, words[0].refreshes);
+        assertEquals(1, words[1].refreshes);
+        assertEquals(0, other[0].refreshes);
+
+        // a single byte inside the first word
+        index.update(0x103, 0x104);
+        assertEquals(1, words[0].refreshes);
+        assertEquals(1, bytes[3].refreshes);
+        assertEquals(0, bytes[2].refreshes);
+    }
+
+    @Test
+    public final void testBulkUpdateRefreshesEachCellOnce() {
+        final CellIndex index = new CellIndex();
+        final ProbeCell[] bytes = table(0x10, 1, 4);
+        final ProbeCell[] alias = table(0x10, 1, 4);
+        final ProbeCell[] far = table(0x80, 1, 2);
+        index.add(bytes);
+        index.add(alias);
+        index.add(far);
+
+        index.beginBulkUpdate();
+        for (int i = 0; i < 4; i++) {
+            index.update(0x10 + i, 0x11 + i);
+        }
+        index.update(0x81, 0x82);
+        assertEquals(0, alias[0].refreshes);
+        index.endBulkUpdate();
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(1, bytes[i].refreshes);
+            assertEquals(1, alias[i].refreshes);
+        }
+        assertEquals(0, far[0].refreshes);
+        assertEquals(1, far[1].refreshes);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.maps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LiveDataLookupTest {
+
+    // the scan the table views used before
+    private static int scan(double[] values, double liveValue) {
+        int startIdx = values.length;
+        for (int i = 0; i < values.length; i++) {
+            if (liveValue == values[i]) {
+                startIdx = i;
+                break;
+            } else if (liveValue < values[i]) {
+                startIdx = i - 1;
+                break;
+            }
+        }
+        return Math.max(0, Math.min(startIdx, values.length - 1));
+    }
+
+    @Test
+    public final void testSameCellAsScanOnAscendingAxis() {
+        final LiveDataLookup lookup = new LiveDataLookup(null);
+        final Random random = new Random(42);
+        for (int n = 1; n < 20; n++) {
+            final double[] values = new double[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = random.nextInt(40) * 0.5;
+            }
+            Arrays.sort(values);
+            for (double live = -2.0; live < 22.0; live += 0.25) {
+                assertTrue(lookup.locate(values, true, live));
+                assertEquals(scan(values, live), lookup.getIndex());
+            }
+        }
+    }
+
+    @Test
+    public final void testInterpolationWeight() {
+        final LiveDataLookup lookup = new LiveDataLookup(null);
+        final double[] values = {800, 1200, 1600, 2400};
+        lookup.locate(values, true, 2000);
+        assertEquals(2, lookup.getIndex());
+        assertEquals(0.5, lookup.getWeight(), 1e-9);
+        lookup.locate(values, true, 1200);
+        assertEquals(1, lookup.getIndex());
+        assertEquals(0.0, lookup.getWeight(), 0.0);
+        lookup.locate(values, true, 3000);
+        assertEquals(3, lookup.getIndex());
+        assertEquals(0.0, lookup.getWeight(), 0.0);
+    }
+
+    @Test
+    public final void testUnsortedFallsBackToScan() {
+        final LiveDataLookup lookup = new LiveDataLookup(null);
+        final double[] values = {30, 20, 10, 40};
+        for (double live = 0.0; live < 50.0; live += 5.0) {
+            lookup.locate(values, false, live);
+            assertEquals(scan(values, live), lookup.getIndex());
+        }
+        assertFalse(lookup.locate(new double[0], true, 1.0));
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.maps;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.romraider.Settings;
+import com.romraider.swing.JProgressPane;
+import com.romraider.util.SettingsManager;
+
+public class RomTablePopulationTest {
+    private static final double DELTA = 1e-9;
+    private Settings settings;
+    private String population;
+
+    @Before
+    public void setUp() {
+        SettingsManager.setTesting(true);
+        settings = SettingsManager.getSettings();
+        population = settings.getTablePopulation().name();
+    }
+
+    @After
+    public void tearDown() {
+        settings.setTablePopulation(population);
+    }
+
+    private static byte[] image() {
+        final byte[] image = new byte[0x100];
+        for (int i = 0; i < image.length; i++) {
+            image[i] = (byte) (i * 7 + 3);
+        }
+        return image;
+    }
+
+    private static Table1D table1D(String name, int address, int storageType, int size) {
+        final Table1D table = new Table1D();
+        table.setName(name);
+        table.setStorageAddress(address);
+        table.setStorageType(storageType);
+        table.setDataSize(size);
+        return table;
+    }
+
+    // tables are added out of name order to check definition order is kept
+    private static Rom rom(String mode) {
+        SettingsManager.getSettings().setTablePopulation(mode);
+        final Rom rom = new Rom(new RomID());
+
+        final Table2D table2D = new Table2D();
+        table2D.setName("Table 2D");
+        table2D.setStorageAddress(0x30);
+        table2D.setStorageType(1);
+        table2D.setDataSize(3);
+        table2D.setAxis(table1D("Axis 2D", 0x20, 2, 3));
+        rom.addTableByName(table2D);
+
+        rom.addTableByName(table1D("Zeta out of bounds", 0xF0, 4, 8));
+
+        final Table3D table3D = new Table3D();
+        table3D.setName("Table 3D");
+        table3D.setStorageAddress(0x50);
+        table3D.setStorageType(2);
+        table3D.setSizeX(3);
+        table3D.setSizeY(2);
+        table3D.setXAxis(table1D("X Axis", 0x40, 1, 3));
+        table3D.setYAxis(table1D("Y Axis", 0x48, 1, 2));
+        rom.addTableByName(table3D);
+
+        final Table1D badScale = table1D("Bad scale", 0x60, 1, 2);
+        final Scale scale = new Scale();
+        scale.setExpression(null);
+        badScale.addScale(scale);
+        rom.addTableByName(badScale);
+
+        rom.addTableByName(table1D("Alpha out of bounds", 0x100, 1, 1));
+        rom.addTableByName(table1D("Table 1D", 0x10, 1, 4));
+
+        rom.populateTables(image(), new JProgressPane());
+        return rom;
+    }
+
+    private static double[] values(Table table) {
+        final List<DataCell> cells = new ArrayList<DataCell>();
+        if (table instanceof Table3D) {
+            for (DataCell[] column : ((Table3D) table).get3dData()) {
+                cells.addAll(Arrays.asList(column));
+            }
+        } else {
+            cells.addAll(Arrays.asList(table.getData()));
+        }
+        final double[] values = new double[cells.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = cells.get(i).getBinValue();
+        }
+        return values;
+    }
+
+    @Test
+    public final void testFaultyTablesReportedInDefinitionOrder() {
+        final List<String> expected = Arrays.asList(
+                "Zeta out of bounds", "Bad scale", "Alpha out of bounds");
+        for (String mode : new String[] {"SERIAL", "PARALLEL", "LAZY"}) {
+            final Rom rom = rom(mode);
+            assertEquals(mode, expected, rom.getFaultyTables());
+            assertEquals(mode, 3, rom.getTables().size());
+        }
+    }
+
+    @Test
+    public final void testLazyTablesPopulateOnFirstAccess() {
+        final Rom rom = rom("LAZY");
+        final Table2D table2D = (Table2D) rom.getTableByName("Table 2D");
+        assertTrue(table2D.isPopulationDeferred());
+        assertTrue(table2D.getAxis().isPopulationDeferred());
+
+        // reading the axis populates the table that owns it
+        final DataCell[] axis = table2D.getAxis().getData();
+        assertFalse(table2D.isPopulationDeferred());
+        assertFalse(table2D.getAxis().isPopulationDeferred());
+        assertEquals(((0x20 * 7 + 3) & 0xFF) << 8 | ((0x21 * 7 + 3) & 0xFF),
+                axis[0].getBinValue(), DELTA);
+        assertEquals((0x30 * 7 + 3) & 0xFF, table2D.getData()[0].getBinValue(), DELTA);
+        assertTrue(rom.getTableByName("Table 3D").isPopulationDeferred());
+    }
+
+    @Test
+    public final void testAllModesDecodeTheSameValues() {
+        final Rom serial = rom("SERIAL");
+        final Rom parallel = rom("PARALLEL");
+        final Rom lazy = rom("LAZY");
+        for (Table table : serial.getTables()) {
+            final double[] expected = values(table);
+            assertArrayEquals(table.getName(), expected,
+                    values(parallel.getTableByName(table.getName())), DELTA);
+            assertArrayEquals(table.getName(), expected,
+                    values(lazy.getTableByName(table.getName())), DELTA);
+        }
+        final Table3D table3D = (Table3D) serial.getTableByName("Table 3D");
+        assertArrayEquals(values(table3D.getXAxis()),
+                values(((Table3D) lazy.getTableByName("Table 3D")).getXAxis()), DELTA);
+    }
+
+    @Test
+    public final void testFailedLazyPopulationStaysDeferred() {
+        final Rom rom = rom("LAZY");
+        final Table table = rom.getTableByName("Table 1D");
+        assertTrue(table.isPopulationDeferred());
+        table.setStorageAddress(0xFE);
+        try {
+            table.getData();
+            fail("expected the population to fail");
+        } catch (IndexOutOfBoundsException e) {
+            // reported to the caller rather than leaving null cells
+        }
+        assertTrue(table.isPopulationDeferred());
+
+        table.setStorageAddress(0x10);
+        assertEquals((0x10 * 7 + 3) & 0xFF, table.getData()[0].getBinValue(), DELTA);
+        assertFalse(table.isPopulationDeferred());
+    }
+}
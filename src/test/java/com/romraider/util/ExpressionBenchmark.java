@@ -0,0 +1,105 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.util;
+
+import org.nfunk.jep.JEP;
+
+/**
+ * Compares a compiled conversion expression with the JEP evaluation the
+ * logger used before, single threaded and with several converting threads.
+ * Run from the command line, e.g.
+ * <pre>
+ *   java -cp &lt;classpath&gt; com.romraider.util.ExpressionBenchmark
+ * </pre>
+ */
+public final class ExpressionBenchmark {
+    private static final String EXPRESSION = "(x-128)*0.078125+14.7/(1+x*.0078125)";
+    private static final int ITERATIONS = 2000000;
+    private static final int THREADS = 4;
+    private static final JEP parser = new JEP();
+    private static volatile double sink;
+
+    static {
+        parser.addStandardFunctions();
+        parser.initSymTab();
+        parser.addVariable("x", 0);
+        parser.parseExpression(EXPRESSION);
+    }
+
+    private interface Evaluator {
+        double evaluate(double x);
+    }
+
+    private static final Evaluator JEP_EVALUATOR = new Evaluator() {
+        @Override
+        public double evaluate(double x) {
+            // as JEPUtil did: one shared parser behind a global lock
+            synchronized (ExpressionBenchmark.class) {
+                parser.setVarValue("x", x);
+                return parser.getValue();
+            }
+        }
+    };
+
+    private static final Evaluator COMPILED_EVALUATOR = new Evaluator() {
+        private final CompiledExpression compiled =
+                ExpressionCompiler.compile(EXPRESSION, "x");
+
+        @Override
+        public double evaluate(double x) {
+            return compiled.evaluate(x);
+        }
+    };
+
+    private ExpressionBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int round = 0; round < 3; round++) {
+            report("jep", JEP_EVALUATOR, 1);
+            report("compiled", COMPILED_EVALUATOR, 1);
+            report("jep", JEP_EVALUATOR, THREADS);
+            report("compiled", COMPILED_EVALUATOR, THREADS);
+        }
+    }
+
+    private static void report(String name, final Evaluator evaluator, int threads)
+            throws InterruptedException {
+        final Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    double total = 0;
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        total += evaluator.evaluate(i & 0xff);
+                    }
+                    sink = total;
+                }
+            });
+        }
+        final long start = System.nanoTime();
+        for (Thread worker : workers) worker.start();
+        for (Thread worker : workers) worker.join();
+        final long elapsed = System.nanoTime() - start;
+        System.out.println(String.format("%-9s threads: %d  %8.1f ns/op",
+                name, threads, (double) elapsed / ((long) ITERATIONS * threads)));
+    }
+}
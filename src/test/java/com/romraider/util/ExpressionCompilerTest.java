@@ -0,0 +1,87 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.nfunk.jep.JEP;
+
+public class ExpressionCompilerTest {
+    private static final String[] EXPRESSIONS = {
+            "x", "x*0.25", "(x-128)*0.078125", "x/4-40", "-x^2", "2^x^0.5",
+            "x^-1", "x%3", "-x%3", "mod(x,7)", "sqrt(x)", "ln(x)", "log(x)",
+            "exp(x/100)", "abs(x-3)", "atan2(x,2)", "asinh(x)", "acosh(x)",
+            "atanh(x/300)", "x>2", "x<=2 || x>=100", "x==1 && !0", "x!=0",
+            "!x+1", "if(x-2,x,-x)", "sum(x,1,2)", "pow(x,2)", "1.5E-1*x",
+            ".5*x", "x - - -x", "+x", "BitWise(24,x,1)", "BitWise(2,x,4)",
+            "BitWise(0,x,7)", "14.7/(1+x*.0078125)", "(x*.0078125)*14.7"
+    };
+    private static final double[] VALUES = {
+            0.0, 1.0, -1.0, 0.5, 2.0, 3.0, 99.5, -128.0, 255.0, 65535.0 };
+
+    private static double jep(String expression, double x) {
+        final JEP parser = new JEP();
+        parser.addStandardFunctions();
+        parser.addFunction("BitWise", new BitWise());
+        parser.initSymTab();
+        parser.addVariable("x", x);
+        parser.parseExpression(expression);
+        return parser.getValue();
+    }
+
+    @Test
+    public final void testMatchesJep() {
+        for (String expression : EXPRESSIONS) {
+            final CompiledExpression compiled = ExpressionCompiler.compile(expression, "x");
+            for (double x : VALUES) {
+                final double expected = jep(expression, x);
+                final double actual = compiled.evaluate(x);
+                assertTrue(expression + " for x = " + x + ": " + expected + " != " + actual,
+                        JEPUtil.same(expected, actual));
+            }
+        }
+    }
+
+    @Test
+    public final void testVariablesByIndex() {
+        final CompiledExpression compiled =
+                ExpressionCompiler.compile("(P8*P12)/(P10+1)", "P10", "P12", "P8");
+        assertEquals(2.0 * 3.0 / (4.0 + 1.0),
+                compiled.evaluate(new double[] {4.0, 3.0, 2.0}), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testRejectsUnknownFunction() {
+        ExpressionCompiler.compile("rand()*x", "x");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testRejectsImplicitMultiplication() {
+        ExpressionCompiler.compile("2x", "x");
+    }
+
+    @Test
+    public final void testJepFallback() {
+        assertEquals(10.0, JEPUtil.evaluate("binom(5,x)", 2.0), 0.0);
+        assertTrue(Double.isNaN(JEPUtil.evaluate("x+", 2.0)));
+    }
+}
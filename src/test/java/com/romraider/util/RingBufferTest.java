@@ -0,0 +1,114 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.romraider.util.RingBuffer.OverflowPolicy;
+
+public class RingBufferTest {
+
+    @Test
+    public final void testCapacityRoundsUpToPowerOfTwo() {
+        assertEquals(8, new RingBuffer<Integer>(5, OverflowPolicy.DROP_OLDEST).getCapacity());
+        assertEquals(4, new RingBuffer<Integer>(4, OverflowPolicy.DROP_OLDEST).getCapacity());
+    }
+
+    @Test
+    public final void testFifoOrder() {
+        final RingBuffer<Integer> ring = new RingBuffer<Integer>(4, OverflowPolicy.BLOCK);
+        for (int i = 0; i < 10; i++) {
+            ring.offer(i);
+            assertEquals(Integer.valueOf(i), ring.poll());
+        }
+        assertNull(ring.poll());
+        assertEquals(10, ring.getEnqueuedCount());
+    }
+
+    @Test
+    public final void testDropOldest() {
+        final RingBuffer<Integer> ring = new RingBuffer<Integer>(4, OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 6; i++) ring.offer(i);
+        assertEquals(2, ring.getDroppedCount());
+        assertEquals(Integer.valueOf(2), ring.poll());
+        assertEquals(3, ring.size());
+    }
+
+    @Test
+    public final void testCoalesceLatest() {
+        final RingBuffer<Integer> ring = new RingBuffer<Integer>(4, OverflowPolicy.COALESCE_LATEST);
+        for (int i = 0; i < 5; i++) ring.offer(i);
+        assertEquals(4, ring.getDroppedCount());
+        assertEquals(Integer.valueOf(4), ring.poll());
+        assertNull(ring.poll());
+    }
+
+    @Test
+    public final void testTakeTimesOutWhenEmpty() {
+        final RingBuffer<Integer> ring = new RingBuffer<Integer>(4, OverflowPolicy.DROP_OLDEST);
+        assertNull(ring.take(1000000L));
+    }
+
+    @Test
+    public final void testDropListenerSeesDiscardedElements() {
+        final List<Integer> dropped = new ArrayList<Integer>();
+        final RingBuffer<Integer> ring = new RingBuffer<Integer>(4, OverflowPolicy.COALESCE_LATEST);
+        ring.setDropListener(new RingBuffer.DropListener<Integer>() {
+            @Override
+            public void dropped(Integer element) {
+                dropped.add(element);
+            }
+        });
+        for (int i = 0; i < 5; i++) ring.offer(i);
+        assertEquals("[0, 1, 2, 3]", dropped.toString());
+        assertEquals(Integer.valueOf(4), ring.poll());
+    }
+
+    @Test(timeout = 5000)
+    public final void testCloseReleasesBlockedProducer() throws InterruptedException {
+        final RingBuffer<Integer> ring = new RingBuffer<Integer>(2, OverflowPolicy.BLOCK);
+        ring.offer(0);
+        ring.offer(1);
+        final Thread closer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                ring.close();
+            }
+        });
+        closer.start();
+        assertFalse(ring.offer(2));
+        closer.join();
+        assertFalse(ring.offer(3));
+        assertEquals(2, ring.getDroppedCount());
+        assertEquals(Integer.valueOf(0), ring.poll());
+    }
+}
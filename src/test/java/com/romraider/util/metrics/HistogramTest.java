@@ -0,0 +1,71 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.util.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+    @Test
+    public final void testBucketsCoverEveryValue() {
+        long[] values = {0L, 1L, 15L, 16L, 17L, 31L, 32L, 1000L, 123456789L, Long.MAX_VALUE};
+        for (long value : values) {
+            final int index = Histogram.indexOf(value);
+            assertTrue(Histogram.lowestOf(index) <= value);
+            assertTrue(Histogram.highestOf(index) >= value);
+        }
+    }
+
+    @Test
+    public final void testPercentilesWithinBucketWidth() {
+        final Histogram histogram = Metrics.histogram("test percentiles");
+        histogram.reset();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(1000L, histogram.getCount());
+        assertEquals(1000000L, histogram.getMax());
+        assertEquals(500500.0, histogram.getMean(), 0.001);
+        assertWithin(500000L, histogram.getPercentile(0.5));
+        assertWithin(990000L, histogram.getPercentile(0.99));
+        assertEquals(1000000L, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    public final void testReset() {
+        final Histogram histogram = Metrics.histogram("test reset");
+        histogram.record(5000L);
+        histogram.record(-1L);
+        assertEquals(2L, histogram.getCount());
+        assertEquals(0L, histogram.getPercentile(0.5));
+        histogram.reset();
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getMax());
+        assertEquals(0L, histogram.getPercentile(0.99));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual + " for " + expected,
+                actual >= expected && actual <= expected + expected / 16);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.xml;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DefinitionIndexTest {
+    private static final String DEFINITION =
+            "<roms>\n" +
+            " <rom base=\"none\">\n" +
+            "  <romid><xmlid>A</xmlid><internalidaddress>4</internalidaddress>" +
+            "<internalidstring>0xCAFE</internalidstring></romid>\n" +
+            " </rom>\n" +
+            " <rom>\n" +
+            "  <table name=\"no romid\"/>\n" +
+            " </rom>\n" +
+            " <rom>\n" +
+            "  <romid><internalidaddress>0x2</internalidaddress>" +
+            "<internalidstring>AB12</internalidstring></romid>\n" +
+            "  <romid><internalidstring>ignored</internalidstring></romid>\n" +
+            " </rom>\n" +
+            "</roms>\n";
+    private File dir;
+    private File definition;
+    private File indexFile;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = File.createTempFile("defidx", "");
+        dir.delete();
+        dir.mkdir();
+        definition = new File(dir, "defs.xml");
+        indexFile = new File(dir, "definitions.idx");
+        write(definition, DEFINITION);
+    }
+
+    @After
+    public void tearDown() {
+        for (File f : dir.listFiles()) {
+            f.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testFindsRomByPositionAmongRomElements() {
+        final DefinitionIndex index = new DefinitionIndex(indexFile);
+        final byte[] first = {0, 0, 0, 0, (byte) 0xCA, (byte) 0xFE};
+        final byte[] third = {0, 0, 'a', 'b', '1', '2'};
+        assertEquals(0, index.findMatch(definition, first));
+        assertEquals(2, index.findMatch(definition, third));
+        assertEquals(DefinitionIndex.NO_MATCH,
+                index.findMatch(definition, new byte[] {1, 2, 3, 4, 5, 6}));
+    }
+
+    @Test
+    public void testIndexIsSavedAndRebuiltWhenFileChanges() throws IOException {
+        final byte[] image = {0, 0, 'A', 'B', '1', '2'};
+        DefinitionIndex index = new DefinitionIndex(indexFile);
+        assertEquals(2, index.findMatch(definition, image));
+        index.save();
+        assertEquals(true, indexFile.exists());
+
+        // an index read back gives the same answer without the file
+        final File moved = new File(dir, "moved.xml");
+        definition.renameTo(moved);
+        write(definition, DEFINITION);
+        definition.setLastModified(moved.lastModified());
+        index = read(indexFile);
+        assertEquals(2, index.findMatch(definition, image));
+
+        write(definition, DEFINITION.replace("AB12", "ZZ99 "));
+        index = read(indexFile);
+        assertEquals(DefinitionIndex.NO_MATCH, index.findMatch(definition, image));
+    }
+
+    @Test
+    public void testXIncludeIsNotIndexed() throws IOException {
+        write(definition, "<roms xmlns:xi=\"http://www.w3.org/2001/XInclude\">\n" +
+                " <xi:include href=\"other.xml\"/>\n" +
+                "</roms>\n");
+        assertEquals(DefinitionIndex.UNINDEXED,
+                new DefinitionIndex(indexFile).findMatch(definition, new byte[8]));
+    }
+
+    private static DefinitionIndex read(File indexFile) {
+        final DefinitionIndex index = new DefinitionIndex(indexFile);
+        index.read();
+        return index;
+    }
+
+    private static void write(File f, String text) throws IOException {
+        final OutputStream out = new FileOutputStream(f);
+        try {
+            out.write(text.getBytes("UTF-8"));
+        }
+        finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * RomRaider Open-Source Tuning, Logging and Reflashing
+ * Copyright (C) 2006-2022 RomRaider.com
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package com.romraider.xml;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.romraider.Settings;
+import com.romraider.Settings.Endian;
+
+public class RomAttributeParserTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public final void testBulkDecodeMatchesSingleValues() {
+        final byte[] image = new byte[64];
+        new Random(7).nextBytes(image);
+        final int[] types = {1, 2, 4};
+        final Endian[] endians = {Endian.BIG, Endian.LITTLE};
+
+        for (int type : types) {
+            for (Endian endian : endians) {
+                for (boolean signed : new boolean[] {false, true}) {
+                    final double[] values = new double[8];
+                    RomAttributeParser.decodeValues(image, 3, type, endian, null,
+                            signed, 0, values, values.length, values.length, 0);
+                    for (int i = 0; i < values.length; i++) {
+                        assertEquals(RomAttributeParser.parseByteValue(
+                                image, endian, 3 + i * type, type, signed),
+                                values[i], DELTA);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public final void testBulkDecodeFollowsMemoryModelForFloats() {
+        final byte[] image = new byte[16];
+        new Random(11).nextBytes(image);
+        final Endian[] models = {null, Endian.BIG, Endian.LITTLE};
+
+        for (Endian model : models) {
+            final double[] values = new double[4];
+            RomAttributeParser.decodeValues(image, 0, Settings.STORAGE_TYPE_FLOAT,
+                    Endian.LITTLE, model, false, 0, values, 4, 4, 0);
+            for (int i = 0; i < values.length; i++) {
+                final byte[] raw = new byte[4];
+                System.arraycopy(image, i * 4, raw, 0, 4);
+                assertEquals(RomAttributeParser.byteToFloat(raw, Endian.LITTLE, model),
+                        values[i], DELTA);
+            }
+        }
+    }
+
+    @Test
+    public final void testRowSkipLeavesUnusedCells() {
+        final byte[] image = new byte[10];
+        final double[] values = {1, 2, 3, 4, 5, 6};
+        RomAttributeParser.encodeValues(image, 1, 1, Endian.BIG, null, 0,
+                values, values.length, 3, 1);
+        assertArrayEquals(new byte[] {0, 1, 2, 3, 0, 4, 5, 6, 0, 0}, image);
+
+        final double[] decoded = new double[6];
+        RomAttributeParser.decodeValues(image, 1, 1, Endian.BIG, null, false, 0,
+                decoded, decoded.length, 3, 1);
+        assertArrayEquals(values, decoded, DELTA);
+    }
+
+    @Test
+    public final void testMaskedEncodeKeepsOtherBits() {
+        final byte[] image = {(byte) 0xA5, (byte) 0x5A};
+        RomAttributeParser.encodeValues(image, 0, 1, Endian.BIG, null, 0xF0,
+                new double[] {0x3, 0xC}, 2, 2, 0);
+        assertArrayEquals(new byte[] {(byte) 0x35, (byte) 0xCA}, image);
+
+        final double[] decoded = new double[2];
+        RomAttributeParser.decodeValues(image, 0, 1, Endian.BIG, null, false, 0xF0,
+                decoded, 2, 2, 0);
+        assertArrayEquals(new double[] {0x3, 0xC}, decoded, DELTA);
+    }
+
+    @Test
+    public final void testEncodeRoundTrips() {
+        final int[] types = {1, 2, 4, Settings.STORAGE_TYPE_FLOAT};
+        final double[] values = {0, 1, 100, -2};
+
+        for (int type : types) {
+            for (Endian endian : new Endian[] {Endian.BIG, Endian.LITTLE}) {
+                final byte[] image = new byte[32];
+                RomAttributeParser.encodeValues(image, 2, type, endian, endian, 0,
+                        values, values.length, values.length, 0);
+                final double[] decoded = new double[values.length];
+                RomAttributeParser.decodeValues(image, 2, type, endian, endian, true, 0,
+                        decoded, decoded.length, decoded.length, 0);
+                assertArrayEquals(values, decoded, DELTA);
+            }
+        }
+    }
+}